@@ -1,6 +1,8 @@
 dependencies {
+    implementation(project(":persistence-metrics"))
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("io.micrometer:micrometer-registry-prometheus")
     implementation("org.postgresql:postgresql")
     implementation("org.springframework.cloud:spring-cloud-starter-config") // To fetch config from config-server
     implementation("org.springframework.cloud:spring-cloud-starter-netflix-eureka-client") // To register with Eureka
@@ -0,0 +1,112 @@
+package io.github.divyesh.order.archive;
+
+import io.github.divyesh.order.model.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Cold storage for orders that were moved out of the database.
+ * Holds every segment in the archive directory, memory-mapping their indexes,
+ * and answers lookups for orders that are no longer in the live tables.
+ * <p>
+ * The directory is shared by all replicas, while only one of them archives at a time, so a
+ * lookup that misses rescans the directory for segments written by other replicas, at most
+ * once per rescan interval. Segments are registered by file name: writing a segment that
+ * already exists replaces it instead of adding a second copy.
+ */
+@Component
+public class OrderArchive {
+
+    private final Path directory;
+    private final long rescanIntervalNanos;
+    private final Map<String, OrderSegment> segments = new ConcurrentHashMap<>();
+    private volatile long lastScan;
+
+    /**
+     * Constructs an OrderArchive and opens the segments already in its directory.
+     * @param directory The directory holding the archive segments.
+     * @param rescanInterval The minimum time between two rescans of the directory.
+     * @throws IOException if an existing segment cannot be opened.
+     */
+    public OrderArchive(@Value("${archive.directory:order-archive}") String directory,
+                        @Value("${archive.rescan-interval:PT1S}") Duration rescanInterval) throws IOException {
+        this.directory = Path.of(directory);
+        this.rescanIntervalNanos = rescanInterval.toNanos();
+        scan();
+    }
+
+    /**
+     * Writes orders to a new segment and makes them available for lookups.
+     * @param orders The orders to archive, with their items loaded.
+     * @throws IOException if the segment cannot be written.
+     */
+    public void write(List<Order> orders) throws IOException {
+        register(OrderSegmentWriter.write(directory, orders), true);
+    }
+
+    /**
+     * Looks up an archived order, rescanning the directory on a miss.
+     * @param id The ID of the order.
+     * @return An Optional containing the order if it has been archived.
+     */
+    public Optional<Order> findById(Long id) {
+        Optional<Order> order = find(id);
+        if (order.isEmpty() && System.nanoTime() - lastScan >= rescanIntervalNanos) {
+            try {
+                if (scan()) {
+                    order = find(id);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot rescan archive " + directory, e);
+            }
+        }
+        return order;
+    }
+
+    private Optional<Order> find(Long id) {
+        for (OrderSegment segment : segments.values()) {
+            Optional<Order> order = segment.findById(id);
+            if (order.isPresent()) {
+                return order;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Opens the segments in the directory that are not registered yet.
+     * @return true if a segment was added.
+     */
+    private synchronized boolean scan() throws IOException {
+        lastScan = System.nanoTime();
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        boolean added = false;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(OrderSegmentWriter.INDEX_SUFFIX)).toList()) {
+                added |= register(file, false);
+            }
+        }
+        return added;
+    }
+
+    private boolean register(Path indexFile, boolean replace) throws IOException {
+        String name = indexFile.getFileName().toString();
+        if (!replace && segments.containsKey(name)) {
+            return false;
+        }
+        segments.put(name, new OrderSegment(indexFile));
+        return true;
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.divyesh.order.archive;
+
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.model.OrderItem;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only view of a segment written by {@link OrderSegmentWriter}.
+ * The index file is memory-mapped and binary searched, so checking whether a segment
+ * holds an order costs no heap and no I/O beyond page faults. The data file is only
+ * decoded on a hit, and the decoded columns are kept softly reachable for later lookups.
+ */
+public class OrderSegment {
+
+    private final Path dataFile;
+    private final LongBuffer ids;
+    private final long minId;
+    private final long maxId;
+    private SoftReference<Columns> columns = new SoftReference<>(null);
+
+    /**
+     * Opens a segment by memory-mapping its index file.
+     * @param indexFile The index file of the segment.
+     * @throws IOException if the index cannot be mapped.
+     */
+    public OrderSegment(Path indexFile) throws IOException {
+        String name = indexFile.getFileName().toString();
+        this.dataFile = indexFile.resolveSibling(
+                name.substring(0, name.length() - OrderSegmentWriter.INDEX_SUFFIX.length()) + OrderSegmentWriter.DATA_SUFFIX);
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            this.ids = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asLongBuffer();
+        }
+        this.minId = ids.get(0);
+        this.maxId = ids.get(ids.limit() - 1);
+    }
+
+    /**
+     * Looks up an archived order, with its items.
+     * @param id The ID of the order.
+     * @return An Optional containing the order if it is in this segment.
+     */
+    public Optional<Order> findById(long id) {
+        if (id < minId || id > maxId) {
+            return Optional.empty();
+        }
+        int row = binarySearch(id);
+        if (row < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(columns().toOrder(row));
+    }
+
+    private int binarySearch(long id) {
+        int low = 0;
+        int high = ids.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = ids.get(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private synchronized Columns columns() {
+        Columns decoded = columns.get();
+        if (decoded == null) {
+            try {
+                decoded = Columns.read(Files.readAllBytes(dataFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read archive segment " + dataFile, e);
+            }
+            columns = new SoftReference<>(decoded);
+        }
+        return decoded;
+    }
+
+    /**
+     * Decoded columns of a data file.
+     */
+    private record Columns(long[] ids, Long[] userIds, Long[] orderDates, Double[] totalAmounts, String[] statuses,
+                           int[] itemOffsets, long[] itemIds, String[] productIds, Integer[] quantities, Double[] prices) {
+
+        static Columns read(byte[] bytes) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != OrderSegmentWriter.MAGIC) {
+                throw new IOException("Not an order archive segment");
+            }
+            int version = in.readInt();
+            if (version < 1 || version > OrderSegmentWriter.VERSION) {
+                throw new IOException("Unsupported order archive segment version " + version);
+            }
+            // Version 1 segments have no presence markers: every value is present
+            boolean nullable = version >= 2;
+            int orderCount = in.readInt();
+            int itemCount = in.readInt();
+            long[] ids = new long[orderCount];
+            Long[] userIds = new Long[orderCount];
+            Long[] orderDates = new Long[orderCount];
+            Double[] totalAmounts = new Double[orderCount];
+            String[] statuses = new String[orderCount];
+            int[] itemOffsets = new int[orderCount + 1];
+            long[] itemIds = new long[itemCount];
+            String[] productIds = new String[itemCount];
+            Integer[] quantities = new Integer[itemCount];
+            Double[] prices = new Double[itemCount];
+
+            readColumn(in, column -> { for (int i = 0; i < orderCount; i++) ids[i] = column.readLong(); });
+            readColumn(in, column -> {
+                for (int i = 0; i < orderCount; i++) userIds[i] = present(column, nullable) ? column.readLong() : null;
+            });
+            readColumn(in, column -> {
+                for (int i = 0; i < orderCount; i++) orderDates[i] = present(column, nullable) ? column.readLong() : null;
+            });
+            readColumn(in, column -> {
+                for (int i = 0; i < orderCount; i++) totalAmounts[i] = present(column, nullable) ? column.readDouble() : null;
+            });
+            readColumn(in, column -> {
+                for (int i = 0; i < orderCount; i++) statuses[i] = present(column, nullable) ? column.readUTF() : null;
+            });
+            readColumn(in, column -> { for (int i = 0; i <= orderCount; i++) itemOffsets[i] = column.readInt(); });
+            readColumn(in, column -> { for (int i = 0; i < itemCount; i++) itemIds[i] = column.readLong(); });
+            readColumn(in, column -> {
+                for (int i = 0; i < itemCount; i++) productIds[i] = present(column, nullable) ? column.readUTF() : null;
+            });
+            readColumn(in, column -> {
+                for (int i = 0; i < itemCount; i++) quantities[i] = present(column, nullable) ? column.readInt() : null;
+            });
+            readColumn(in, column -> {
+                for (int i = 0; i < itemCount; i++) prices[i] = present(column, nullable) ? column.readDouble() : null;
+            });
+            return new Columns(ids, userIds, orderDates, totalAmounts, statuses, itemOffsets, itemIds, productIds, quantities, prices);
+        }
+
+        private static boolean present(DataInputStream column, boolean nullable) throws IOException {
+            return !nullable || column.readBoolean();
+        }
+
+        private static void readColumn(DataInputStream in, ColumnReader reader) throws IOException {
+            byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+            try (DataInputStream column = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+                reader.read(column);
+            }
+        }
+
+        Order toOrder(int row) {
+            Order order = Order.builder()
+                    .id(ids[row])
+                    .userId(userIds[row])
+                    .orderDate(orderDates[row] == null
+                            ? null
+                            : LocalDateTime.ofInstant(Instant.ofEpochMilli(orderDates[row]), ZoneOffset.UTC))
+                    .totalAmount(totalAmounts[row])
+                    .status(statuses[row])
+                    .build();
+            List<OrderItem> items = new ArrayList<>(itemOffsets[row + 1] - itemOffsets[row]);
+            for (int i = itemOffsets[row]; i < itemOffsets[row + 1]; i++) {
+                items.add(OrderItem.builder()
+                        .id(itemIds[i])
+                        .productId(productIds[i])
+                        .quantity(quantities[i])
+                        .price(prices[i])
+                        .order(order)
+                        .build());
+            }
+            order.setOrderItems(items);
+            return order;
+        }
+    }
+
+    /**
+     * Reads the values of one column.
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+        void read(DataInputStream in) throws IOException;
+    }
+}
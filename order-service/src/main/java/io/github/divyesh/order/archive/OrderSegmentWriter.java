@@ -0,0 +1,151 @@
+package io.github.divyesh.order.archive;
+
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.model.OrderItem;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes archived orders to a segment: a data file with deflate-compressed columns
+ * and an uncompressed index file holding the sorted order ids.
+ * <p>
+ * Data file layout: magic, version, order count, item count, then one length-prefixed
+ * compressed block per column. Order columns are id, userId, orderDate (epoch millis, UTC),
+ * totalAmount, status and the offset of each order's first item; item columns are id,
+ * productId, quantity and price, in the same order as their parent orders. Since version 2,
+ * every value but the ids is preceded by a boolean telling whether it is present, so orders
+ * with missing fields can be archived; version 1 segments are still read.
+ * <p>
+ * Both files are written to temporary names, forced to disk and then moved into place,
+ * index last, so a reader never sees a partial segment.
+ */
+public final class OrderSegmentWriter {
+
+    static final int MAGIC = 0x53534F41; // "SSOA"
+    static final int VERSION = 2;
+    static final String DATA_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private OrderSegmentWriter() {}
+
+    /**
+     * Writes a segment for the given orders.
+     * @param directory The directory to write the segment to.
+     * @param orders The orders to archive, with their items loaded.
+     * @return The path of the index file of the new segment.
+     * @throws IOException if the segment cannot be written.
+     * @throws IllegalArgumentException if there are no orders.
+     */
+    public static Path write(Path directory, List<Order> orders) throws IOException {
+        if (orders.isEmpty()) {
+            throw new IllegalArgumentException("Cannot write an empty archive segment");
+        }
+        List<Order> sorted = orders.stream().sorted(Comparator.comparing(Order::getId)).toList();
+        List<OrderItem> items = sorted.stream().flatMap(order -> order.getOrderItems().stream()).toList();
+        String name = "orders-" + sorted.get(0).getId() + "-" + sorted.get(sorted.size() - 1).getId();
+        Files.createDirectories(directory);
+
+        Path data = directory.resolve(name + DATA_SUFFIX);
+        writeAtomically(data, out -> {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.size());
+            out.writeInt(items.size());
+            writeColumn(out, column -> { for (Order o : sorted) column.writeLong(o.getId()); });
+            writeColumn(out, column -> { for (Order o : sorted) writeLong(column, o.getUserId()); });
+            writeColumn(out, column -> {
+                for (Order o : sorted) {
+                    writeLong(column, o.getOrderDate() == null ? null : o.getOrderDate().toInstant(ZoneOffset.UTC).toEpochMilli());
+                }
+            });
+            writeColumn(out, column -> { for (Order o : sorted) writeDouble(column, o.getTotalAmount()); });
+            writeColumn(out, column -> { for (Order o : sorted) writeString(column, o.getStatus()); });
+            writeColumn(out, column -> {
+                int offset = 0;
+                for (Order o : sorted) {
+                    column.writeInt(offset);
+                    offset += o.getOrderItems().size();
+                }
+                column.writeInt(offset);
+            });
+            writeColumn(out, column -> { for (OrderItem i : items) column.writeLong(i.getId()); });
+            writeColumn(out, column -> { for (OrderItem i : items) writeString(column, i.getProductId()); });
+            writeColumn(out, column -> {
+                for (OrderItem i : items) {
+                    column.writeBoolean(i.getQuantity() != null);
+                    if (i.getQuantity() != null) column.writeInt(i.getQuantity());
+                }
+            });
+            writeColumn(out, column -> { for (OrderItem i : items) writeDouble(column, i.getPrice()); });
+        });
+
+        Path index = directory.resolve(name + INDEX_SUFFIX);
+        writeAtomically(index, out -> {
+            for (Order o : sorted) {
+                out.writeLong(o.getId());
+            }
+        });
+        return index;
+    }
+
+    private static void writeColumn(DataOutputStream out, ColumnWriter writer) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DataOutputStream column = new DataOutputStream(
+                new DeflaterOutputStream(compressed, new Deflater(Deflater.BEST_SPEED), 8192))) {
+            writer.write(column);
+        }
+        out.writeInt(compressed.size());
+        compressed.writeTo(out);
+    }
+
+    private static void writeLong(DataOutputStream column, Long value) throws IOException {
+        column.writeBoolean(value != null);
+        if (value != null) column.writeLong(value);
+    }
+
+    private static void writeDouble(DataOutputStream column, Double value) throws IOException {
+        column.writeBoolean(value != null);
+        if (value != null) column.writeDouble(value);
+    }
+
+    private static void writeString(DataOutputStream column, String value) throws IOException {
+        column.writeBoolean(value != null);
+        if (value != null) column.writeUTF(value);
+    }
+
+    private static void writeAtomically(Path target, ColumnWriter writer) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+            writer.write(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Writes the values of one column.
+     */
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
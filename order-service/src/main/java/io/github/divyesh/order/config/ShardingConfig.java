@@ -0,0 +1,110 @@
+package io.github.divyesh.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.divyesh.order.sharding.ShardContext;
+import io.github.divyesh.order.sharding.ShardRouter;
+import io.github.divyesh.order.sharding.ShardRoutingDataSource;
+import io.github.divyesh.order.sharding.ShardedIdGenerator;
+import io.github.divyesh.order.sharding.ShardingProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration for sharding orders across several databases.
+ * Replaces the auto-configured data source with a {@link ShardRoutingDataSource}
+ * that has one connection pool per shard.
+ * <p>
+ * Shards are picked when a connection is acquired, so sharding requires
+ * {@code spring.jpa.open-in-view: false}: an entity manager held open for the whole request
+ * keeps the connection of the first shard it used, and later shards would silently be read
+ * from and written to that one.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Provides the routing data source over all shards.
+     * @param dataSourceProperties The regular data source settings, used when no shards are configured.
+     * @param shardingProperties The shard settings.
+     * @param openInView Whether an entity manager is held open for each web request.
+     * @return A {@link ShardRoutingDataSource} instance.
+     * @throws IllegalStateException if several shards are configured and open-in-view is enabled.
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ShardingProperties shardingProperties,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        Map<Integer, DataSource> shards = new HashMap<>();
+        List<ShardingProperties.Shard> configured = shardingProperties.shards();
+        if (configured.size() > 1 && openInView) {
+            throw new IllegalStateException("Sharding requires spring.jpa.open-in-view: false, "
+                    + "otherwise a request keeps the connection of the first shard it used");
+        }
+        if (configured.isEmpty()) {
+            shards.put(0, dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+        }
+        for (int i = 0; i < configured.size(); i++) {
+            ShardingProperties.Shard shard = configured.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.url())
+                    .username(shard.username())
+                    .password(shard.password())
+                    .driverClassName(shard.driverClassName())
+                    .build();
+            dataSource.setPoolName("orders-shard-" + i);
+            shards.put(i, dataSource);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * Provides the router that maps users and orders to shards, and sets the instance id of this replica.
+     * Startup fails if the replica has no valid instance id, since replicas sharing one generate duplicate ids.
+     * @param shardingProperties The shard settings.
+     * @return A {@link ShardRouter} instance.
+     */
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties shardingProperties) {
+        ShardedIdGenerator.setInstanceId(shardingProperties.resolveInstanceId(System.getenv("HOSTNAME")));
+        return new ShardRouter(Math.max(1, shardingProperties.shards().size()));
+    }
+
+    /**
+     * Creates the mapped tables on every shard other than shard 0 at startup.
+     * Shard 0 is handled by Hibernate's own schema management. Intended for fresh
+     * shards such as local or test databases.
+     * @param shardingProperties The shard settings.
+     * @param shardRouter The shard router.
+     * @param entityManagerFactory The JPA entity manager factory backed by Hibernate.
+     * @return An application runner that initializes the shard schemas.
+     */
+    @Bean
+    public ApplicationRunner shardSchemaInitializer(ShardingProperties shardingProperties, ShardRouter shardRouter,
+                                                    EntityManagerFactory entityManagerFactory) {
+        return args -> {
+            if (!shardingProperties.initializeSchema()) {
+                return;
+            }
+            SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+            for (int shard = 1; shard < shardRouter.getShardCount(); shard++) {
+                ShardContext.callInShard(shard, () -> {
+                    sessionFactory.getSchemaManager().exportMappedObjects(true);
+                    return null;
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.divyesh.order.controller;
+
+import io.github.divyesh.order.dto.CartRequest;
+import io.github.divyesh.order.dto.CartResponse;
+import io.github.divyesh.order.dto.OrderItemRequest;
+import io.github.divyesh.order.dto.OrderItemResponse;
+import io.github.divyesh.order.dto.OrderResponse;
+import io.github.divyesh.order.model.Cart;
+import io.github.divyesh.order.service.CartService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST controller for managing shopping carts.
+ * Carts are held in memory until checkout, which turns them into orders.
+ */
+@RestController
+@RequestMapping("/api/orders/carts")
+@Tag(name = "Cart", description = "Shopping cart APIs")
+public class CartController {
+
+    private final CartService cartService;
+
+    /**
+     * Constructs a CartController with the given CartService.
+     * @param cartService The service for cart business logic.
+     */
+    public CartController(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    /**
+     * Opens a new cart.
+     * @param cartRequest The owner of the cart.
+     * @return The created cart.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Create a new cart", description = "Opens an empty cart for a user")
+    public CartResponse createCart(@Valid @RequestBody CartRequest cartRequest) {
+        return mapToCartResponse(cartService.createCart(cartRequest.userId()));
+    }
+
+    /**
+     * Retrieves a cart by its ID.
+     * @param cartId The ID of the cart to retrieve.
+     * @return The cart with the given ID.
+     */
+    @GetMapping("/{cartId}")
+    @Operation(summary = "Get cart by ID", description = "Retrieves a cart by its ID")
+    public CartResponse getCart(@PathVariable String cartId) {
+        return mapToCartResponse(cartService.getCart(cartId));
+    }
+
+    /**
+     * Adds an item to a cart, replacing any existing line for the same product.
+     * @param cartId The ID of the cart.
+     * @param itemRequest The item to add.
+     * @return The updated cart.
+     */
+    @PutMapping("/{cartId}/items")
+    @Operation(summary = "Add item to cart", description = "Adds an item to a cart or replaces the existing line for the product")
+    public CartResponse putItem(@PathVariable String cartId, @Valid @RequestBody OrderItemRequest itemRequest) {
+        return mapToCartResponse(cartService.putItem(cartId, itemRequest));
+    }
+
+    /**
+     * Removes a product from a cart.
+     * @param cartId The ID of the cart.
+     * @param productId The ID of the product to remove.
+     * @return The updated cart.
+     */
+    @DeleteMapping("/{cartId}/items/{productId}")
+    @Operation(summary = "Remove item from cart", description = "Removes a product from a cart")
+    public CartResponse removeItem(@PathVariable String cartId, @PathVariable String productId) {
+        return mapToCartResponse(cartService.removeItem(cartId, productId));
+    }
+
+    /**
+     * Discards a cart.
+     * @param cartId The ID of the cart to discard.
+     */
+    @DeleteMapping("/{cartId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Delete cart by ID", description = "Discards a cart without placing an order")
+    public void deleteCart(@PathVariable String cartId) {
+        cartService.deleteCart(cartId);
+    }
+
+    /**
+     * Checks out a cart, creating an order from its items.
+     * @param cartId The ID of the cart to check out.
+     * @return The created order.
+     */
+    @PostMapping("/{cartId}/checkout")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Check out cart", description = "Creates an order from the items in a cart and discards the cart")
+    public OrderResponse checkout(@PathVariable String cartId) {
+        return OrderResponses.of(cartService.checkout(cartId));
+    }
+
+    /**
+     * Maps a Cart to a CartResponse DTO.
+     * @param cart The cart to map.
+     * @return The mapped CartResponse DTO.
+     */
+    private CartResponse mapToCartResponse(Cart cart) {
+        List<OrderItemRequest> items = cart.getItems();
+        List<OrderItemResponse> itemResponses = items.stream()
+                .map(item -> OrderItemResponse.builder()
+                        .productId(item.productId())
+                        .quantity(item.quantity())
+                        .price(item.price())
+                        .build())
+                .toList();
+
+        return CartResponse.builder()
+                .id(cart.getId())
+                .userId(cart.getUserId())
+                .totalAmount(items.stream().mapToDouble(item -> item.quantity() * item.price()).sum())
+                .expiresAt(cart.getExpiresAt())
+                .itemResponses(itemResponses)
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.divyesh.order.controller;
+
+import io.github.divyesh.order.dto.BulkImportResponse;
+import io.github.divyesh.order.service.OrderBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for bulk order import and export.
+ * Both endpoints stream CSV directly between the HTTP body and the database.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@Tag(name = "Order bulk", description = "Bulk order import and export APIs")
+public class OrderBulkController {
+
+    static final String TEXT_CSV = "text/csv";
+
+    private final OrderBulkService orderBulkService;
+
+    /**
+     * Constructs an OrderBulkController with the given OrderBulkService.
+     * @param orderBulkService The service for bulk order operations.
+     */
+    public OrderBulkController(OrderBulkService orderBulkService) {
+        this.orderBulkService = orderBulkService;
+    }
+
+    /**
+     * Imports orders from a CSV request body.
+     * @param csv The raw request body.
+     * @return The number of imported orders and items.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Import orders from CSV", description = "Bulk-loads orders and their items using PostgreSQL COPY")
+    public BulkImportResponse importOrders(InputStream csv) throws IOException {
+        return orderBulkService.importCsv(csv);
+    }
+
+    /**
+     * Exports all orders as CSV.
+     * @return A streaming CSV response in the import format.
+     */
+    @GetMapping(value = "/export", produces = TEXT_CSV)
+    @Operation(summary = "Export orders to CSV", description = "Streams all orders and their items using PostgreSQL COPY")
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders.csv")
+                .body(orderBulkService::exportCsv);
+    }
+}
@@ -1,6 +1,5 @@
 package io.github.divyesh.order.controller;
 
-import io.github.divyesh.order.dto.OrderItemResponse;
 import io.github.divyesh.order.dto.OrderRequest;
 import io.github.divyesh.order.dto.OrderResponse;
 import io.github.divyesh.order.exception.OrderNotFoundException;
@@ -45,7 +44,7 @@ public class OrderController {
     @Operation(summary = "Create a new order", description = "Adds a new order to the database")
     public OrderResponse createOrder(@Valid @RequestBody OrderRequest orderRequest) {
         Order createdOrder = orderService.createOrder(orderRequest);
-        return mapToOrderResponse(createdOrder);
+        return OrderResponses.of(createdOrder);
     }
 
     /**
@@ -57,7 +56,7 @@ public class OrderController {
     @Operation(summary = "Get all orders", description = "Retrieves a list of all orders")
     public List<OrderResponse> getAllOrders() {
         return orderService.getAllOrders().stream()
-                .map(this::mapToOrderResponse)
+                .map(OrderResponses::of)
                 .toList();
     }
 
@@ -70,7 +69,7 @@ public class OrderController {
     @Operation(summary = "Get order by ID", description = "Retrieves an order by its unique ID")
     public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
-                .map(order -> new ResponseEntity<>(mapToOrderResponse(order), HttpStatus.OK))
+                .map(order -> new ResponseEntity<>(OrderResponses.of(order), HttpStatus.OK))
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id));
     }
 
@@ -95,7 +94,7 @@ public class OrderController {
                 .build();
 
         return orderService.updateOrder(id, orderToUpdate)
-                .map(order -> new ResponseEntity<>(mapToOrderResponse(order), HttpStatus.OK))
+                .map(order -> new ResponseEntity<>(OrderResponses.of(order), HttpStatus.OK))
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id));
     }
 
@@ -109,38 +108,4 @@ public class OrderController {
     public void deleteOrder(@PathVariable Long id) {
         orderService.deleteOrder(id);
     }
-
-    /**
-     * Maps an Order entity to an OrderResponse DTO.
-     * @param order The Order entity to map.
-     * @return The mapped OrderResponse DTO.
-     */
-    private OrderResponse mapToOrderResponse(Order order) {
-        List<OrderItemResponse> itemResponses = order.getOrderItems().stream()
-                .map(this::mapToOrderItemResponse)
-                .toList();
-
-        return OrderResponse.builder()
-                .id(order.getId())
-                .userId(order.getUserId())
-                .orderDate(order.getOrderDate())
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus())
-                .orderItemResponses(itemResponses)
-                .build();
-    }
-
-    /**
-     * Maps an OrderItem entity to an OrderItemResponse DTO.
-     * @param orderItem The OrderItem entity to map.
-     * @return The mapped OrderItemResponse DTO.
-     */
-    private OrderItemResponse mapToOrderItemResponse(OrderItem orderItem) {
-        return OrderItemResponse.builder()
-                .id(orderItem.getId())
-                .productId(orderItem.getProductId())
-                .quantity(orderItem.getQuantity())
-                .price(orderItem.getPrice())
-                .build();
-    }
 }
@@ -0,0 +1,69 @@
+package io.github.divyesh.order.controller;
+
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import io.github.divyesh.order.events.OrderEventHub;
+import io.github.divyesh.order.exception.OrderNotFoundException;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+
+/**
+ * REST controller streaming order status changes as server-sent events.
+ * Clients keep one stream open instead of polling the order.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@Tag(name = "Order events", description = "Order status event stream APIs")
+public class OrderEventController {
+
+    private final OrderService orderService;
+    private final OrderEventHub orderEventHub;
+
+    /**
+     * Constructs an OrderEventController with the given OrderService and OrderEventHub.
+     * @param orderService The service for order business logic.
+     * @param orderEventHub The hub the streams subscribe to.
+     */
+    public OrderEventController(OrderService orderService, OrderEventHub orderEventHub) {
+        this.orderService = orderService;
+        this.orderEventHub = orderEventHub;
+    }
+
+    /**
+     * Streams the status changes of an order, starting with its current status.
+     * @param id The ID of the order.
+     * @return The event stream.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream order status", description = "Streams the status changes of an order as server-sent events")
+    public SseEmitter streamOrderEvents(@PathVariable Long id) {
+        Order order = orderService.getOrderById(id)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id));
+        return orderEventHub.subscribeToOrder(id, OrderStatusEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .timestamp(Instant.now())
+                .build());
+    }
+
+    /**
+     * Streams the status changes of all orders of a user.
+     * @param userId The ID of the user.
+     * @return The event stream.
+     */
+    @GetMapping(value = "/users/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream user order status", description = "Streams the status changes of all orders of a user as server-sent events")
+    public SseEmitter streamUserOrderEvents(@PathVariable Long userId) {
+        return orderEventHub.subscribeToUser(userId);
+    }
+}
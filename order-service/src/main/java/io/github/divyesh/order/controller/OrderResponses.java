@@ -0,0 +1,46 @@
+package io.github.divyesh.order.controller;
+
+import io.github.divyesh.order.dto.OrderItemResponse;
+import io.github.divyesh.order.dto.OrderResponse;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.model.OrderItem;
+
+/**
+ * Maps orders to the responses of the controllers that return them.
+ */
+final class OrderResponses {
+
+    private OrderResponses() {}
+
+    /**
+     * Maps an Order entity to an OrderResponse DTO.
+     * @param order The Order entity to map.
+     * @return The mapped OrderResponse DTO.
+     */
+    static OrderResponse of(Order order) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .userId(order.getUserId())
+                .orderDate(order.getOrderDate())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .orderItemResponses(order.getOrderItems().stream()
+                        .map(OrderResponses::of)
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Maps an OrderItem entity to an OrderItemResponse DTO.
+     * @param orderItem The OrderItem entity to map.
+     * @return The mapped OrderItemResponse DTO.
+     */
+    static OrderItemResponse of(OrderItem orderItem) {
+        return OrderItemResponse.builder()
+                .id(orderItem.getId())
+                .productId(orderItem.getProductId())
+                .quantity(orderItem.getQuantity())
+                .price(orderItem.getPrice())
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.divyesh.order.controller;
+
+import io.github.divyesh.order.dto.TopProductResponse;
+import io.github.divyesh.order.exception.InvalidWindowException;
+import io.github.divyesh.order.service.TopProductsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * REST controller serving the live best-seller list.
+ */
+@RestController
+@RequestMapping("/api/orders/top-products")
+@Tag(name = "Top products", description = "Best-selling product APIs")
+public class TopProductsController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final TopProductsService topProductsService;
+
+    /**
+     * Constructs a TopProductsController with the given TopProductsService.
+     * @param topProductsService The service tracking product sales.
+     */
+    public TopProductsController(TopProductsService topProductsService) {
+        this.topProductsService = topProductsService;
+    }
+
+    /**
+     * Retrieves the best-selling products of a recent time window.
+     * @param window The length of the window as an ISO-8601 duration, e.g. PT1H.
+     * @param limit The maximum number of products to return.
+     * @return The products with their estimated quantities, best-selling first.
+     */
+    @GetMapping
+    @Operation(summary = "Get best-selling products",
+            description = "Estimates the best-selling products of a recent window from in-memory sketches")
+    public List<TopProductResponse> getTopProducts(@RequestParam(defaultValue = "PT1H") String window,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        Duration duration;
+        try {
+            duration = Duration.parse(window);
+        } catch (DateTimeParseException e) {
+            throw new InvalidWindowException("Window must be an ISO-8601 duration such as PT1H");
+        }
+        return topProductsService.getTopProducts(duration, Math.max(1, Math.min(limit, MAX_LIMIT))).stream()
+                .map(hitter -> TopProductResponse.builder()
+                        .productId(hitter.item())
+                        .quantity(hitter.count())
+                        .maxError(hitter.maxError())
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.divyesh.order.controller;
+
+import io.github.divyesh.order.dto.UniqueBuyersResponse;
+import io.github.divyesh.order.service.UniqueBuyerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller serving distinct-buyer counts.
+ */
+@RestController
+@RequestMapping("/api/orders/unique-buyers")
+@Tag(name = "Unique buyers", description = "Distinct buyer count APIs")
+public class UniqueBuyersController {
+
+    private final UniqueBuyerService uniqueBuyerService;
+
+    /**
+     * Constructs a UniqueBuyersController with the given UniqueBuyerService.
+     * @param uniqueBuyerService The service counting distinct buyers.
+     */
+    public UniqueBuyersController(UniqueBuyerService uniqueBuyerService) {
+        this.uniqueBuyerService = uniqueBuyerService;
+    }
+
+    /**
+     * Estimates the number of distinct buyers over a range of days.
+     * @param from The first day, inclusive.
+     * @param to The last day, inclusive.
+     * @param productId The product to count buyers of; all products if absent.
+     * @return The estimated count.
+     */
+    @GetMapping
+    @Operation(summary = "Count unique buyers",
+            description = "Estimates the distinct buyers over a range of days, overall or for one product")
+    public UniqueBuyersResponse countUniqueBuyers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String productId) {
+        return UniqueBuyersResponse.builder()
+                .productId(productId)
+                .from(from)
+                .to(to)
+                .uniqueBuyers(uniqueBuyerService.countUniqueBuyers(productId, from, to))
+                .build();
+    }
+}
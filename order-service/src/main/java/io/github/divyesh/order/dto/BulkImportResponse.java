@@ -0,0 +1,66 @@
+package io.github.divyesh.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO summarizing the result of a bulk order import.
+ *
+ * @param orders The number of orders imported.
+ * @param orderItems The number of order items imported.
+ */
+public record BulkImportResponse(
+    @Schema(description = "Number of orders imported", example = "1200")
+    long orders,
+
+    @Schema(description = "Number of order items imported", example = "3400")
+    long orderItems) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link BulkImportResponseBuilder}.
+     */
+    public static BulkImportResponseBuilder builder() {
+        return new BulkImportResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link BulkImportResponse}.
+     */
+    public static final class BulkImportResponseBuilder {
+        private long orders;
+        private long orderItems;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private BulkImportResponseBuilder() {}
+
+        /**
+         * Sets the number of imported orders.
+         * @param orders The number of orders.
+         * @return The builder instance.
+         */
+        public BulkImportResponseBuilder orders(long orders) {
+            this.orders = orders;
+            return this;
+        }
+
+        /**
+         * Sets the number of imported order items.
+         * @param orderItems The number of order items.
+         * @return The builder instance.
+         */
+        public BulkImportResponseBuilder orderItems(long orderItems) {
+            this.orderItems = orderItems;
+            return this;
+        }
+
+        /**
+         * Builds a {@link BulkImportResponse} instance.
+         * @return A new {@link BulkImportResponse}.
+         */
+        public BulkImportResponse build() {
+            return new BulkImportResponse(orders, orderItems);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.divyesh.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO for opening a new shopping cart.
+ *
+ * @param userId The ID of the user who owns the cart.
+ */
+public record CartRequest(
+    @Schema(description = "ID of the user who owns the cart", example = "1")
+    @NotNull(message = "User ID is required")
+    Long userId) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link CartRequestBuilder}.
+     */
+    public static CartRequestBuilder builder() {
+        return new CartRequestBuilder();
+    }
+
+    /**
+     * Builder for {@link CartRequest}.
+     */
+    public static final class CartRequestBuilder {
+        private Long userId;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private CartRequestBuilder() {}
+
+        /**
+         * Sets the user ID for the cart request.
+         * @param userId The user ID.
+         * @return The builder instance.
+         */
+        public CartRequestBuilder userId(Long userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        /**
+         * Builds a {@link CartRequest} instance.
+         * @return A new {@link CartRequest}.
+         */
+        public CartRequest build() {
+            return new CartRequest(userId);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.divyesh.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO for representing a shopping cart response.
+ *
+ * @param id The unique identifier of the cart.
+ * @param userId The ID of the user who owns the cart.
+ * @param totalAmount The total amount of the items in the cart.
+ * @param expiresAt The instant at which the cart expires if left untouched.
+ * @param itemResponses The items in the cart.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CartResponse(
+    @Schema(description = "Unique identifier of the cart", example = "3f2b8c1e-5a1d-4d0e-9b7a-2c6f1e8d9a10")
+    String id,
+
+    @Schema(description = "ID of the user who owns the cart", example = "1")
+    Long userId,
+
+    @Schema(description = "Total amount of the items in the cart", example = "150.75")
+    Double totalAmount,
+
+    @Schema(description = "Instant at which the cart expires if left untouched", example = "2023-10-26T10:30:00Z")
+    Instant expiresAt,
+
+    @Schema(description = "List of items in the cart")
+    List<OrderItemResponse> itemResponses) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link CartResponseBuilder}.
+     */
+    public static CartResponseBuilder builder() {
+        return new CartResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link CartResponse}.
+     */
+    public static final class CartResponseBuilder {
+        private String id;
+        private Long userId;
+        private Double totalAmount;
+        private Instant expiresAt;
+        private List<OrderItemResponse> itemResponses;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private CartResponseBuilder() {}
+
+        /**
+         * Sets the ID for the cart response.
+         * @param id The cart ID.
+         * @return The builder instance.
+         */
+        public CartResponseBuilder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * Sets the user ID for the cart response.
+         * @param userId The user ID.
+         * @return The builder instance.
+         */
+        public CartResponseBuilder userId(Long userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        /**
+         * Sets the total amount for the cart response.
+         * @param totalAmount The total amount.
+         * @return The builder instance.
+         */
+        public CartResponseBuilder totalAmount(Double totalAmount) {
+            this.totalAmount = totalAmount;
+            return this;
+        }
+
+        /**
+         * Sets the expiry instant for the cart response.
+         * @param expiresAt The expiry instant.
+         * @return The builder instance.
+         */
+        public CartResponseBuilder expiresAt(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+            return this;
+        }
+
+        /**
+         * Sets the item responses for the cart response.
+         * @param itemResponses The item responses.
+         * @return The builder instance.
+         */
+        public CartResponseBuilder itemResponses(List<OrderItemResponse> itemResponses) {
+            this.itemResponses = itemResponses;
+            return this;
+        }
+
+        /**
+         * Builds a {@link CartResponse} instance.
+         * @return A new {@link CartResponse}.
+         */
+        public CartResponse build() {
+            return new CartResponse(id, userId, totalAmount, expiresAt, itemResponses);
+        }
+    }
+}
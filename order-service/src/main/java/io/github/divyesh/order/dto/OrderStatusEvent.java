@@ -0,0 +1,98 @@
+package io.github.divyesh.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * DTO pushed to event stream subscribers when the status of an order changes.
+ *
+ * @param orderId The ID of the order.
+ * @param userId The ID of the user who placed the order.
+ * @param status The new status of the order.
+ * @param timestamp The time the change was published.
+ */
+public record OrderStatusEvent(
+    @Schema(description = "Order ID", example = "1")
+    Long orderId,
+
+    @Schema(description = "User ID", example = "101")
+    Long userId,
+
+    @Schema(description = "New status of the order", example = "SHIPPED")
+    String status,
+
+    @Schema(description = "Time the change was published")
+    Instant timestamp) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link OrderStatusEventBuilder}.
+     */
+    public static OrderStatusEventBuilder builder() {
+        return new OrderStatusEventBuilder();
+    }
+
+    /**
+     * Builder for {@link OrderStatusEvent}.
+     */
+    public static final class OrderStatusEventBuilder {
+        private Long orderId;
+        private Long userId;
+        private String status;
+        private Instant timestamp;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private OrderStatusEventBuilder() {}
+
+        /**
+         * Sets the order ID.
+         * @param orderId The ID of the order.
+         * @return The builder instance.
+         */
+        public OrderStatusEventBuilder orderId(Long orderId) {
+            this.orderId = orderId;
+            return this;
+        }
+
+        /**
+         * Sets the user ID.
+         * @param userId The ID of the user.
+         * @return The builder instance.
+         */
+        public OrderStatusEventBuilder userId(Long userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        /**
+         * Sets the new status.
+         * @param status The status of the order.
+         * @return The builder instance.
+         */
+        public OrderStatusEventBuilder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Sets the time of the change.
+         * @param timestamp The time the change was published.
+         * @return The builder instance.
+         */
+        public OrderStatusEventBuilder timestamp(Instant timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        /**
+         * Builds an {@link OrderStatusEvent} instance.
+         * @return A new {@link OrderStatusEvent}.
+         */
+        public OrderStatusEvent build() {
+            return new OrderStatusEvent(orderId, userId, status, timestamp);
+        }
+    }
+}
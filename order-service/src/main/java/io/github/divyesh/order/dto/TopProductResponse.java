@@ -0,0 +1,81 @@
+package io.github.divyesh.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for one entry of the best-seller list.
+ *
+ * @param productId The ID of the product.
+ * @param quantity The estimated quantity sold in the window, never below the true quantity.
+ * @param maxError How much the estimate may exceed the true quantity.
+ */
+public record TopProductResponse(
+    @Schema(description = "Product ID", example = "prod123")
+    String productId,
+
+    @Schema(description = "Estimated quantity sold in the window", example = "420")
+    long quantity,
+
+    @Schema(description = "Maximum overestimation of the quantity", example = "3")
+    long maxError) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link TopProductResponseBuilder}.
+     */
+    public static TopProductResponseBuilder builder() {
+        return new TopProductResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link TopProductResponse}.
+     */
+    public static final class TopProductResponseBuilder {
+        private String productId;
+        private long quantity;
+        private long maxError;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private TopProductResponseBuilder() {}
+
+        /**
+         * Sets the product ID.
+         * @param productId The ID of the product.
+         * @return The builder instance.
+         */
+        public TopProductResponseBuilder productId(String productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        /**
+         * Sets the estimated quantity.
+         * @param quantity The estimated quantity sold.
+         * @return The builder instance.
+         */
+        public TopProductResponseBuilder quantity(long quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        /**
+         * Sets the maximum error of the estimate.
+         * @param maxError The maximum overestimation.
+         * @return The builder instance.
+         */
+        public TopProductResponseBuilder maxError(long maxError) {
+            this.maxError = maxError;
+            return this;
+        }
+
+        /**
+         * Builds a {@link TopProductResponse} instance.
+         * @return A new {@link TopProductResponse}.
+         */
+        public TopProductResponse build() {
+            return new TopProductResponse(productId, quantity, maxError);
+        }
+    }
+}
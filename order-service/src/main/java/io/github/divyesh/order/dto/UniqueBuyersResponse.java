@@ -0,0 +1,98 @@
+package io.github.divyesh.order.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for the estimated number of distinct buyers over a range of days.
+ *
+ * @param productId The product counted, or null for all products.
+ * @param from The first day of the range.
+ * @param to The last day of the range.
+ * @param uniqueBuyers The estimated number of distinct buyers.
+ */
+public record UniqueBuyersResponse(
+    @Schema(description = "Product ID, absent for all products", example = "prod123")
+    String productId,
+
+    @Schema(description = "First day of the range", example = "2025-01-01")
+    LocalDate from,
+
+    @Schema(description = "Last day of the range", example = "2025-01-31")
+    LocalDate to,
+
+    @Schema(description = "Estimated number of distinct buyers, within about 2%", example = "1542")
+    long uniqueBuyers) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link UniqueBuyersResponseBuilder}.
+     */
+    public static UniqueBuyersResponseBuilder builder() {
+        return new UniqueBuyersResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link UniqueBuyersResponse}.
+     */
+    public static final class UniqueBuyersResponseBuilder {
+        private String productId;
+        private LocalDate from;
+        private LocalDate to;
+        private long uniqueBuyers;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private UniqueBuyersResponseBuilder() {}
+
+        /**
+         * Sets the product ID.
+         * @param productId The product counted, or null for all products.
+         * @return The builder instance.
+         */
+        public UniqueBuyersResponseBuilder productId(String productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        /**
+         * Sets the first day of the range.
+         * @param from The first day.
+         * @return The builder instance.
+         */
+        public UniqueBuyersResponseBuilder from(LocalDate from) {
+            this.from = from;
+            return this;
+        }
+
+        /**
+         * Sets the last day of the range.
+         * @param to The last day.
+         * @return The builder instance.
+         */
+        public UniqueBuyersResponseBuilder to(LocalDate to) {
+            this.to = to;
+            return this;
+        }
+
+        /**
+         * Sets the estimated number of distinct buyers.
+         * @param uniqueBuyers The estimate.
+         * @return The builder instance.
+         */
+        public UniqueBuyersResponseBuilder uniqueBuyers(long uniqueBuyers) {
+            this.uniqueBuyers = uniqueBuyers;
+            return this;
+        }
+
+        /**
+         * Builds a {@link UniqueBuyersResponse} instance.
+         * @return A new {@link UniqueBuyersResponse}.
+         */
+        public UniqueBuyersResponse build() {
+            return new UniqueBuyersResponse(productId, from, to, uniqueBuyers);
+        }
+    }
+}
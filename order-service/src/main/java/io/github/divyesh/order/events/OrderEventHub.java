@@ -0,0 +1,155 @@
+package io.github.divyesh.order.events;
+
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import io.github.divyesh.order.exception.TooManySubscribersException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of order status changes to server-sent event streams.
+ * Subscribers are indexed by order and by user, so publishing touches only the interested
+ * streams. Each subscriber has a bounded buffer drained by its own virtual thread, which
+ * lets thousands of mostly idle streams stay open without tying up platform threads.
+ */
+@Component
+public class OrderEventHub {
+
+    private final Map<Long, Set<OrderEventSubscription>> orderSubscriptions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<OrderEventSubscription>> userSubscriptions = new ConcurrentHashMap<>();
+    private final Set<OrderEventSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter droppedEvents;
+    private final int maxSubscribers;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+
+    /**
+     * Constructs an OrderEventHub.
+     * @param meterRegistry The registry the subscriber and drop metrics are registered with.
+     * @param maxSubscribers The maximum number of open streams.
+     * @param bufferSize The maximum number of events buffered per stream.
+     * @param heartbeat How long a stream may stay idle before a heartbeat is sent.
+     * @param timeout How long a stream stays open before the client has to reconnect.
+     */
+    public OrderEventHub(MeterRegistry meterRegistry,
+                         @Value("${order-events.max-subscribers:10000}") int maxSubscribers,
+                         @Value("${order-events.buffer-size:16}") int bufferSize,
+                         @Value("${order-events.heartbeat:PT15S}") Duration heartbeat,
+                         @Value("${order-events.timeout:PT30M}") Duration timeout) {
+        this.maxSubscribers = maxSubscribers;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        Gauge.builder("orders.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order event streams")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("orders.events.dropped")
+                .description("Order events dropped because a subscriber buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the status changes of one order.
+     * @param orderId The ID of the order.
+     * @param current The current status, sent as the first event.
+     * @return The emitter backing the stream.
+     * @throws TooManySubscribersException if the maximum number of streams is open.
+     */
+    public SseEmitter subscribeToOrder(Long orderId, OrderStatusEvent current) {
+        OrderEventSubscription subscription = subscribe(orderSubscriptions, orderId);
+        subscription.offer(current);
+        return subscription.emitter();
+    }
+
+    /**
+     * Opens a stream of the status changes of all orders of a user.
+     * @param userId The ID of the user.
+     * @return The emitter backing the stream.
+     * @throws TooManySubscribersException if the maximum number of streams is open.
+     */
+    public SseEmitter subscribeToUser(Long userId) {
+        return subscribe(userSubscriptions, userId).emitter();
+    }
+
+    /**
+     * Publishes a status change to the streams of its order and its user.
+     * @param event The status change.
+     */
+    public void publish(OrderStatusEvent event) {
+        deliver(orderSubscriptions.get(event.orderId()), event);
+        if (event.userId() != null) {
+            deliver(userSubscriptions.get(event.userId()), event);
+        }
+    }
+
+    /**
+     * Returns the number of open streams.
+     * @return The subscriber count.
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Closes all streams and stops their delivery threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List.copyOf(subscriptions).forEach(OrderEventSubscription::close);
+        executor.shutdownNow();
+    }
+
+    private OrderEventSubscription subscribe(Map<Long, Set<OrderEventSubscription>> index, Long key) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new TooManySubscribersException("Too many open event streams, retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        OrderEventSubscription subscription = new OrderEventSubscription(emitter, bufferSize, heartbeat, closed -> {
+            subscriptions.remove(closed);
+            index.computeIfPresent(key, (k, set) -> {
+                set.remove(closed);
+                return set.isEmpty() ? null : set;
+            });
+            subscriberCount.decrementAndGet();
+        });
+        index.compute(key, (k, set) -> {
+            Set<OrderEventSubscription> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            subscribers.add(subscription);
+            return subscribers;
+        });
+        subscriptions.add(subscription);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        executor.execute(subscription);
+        return subscription;
+    }
+
+    private void deliver(Set<OrderEventSubscription> subscribers, OrderStatusEvent event) {
+        if (subscribers == null) {
+            return;
+        }
+        for (OrderEventSubscription subscription : subscribers) {
+            if (!subscription.offer(event)) {
+                droppedEvents.increment();
+            }
+        }
+    }
+}
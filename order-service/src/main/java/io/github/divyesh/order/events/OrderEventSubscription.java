@@ -0,0 +1,156 @@
+package io.github.divyesh.order.events;
+
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A single event stream subscriber with its own bounded buffer.
+ * Publishers only append to the buffer, so a slow client never blocks them; when the buffer
+ * is full the oldest event is dropped, since only the latest status matters to the client.
+ * The buffer is drained onto the {@link SseEmitter} by a dedicated virtual thread that parks
+ * while the subscriber is idle and sends a heartbeat comment to detect closed connections.
+ * The buffer is guarded by a {@link ReentrantLock} rather than a monitor, since a virtual thread
+ * waiting inside {@code synchronized} pins its carrier thread.
+ */
+class OrderEventSubscription implements Runnable {
+
+    private final SseEmitter emitter;
+    private final ArrayDeque<OrderStatusEvent> buffer;
+    private final int capacity;
+    private final Duration heartbeat;
+    private final Consumer<OrderEventSubscription> onClose;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private boolean closed;
+
+    /**
+     * Constructs an OrderEventSubscription.
+     * @param emitter The emitter the events are sent to.
+     * @param capacity The maximum number of buffered events.
+     * @param heartbeat How long the subscriber may stay idle before a heartbeat is sent.
+     * @param onClose Called once when the subscription ends.
+     */
+    OrderEventSubscription(SseEmitter emitter, int capacity, Duration heartbeat,
+                           Consumer<OrderEventSubscription> onClose) {
+        this.emitter = emitter;
+        this.buffer = new ArrayDeque<>(capacity);
+        this.capacity = capacity;
+        this.heartbeat = heartbeat;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Returns the emitter the events are sent to.
+     * @return The emitter.
+     */
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Buffers an event for delivery, dropping the oldest buffered event if the buffer is full.
+     * @param event The event to deliver.
+     * @return False if an event had to be dropped.
+     */
+    boolean offer(OrderStatusEvent event) {
+        lock.lock();
+        try {
+            if (closed) {
+                return true;
+            }
+            boolean dropped = buffer.size() == capacity;
+            if (dropped) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event);
+            changed.signalAll();
+            return !dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next event, waiting up to the heartbeat interval for one to arrive.
+     * @return The next event, or null if none arrived or the subscription was closed.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    OrderStatusEvent poll() throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = heartbeat.toNanos();
+            while (buffer.isEmpty() && !closed) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = changed.awaitNanos(remaining);
+            }
+            return buffer.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends the subscription. The delivery thread stops after its current send.
+     */
+    void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        onClose.accept(this);
+    }
+
+    /**
+     * Delivers buffered events until the subscription is closed or the client goes away.
+     */
+    @Override
+    public void run() {
+        try {
+            while (!isClosed()) {
+                OrderStatusEvent event = poll();
+                if (event != null) {
+                    emitter.send(SseEmitter.event()
+                            .name("status")
+                            .id(String.valueOf(event.orderId()))
+                            .data(event));
+                } else if (!isClosed()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // The client disconnected or the emitter timed out
+            emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            close();
+        }
+    }
+
+    private boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
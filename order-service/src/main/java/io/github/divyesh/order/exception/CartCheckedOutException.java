@@ -0,0 +1,21 @@
+package io.github.divyesh.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a cart has already been checked out and can no longer change.
+ * This exception maps to an HTTP 409 Conflict status.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CartCheckedOutException extends RuntimeException {
+
+    /**
+     * Constructs a new CartCheckedOutException with the specified detail message.
+     *
+     * @param message The detail message (which is saved for later retrieval by the {@link Throwable#getMessage()} method).
+     */
+    public CartCheckedOutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.divyesh.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a cart, or the cart store, is full.
+ * This exception maps to an HTTP 409 Conflict status.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CartLimitExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new CartLimitExceededException with the specified detail message.
+     *
+     * @param message The detail message (which is saved for later retrieval by the {@link Throwable#getMessage()} method).
+     */
+    public CartLimitExceededException(String message) {
+        super(message);
+    }
+}
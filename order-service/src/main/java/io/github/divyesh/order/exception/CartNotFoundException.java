@@ -0,0 +1,21 @@
+package io.github.divyesh.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a cart was not found or has expired.
+ * This exception maps to an HTTP 404 Not Found status.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class CartNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new CartNotFoundException with the specified detail message.
+     *
+     * @param message The detail message (which is saved for later retrieval by the {@link Throwable#getMessage()} method).
+     */
+    public CartNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.divyesh.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that an empty cart was submitted for checkout.
+ * This exception maps to an HTTP 400 Bad Request status.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class EmptyCartException extends RuntimeException {
+
+    /**
+     * Constructs a new EmptyCartException with the specified detail message.
+     *
+     * @param message The detail message (which is saved for later retrieval by the {@link Throwable#getMessage()} method).
+     */
+    public EmptyCartException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,154 @@
+package io.github.divyesh.order.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding deadlines for items of type {@code T}.
+ * <p>
+ * Level 0 has one slot per tick; each level above it has slots as wide as a full
+ * rotation of the level below. Scheduling and firing are O(1) per item: an item is placed
+ * in the lowest level whose range covers its delay and moves down one level each time its
+ * slot on a higher level comes up, until it fires from level 0. Deadlines beyond the top
+ * level are parked in an overflow list and re-examined once per top-level rotation.
+ * <p>
+ * All methods are synchronized; the wheel is advanced by a single scheduler thread while
+ * request threads schedule new items.
+ *
+ * @param <T> The type of the scheduled items.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int mask;
+    private final List<List<List<Entry<T>>>> levels;
+    private final List<Entry<T>> overdue = new ArrayList<>();
+    private List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Constructs an empty timing wheel.
+     * @param tickMillis The resolution of the wheel in milliseconds.
+     * @param wheelSize The number of slots per level, a power of two.
+     * @param levelCount The number of levels.
+     * @param startMillis The current time in milliseconds.
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.mask = wheelSize - 1;
+        this.levels = new ArrayList<>(levelCount);
+        for (int level = 0; level < levelCount; level++) {
+            List<List<Entry<T>>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new ArrayList<>());
+            }
+            levels.add(slots);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules an item to fire at a deadline.
+     * Items whose deadline has already passed fire on the next advance.
+     * @param item The item.
+     * @param deadlineMillis The deadline in milliseconds since the epoch.
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        // Round up so an item never fires before its deadline
+        long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        place(new Entry<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and returns the items that became due.
+     * @param nowMillis The current time in milliseconds since the epoch.
+     * @return The due items, possibly empty.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        drainOverdue(due);
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                long width = slotWidth(level);
+                if (currentTick % width == 0) {
+                    cascade(levels.get(level).get((int) ((currentTick / width) & mask)));
+                }
+            }
+            if (currentTick % (slotWidth(levels.size() - 1) * wheelSize) == 0 && !overflow.isEmpty()) {
+                List<Entry<T>> parked = overflow;
+                overflow = new ArrayList<>();
+                parked.forEach(this::place);
+            }
+            List<Entry<T>> slot = levels.get(0).get((int) (currentTick & mask));
+            for (Entry<T> entry : slot) {
+                due.add(entry.item());
+            }
+            slot.clear();
+            drainOverdue(due);
+        }
+        size -= due.size();
+        return due;
+    }
+
+    /**
+     * Returns the number of items waiting to fire.
+     * @return The backlog size.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long delay = entry.tick() - currentTick;
+        if (delay <= 0) {
+            overdue.add(entry);
+            return;
+        }
+        for (int level = 0; level < levels.size(); level++) {
+            long width = slotWidth(level);
+            if (delay < width * wheelSize) {
+                levels.get(level).get((int) ((entry.tick() / width) & mask)).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void cascade(List<Entry<T>> slot) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        entries.forEach(this::place);
+    }
+
+    private void drainOverdue(List<T> due) {
+        for (Entry<T> entry : overdue) {
+            due.add(entry.item());
+        }
+        overdue.clear();
+    }
+
+    private long slotWidth(int level) {
+        long width = 1;
+        for (int i = 0; i < level; i++) {
+            width *= wheelSize;
+        }
+        return width;
+    }
+
+    /**
+     * A scheduled item and the tick it fires on.
+     */
+    private record Entry<T>(T item, long tick) {}
+}
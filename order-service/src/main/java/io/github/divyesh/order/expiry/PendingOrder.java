@@ -0,0 +1,10 @@
+package io.github.divyesh.order.expiry;
+
+import java.time.LocalDateTime;
+
+/**
+ * The ID and placement date of an order still awaiting payment.
+ * @param id The ID of the order.
+ * @param orderDate The date the order was placed.
+ */
+public record PendingOrder(Long id, LocalDateTime orderDate) {}
@@ -0,0 +1,93 @@
+package io.github.divyesh.order.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Persisted HyperLogLog registers counting the distinct buyers of one day.
+ * A sketch either covers all products of the day or a single product.
+ */
+@Entity
+@Table(name = "buyer_sketches",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"sketch_day", "product_id"}))
+public class BuyerSketch {
+
+    /** The product ID used for the sketch covering all products of a day. */
+    public static final String ALL_PRODUCTS = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sketch_day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    private byte[] registers;
+
+    /**
+     * Default constructor for JPA.
+     */
+    public BuyerSketch() {}
+
+    /**
+     * Constructs a new BuyerSketch with the specified details.
+     *
+     * @param day The day the sketch covers.
+     * @param productId The product the sketch covers, or {@link #ALL_PRODUCTS}.
+     * @param registers The serialized HyperLogLog registers.
+     */
+    public BuyerSketch(LocalDate day, String productId, byte[] registers) {
+        this.day = day;
+        this.productId = productId;
+        this.registers = registers;
+    }
+
+    /**
+     * Returns the unique identifier of the sketch.
+     *
+     * @return The sketch ID.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the day the sketch covers.
+     *
+     * @return The day.
+     */
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * Returns the product the sketch covers.
+     *
+     * @return The product ID, or {@link #ALL_PRODUCTS}.
+     */
+    public String getProductId() {
+        return productId;
+    }
+
+    /**
+     * Returns the serialized HyperLogLog registers.
+     *
+     * @return The registers.
+     */
+    public byte[] getRegisters() {
+        return registers;
+    }
+
+    /**
+     * Sets the serialized HyperLogLog registers.
+     *
+     * @param registers The registers to set.
+     */
+    public void setRegisters(byte[] registers) {
+        this.registers = registers;
+    }
+}
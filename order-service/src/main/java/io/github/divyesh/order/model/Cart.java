@@ -0,0 +1,149 @@
+package io.github.divyesh.order.model;
+
+import io.github.divyesh.order.dto.OrderItemRequest;
+import io.github.divyesh.order.exception.CartCheckedOutException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a shopping cart that is being built before checkout.
+ * Carts are held in memory only and are never persisted; items are keyed by product ID,
+ * so adding a product that is already in the cart replaces its line.
+ * All methods are synchronized because a cart can be modified by concurrent requests.
+ * Once checkout has claimed a cart its items can no longer change, so an order is always
+ * created with exactly the items every successful change reported.
+ */
+public class Cart {
+    private final String id;
+    private final Long userId;
+    private final Map<String, OrderItemRequest> items = new LinkedHashMap<>();
+    private Instant expiresAt;
+    private boolean checkedOut;
+
+    /**
+     * Constructs a new, empty Cart.
+     *
+     * @param id The unique identifier of the cart.
+     * @param userId The ID of the user who owns the cart.
+     * @param expiresAt The instant at which the cart expires if left untouched.
+     */
+    public Cart(String id, Long userId, Instant expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Returns the unique identifier of the cart.
+     *
+     * @return The cart ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the ID of the user who owns the cart.
+     *
+     * @return The user ID.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Returns the instant at which the cart expires.
+     *
+     * @return The expiry instant.
+     */
+    public synchronized Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Checks whether the cart has expired.
+     *
+     * @param now The current instant.
+     * @return True if the cart expired at or before {@code now}.
+     */
+    public synchronized boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /**
+     * Pushes the expiry instant forward after the cart has been used.
+     *
+     * @param expiresAt The new expiry instant.
+     */
+    public synchronized void touch(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Adds an item to the cart, replacing any existing line for the same product.
+     *
+     * @param item The item to add.
+     * @param maxItems The maximum number of distinct products the cart may hold.
+     * @return True if the item was added, false if the cart is full.
+     * @throws CartCheckedOutException if the cart has been checked out.
+     */
+    public synchronized boolean putItem(OrderItemRequest item, int maxItems) {
+        requireOpen();
+        if (!items.containsKey(item.productId()) && items.size() >= maxItems) {
+            return false;
+        }
+        items.put(item.productId(), item);
+        return true;
+    }
+
+    /**
+     * Removes the line for a product from the cart.
+     *
+     * @param productId The ID of the product to remove.
+     * @return True if the product was in the cart.
+     * @throws CartCheckedOutException if the cart has been checked out.
+     */
+    public synchronized boolean removeItem(String productId) {
+        requireOpen();
+        return items.remove(productId) != null;
+    }
+
+    /**
+     * Returns a copy of the items in the cart, in the order they were added.
+     *
+     * @return The cart items.
+     */
+    public synchronized List<OrderItemRequest> getItems() {
+        return new ArrayList<>(items.values());
+    }
+
+    /**
+     * Claims the cart for checkout, after which its items can no longer change.
+     *
+     * @return True if the cart was claimed, false if it had already been checked out.
+     */
+    public synchronized boolean checkOut() {
+        if (checkedOut) {
+            return false;
+        }
+        checkedOut = true;
+        return true;
+    }
+
+    /**
+     * Releases the claim of a checkout that failed, so the cart can be changed again.
+     */
+    public synchronized void reopen() {
+        checkedOut = false;
+    }
+
+    private void requireOpen() {
+        if (checkedOut) {
+            throw new CartCheckedOutException("Cart has already been checked out: " + id);
+        }
+    }
+}
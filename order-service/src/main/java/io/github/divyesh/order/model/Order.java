@@ -1,6 +1,7 @@
 package io.github.divyesh.order.model;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import io.github.divyesh.order.sharding.ShardedId;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -13,7 +14,7 @@ import java.util.List;
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId
     private Long id;
 
     private Long userId; // Assuming a userId to link to the user-service
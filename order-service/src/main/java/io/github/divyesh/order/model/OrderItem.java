@@ -1,6 +1,7 @@
 package io.github.divyesh.order.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import io.github.divyesh.order.sharding.ShardedId;
 import jakarta.persistence.*;
 
 /**
@@ -11,7 +12,7 @@ import jakarta.persistence.*;
 @Table(name = "order_items")
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedId
     private Long id;
 
     private String productId; // Assuming productId to link to product-service
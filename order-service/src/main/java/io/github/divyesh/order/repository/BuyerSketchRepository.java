@@ -0,0 +1,37 @@
+package io.github.divyesh.order.repository;
+
+import io.github.divyesh.order.model.BuyerSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for {@link BuyerSketch} entities.
+ * Sketches are global rather than per user, so they are kept on shard 0.
+ */
+@Repository
+public interface BuyerSketchRepository extends JpaRepository<BuyerSketch, Long> {
+
+    /**
+     * Finds the sketch of a day and product, locking it for a read-modify-write merge.
+     * @param day The day.
+     * @param productId The product, or {@link BuyerSketch#ALL_PRODUCTS}.
+     * @return An Optional containing the sketch if one exists.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BuyerSketch> findByDayAndProductId(LocalDate day, String productId);
+
+    /**
+     * Finds the sketches of a product over a range of days.
+     * @param productId The product, or {@link BuyerSketch#ALL_PRODUCTS}.
+     * @param from The first day, inclusive.
+     * @param to The last day, inclusive.
+     * @return The sketches found.
+     */
+    List<BuyerSketch> findByProductIdAndDayBetween(String productId, LocalDate from, LocalDate to);
+}
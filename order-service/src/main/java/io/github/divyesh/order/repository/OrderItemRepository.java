@@ -2,11 +2,26 @@ package io.github.divyesh.order.repository;
 
 import io.github.divyesh.order.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 /**
  * Repository interface for {@link OrderItem} entities.
  * Provides standard CRUD operations for OrderItem objects.
  */
 @Repository
-public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {}
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /**
+     * Deletes the items of the given orders in a single statement.
+     * @param orderIds The IDs of the orders whose items are deleted.
+     * @return The number of deleted items.
+     */
+    @Modifying
+    @Query("delete from OrderItem i where i.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
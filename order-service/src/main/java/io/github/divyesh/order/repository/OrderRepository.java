@@ -1,12 +1,89 @@
 package io.github.divyesh.order.repository;
 
+import io.github.divyesh.order.expiry.PendingOrder;
 import io.github.divyesh.order.model.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for {@link Order} entities.
  * Provides standard CRUD operations for Order objects.
+ * Operates on whichever shard is bound; use {@link ShardedOrderRepository} to route calls.
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {}
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Finds an order by its ID, fetching its items in the same query.
+     * @param id The ID of the order.
+     * @return An Optional containing the order if found.
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(Long id);
+
+    /**
+     * Finds all orders sorted by ID, fetching their items in the same query.
+     * @return All orders on the current shard.
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findAllByOrderByIdAsc();
+
+    /**
+     * Finds all orders with the given IDs, fetching their items in the same query.
+     * @param ids The IDs of the orders.
+     * @return The orders found.
+     */
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Finds the IDs of orders placed before a date, lowest first.
+     * @param cutoff Orders placed before this date are returned.
+     * @param pageable The page of IDs to return.
+     * @return The order IDs.
+     */
+    @Query("select o.id from Order o where o.orderDate < :cutoff order by o.id")
+    List<Long> findIdsOrderedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Finds the ID and date of all orders with the given status.
+     * @param status The status of the orders.
+     * @return The matching orders.
+     */
+    @Query("select new io.github.divyesh.order.expiry.PendingOrder(o.id, o.orderDate) from Order o where o.status = :status")
+    List<PendingOrder> findPendingByStatus(@Param("status") String status);
+
+    /**
+     * The ID and owner of an order changed by {@link #updateStatus}.
+     */
+    interface UpdatedOrder {
+        Long getId();
+        Long getUserId();
+    }
+
+    /**
+     * Changes the status of the given orders, skipping those no longer in the expected status.
+     * The changed orders are returned by the UPDATE itself, so they are exactly the ones it
+     * matched, even if other transactions change the status concurrently.
+     * @param ids The IDs of the orders.
+     * @param expected The status the orders must currently have.
+     * @param status The new status.
+     * @return The orders updated.
+     */
+    @Query(value = """
+            WITH updated AS (
+                UPDATE orders SET status = :status WHERE id IN (:ids) AND status = :expected RETURNING id, user_id
+            )
+            SELECT id AS id, user_id AS userId FROM updated""", nativeQuery = true)
+    List<UpdatedOrder> updateStatus(@Param("ids") Collection<Long> ids, @Param("expected") String expected,
+                                    @Param("status") String status);
+}
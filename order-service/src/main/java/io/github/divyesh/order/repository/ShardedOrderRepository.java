@@ -0,0 +1,221 @@
+package io.github.divyesh.order.repository;
+
+import io.github.divyesh.order.expiry.PendingOrder;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.sharding.ShardContext;
+import io.github.divyesh.order.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Shard-aware facade over {@link OrderRepository}.
+ * Every call binds the owning shard and runs in its own transaction on that shard:
+ * new orders go to the shard of their user, existing orders to the shard encoded in their id.
+ * Orders are returned with their items loaded, since lazy loading after the transaction
+ * would not know which shard to read from.
+ */
+@Component
+public class ShardedOrderRepository {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs a ShardedOrderRepository.
+     * @param orderRepository The repository used within each shard.
+     * @param orderItemRepository The item repository used within each shard.
+     * @param shardRouter The router that maps users and orders to shards.
+     * @param transactionManager The transaction manager used for the per-shard transactions.
+     */
+    public ShardedOrderRepository(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                                  ShardRouter shardRouter, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Saves an order on its shard.
+     * New orders are placed on the shard of their user; existing orders stay on the shard they were created on.
+     * @param order The order to save.
+     * @return The saved order.
+     */
+    public Order save(Order order) {
+        int shard = order.getId() == null
+                ? shardRouter.shardForUser(order.getUserId())
+                : shardRouter.shardForOrder(order.getId());
+        return inShard(shard, false, () -> orderRepository.save(order));
+    }
+
+    /**
+     * Retrieves an order, with its items, from the shard encoded in its ID.
+     * @param id The ID of the order.
+     * @return An Optional containing the order if found.
+     */
+    public Optional<Order> findById(Long id) {
+        return inShard(shardRouter.shardForOrder(id), true, () -> orderRepository.findWithItemsById(id));
+    }
+
+    /**
+     * Checks whether an order exists.
+     * @param id The ID of the order.
+     * @return True if the order exists.
+     */
+    public boolean existsById(Long id) {
+        return inShard(shardRouter.shardForOrder(id), true, () -> orderRepository.existsById(id));
+    }
+
+    /**
+     * Deletes an order and its items.
+     * @param id The ID of the order.
+     */
+    public void deleteById(Long id) {
+        inShard(shardRouter.shardForOrder(id), false, () -> {
+            orderRepository.deleteById(id);
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves the oldest orders on a shard that were placed before a date, lowest ID first.
+     * @param shard The shard to read from.
+     * @param cutoff Orders placed before this date are returned.
+     * @param limit The maximum number of orders to return.
+     * @return The orders, with their items.
+     */
+    public List<Order> findOrderedBefore(int shard, LocalDateTime cutoff, int limit) {
+        return inShard(shard, true, () -> {
+            List<Long> ids = orderRepository.findIdsOrderedBefore(cutoff, PageRequest.of(0, limit));
+            return ids.isEmpty() ? List.of() : orderRepository.findAllByIdIn(ids);
+        });
+    }
+
+    /**
+     * Deletes orders and their items from a shard in a single transaction.
+     * @param shard The shard to delete from.
+     * @param ids The IDs of the orders.
+     */
+    public void deleteAllById(int shard, List<Long> ids) {
+        inShard(shard, false, () -> {
+            orderItemRepository.deleteByOrderIds(ids);
+            orderRepository.deleteAllByIdInBatch(ids);
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves the ID and date of all orders on a shard with the given status.
+     * @param shard The shard to read from.
+     * @param status The status of the orders.
+     * @return The matching orders.
+     */
+    public List<PendingOrder> findByStatus(int shard, String status) {
+        return inShard(shard, true, () -> orderRepository.findPendingByStatus(status));
+    }
+
+    /**
+     * Changes the status of orders on a shard in a single UPDATE.
+     * Orders that no longer have the expected status are left alone.
+     * @param shard The shard owning the orders.
+     * @param ids The IDs of the orders.
+     * @param expected The status the orders must currently have.
+     * @param status The new status.
+     * @return The orders updated.
+     */
+    public List<OrderRepository.UpdatedOrder> updateStatus(int shard, List<Long> ids, String expected, String status) {
+        return inShard(shard, false, () -> orderRepository.updateStatus(ids, expected, status));
+    }
+
+    /**
+     * Retrieves the orders of all shards.
+     * The shards are queried in parallel and their results, each sorted by ID, are merged.
+     * @return All orders, sorted by ID.
+     */
+    public List<Order> findAll() {
+        if (shardRouter.getShardCount() == 1) {
+            return inShard(0, true, orderRepository::findAllByOrderByIdAsc);
+        }
+        List<CompletableFuture<List<Order>>> futures = IntStream.range(0, shardRouter.getShardCount())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(
+                        () -> inShard(shard, true, orderRepository::findAllByOrderByIdAsc), executor))
+                .toList();
+        try {
+            return mergeById(futures.stream().map(CompletableFuture::join).toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Shuts down the executor used for cross-shard queries.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs work in its own transaction on a shard. The transaction opens its own entity manager,
+     * and so acquires a connection from that shard, as long as no entity manager is bound to the
+     * request (open-in-view is off, which {@link io.github.divyesh.order.config.ShardingConfig} enforces).
+     */
+    private <T> T inShard(int shard, boolean readOnly, Supplier<T> work) {
+        TransactionTemplate template = readOnly ? readOnlyTransactionTemplate : transactionTemplate;
+        return ShardContext.callInShard(shard, () -> template.execute(status -> work.get()));
+    }
+
+    /**
+     * Merges lists that are each sorted by ID into a single sorted list.
+     * @param shardResults The per-shard results.
+     * @return The merged orders.
+     */
+    static List<Order> mergeById(List<List<Order>> shardResults) {
+        record Head(Order order, Iterator<Order> rest) {}
+
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing((Head head) -> head.order().getId()));
+        int total = 0;
+        for (List<Order> result : shardResults) {
+            total += result.size();
+            Iterator<Order> iterator = result.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        List<Order> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.order());
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+}
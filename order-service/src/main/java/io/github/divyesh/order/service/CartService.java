@@ -0,0 +1,184 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.dto.OrderItemRequest;
+import io.github.divyesh.order.dto.OrderRequest;
+import io.github.divyesh.order.exception.CartCheckedOutException;
+import io.github.divyesh.order.exception.CartLimitExceededException;
+import io.github.divyesh.order.exception.CartNotFoundException;
+import io.github.divyesh.order.exception.EmptyCartException;
+import io.github.divyesh.order.model.Cart;
+import io.github.divyesh.order.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class for managing shopping carts.
+ * Carts live in a concurrent in-memory store and expire after a period of inactivity,
+ * so browsing never touches the database. Only checkout creates an order.
+ * Carts are created one at a time, so the bound on the number of carts holds under concurrency;
+ * every other change only removes carts.
+ */
+@Service
+public class CartService {
+
+    private final OrderService orderService;
+    private final Duration ttl;
+    private final int maxItems;
+    private final int maxCarts;
+    private final Clock clock;
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final Object createLock = new Object();
+
+    /**
+     * Constructs a CartService with the given OrderService and cart limits.
+     * @param orderService The service used to place orders at checkout.
+     * @param ttl How long a cart is kept after it was last used.
+     * @param maxItems The maximum number of distinct products per cart.
+     * @param maxCarts The maximum number of carts held at once.
+     */
+    @Autowired
+    public CartService(OrderService orderService,
+                       @Value("${cart.ttl:30m}") Duration ttl,
+                       @Value("${cart.max-items:100}") int maxItems,
+                       @Value("${cart.max-carts:100000}") int maxCarts) {
+        this(orderService, ttl, maxItems, maxCarts, Clock.systemUTC());
+    }
+
+    CartService(OrderService orderService, Duration ttl, int maxItems, int maxCarts, Clock clock) {
+        this.orderService = orderService;
+        this.ttl = ttl;
+        this.maxItems = maxItems;
+        this.maxCarts = maxCarts;
+        this.clock = clock;
+    }
+
+    /**
+     * Opens a new, empty cart for a user.
+     * @param userId The ID of the user who owns the cart.
+     * @return The created cart.
+     * @throws CartLimitExceededException if the store already holds the maximum number of carts.
+     */
+    public Cart createCart(Long userId) {
+        Cart cart = new Cart(UUID.randomUUID().toString(), userId, clock.instant().plus(ttl));
+        synchronized (createLock) {
+            if (carts.size() >= maxCarts) {
+                evictExpiredCarts();
+                if (carts.size() >= maxCarts) {
+                    throw new CartLimitExceededException("Too many open carts, try again later");
+                }
+            }
+            carts.put(cart.getId(), cart);
+        }
+        return cart;
+    }
+
+    /**
+     * Retrieves a cart by its ID and extends its lifetime.
+     * @param cartId The ID of the cart.
+     * @return The cart.
+     * @throws CartNotFoundException if the cart does not exist or has expired.
+     */
+    public Cart getCart(String cartId) {
+        Instant now = clock.instant();
+        Cart cart = carts.get(cartId);
+        if (cart == null || cart.isExpired(now)) {
+            if (cart != null) {
+                carts.remove(cartId, cart);
+            }
+            throw new CartNotFoundException("Cart not found with ID: " + cartId);
+        }
+        cart.touch(now.plus(ttl));
+        return cart;
+    }
+
+    /**
+     * Adds an item to a cart, replacing any existing line for the same product.
+     * @param cartId The ID of the cart.
+     * @param item The item to add.
+     * @return The updated cart.
+     * @throws CartLimitExceededException if the cart already holds the maximum number of products.
+     * @throws CartCheckedOutException if the cart is being or has been checked out.
+     */
+    public Cart putItem(String cartId, OrderItemRequest item) {
+        Cart cart = getCart(cartId);
+        if (!cart.putItem(item, maxItems)) {
+            throw new CartLimitExceededException("Cart cannot hold more than " + maxItems + " products");
+        }
+        return cart;
+    }
+
+    /**
+     * Removes a product from a cart.
+     * @param cartId The ID of the cart.
+     * @param productId The ID of the product to remove.
+     * @return The updated cart.
+     * @throws CartCheckedOutException if the cart is being or has been checked out.
+     */
+    public Cart removeItem(String cartId, String productId) {
+        Cart cart = getCart(cartId);
+        cart.removeItem(productId);
+        return cart;
+    }
+
+    /**
+     * Discards a cart.
+     * @param cartId The ID of the cart.
+     * @throws CartNotFoundException if the cart does not exist.
+     */
+    public void deleteCart(String cartId) {
+        if (carts.remove(cartId) == null) {
+            throw new CartNotFoundException("Cart not found with ID: " + cartId);
+        }
+    }
+
+    /**
+     * Converts a cart into an order.
+     * The cart is claimed before the order is created, so it cannot be checked out twice and its
+     * items can no longer change; the claim is released and the cart put back if order creation fails.
+     * @param cartId The ID of the cart.
+     * @return The created order.
+     * @throws EmptyCartException if the cart has no items.
+     * @throws CartCheckedOutException if the cart is already being checked out.
+     */
+    public Order checkout(String cartId) {
+        Cart cart = getCart(cartId);
+        if (!cart.checkOut()) {
+            throw new CartCheckedOutException("Cart has already been checked out: " + cartId);
+        }
+        carts.remove(cartId, cart);
+        try {
+            List<OrderItemRequest> items = cart.getItems();
+            if (items.isEmpty()) {
+                throw new EmptyCartException("Cannot check out an empty cart: " + cartId);
+            }
+            return orderService.createOrder(OrderRequest.builder()
+                    .userId(cart.getUserId())
+                    .orderItemRequests(items)
+                    .build());
+        } catch (RuntimeException e) {
+            cart.reopen();
+            carts.putIfAbsent(cartId, cart);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes all carts that have expired.
+     * Runs periodically; expired carts are also dropped lazily when accessed.
+     */
+    @Scheduled(fixedDelayString = "${cart.eviction-interval:PT1M}")
+    public void evictExpiredCarts() {
+        Instant now = clock.instant();
+        carts.values().removeIf(cart -> cart.isExpired(now));
+    }
+}
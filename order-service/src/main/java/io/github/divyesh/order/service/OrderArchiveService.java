@@ -0,0 +1,94 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.archive.OrderArchive;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.repository.ShardedOrderRepository;
+import io.github.divyesh.order.sharding.ClusterLock;
+import io.github.divyesh.order.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service class for moving old orders out of the database into the {@link OrderArchive}.
+ * Orders are processed shard by shard in chunks: each chunk is written to a segment
+ * and forced to disk before it is deleted from the database, so a failure can at worst
+ * leave a chunk both archived and live, never lost.
+ * <p>
+ * The archive directory is shared by all replicas. The scheduled job runs on whichever replica
+ * takes the {@link ClusterLock} first, so replicas never archive and delete the same chunk.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final ShardedOrderRepository orderRepository;
+    private final ShardRouter shardRouter;
+    private final OrderArchive orderArchive;
+    private final ClusterLock clusterLock;
+    private final Duration retention;
+    private final int chunkSize;
+
+    /**
+     * Constructs an OrderArchiveService.
+     * @param orderRepository The shard-aware repository for order data.
+     * @param shardRouter The router listing the shards to archive.
+     * @param orderArchive The archive the orders are written to.
+     * @param clusterLock The lock that keeps other replicas from archiving at the same time.
+     * @param retention How long orders stay in the database.
+     * @param chunkSize The number of orders written per segment and deleted per transaction.
+     */
+    public OrderArchiveService(ShardedOrderRepository orderRepository,
+                               ShardRouter shardRouter,
+                               OrderArchive orderArchive,
+                               ClusterLock clusterLock,
+                               @Value("${archive.retention:P730D}") Duration retention,
+                               @Value("${archive.chunk-size:1000}") int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.shardRouter = shardRouter;
+        this.orderArchive = orderArchive;
+        this.clusterLock = clusterLock;
+        this.retention = retention;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Archives all orders older than the retention period, unless another replica is already doing so.
+     */
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    public void archiveExpiredOrders() {
+        clusterLock.runExclusively("order-archive", () -> archiveOrdersBefore(LocalDateTime.now().minus(retention)));
+    }
+
+    /**
+     * Archives all orders placed before the given date.
+     * @param cutoff Orders placed before this date are archived.
+     * @return The number of orders archived.
+     */
+    public int archiveOrdersBefore(LocalDateTime cutoff) {
+        int archived = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            List<Order> chunk;
+            while (!(chunk = orderRepository.findOrderedBefore(shard, cutoff, chunkSize)).isEmpty()) {
+                try {
+                    orderArchive.write(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to archive orders on shard " + shard, e);
+                }
+                orderRepository.deleteAllById(shard, chunk.stream().map(Order::getId).toList());
+                archived += chunk.size();
+            }
+        }
+        log.info("Archived {} orders placed before {}", archived, cutoff);
+        return archived;
+    }
+}
@@ -0,0 +1,332 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.dto.BulkImportResponse;
+import io.github.divyesh.order.exception.InvalidImportException;
+import io.github.divyesh.order.expiry.PendingOrder;
+import io.github.divyesh.order.sharding.ShardContext;
+import io.github.divyesh.order.sharding.ShardRouter;
+import io.github.divyesh.order.sharding.ShardedIdGenerator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service class for bulk order import and export through the PostgreSQL COPY protocol.
+ * Rows are streamed between the HTTP body and the database without creating entities.
+ * <p>
+ * The CSV format, with a header line, has one row per order item:
+ * {@code legacy_order_id,user_id,order_date,status,product_id,quantity,price}.
+ * Rows of the same order may appear anywhere in the file, but must have the same user_id.
+ * A row with no product_id, quantity and price stands for an order without items.
+ * <p>
+ * Rows that PostgreSQL rejects fail the import with a 400 naming the line of the file.
+ * Imported pending orders are scheduled for expiry once their shard has committed.
+ */
+@Service
+public class OrderBulkService {
+
+    static final String HEADER = "legacy_order_id,user_id,order_date,status,product_id,quantity,price";
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_TABLE = """
+            CREATE TEMP TABLE order_import (
+                order_id bigint, item_id bigint, legacy_order_id text, user_id bigint, order_date timestamp,
+                status text, product_id text, quantity integer, price double precision
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_IN = "COPY order_import FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_ORDERS = """
+            INSERT INTO orders (id, user_id, order_date, status, total_amount)
+            SELECT order_id, min(user_id), min(order_date), min(status), coalesce(sum(quantity * price), 0)
+            FROM order_import GROUP BY order_id""";
+
+    private static final String INSERT_ORDER_ITEMS = """
+            INSERT INTO order_items (id, order_id, product_id, quantity, price)
+            SELECT item_id, order_id, product_id, quantity, price FROM order_import
+            WHERE product_id IS NOT NULL OR quantity IS NOT NULL OR price IS NOT NULL""";
+
+    private static final String SELECT_PENDING = """
+            SELECT order_id, min(order_date) FROM order_import
+            GROUP BY order_id HAVING min(status) = '""" + OrderExpiryService.PENDING + "' AND min(order_date) IS NOT NULL";
+
+    private static final String COPY_OUT = """
+            COPY (SELECT o.id, o.user_id, o.order_date, o.status, i.product_id, i.quantity, i.price
+                  FROM orders o LEFT JOIN order_items i ON i.order_id = o.id ORDER BY o.id, i.id)
+            TO STDOUT WITH (FORMAT csv)""";
+
+    /** Finds the staging row in the context PostgreSQL gives for a COPY error. */
+    private static final Pattern COPY_LINE = Pattern.compile("COPY order_import, line (\\d+)");
+
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final OrderExpiryService orderExpiryService;
+
+    /**
+     * The shard and new id of an order seen in the file, and the user its first row named.
+     */
+    private record ImportedOrder(long id, int shard, long userId) {}
+
+    /**
+     * Constructs an OrderBulkService.
+     * @param dataSource The routing data source over all shards.
+     * @param shardRouter The router that maps users to shards.
+     * @param orderExpiryService The service that expires imported orders left pending.
+     */
+    public OrderBulkService(DataSource dataSource, ShardRouter shardRouter, OrderExpiryService orderExpiryService) {
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+        this.orderExpiryService = orderExpiryService;
+    }
+
+    /**
+     * Imports orders from CSV.
+     * Each row is routed to the shard of its user and copied into a staging table there,
+     * with new order and item ids prepended. The staging rows are then turned into orders
+     * and items with two set-based inserts per shard. Each shard commits its own transaction;
+     * if a shard fails, shards that already committed keep their rows.
+     * @param csv The CSV input.
+     * @return The number of imported orders and items.
+     * @throws IOException if the input cannot be read.
+     * @throws InvalidImportException if the input is malformed.
+     */
+    public BulkImportResponse importCsv(InputStream csv) throws IOException {
+        int shardCount = shardRouter.getShardCount();
+        Connection[] connections = new Connection[shardCount];
+        PGCopyOutputStream[] copies = new PGCopyOutputStream[shardCount];
+        LineNumbers[] lineNumbers = new LineNumbers[shardCount];
+        // The shard being written to, so a failure can be traced back to a line of the file
+        int shard = 0;
+        try {
+            for (shard = 0; shard < shardCount; shard++) {
+                connections[shard] = ShardContext.getConnection(dataSource, shard);
+                connections[shard].setAutoCommit(false);
+                try (Statement statement = connections[shard].createStatement()) {
+                    statement.execute(CREATE_STAGING_TABLE);
+                }
+                copies[shard] = new PGCopyOutputStream(connections[shard].unwrap(PGConnection.class), COPY_IN, COPY_BUFFER_SIZE);
+                lineNumbers[shard] = new LineNumbers();
+            }
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null || !header.strip().equals(HEADER)) {
+                throw new InvalidImportException("Expected CSV header: " + HEADER);
+            }
+            Map<String, ImportedOrder> orders = new HashMap<>();
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] key = leadingFields(line, 2);
+                long userId = parseUserId(key[1], lineNumber);
+                ImportedOrder order = orders.get(key[0]);
+                if (order == null) {
+                    int orderShard = shardRouter.shardForUser(userId);
+                    order = new ImportedOrder(ShardedIdGenerator.nextId(orderShard), orderShard, userId);
+                    orders.put(key[0], order);
+                } else if (order.userId() != userId) {
+                    throw new InvalidImportException("user_id on line " + lineNumber
+                            + " differs from the earlier rows of order " + key[0]);
+                }
+                shard = order.shard();
+                long itemId = ShardedIdGenerator.nextId(shard);
+                lineNumbers[shard].add(lineNumber);
+                copies[shard].write((order.id() + "," + itemId + "," + line + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+
+            long importedOrders = 0;
+            long importedItems = 0;
+            for (shard = 0; shard < shardCount; shard++) {
+                copies[shard].endCopy();
+                List<PendingOrder> pending = new ArrayList<>();
+                try (Statement statement = connections[shard].createStatement()) {
+                    importedOrders += statement.executeUpdate(INSERT_ORDERS);
+                    importedItems += statement.executeUpdate(INSERT_ORDER_ITEMS);
+                    try (ResultSet rows = statement.executeQuery(SELECT_PENDING)) {
+                        while (rows.next()) {
+                            pending.add(new PendingOrder(rows.getLong(1), rows.getTimestamp(2).toLocalDateTime()));
+                        }
+                    }
+                }
+                connections[shard].commit();
+                pending.forEach(orderExpiryService::schedule);
+            }
+            return BulkImportResponse.builder().orders(importedOrders).orderItems(importedItems).build();
+        } catch (SQLException e) {
+            throw importFailure(e, shard < shardCount ? lineNumbers[shard] : null);
+        } catch (IOException e) {
+            // Rows rejected while the COPY is streaming surface as a failed write to the copy stream
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw importFailure(sqlException, shard < shardCount ? lineNumbers[shard] : null);
+            }
+            throw e;
+        } finally {
+            for (int i = 0; i < shardCount; i++) {
+                closeQuietly(copies[i], connections[i]);
+            }
+        }
+    }
+
+    /**
+     * Exports all orders of all shards as CSV in the import format.
+     * @param out The stream the CSV is written to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void exportCsv(OutputStream out) throws IOException {
+        out.write((HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            try (Connection connection = ShardContext.getConnection(dataSource, shard)) {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyOut(COPY_OUT, out);
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("Bulk order export", COPY_OUT, e);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Extracts the first fields of a CSV line, removing quotes.
+     * @param line The CSV line.
+     * @param count The number of leading fields to extract.
+     * @return The fields.
+     * @throws InvalidImportException if the line has fewer fields.
+     */
+    static String[] leadingFields(String line, int count) {
+        String[] fields = new String[count];
+        int position = 0;
+        for (int field = 0; field < count; field++) {
+            if (position > line.length()) {
+                throw new InvalidImportException("Malformed CSV line: " + line);
+            }
+            StringBuilder value = new StringBuilder();
+            if (position < line.length() && line.charAt(position) == '"') {
+                position++;
+                while (position < line.length()) {
+                    char c = line.charAt(position++);
+                    if (c == '"') {
+                        if (position < line.length() && line.charAt(position) == '"') {
+                            value.append('"');
+                            position++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        value.append(c);
+                    }
+                }
+            } else {
+                while (position < line.length() && line.charAt(position) != ',') {
+                    value.append(line.charAt(position++));
+                }
+            }
+            if (position < line.length() && line.charAt(position) != ',') {
+                throw new InvalidImportException("Malformed CSV line: " + line);
+            }
+            position++;
+            fields[field] = value.toString();
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the staging row a COPY error happened on.
+     * @param where The context of the error, as reported by PostgreSQL.
+     * @return The 1-based row of the COPY data, or -1 if the error did not happen in the COPY.
+     */
+    static int copyRow(String where) {
+        Matcher matcher = where == null ? null : COPY_LINE.matcher(where);
+        return matcher != null && matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Turns a failed import into a 400 if PostgreSQL rejected the data, naming the line of the
+     * file where it can. Other failures, such as lost connections, stay server errors.
+     */
+    private static RuntimeException importFailure(SQLException e, LineNumbers lineNumbers) {
+        String state = e.getSQLState();
+        if (state == null || !(state.startsWith("22") || state.startsWith("23"))) {
+            return new UncategorizedSQLException("Bulk order import", COPY_IN, e);
+        }
+        ServerErrorMessage error = e instanceof PSQLException psqlException ? psqlException.getServerErrorMessage() : null;
+        String message = error != null && error.getMessage() != null ? error.getMessage() : e.getMessage();
+        int row = error == null ? -1 : copyRow(error.getWhere());
+        if (row > 0 && lineNumbers != null && row <= lineNumbers.size()) {
+            return new InvalidImportException("Invalid row on line " + lineNumbers.get(row - 1) + ": " + message);
+        }
+        return new InvalidImportException("Invalid import: " + message);
+    }
+
+    private static long parseUserId(String value, long lineNumber) {
+        try {
+            return Long.parseLong(value.strip());
+        } catch (NumberFormatException e) {
+            throw new InvalidImportException("Invalid user_id on line " + lineNumber + ": " + value);
+        }
+    }
+
+    /**
+     * The line of the file each staging row of a shard was read from, in COPY order.
+     */
+    private static final class LineNumbers {
+        private long[] lines = new long[1024];
+        private int size;
+
+        void add(long line) {
+            if (size == lines.length) {
+                lines = Arrays.copyOf(lines, size * 2);
+            }
+            lines[size++] = line;
+        }
+
+        long get(int index) {
+            return lines[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    private static void closeQuietly(PGCopyOutputStream copy, Connection connection) {
+        try {
+            if (copy != null && copy.isActive()) {
+                copy.cancelCopy();
+            }
+            if (connection != null) {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+                connection.close();
+            }
+        } catch (SQLException ignored) {
+            // The connection is discarded either way
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import io.github.divyesh.order.events.OrderEventHub;
+import io.github.divyesh.order.expiry.HierarchicalTimingWheel;
+import io.github.divyesh.order.expiry.PendingOrder;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.repository.OrderRepository;
+import io.github.divyesh.order.repository.ShardedOrderRepository;
+import io.github.divyesh.order.sharding.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service class for expiring orders that stay unpaid for too long.
+ * Pending orders are kept in a {@link HierarchicalTimingWheel} keyed by their deadline, so
+ * expiry costs nothing until an order is actually due instead of polling the database.
+ * The wheel is rebuilt from the database on startup. Orders that were paid or cancelled
+ * in the meantime stay in the wheel and are skipped by the guarded UPDATE when they fire.
+ * Every order the UPDATE expires is published to the {@link OrderEventHub}.
+ * A batch whose UPDATE fails is put back into the wheel and retried after the retry delay.
+ */
+@Service
+public class OrderExpiryService {
+
+    /** The status of orders awaiting payment. */
+    public static final String PENDING = "PENDING";
+    /** The status given to pending orders that ran out of time. */
+    public static final String EXPIRED = "EXPIRED";
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryService.class);
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final ShardedOrderRepository orderRepository;
+    private final ShardRouter shardRouter;
+    private final OrderEventHub orderEventHub;
+    private final Duration timeout;
+    private final Duration retryDelay;
+    private final int batchSize;
+    private final Clock clock;
+    private final HierarchicalTimingWheel<Long> wheel;
+
+    /**
+     * Constructs an OrderExpiryService.
+     * @param orderRepository The shard-aware repository for order data.
+     * @param shardRouter The router mapping orders to shards.
+     * @param orderEventHub The hub expired orders are published to.
+     * @param meterRegistry The registry the backlog gauge is registered with.
+     * @param timeout How long an order may stay pending.
+     * @param tick The resolution of the timing wheel.
+     * @param batchSize The maximum number of orders expired per UPDATE.
+     * @param retryDelay How long to wait before retrying a batch whose UPDATE failed.
+     */
+    @Autowired
+    public OrderExpiryService(ShardedOrderRepository orderRepository,
+                              ShardRouter shardRouter,
+                              OrderEventHub orderEventHub,
+                              MeterRegistry meterRegistry,
+                              @Value("${order-expiry.timeout:PT30M}") Duration timeout,
+                              @Value("${order-expiry.tick:PT1S}") Duration tick,
+                              @Value("${order-expiry.batch-size:500}") int batchSize,
+                              @Value("${order-expiry.retry-delay:PT10S}") Duration retryDelay) {
+        this(orderRepository, shardRouter, orderEventHub, meterRegistry, timeout, tick, batchSize, retryDelay,
+                Clock.systemDefaultZone());
+    }
+
+    OrderExpiryService(ShardedOrderRepository orderRepository, ShardRouter shardRouter, OrderEventHub orderEventHub,
+                       MeterRegistry meterRegistry, Duration timeout, Duration tick, int batchSize, Duration retryDelay,
+                       Clock clock) {
+        this.orderRepository = orderRepository;
+        this.shardRouter = shardRouter;
+        this.orderEventHub = orderEventHub;
+        this.timeout = timeout;
+        this.retryDelay = retryDelay;
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.wheel = new HierarchicalTimingWheel<>(tick.toMillis(), WHEEL_SIZE, WHEEL_LEVELS, clock.millis());
+        Gauge.builder("orders.expiry.backlog", wheel, HierarchicalTimingWheel::size)
+                .description("Pending orders waiting for their expiry deadline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the pending orders of every shard into the timing wheel.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int loaded = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            for (PendingOrder order : orderRepository.findByStatus(shard, PENDING)) {
+                schedule(order.id(), order.orderDate());
+                loaded++;
+            }
+        }
+        log.info("Scheduled expiry of {} pending orders", loaded);
+    }
+
+    /**
+     * Schedules a newly placed order to expire if it is still pending after the timeout.
+     * @param order The saved order.
+     */
+    public void schedule(Order order) {
+        if (PENDING.equals(order.getStatus())) {
+            schedule(order.getId(), order.getOrderDate());
+        }
+    }
+
+    /**
+     * Schedules a pending order that was written without going through {@link #schedule(Order)},
+     * such as an imported one.
+     * @param order The ID and date of the pending order.
+     */
+    public void schedule(PendingOrder order) {
+        schedule(order.id(), order.orderDate());
+    }
+
+    /**
+     * Expires all orders whose deadline has passed.
+     * The due orders are grouped by shard and updated in batches, and each order that was
+     * still pending is published as expired.
+     * @return The number of orders expired.
+     */
+    @Scheduled(fixedDelayString = "${order-expiry.tick:PT1S}")
+    public int expireDueOrders() {
+        List<Long> due = wheel.advance(clock.millis());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, List<Long>> byShard = due.stream().collect(Collectors.groupingBy(shardRouter::shardForOrder));
+        int expired = 0;
+        for (Map.Entry<Integer, List<Long>> entry : byShard.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+                List<OrderRepository.UpdatedOrder> updated;
+                try {
+                    updated = orderRepository.updateStatus(entry.getKey(), batch, PENDING, EXPIRED);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to expire {} orders on shard {}, retrying in {}", batch.size(), entry.getKey(), retryDelay, e);
+                    long retryAt = clock.millis() + retryDelay.toMillis();
+                    batch.forEach(id -> wheel.schedule(id, retryAt));
+                    continue;
+                }
+                expired += updated.size();
+                for (OrderRepository.UpdatedOrder order : updated) {
+                    orderEventHub.publish(OrderStatusEvent.builder()
+                            .orderId(order.getId())
+                            .userId(order.getUserId())
+                            .status(EXPIRED)
+                            .timestamp(clock.instant())
+                            .build());
+                }
+            }
+        }
+        log.info("Expired {} of {} due orders", expired, due.size());
+        return expired;
+    }
+
+    private void schedule(Long id, LocalDateTime orderDate) {
+        long placedAt = orderDate.atZone(clock.getZone()).toInstant().toEpochMilli();
+        wheel.schedule(id, placedAt + timeout.toMillis());
+    }
+}
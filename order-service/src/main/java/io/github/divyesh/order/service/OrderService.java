@@ -1,48 +1,72 @@
 package io.github.divyesh.order.service;
 
+import io.github.divyesh.order.archive.OrderArchive;
 import io.github.divyesh.order.dto.OrderRequest;
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import io.github.divyesh.order.events.OrderEventHub;
 import io.github.divyesh.order.model.Order;
 import io.github.divyesh.order.model.OrderItem;
-import io.github.divyesh.order.repository.OrderRepository;
+import io.github.divyesh.order.repository.ShardedOrderRepository;
 import io.github.divyesh.order.exception.OrderNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
  * Service class for managing orders.
  * Provides business logic for creating, retrieving, and managing orders.
+ * Orders are stored through {@link ShardedOrderRepository}, which runs each call
+ * in a transaction on the shard that owns the order.
+ * Status changes are published to the {@link OrderEventHub} for event stream subscribers.
  */
 @Service
 public class OrderService {
 
-    private final OrderRepository orderRepository;
+    private final ShardedOrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final OrderExpiryService orderExpiryService;
+    private final OrderEventHub orderEventHub;
+    private final TopProductsService topProductsService;
+    private final UniqueBuyerService uniqueBuyerService;
 
     /**
-     * Constructs an OrderService with the given OrderRepository.
-     * @param orderRepository The repository for order data.
+     * Constructs an OrderService with the given collaborators.
+     * @param orderRepository The shard-aware repository for order data.
+     * @param orderArchive The cold storage holding archived orders.
+     * @param orderExpiryService The service expiring orders that stay unpaid.
+     * @param orderEventHub The hub status changes are published to.
+     * @param topProductsService The service tracking best-selling products.
+     * @param uniqueBuyerService The service counting distinct buyers.
      */
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(ShardedOrderRepository orderRepository, OrderArchive orderArchive,
+                        OrderExpiryService orderExpiryService, OrderEventHub orderEventHub,
+                        TopProductsService topProductsService, UniqueBuyerService uniqueBuyerService) {
         this.orderRepository = orderRepository;
+        this.orderArchive = orderArchive;
+        this.orderExpiryService = orderExpiryService;
+        this.orderEventHub = orderEventHub;
+        this.topProductsService = topProductsService;
+        this.uniqueBuyerService = uniqueBuyerService;
     }
 
     /**
      * Creates a new order based on the provided order request.
      * This method calculates the total amount and sets the order date and initial status.
+     * The order expires if it is still pending after the configured timeout.
      *
      * @param orderRequest The DTO containing details for the new order.
      * @return The created and saved Order entity.
      */
-    @Transactional
     public Order createOrder(OrderRequest orderRequest) {
         Order order = new Order();
         order.setUserId(orderRequest.userId());
         order.setOrderDate(LocalDateTime.now());
-        order.setStatus("PENDING"); // Initial status
+        order.setStatus(OrderExpiryService.PENDING); // Initial status
 
         List<OrderItem> orderItems = orderRequest.orderItemRequests().stream()
                 .map(itemRequest -> {
@@ -62,40 +86,45 @@ public class OrderService {
                 .sum();
         order.setTotalAmount(totalAmount);
 
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        orderExpiryService.schedule(savedOrder);
+        publishStatus(savedOrder);
+        topProductsService.record(savedOrder);
+        uniqueBuyerService.record(savedOrder);
+        return savedOrder;
     }
 
     /**
      * Retrieves an order by its unique ID.
+     * Orders that are no longer in the database are looked up in the archive.
      *
      * @param id The ID of the order to retrieve.
      * @return An Optional containing the Order if found, or empty if not.
      */
-    @Transactional(readOnly = true)
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+        return orderRepository.findById(id).or(() -> orderArchive.findById(id));
     }
 
     /**
-     * Retrieves all orders from the database.
+     * Retrieves all orders from all shards.
      *
-     * @return A list of all orders.
+     * @return A list of all orders, sorted by ID.
      */
-    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
     /**
      * Updates an existing order.
+     * The order stays on the shard it was created on, even if its user changes.
      *
      * @param id The ID of the order to update.
      * @param updatedOrder The Order entity with updated details.
      * @return An Optional containing the updated Order if found, or empty if not.
      */
-    @Transactional
     public Optional<Order> updateOrder(Long id, Order updatedOrder) {
         return orderRepository.findById(id).map(existingOrder -> {
+            boolean statusChanged = !Objects.equals(existingOrder.getStatus(), updatedOrder.getStatus());
             existingOrder.setUserId(updatedOrder.getUserId());
             existingOrder.setOrderDate(updatedOrder.getOrderDate());
             existingOrder.setTotalAmount(updatedOrder.getTotalAmount());
@@ -103,7 +132,11 @@ public class OrderService {
             // Note: Updating nested collections like orderItems requires more complex logic
             // For simplicity, this example assumes orderItems are managed separately or replaced entirely
             // A more robust solution would involve comparing and updating individual order items
-            return orderRepository.save(existingOrder);
+            Order savedOrder = orderRepository.save(existingOrder);
+            if (statusChanged) {
+                publishStatus(savedOrder);
+            }
+            return savedOrder;
         });
     }
 
@@ -113,11 +146,23 @@ public class OrderService {
      * @param id The ID of the order to delete.
      * @throws OrderNotFoundException if the order with the given ID does not exist.
      */
-    @Transactional
     public void deleteOrder(Long id) {
         if (!orderRepository.existsById(id)) {
             throw new OrderNotFoundException("Order not found with ID: " + id);
         }
         orderRepository.deleteById(id);
     }
+
+    /**
+     * Publishes the current status of an order to its event streams.
+     * @param order The order whose status changed.
+     */
+    private void publishStatus(Order order) {
+        orderEventHub.publish(OrderStatusEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .timestamp(Instant.now())
+                .build());
+    }
 }
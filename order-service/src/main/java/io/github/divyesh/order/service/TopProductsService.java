@@ -0,0 +1,78 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.exception.InvalidWindowException;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.model.OrderItem;
+import io.github.divyesh.order.sketch.SlidingTopK;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Service class tracking the best-selling products over a sliding time window.
+ * Every created order item feeds its quantity into a {@link SlidingTopK} held in memory,
+ * so the best-seller list is answered without aggregating order items in the database.
+ * Counts start from zero when the service starts and are local to this instance.
+ */
+@Service
+public class TopProductsService {
+
+    private final SlidingTopK<String> topProducts;
+    private final Duration maxWindow;
+    private final Clock clock;
+
+    /**
+     * Constructs a TopProductsService.
+     * @param bucketSize The resolution of the sliding window.
+     * @param maxWindow The longest window that can be queried.
+     * @param capacity The number of products tracked per bucket.
+     * @param sketchWidth The number of Count-Min counters per row.
+     * @param sketchDepth The number of Count-Min rows.
+     */
+    @Autowired
+    public TopProductsService(@Value("${top-products.bucket:PT1M}") Duration bucketSize,
+                              @Value("${top-products.max-window:PT1H}") Duration maxWindow,
+                              @Value("${top-products.capacity:1000}") int capacity,
+                              @Value("${top-products.sketch-width:2048}") int sketchWidth,
+                              @Value("${top-products.sketch-depth:4}") int sketchDepth) {
+        this(new SlidingTopK<>(bucketSize, maxWindow, capacity, sketchWidth, sketchDepth), maxWindow,
+                Clock.systemUTC());
+    }
+
+    TopProductsService(SlidingTopK<String> topProducts, Duration maxWindow, Clock clock) {
+        this.topProducts = topProducts;
+        this.maxWindow = maxWindow;
+        this.clock = clock;
+    }
+
+    /**
+     * Records the items of a created order.
+     * @param order The created order.
+     */
+    public void record(Order order) {
+        long now = clock.millis();
+        for (OrderItem item : order.getOrderItems()) {
+            if (item.getQuantity() != null && item.getQuantity() > 0) {
+                topProducts.add(item.getProductId(), item.getQuantity(), now);
+            }
+        }
+    }
+
+    /**
+     * Returns the best-selling products of a window ending now.
+     * @param window The length of the window.
+     * @param limit The maximum number of products to return.
+     * @return The products with their estimated quantities, best-selling first.
+     * @throws InvalidWindowException if the window is not positive or longer than the maximum window.
+     */
+    public List<SlidingTopK.HeavyHitter<String>> getTopProducts(Duration window, int limit) {
+        if (window.isNegative() || window.isZero() || window.compareTo(maxWindow) > 0) {
+            throw new InvalidWindowException("Window must be positive and at most " + maxWindow);
+        }
+        return topProducts.top(window, limit, clock.millis());
+    }
+}
@@ -0,0 +1,245 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.exception.InvalidWindowException;
+import io.github.divyesh.order.model.BuyerSketch;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.model.OrderItem;
+import io.github.divyesh.order.repository.BuyerSketchRepository;
+import io.github.divyesh.order.sharding.ShardContext;
+import io.github.divyesh.order.sketch.HyperLogLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Service class counting distinct buyers per day, overall and per product, with HyperLogLog sketches.
+ * <p>
+ * New orders are added to in-memory sketches that are merged into the persisted ones on a
+ * fixed interval. Queries merge the sketches of every day in the range: days before yesterday
+ * no longer change and are served from an in-memory cache, so only the recent days and cache
+ * misses are read from the database. Sketches are global and stored on shard 0.
+ * <p>
+ * A sketch being flushed stays visible to queries until its transaction has committed, and
+ * queries read the in-memory sketches before the database, so a flush never hides buyers.
+ * Counting a sketch twice is harmless, since merging HyperLogLogs is idempotent.
+ */
+@Service
+public class UniqueBuyerService {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueBuyerService.class);
+
+    private final BuyerSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int precision;
+    private final long maxRangeDays;
+    private final Clock clock;
+    private final Map<SketchKey, HyperLogLog> pending = new ConcurrentHashMap<>();
+    private final Map<SketchKey, HyperLogLog> flushing = new ConcurrentHashMap<>();
+    private final Map<SketchKey, HyperLogLog> settled;
+
+    /**
+     * Constructs a UniqueBuyerService.
+     * @param sketchRepository The repository for persisted sketches.
+     * @param transactionManager The transaction manager used for the sketch transactions.
+     * @param precision The HyperLogLog precision; sketches of different precision cannot be merged.
+     * @param cacheSize The maximum number of settled daily sketches kept in memory.
+     * @param maxRangeDays The longest date range a query may cover.
+     */
+    @Autowired
+    public UniqueBuyerService(BuyerSketchRepository sketchRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${unique-buyers.precision:12}") int precision,
+                              @Value("${unique-buyers.cache-size:50000}") int cacheSize,
+                              @Value("${unique-buyers.max-range-days:3660}") long maxRangeDays) {
+        this(sketchRepository, transactionManager, precision, cacheSize, maxRangeDays, Clock.systemDefaultZone());
+    }
+
+    UniqueBuyerService(BuyerSketchRepository sketchRepository, PlatformTransactionManager transactionManager,
+                       int precision, int cacheSize, long maxRangeDays, Clock clock) {
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.precision = precision;
+        this.maxRangeDays = maxRangeDays;
+        this.clock = clock;
+        this.settled = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SketchKey, HyperLogLog> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Records the buyer of a created order for the day and for each product ordered.
+     * @param order The created order.
+     */
+    public void record(Order order) {
+        LocalDate day = order.getOrderDate().toLocalDate();
+        add(new SketchKey(day, BuyerSketch.ALL_PRODUCTS), order.getUserId());
+        Set<String> productIds = order.getOrderItems().stream()
+                .map(OrderItem::getProductId)
+                .collect(Collectors.toSet());
+        for (String productId : productIds) {
+            add(new SketchKey(day, productId), order.getUserId());
+        }
+    }
+
+    /**
+     * Estimates the number of distinct buyers over a range of days.
+     * @param productId The product to count buyers of, or null for all products.
+     * @param from The first day, inclusive.
+     * @param to The last day, inclusive.
+     * @return The estimated number of distinct buyers.
+     * @throws InvalidWindowException if the range is reversed or too long.
+     */
+    public long countUniqueBuyers(String productId, LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > maxRangeDays) {
+            throw new InvalidWindowException("Date range must be ordered and cover at most " + maxRangeDays + " days");
+        }
+        String product = productId == null ? BuyerSketch.ALL_PRODUCTS : productId;
+        LocalDate settledBefore = LocalDate.now(clock).minusDays(1);
+        HyperLogLog union = new HyperLogLog(precision);
+
+        // Pending before flushing, and both before the database: a sketch moves from pending to
+        // flushing, and leaves flushing only once it is committed, so it is always seen somewhere
+        mergeInMemory(union, pending, product, from, to);
+        mergeInMemory(union, flushing, product, from, to);
+
+        Set<LocalDate> cachedDays = new HashSet<>();
+        LocalDate missingFrom = null;
+        LocalDate missingTo = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog cached = day.isBefore(settledBefore) ? settled.get(new SketchKey(day, product)) : null;
+            if (cached != null) {
+                union.merge(cached);
+                cachedDays.add(day);
+            } else {
+                missingFrom = missingFrom == null ? day : missingFrom;
+                missingTo = day;
+            }
+        }
+        if (missingFrom != null) {
+            mergeStored(union, product, missingFrom, missingTo, settledBefore, cachedDays);
+        }
+        return union.estimate();
+    }
+
+    /**
+     * Merges the in-memory sketches into the persisted ones.
+     * A sketch is only dropped from memory once its transaction has committed. A sketch that
+     * fails to persist, for whatever reason, is kept in memory and retried on the next flush,
+     * without holding up the other sketches.
+     */
+    @Scheduled(fixedDelayString = "${unique-buyers.flush-interval:PT10S}")
+    public void flush() {
+        for (SketchKey key : List.copyOf(pending.keySet())) {
+            pending.computeIfPresent(key, (k, sketch) -> {
+                flushing.put(k, sketch);
+                return null;
+            });
+            HyperLogLog delta = flushing.get(key);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                inShardZero(transactionTemplate, () -> {
+                    BuyerSketch stored = sketchRepository.findByDayAndProductId(key.day(), key.productId())
+                            .orElseGet(() -> new BuyerSketch(key.day(), key.productId(), null));
+                    // Queries may be reading the delta, so it is merged into a copy of the stored sketch
+                    HyperLogLog merged = stored.getRegisters() != null
+                            ? HyperLogLog.fromBytes(stored.getRegisters())
+                            : new HyperLogLog(precision);
+                    merged.merge(delta);
+                    stored.setRegisters(merged.toBytes());
+                    return sketchRepository.save(stored);
+                });
+            } catch (RuntimeException e) {
+                log.warn("Failed to persist buyer sketch for {} on {}, retrying later", key.productId(), key.day(), e);
+                pending.merge(key, delta, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+            } finally {
+                flushing.remove(key);
+            }
+        }
+    }
+
+    private static void mergeInMemory(HyperLogLog union, Map<SketchKey, HyperLogLog> sketches, String product,
+                                      LocalDate from, LocalDate to) {
+        for (SketchKey key : sketches.keySet()) {
+            if (key.productId().equals(product) && !key.day().isBefore(from) && !key.day().isAfter(to)) {
+                sketches.computeIfPresent(key, (k, sketch) -> {
+                    union.merge(sketch);
+                    return sketch;
+                });
+            }
+        }
+    }
+
+    private void add(SketchKey key, Long userId) {
+        pending.compute(key, (k, sketch) -> {
+            HyperLogLog target = sketch != null ? sketch : new HyperLogLog(precision);
+            target.add(userId);
+            return target;
+        });
+    }
+
+    /**
+     * Merges the persisted sketches of a range of days, caching those of settled days.
+     * Days already merged from the cache are skipped; days without a sketch had no buyers.
+     */
+    private void mergeStored(HyperLogLog union, String product, LocalDate from, LocalDate to,
+                             LocalDate settledBefore, Set<LocalDate> cachedDays) {
+        List<BuyerSketch> stored = inShardZero(readOnlyTransactionTemplate,
+                () -> sketchRepository.findByProductIdAndDayBetween(product, from, to));
+        Map<LocalDate, HyperLogLog> byDay = new HashMap<>();
+        for (BuyerSketch sketch : stored) {
+            byDay.put(sketch.getDay(), HyperLogLog.fromBytes(sketch.getRegisters()));
+        }
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            if (cachedDays.contains(day)) {
+                continue;
+            }
+            HyperLogLog sketch = byDay.getOrDefault(day, new HyperLogLog(precision));
+            if (day.isBefore(settledBefore)) {
+                settled.put(new SketchKey(day, product), sketch);
+            }
+            union.merge(sketch);
+        }
+    }
+
+    private <T> T inShardZero(TransactionTemplate template, Supplier<T> work) {
+        return ShardContext.callInShard(0, () -> template.execute(status -> work.get()));
+    }
+
+    /**
+     * Identifies the sketch of a day and product.
+     * @param day The day.
+     * @param productId The product, or {@link BuyerSketch#ALL_PRODUCTS}.
+     */
+    private record SketchKey(LocalDate day, String productId) {}
+}
@@ -0,0 +1,65 @@
+package io.github.divyesh.order.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Lets one replica at a time run a job that must not run concurrently, such as the archive job.
+ * The lock is a PostgreSQL session advisory lock on shard 0, held by a connection kept open
+ * for the duration of the job, so it is released even if the replica dies mid-job.
+ */
+@Component
+public class ClusterLock {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterLock.class);
+
+    private final DataSource dataSource;
+
+    /**
+     * Constructs a ClusterLock.
+     * @param dataSource The routing data source over all shards.
+     */
+    public ClusterLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Runs a job if no other replica is running the job of the same name.
+     * @param name The name of the job.
+     * @param job The job to run.
+     * @return true if the job was run, false if another replica holds the lock.
+     * @throws IllegalStateException if the lock cannot be taken or released.
+     */
+    public boolean runExclusively(String name, Runnable job) {
+        try (Connection connection = ShardContext.getConnection(dataSource, 0)) {
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)", name)) {
+                log.debug("Skipping {}, another replica is running it", name);
+                return false;
+            }
+            try {
+                job.run();
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)", name);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot lock " + name, e);
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, name.hashCode());
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.divyesh.order.sharding;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread is working against.
+ * {@link ShardRoutingDataSource} reads it whenever a connection is requested,
+ * so it must be bound before a transaction is started.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    /**
+     * Returns the shard bound to the current thread.
+     * @return The shard index, or null if none is bound.
+     */
+    public static Integer currentShard() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a unit of work with the given shard bound to the current thread.
+     * The previous binding, if any, is restored afterwards.
+     * @param shard The shard index.
+     * @param work The work to run.
+     * @param <T> The type of the result.
+     * @return The result of the work.
+     */
+    public static <T> T callInShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Obtains a connection to a specific shard from the routing data source.
+     * The caller owns the connection and is responsible for its transaction and for closing it.
+     * @param dataSource The routing data source.
+     * @param shard The shard index.
+     * @return A connection to the shard.
+     * @throws SQLException if no connection can be obtained.
+     */
+    public static Connection getConnection(DataSource dataSource, int shard) throws SQLException {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return dataSource.getConnection();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
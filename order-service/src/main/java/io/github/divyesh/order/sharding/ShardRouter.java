@@ -0,0 +1,63 @@
+package io.github.divyesh.order.sharding;
+
+/**
+ * Decides which shard owns a user's orders and which shard an existing order lives on.
+ * Users are spread over shards by a hash of their id; changing the number of shards
+ * moves users between shards and requires their orders to be rebalanced.
+ */
+public class ShardRouter {
+
+    private final int shardCount;
+
+    /**
+     * Constructs a ShardRouter for the given number of shards.
+     * @param shardCount The number of shards.
+     */
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1 || shardCount > ShardedIdGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard count must be between 1 and " + ShardedIdGenerator.MAX_SHARDS);
+        }
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Returns the number of shards.
+     * @return The shard count.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Returns the shard that new orders of a user are written to.
+     * @param userId The ID of the user.
+     * @return The shard index.
+     */
+    public int shardForUser(Long userId) {
+        if (userId == null || shardCount == 1) {
+            return 0;
+        }
+        return (int) Math.floorMod(mix(userId), (long) shardCount);
+    }
+
+    /**
+     * Returns the shard an existing order is stored on.
+     * @param orderId The ID of the order.
+     * @return The shard index.
+     */
+    public int shardForOrder(Long orderId) {
+        return ShardedIdGenerator.shardOf(orderId);
+    }
+
+    /**
+     * Scrambles the bits of a user id so that sequential ids spread evenly (MurmurHash3 finalizer).
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
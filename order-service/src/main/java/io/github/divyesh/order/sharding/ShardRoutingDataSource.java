@@ -0,0 +1,44 @@
+package io.github.divyesh.order.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * DataSource that hands out connections from the shard bound in {@link ShardContext}.
+ * Without a bound shard, connections come from shard 0, which is also where Hibernate
+ * runs its schema management at startup.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<Integer, ? extends DataSource> shards;
+
+    /**
+     * Constructs a ShardRoutingDataSource over the given shards.
+     * @param shards The data source of each shard, keyed by shard index starting at 0.
+     */
+    public ShardRoutingDataSource(Map<Integer, ? extends DataSource> shards) {
+        this.shards = shards;
+        setTargetDataSources(Map.copyOf(shards));
+        setDefaultTargetDataSource(shards.get(0));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentShard();
+    }
+
+    /**
+     * Closes the connection pools of all shards.
+     * @throws Exception if a pool fails to close.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
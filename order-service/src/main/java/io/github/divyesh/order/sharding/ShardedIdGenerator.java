@@ -0,0 +1,96 @@
+package io.github.divyesh.order.sharding;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Generates identifiers that are unique across all shards without coordination.
+ * Each id packs the milliseconds since 2024-01-01, the shard index, the instance id
+ * of the generating service and a per-millisecond sequence:
+ * <pre>
+ *  | 41 bits time | 8 bits shard | 4 bits instance | 10 bits sequence |
+ * </pre>
+ * The shard can therefore be recovered from an id alone. Ids below {@link #LEGACY_ID_LIMIT}
+ * were assigned by the database before sharding was introduced and belong to shard 0.
+ */
+public class ShardedIdGenerator implements IdentifierGenerator {
+
+    static final long EPOCH_MILLIS = 1704067200000L;
+    static final int SEQUENCE_BITS = 10;
+    static final int INSTANCE_BITS = 4;
+    static final int SHARD_BITS = 8;
+
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    public static final int MAX_INSTANCES = 1 << INSTANCE_BITS;
+    public static final long LEGACY_ID_LIMIT = 1L << (SEQUENCE_BITS + INSTANCE_BITS + SHARD_BITS);
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static volatile int instanceId;
+    private static long lastTimestamp = -1;
+    private static long sequence;
+
+    /**
+     * Sets the instance id mixed into every generated id.
+     * Replicas writing to the same shard must use distinct instance ids.
+     * @param id The instance id, between 0 and {@link #MAX_INSTANCES} - 1.
+     */
+    public static void setInstanceId(int id) {
+        if (id < 0 || id >= MAX_INSTANCES) {
+            throw new IllegalArgumentException("Instance id must be between 0 and " + (MAX_INSTANCES - 1));
+        }
+        instanceId = id;
+    }
+
+    /**
+     * Generates the next id for the given shard.
+     * @param shard The shard index.
+     * @return A new, globally unique id.
+     */
+    public static long nextId(int shard) {
+        long timestamp;
+        long seq;
+        synchronized (ShardedIdGenerator.class) {
+            timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            if (timestamp == lastTimestamp) {
+                sequence = (sequence + 1) & SEQUENCE_MASK;
+                if (sequence == 0) {
+                    // Sequence exhausted for this millisecond, move on to the next one
+                    timestamp++;
+                }
+            } else {
+                sequence = 0;
+            }
+            lastTimestamp = timestamp;
+            seq = sequence;
+        }
+        return ((timestamp - EPOCH_MILLIS) << (SHARD_BITS + INSTANCE_BITS + SEQUENCE_BITS))
+                | ((long) shard << (INSTANCE_BITS + SEQUENCE_BITS))
+                | ((long) instanceId << SEQUENCE_BITS)
+                | seq;
+    }
+
+    /**
+     * Returns the shard an id was generated for.
+     * @param id The id.
+     * @return The shard index.
+     */
+    public static int shardOf(long id) {
+        if (id < LEGACY_ID_LIMIT) {
+            return 0;
+        }
+        return (int) ((id >>> (INSTANCE_BITS + SEQUENCE_BITS)) & (MAX_SHARDS - 1));
+    }
+
+    /**
+     * Generates an id for an entity being persisted on the shard bound in {@link ShardContext}.
+     * @param session The session persisting the entity.
+     * @param object The entity.
+     * @return The generated id.
+     */
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        Integer shard = ShardContext.currentShard();
+        return nextId(shard == null ? 0 : shard);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.divyesh.order.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Configuration properties for order sharding.
+ * When no shards are listed, the regular {@code spring.datasource} is used as the only shard.
+ * The instance id differs between replicas, so it is never part of the shared configuration:
+ * it is set per replica, or taken from the ordinal of a StatefulSet pod.
+ *
+ * @param shards The connection settings of each shard, in shard index order.
+ * @param instanceId The id of this service instance, unique among replicas, used in generated ids;
+ *                   null to use the pod ordinal.
+ * @param initializeSchema Whether to create the order tables on shards other than shard 0 at startup.
+ */
+@ConfigurationProperties(prefix = "sharding")
+public record ShardingProperties(List<Shard> shards, Integer instanceId, boolean initializeSchema) {
+
+    private static final Pattern POD_ORDINAL = Pattern.compile(".+-(\\d+)$");
+
+    /**
+     * Connection settings for a single shard.
+     *
+     * @param url The JDBC URL of the shard.
+     * @param username The database user.
+     * @param password The database password.
+     * @param driverClassName The JDBC driver class, inferred from the URL if not set.
+     */
+    public record Shard(String url, String username, String password, String driverClassName) {}
+
+    /**
+     * Returns the configured shards.
+     * @return The shards, or an empty list if sharding is not configured.
+     */
+    @Override
+    public List<Shard> shards() {
+        return shards == null ? List.of() : shards;
+    }
+
+    /**
+     * Works out the instance id of this replica: the configured one, or else the ordinal at the end
+     * of the host name, which Kubernetes gives the pods of a StatefulSet ({@code order-service-3}).
+     * @param hostname The host name of this replica, or null if unknown.
+     * @return The instance id, between 0 and {@link ShardedIdGenerator#MAX_INSTANCES} - 1.
+     * @throws IllegalStateException if no instance id is configured and the host name has no ordinal,
+     *                               or the id is out of range.
+     */
+    public int resolveInstanceId(String hostname) {
+        int id;
+        if (instanceId != null) {
+            id = instanceId;
+        } else {
+            Matcher ordinal = hostname == null ? null : POD_ORDINAL.matcher(hostname);
+            if (ordinal == null || !ordinal.matches()) {
+                throw new IllegalStateException("No instance id for this replica: set sharding.instance-id "
+                        + "(ORDER_INSTANCE_ID) to a value unique among replicas, or run as a StatefulSet pod");
+            }
+            id = Integer.parseInt(ordinal.group(1));
+        }
+        if (id < 0 || id >= ShardedIdGenerator.MAX_INSTANCES) {
+            throw new IllegalStateException("Instance id " + id + " is out of range, it must be between 0 and "
+                    + (ShardedIdGenerator.MAX_INSTANCES - 1));
+        }
+        return id;
+    }
+}
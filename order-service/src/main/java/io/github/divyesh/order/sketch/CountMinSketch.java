@@ -0,0 +1,78 @@
+package io.github.divyesh.order.sketch;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch estimating the weight of any item of a stream in fixed memory.
+ * <p>
+ * Estimates never undercount. With {@code width = ceil(e / epsilon)} and
+ * {@code depth = ceil(ln(1 / delta))} an estimate exceeds the true weight by more than
+ * {@code epsilon * total} with probability at most {@code delta}.
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0x85EBCA77C2B2AE63L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int width;
+    private final long[][] counts;
+
+    /**
+     * Constructs an empty sketch.
+     * @param width The number of counters per row.
+     * @param depth The number of rows, at most 8.
+     */
+    public CountMinSketch(int width, int depth) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + SEEDS.length);
+        }
+        this.width = width;
+        this.counts = new long[depth][width];
+    }
+
+    /**
+     * Adds weight to an item.
+     * @param item The item.
+     * @param weight The weight to add.
+     */
+    public void add(Object item, long weight) {
+        int hash = item.hashCode();
+        for (int row = 0; row < counts.length; row++) {
+            counts[row][bucket(hash, row)] += weight;
+        }
+    }
+
+    /**
+     * Estimates the weight of an item.
+     * @param item The item.
+     * @return The smallest counter the item maps to, an upper bound of its weight.
+     */
+    public long estimate(Object item) {
+        int hash = item.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            estimate = Math.min(estimate, counts[row][bucket(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private int bucket(int hash, int row) {
+        // Murmur3 finalizer over the seeded hash, so the rows collide independently
+        long mixed = hash ^ SEEDS[row];
+        mixed = (mixed ^ (mixed >>> 33)) * 0xFF51AFD7ED558CCDL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        mixed ^= mixed >>> 33;
+        return (int) Math.floorMod(mixed, (long) width);
+    }
+}
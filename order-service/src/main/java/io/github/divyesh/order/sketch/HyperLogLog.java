@@ -0,0 +1,252 @@
+package io.github.divyesh.order.sketch;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog estimator of the number of distinct values in a set.
+ * <p>
+ * Each value is hashed to 64 bits; the top {@code precision} bits choose a register and the
+ * register keeps the longest run of leading zeros seen in the remaining bits. Registers merge
+ * by taking the maximum, so the sketch of a union is the merge of the sketches. The standard
+ * error is {@code 1.04 / sqrt(2^precision)}, about 1.6% at the default precision of 12.
+ * <p>
+ * Small sets are kept sparse, as a sorted array of the non-zero registers, and switch to a
+ * dense register array once that would be smaller. {@link #toBytes()} writes sparse sketches
+ * as delta-encoded varints and dense sketches with six bits per register.
+ * Instances are not thread-safe.
+ */
+public class HyperLogLog {
+
+    /** The default number of register index bits. */
+    public static final int DEFAULT_PRECISION = 12;
+
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final int REGISTER_BITS = 6;
+
+    private final int precision;
+    private final int registerCount;
+    private int[] sparse;
+    private int sparseSize;
+    private byte[] dense;
+
+    /**
+     * Constructs an empty sketch.
+     * @param precision The number of register index bits, between 4 and 18.
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precision must be between 4 and 18");
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.sparse = new int[4];
+    }
+
+    /**
+     * Adds a value to the set.
+     * @param value The value.
+     */
+    public void add(long value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+        setRegister(index, rank);
+    }
+
+    /**
+     * Merges another sketch into this one, which then describes the union of both sets.
+     * @param other The sketch to merge, with the same precision.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of different precision");
+        }
+        if (other.dense != null) {
+            toDense();
+            for (int index = 0; index < registerCount; index++) {
+                if (other.dense[index] > dense[index]) {
+                    dense[index] = other.dense[index];
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                setRegister(other.sparse[i] >>> REGISTER_BITS, other.sparse[i] & 0x3F);
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of distinct values added.
+     * @return The estimated cardinality.
+     */
+    public long estimate() {
+        double sum = registerCount;
+        int zeros = registerCount;
+        if (dense != null) {
+            sum = 0;
+            zeros = 0;
+            for (byte register : dense) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparse[i] & 0x3F)) - 1.0;
+            }
+            zeros -= sparseSize;
+        }
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double estimate = alpha * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            // Linear counting is more accurate while many registers are still empty
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Returns the precision of the sketch.
+     * @return The number of register index bits.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Serializes the sketch.
+     * @return The compact binary form, readable by {@link #fromBytes(byte[])}.
+     */
+    public byte[] toBytes() {
+        if (dense != null) {
+            byte[] bytes = new byte[2 + registerCount * REGISTER_BITS / 8];
+            bytes[0] = DENSE;
+            bytes[1] = (byte) precision;
+            for (int index = 0; index < registerCount; index++) {
+                int bit = index * REGISTER_BITS;
+                int packed = dense[index] << (bit & 7);
+                bytes[2 + (bit >>> 3)] |= (byte) packed;
+                if ((bit & 7) > 8 - REGISTER_BITS) {
+                    bytes[3 + (bit >>> 3)] |= (byte) (packed >>> 8);
+                }
+            }
+            return bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + sparseSize * 2);
+        out.write(SPARSE);
+        out.write(precision);
+        writeVarint(out, sparseSize);
+        int previous = 0;
+        for (int i = 0; i < sparseSize; i++) {
+            writeVarint(out, sparse[i] - previous);
+            previous = sparse[i];
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a sketch written by {@link #toBytes()}.
+     * @param bytes The binary form.
+     * @return The sketch.
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        byte format = in.get();
+        HyperLogLog sketch = new HyperLogLog(in.get());
+        if (format == DENSE) {
+            sketch.dense = new byte[sketch.registerCount];
+            for (int index = 0; index < sketch.registerCount; index++) {
+                int bit = index * REGISTER_BITS;
+                int packed = bytes[2 + (bit >>> 3)] & 0xFF;
+                if ((bit & 7) > 8 - REGISTER_BITS) {
+                    packed |= (bytes[3 + (bit >>> 3)] & 0xFF) << 8;
+                }
+                sketch.dense[index] = (byte) ((packed >>> (bit & 7)) & 0x3F);
+            }
+            sketch.sparse = null;
+        } else {
+            int size = readVarint(in);
+            sketch.sparse = new int[Math.max(4, size)];
+            int value = 0;
+            for (int i = 0; i < size; i++) {
+                value += readVarint(in);
+                sketch.sparse[i] = value;
+            }
+            sketch.sparseSize = size;
+        }
+        return sketch;
+    }
+
+    private void setRegister(int index, int rank) {
+        if (dense != null) {
+            if (rank > dense[index]) {
+                dense[index] = (byte) rank;
+            }
+            return;
+        }
+        // Entries are sorted by register index, which occupies the high bits
+        int position = Arrays.binarySearch(sparse, 0, sparseSize, index << REGISTER_BITS);
+        int insertAt = position >= 0 ? position : -position - 1;
+        if (insertAt < sparseSize && sparse[insertAt] >>> REGISTER_BITS == index) {
+            if (rank > (sparse[insertAt] & 0x3F)) {
+                sparse[insertAt] = index << REGISTER_BITS | rank;
+            }
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            // Four bytes per sparse entry against six bits per dense register
+            if (sparseSize * 32 >= registerCount * REGISTER_BITS) {
+                toDense();
+                setRegister(index, rank);
+                return;
+            }
+            sparse = Arrays.copyOf(sparse, sparseSize * 2);
+        }
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = index << REGISTER_BITS | rank;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        if (dense != null) {
+            return;
+        }
+        dense = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> REGISTER_BITS] = (byte) (sparse[i] & 0x3F);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private static long hash(long value) {
+        // Murmur3 finalizer, which spreads sequential IDs over all bits
+        long hash = value * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
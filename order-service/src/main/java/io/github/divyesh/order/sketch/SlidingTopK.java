@@ -0,0 +1,137 @@
+package io.github.divyesh.order.sketch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sliding-window heavy hitters built from a ring of time buckets.
+ * <p>
+ * Each bucket holds a {@link SpaceSaving} summary, which nominates candidates, and a
+ * {@link CountMinSketch}, which bounds their weight. A query merges the buckets covering the
+ * requested window: a candidate's weight is bounded above both by its summed Space-Saving
+ * counts (using a bucket's smallest count where it was not tracked) and by its summed
+ * Count-Min estimates, and the tighter of the two is reported. Memory is fixed by the number
+ * of buckets, the summary capacity and the sketch size, regardless of traffic.
+ * <p>
+ * All methods are synchronized.
+ *
+ * @param <T> The type of the items.
+ */
+public class SlidingTopK<T> {
+
+    private final long bucketMillis;
+    private final Bucket<T>[] buckets;
+
+    /**
+     * Constructs an empty window.
+     * @param bucketSize The time covered by one bucket, the resolution of the window.
+     * @param maxWindow The longest window that can be queried.
+     * @param capacity The number of items tracked per bucket.
+     * @param sketchWidth The number of Count-Min counters per row.
+     * @param sketchDepth The number of Count-Min rows.
+     */
+    @SuppressWarnings("unchecked")
+    public SlidingTopK(Duration bucketSize, Duration maxWindow, int capacity, int sketchWidth, int sketchDepth) {
+        this.bucketMillis = bucketSize.toMillis();
+        int bucketCount = (int) Math.ceilDiv(maxWindow.toMillis(), bucketMillis);
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket<>(new SpaceSaving<>(capacity), new CountMinSketch(sketchWidth, sketchDepth));
+        }
+    }
+
+    /**
+     * Adds weight to an item at the given time.
+     * @param item The item.
+     * @param weight The weight to add, positive.
+     * @param nowMillis The current time in milliseconds since the epoch.
+     */
+    public synchronized void add(T item, long weight, long nowMillis) {
+        Bucket<T> bucket = bucket(nowMillis / bucketMillis);
+        bucket.summary.add(item, weight);
+        bucket.sketch.add(item, weight);
+    }
+
+    /**
+     * Returns the heaviest items of a window ending now.
+     * @param window The length of the window, rounded up to whole buckets.
+     * @param limit The maximum number of items to return.
+     * @param nowMillis The current time in milliseconds since the epoch.
+     * @return The items, heaviest first.
+     * @throws IllegalArgumentException if the window is longer than the maximum window.
+     */
+    public synchronized List<HeavyHitter<T>> top(Duration window, int limit, long nowMillis) {
+        long bucketsInWindow = Math.ceilDiv(window.toMillis(), bucketMillis);
+        if (bucketsInWindow > buckets.length || bucketsInWindow < 1) {
+            throw new IllegalArgumentException("Window must be between one bucket and "
+                    + Duration.ofMillis(bucketMillis * buckets.length));
+        }
+        long newest = nowMillis / bucketMillis;
+        List<Bucket<T>> live = new ArrayList<>();
+        Set<T> candidates = new HashSet<>();
+        for (long epoch = newest - bucketsInWindow + 1; epoch <= newest; epoch++) {
+            Bucket<T> bucket = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+            if (bucket.epoch == epoch) {
+                live.add(bucket);
+                candidates.addAll(bucket.summary.items());
+            }
+        }
+        List<HeavyHitter<T>> hitters = new ArrayList<>(candidates.size());
+        for (T item : candidates) {
+            long upper = 0;
+            long lower = 0;
+            long sketched = 0;
+            for (Bucket<T> bucket : live) {
+                long count = bucket.summary.count(item);
+                if (count >= 0) {
+                    upper += count;
+                    lower += count - bucket.summary.error(item);
+                } else {
+                    upper += bucket.summary.untrackedBound();
+                }
+                sketched += bucket.sketch.estimate(item);
+            }
+            long estimate = Math.min(upper, sketched);
+            hitters.add(new HeavyHitter<>(item, estimate, estimate - lower));
+        }
+        hitters.sort(Comparator.comparingLong((HeavyHitter<T> hitter) -> hitter.count()).reversed());
+        return hitters.size() > limit ? List.copyOf(hitters.subList(0, limit)) : hitters;
+    }
+
+    private Bucket<T> bucket(long epoch) {
+        Bucket<T> bucket = buckets[(int) Math.floorMod(epoch, (long) buckets.length)];
+        if (bucket.epoch != epoch) {
+            bucket.summary.clear();
+            bucket.sketch.clear();
+            bucket.epoch = epoch;
+        }
+        return bucket;
+    }
+
+    /**
+     * An item of the window with its estimated weight.
+     * @param item The item.
+     * @param count The estimated weight, never below the true weight.
+     * @param maxError How much the estimate may exceed the true weight.
+     * @param <T> The type of the item.
+     */
+    public record HeavyHitter<T>(T item, long count, long maxError) {}
+
+    /**
+     * The summary and sketch of one time slice.
+     */
+    private static final class Bucket<T> {
+        private final SpaceSaving<T> summary;
+        private final CountMinSketch sketch;
+        private long epoch = Long.MIN_VALUE;
+
+        private Bucket(SpaceSaving<T> summary, CountMinSketch sketch) {
+            this.summary = summary;
+            this.sketch = sketch;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.divyesh.order.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the heaviest items of a weighted stream.
+ * <p>
+ * At most {@code capacity} items are tracked. When an untracked item arrives and the summary
+ * is full, the item with the smallest count is replaced and the newcomer inherits that count
+ * as its error. Every tracked count overestimates the true count by at most its error, and
+ * any item heavier than {@code total / capacity} is guaranteed to be tracked.
+ * The counters form a binary min-heap so the smallest one is found in constant time.
+ *
+ * @param <T> The type of the items.
+ */
+public class SpaceSaving<T> {
+
+    private final int capacity;
+    private final Map<T, Counter<T>> counters;
+    private final List<Counter<T>> heap;
+    private long total;
+
+    /**
+     * Constructs an empty summary.
+     * @param capacity The maximum number of tracked items.
+     */
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new ArrayList<>(capacity);
+    }
+
+    /**
+     * Adds an occurrence of an item.
+     * @param item The item.
+     * @param weight The weight of the occurrence, positive.
+     */
+    public void add(T item, long weight) {
+        total += weight;
+        Counter<T> counter = counters.get(item);
+        if (counter != null) {
+            counter.count += weight;
+            siftDown(counter.index);
+        } else if (heap.size() < capacity) {
+            counter = new Counter<>(item, weight, 0, heap.size());
+            heap.add(counter);
+            counters.put(item, counter);
+            siftUp(counter.index);
+        } else {
+            counter = heap.get(0);
+            counters.remove(counter.item);
+            counter.item = item;
+            counter.error = counter.count;
+            counter.count += weight;
+            counters.put(item, counter);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Returns the tracked count of an item.
+     * @param item The item.
+     * @return The overestimated count, or -1 if the item is not tracked.
+     */
+    public long count(T item) {
+        Counter<T> counter = counters.get(item);
+        return counter == null ? -1 : counter.count;
+    }
+
+    /**
+     * Returns the maximum overestimation of the tracked count of an item.
+     * @param item The item.
+     * @return The error, or -1 if the item is not tracked.
+     */
+    public long error(T item) {
+        Counter<T> counter = counters.get(item);
+        return counter == null ? -1 : counter.error;
+    }
+
+    /**
+     * Returns the largest count an untracked item can have.
+     * @return Zero while the summary has free counters, otherwise the smallest tracked count.
+     */
+    public long untrackedBound() {
+        return heap.size() < capacity ? 0 : heap.get(0).count;
+    }
+
+    /**
+     * Returns the tracked items.
+     * @return The items, in no particular order.
+     */
+    public List<T> items() {
+        return List.copyOf(counters.keySet());
+    }
+
+    /**
+     * Returns the total weight added to the summary.
+     * @return The stream weight.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clear() {
+        counters.clear();
+        heap.clear();
+        total = 0;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap.get(parent).count <= heap.get(index).count) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        int size = heap.size();
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && heap.get(left).count < heap.get(smallest).count) {
+                smallest = left;
+            }
+            if (right < size && heap.get(right).count < heap.get(smallest).count) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Counter<T> first = heap.get(i);
+        Counter<T> second = heap.get(j);
+        heap.set(i, second);
+        heap.set(j, first);
+        first.index = j;
+        second.index = i;
+    }
+
+    /**
+     * A tracked item with its count, error and position in the heap.
+     */
+    private static final class Counter<T> {
+        private T item;
+        private long count;
+        private long error;
+        private int index;
+
+        private Counter(T item, long count, long error, int index) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.divyesh.order.archive;
+
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.model.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OrderSegmentWriter and OrderSegment classes.
+ * These tests write segments to a temporary directory and read them back.
+ */
+class OrderSegmentTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that an archived order and its items are read back unchanged.
+     */
+    @Test
+    void findById_shouldReturnArchivedOrderWithItems() throws Exception {
+        List<Order> orders = new ArrayList<>();
+        for (long id = 30; id >= 10; id -= 10) {
+            orders.add(order(id, (int) (id / 10)));
+        }
+
+        OrderSegment segment = new OrderSegment(OrderSegmentWriter.write(directory, orders));
+        Optional<Order> archived = segment.findById(20L);
+
+        assertTrue(archived.isPresent());
+        assertEquals(2L, archived.get().getUserId());
+        assertEquals(LocalDateTime.of(2020, 1, 1, 12, 30), archived.get().getOrderDate());
+        assertEquals("DELIVERED", archived.get().getStatus());
+        assertEquals(2, archived.get().getOrderItems().size());
+        assertEquals("prod1", archived.get().getOrderItems().get(1).getProductId());
+    }
+
+    /**
+     * Tests that ids missing from the segment are not found.
+     */
+    @Test
+    void findById_shouldReturnEmpty_whenNotArchived() throws Exception {
+        OrderSegment segment = new OrderSegment(OrderSegmentWriter.write(directory, List.of(order(10L, 1), order(30L, 1))));
+
+        assertFalse(segment.findById(20L).isPresent());
+        assertFalse(segment.findById(40L).isPresent());
+    }
+
+    /**
+     * Tests that the archive reopens segments written by an earlier instance.
+     */
+    @Test
+    void orderArchive_shouldReopenExistingSegments() throws Exception {
+        new OrderArchive(directory.toString(), Duration.ZERO).write(List.of(order(10L, 1)));
+
+        assertTrue(new OrderArchive(directory.toString(), Duration.ZERO).findById(10L).isPresent());
+    }
+
+    /**
+     * Tests that the archive finds segments written by another replica after it was opened.
+     */
+    @Test
+    void orderArchive_shouldFindSegmentsWrittenByOtherReplica() throws Exception {
+        OrderArchive reader = new OrderArchive(directory.toString(), Duration.ZERO);
+        assertFalse(reader.findById(10L).isPresent());
+
+        new OrderArchive(directory.toString(), Duration.ZERO).write(List.of(order(10L, 1)));
+
+        assertTrue(reader.findById(10L).isPresent());
+    }
+
+    /**
+     * Tests that orders with missing fields are archived and read back with the fields missing.
+     */
+    @Test
+    void findById_shouldKeepMissingFields() throws Exception {
+        Order order = order(10L, 1);
+        order.setUserId(null);
+        order.setStatus(null);
+        order.getOrderItems().get(0).setProductId(null);
+
+        Order archived = new OrderSegment(OrderSegmentWriter.write(directory, List.of(order))).findById(10L).orElseThrow();
+
+        assertNull(archived.getUserId());
+        assertNull(archived.getStatus());
+        assertNull(archived.getOrderItems().get(0).getProductId());
+        assertEquals(1, archived.getOrderItems().get(0).getQuantity());
+    }
+
+    private static Order order(long id, int itemCount) {
+        Order order = Order.builder()
+                .id(id)
+                .userId(id / 10)
+                .orderDate(LocalDateTime.of(2020, 1, 1, 12, 30))
+                .totalAmount(10.0 * itemCount)
+                .status("DELIVERED")
+                .build();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItem.builder().id(id * 100 + i).productId("prod" + i).quantity(1).price(10.0).order(order).build());
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.divyesh.order.controller;
+
+import io.github.divyesh.order.dto.OrderItemRequest;
+import io.github.divyesh.order.dto.OrderRequest;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the OrderEventController class, against an in-memory database.
+ * They check that open event streams do not hold on to database connections.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-events;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "sharding.instance-id=0",
+        "archive.directory=${java.io.tmpdir}/order-events-test-archive"
+})
+@AutoConfigureMockMvc
+class OrderEventControllerIntegrationTest {
+
+    /** More streams than the connection pool, which has the default 10 connections. */
+    private static final int STREAMS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    /**
+     * Tests that orders can still be read while more event streams are open than the pool has connections.
+     */
+    @Test
+    void streamOrderEvents_shouldNotHoldConnections_whileStreamsAreOpen() throws Exception {
+        Order order = orderService.createOrder(OrderRequest.builder()
+                .userId(101L)
+                .orderItemRequests(List.of(OrderItemRequest.builder()
+                        .productId("prod1")
+                        .quantity(1)
+                        .price(10.0)
+                        .build()))
+                .build());
+
+        for (int i = 0; i < STREAMS; i++) {
+            mockMvc.perform(get("/api/orders/{id}/events", order.getId()).accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+        }
+
+        mockMvc.perform(get("/api/orders/{id}", order.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(order.getId()));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.divyesh.order.events;
+
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the OrderEventSubscription class.
+ */
+class OrderEventSubscriptionTest {
+
+    /**
+     * Tests that a full buffer drops its oldest event and keeps the newest ones.
+     */
+    @Test
+    void offer_shouldDropOldestEvent_whenBufferIsFull() throws InterruptedException {
+        OrderEventSubscription subscription =
+                new OrderEventSubscription(new SseEmitter(), 2, Duration.ofMillis(10), closed -> {});
+
+        assertTrue(subscription.offer(event("PENDING")));
+        assertTrue(subscription.offer(event("PAID")));
+        assertFalse(subscription.offer(event("SHIPPED")));
+
+        assertEquals("PAID", subscription.poll().status());
+        assertEquals("SHIPPED", subscription.poll().status());
+        assertNull(subscription.poll());
+    }
+
+    /**
+     * Tests that closing a subscription discards buffered events and notifies the owner once.
+     */
+    @Test
+    void close_shouldDiscardBufferAndNotifyOnce() throws InterruptedException {
+        AtomicInteger closes = new AtomicInteger();
+        OrderEventSubscription subscription =
+                new OrderEventSubscription(new SseEmitter(), 2, Duration.ofSeconds(10), closed -> closes.incrementAndGet());
+        subscription.offer(event("PENDING"));
+
+        subscription.close();
+        subscription.close();
+
+        assertNull(subscription.poll());
+        assertEquals(1, closes.get());
+    }
+
+    /**
+     * Tests that a waiting poll returns as soon as an event is offered from another thread.
+     */
+    @Test
+    void poll_shouldWakeUp_whenEventIsOffered() throws Exception {
+        OrderEventSubscription subscription =
+                new OrderEventSubscription(new SseEmitter(), 2, Duration.ofSeconds(10), closed -> {});
+        Thread publisher = Thread.ofVirtual().start(() -> subscription.offer(event("PAID")));
+
+        long start = System.nanoTime();
+        OrderStatusEvent event = subscription.poll();
+        publisher.join();
+
+        assertEquals("PAID", event.status());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+    }
+
+    private static OrderStatusEvent event(String status) {
+        return OrderStatusEvent.builder()
+                .orderId(1L)
+                .userId(101L)
+                .status(status)
+                .timestamp(Instant.now())
+                .build();
+    }
+}
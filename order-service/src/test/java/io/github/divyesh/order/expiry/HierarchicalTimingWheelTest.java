@@ -0,0 +1,72 @@
+package io.github.divyesh.order.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the HierarchicalTimingWheel class.
+ */
+class HierarchicalTimingWheelTest {
+
+    /**
+     * Tests that items fire on their deadline and not before.
+     */
+    @Test
+    void advance_shouldFireItemsOnTheirDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 2, 0);
+        wheel.schedule("soon", 25);
+        wheel.schedule("later", 100);
+
+        assertTrue(wheel.advance(20).isEmpty());
+        assertEquals(List.of("soon"), wheel.advance(30));
+        assertTrue(wheel.advance(90).isEmpty());
+        assertEquals(List.of("later"), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Tests that deadlines on higher levels and beyond the top level cascade down and fire in time.
+     */
+    @Test
+    void advance_shouldCascadeDistantDeadlines() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 4, 2, 0);
+        for (int deadline = 1; deadline <= 100; deadline++) {
+            wheel.schedule(deadline, deadline);
+        }
+        assertEquals(100, wheel.size());
+
+        List<Integer> fired = new ArrayList<>();
+        for (int now = 1; now <= 100; now++) {
+            List<Integer> due = wheel.advance(now);
+            assertEquals(List.of(now), due);
+            fired.addAll(due);
+        }
+        assertEquals(100, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Tests that items scheduled in the past fire on the next advance.
+     */
+    @Test
+    void schedule_shouldFireOverdueItemsImmediately() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 4, 2, 1_000);
+        wheel.schedule("overdue", 500);
+
+        assertEquals(List.of("overdue"), wheel.advance(1_000));
+    }
+
+    /**
+     * Tests that a wheel size which is not a power of two is rejected.
+     */
+    @Test
+    void constructor_shouldRejectWheelSizeThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(10, 6, 2, 0));
+    }
+}
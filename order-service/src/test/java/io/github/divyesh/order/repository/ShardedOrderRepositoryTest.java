@@ -0,0 +1,97 @@
+package io.github.divyesh.order.repository;
+
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.sharding.ShardContext;
+import io.github.divyesh.order.sharding.ShardRouter;
+import io.github.divyesh.order.sharding.ShardedIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ShardedOrderRepository class.
+ * These tests check that calls are routed to the owning shard and that
+ * cross-shard listings are merged in ID order.
+ */
+class ShardedOrderRepositoryTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ShardRouter shardRouter;
+    private ShardedOrderRepository shardedOrderRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        shardRouter = new ShardRouter(3);
+        shardedOrderRepository = new ShardedOrderRepository(orderRepository, orderItemRepository, shardRouter, transactionManager);
+    }
+
+    /**
+     * Tests that a new order is saved on the shard of its user.
+     */
+    @Test
+    void save_shouldUseShardOfUser() {
+        Order order = Order.builder().userId(42L).build();
+        AtomicInteger shard = new AtomicInteger(-1);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            shard.set(ShardContext.currentShard());
+            return invocation.getArgument(0);
+        });
+
+        shardedOrderRepository.save(order);
+
+        assertEquals(shardRouter.shardForUser(42L), shard.get());
+        assertNull(ShardContext.currentShard());
+    }
+
+    /**
+     * Tests that an existing order is read from the shard encoded in its ID.
+     */
+    @Test
+    void findById_shouldUseShardOfId() {
+        long id = ShardedIdGenerator.nextId(2);
+        AtomicInteger shard = new AtomicInteger(-1);
+        when(orderRepository.findWithItemsById(id)).thenAnswer(invocation -> {
+            shard.set(ShardContext.currentShard());
+            return Optional.empty();
+        });
+
+        shardedOrderRepository.findById(id);
+
+        assertEquals(2, shard.get());
+    }
+
+    /**
+     * Tests that findAll queries every shard and merges the results by ID.
+     */
+    @Test
+    void findAll_shouldMergeAllShardsById() {
+        when(orderRepository.findAllByOrderByIdAsc()).thenAnswer(invocation -> {
+            long shard = ShardContext.currentShard();
+            return List.of(Order.builder().id(shard).build(), Order.builder().id(shard + 10).build());
+        });
+
+        List<Order> orders = shardedOrderRepository.findAll();
+
+        assertEquals(List.of(0L, 1L, 2L, 10L, 11L, 12L), orders.stream().map(Order::getId).toList());
+        verify(orderRepository, times(3)).findAllByOrderByIdAsc();
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.dto.OrderItemRequest;
+import io.github.divyesh.order.dto.OrderRequest;
+import io.github.divyesh.order.exception.CartCheckedOutException;
+import io.github.divyesh.order.exception.CartLimitExceededException;
+import io.github.divyesh.order.exception.CartNotFoundException;
+import io.github.divyesh.order.exception.EmptyCartException;
+import io.github.divyesh.order.model.Cart;
+import io.github.divyesh.order.model.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CartService class.
+ * These tests cover the in-memory cart store, its limits and expiry,
+ * and checkout through a mocked OrderService.
+ */
+class CartServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private MutableClock clock;
+    private CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        cartService = new CartService(orderService, Duration.ofMinutes(30), 2, 10, clock);
+    }
+
+    /**
+     * Tests that adding the same product twice replaces its line.
+     */
+    @Test
+    void putItem_shouldReplaceExistingLine() {
+        Cart cart = cartService.createCart(1L);
+        cartService.putItem(cart.getId(), item("p1", 1));
+        cartService.putItem(cart.getId(), item("p1", 3));
+
+        assertEquals(1, cart.getItems().size());
+        assertEquals(3, cart.getItems().get(0).quantity());
+    }
+
+    /**
+     * Tests that a cart refuses more distinct products than the configured bound.
+     */
+    @Test
+    void putItem_shouldThrowCartLimitExceeded_whenCartIsFull() {
+        Cart cart = cartService.createCart(1L);
+        cartService.putItem(cart.getId(), item("p1", 1));
+        cartService.putItem(cart.getId(), item("p2", 1));
+
+        assertThrows(CartLimitExceededException.class, () -> cartService.putItem(cart.getId(), item("p3", 1)));
+    }
+
+    /**
+     * Tests that a cart left untouched for longer than its TTL is gone.
+     */
+    @Test
+    void getCart_shouldThrowCartNotFound_whenExpired() {
+        Cart cart = cartService.createCart(1L);
+        clock.advance(Duration.ofMinutes(31));
+
+        assertThrows(CartNotFoundException.class, () -> cartService.getCart(cart.getId()));
+    }
+
+    /**
+     * Tests that using a cart extends its lifetime.
+     */
+    @Test
+    void getCart_shouldExtendExpiry() {
+        Cart cart = cartService.createCart(1L);
+        clock.advance(Duration.ofMinutes(20));
+        cartService.getCart(cart.getId());
+        clock.advance(Duration.ofMinutes(20));
+
+        assertNotNull(cartService.getCart(cart.getId()));
+    }
+
+    /**
+     * Tests that checkout creates an order from the cart items and discards the cart.
+     */
+    @Test
+    void checkout_shouldCreateOrderAndRemoveCart() {
+        Cart cart = cartService.createCart(7L);
+        cartService.putItem(cart.getId(), item("p1", 2));
+        Order order = new Order();
+        when(orderService.createOrder(any(OrderRequest.class))).thenReturn(order);
+
+        assertSame(order, cartService.checkout(cart.getId()));
+
+        ArgumentCaptor<OrderRequest> captor = ArgumentCaptor.forClass(OrderRequest.class);
+        verify(orderService, times(1)).createOrder(captor.capture());
+        assertEquals(7L, captor.getValue().userId());
+        assertEquals(1, captor.getValue().orderItemRequests().size());
+        assertThrows(CartNotFoundException.class, () -> cartService.getCart(cart.getId()));
+    }
+
+    /**
+     * Tests that an empty cart cannot be checked out and is kept.
+     */
+    @Test
+    void checkout_shouldThrowEmptyCart_whenCartHasNoItems() {
+        Cart cart = cartService.createCart(1L);
+
+        assertThrows(EmptyCartException.class, () -> cartService.checkout(cart.getId()));
+        assertNotNull(cartService.getCart(cart.getId()));
+        verify(orderService, never()).createOrder(any());
+        cartService.putItem(cart.getId(), item("p1", 1));
+        assertEquals(1, cart.getItems().size());
+    }
+
+    /**
+     * Tests that a cart claimed by checkout refuses changes, so the order has exactly the reported items.
+     */
+    @Test
+    void checkout_shouldRejectChangesToClaimedCart() {
+        Cart cart = cartService.createCart(1L);
+        cartService.putItem(cart.getId(), item("p1", 1));
+        when(orderService.createOrder(any(OrderRequest.class))).thenAnswer(invocation -> {
+            assertThrows(CartCheckedOutException.class, () -> cart.putItem(item("p2", 1), 2));
+            assertThrows(CartCheckedOutException.class, () -> cart.removeItem("p1"));
+            return new Order();
+        });
+
+        cartService.checkout(cart.getId());
+
+        ArgumentCaptor<OrderRequest> captor = ArgumentCaptor.forClass(OrderRequest.class);
+        verify(orderService).createOrder(captor.capture());
+        assertEquals(List.of("p1"), captor.getValue().orderItemRequests().stream().map(OrderItemRequest::productId).toList());
+    }
+
+    private static OrderItemRequest item(String productId, int quantity) {
+        return OrderItemRequest.builder().productId(productId).quantity(quantity).price(10.0).build();
+    }
+
+    /**
+     * Clock whose time only moves when the test advances it.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
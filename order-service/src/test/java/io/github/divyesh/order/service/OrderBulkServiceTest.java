@@ -0,0 +1,42 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.exception.InvalidImportException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the OrderBulkService class.
+ * These tests cover the CSV handling done before rows reach PostgreSQL.
+ */
+class OrderBulkServiceTest {
+
+    /**
+     * Tests that plain and quoted leading fields are extracted.
+     */
+    @Test
+    void leadingFields_shouldHandlePlainAndQuotedFields() {
+        assertArrayEquals(new String[]{"L1", "42"},
+                OrderBulkService.leadingFields("L1,42,2020-01-01 10:00:00,DELIVERED,prod1,1,9.99", 2));
+        assertArrayEquals(new String[]{"L,\"1", "42"},
+                OrderBulkService.leadingFields("\"L,\"\"1\",\"42\",2020-01-01 10:00:00", 2));
+    }
+
+    /**
+     * Tests that a line with too few fields is rejected.
+     */
+    @Test
+    void leadingFields_shouldThrowInvalidImport_whenFieldsMissing() {
+        assertThrows(InvalidImportException.class, () -> OrderBulkService.leadingFields("L1", 2));
+    }
+
+    /**
+     * Tests that the staging row is found in the context of a COPY error, and only there.
+     */
+    @Test
+    void copyRow_shouldFindRowOfCopyError() {
+        assertEquals(3, OrderBulkService.copyRow("COPY order_import, line 3, column quantity: \"abc\""));
+        assertEquals(-1, OrderBulkService.copyRow("SQL statement \"INSERT INTO orders\""));
+        assertEquals(-1, OrderBulkService.copyRow(null));
+    }
+}
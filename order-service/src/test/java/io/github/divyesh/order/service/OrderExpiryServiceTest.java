@@ -0,0 +1,195 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import io.github.divyesh.order.events.OrderEventHub;
+import io.github.divyesh.order.expiry.PendingOrder;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.repository.OrderRepository;
+import io.github.divyesh.order.repository.ShardedOrderRepository;
+import io.github.divyesh.order.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the OrderExpiryService class.
+ */
+class OrderExpiryServiceTest {
+
+    private static final Instant START = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final MutableClock clock = new MutableClock(START);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ShardedOrderRepository orderRepository;
+    private OrderEventHub orderEventHub;
+    private OrderExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(ShardedOrderRepository.class);
+        orderEventHub = mock(OrderEventHub.class);
+        expiryService = new OrderExpiryService(orderRepository, new ShardRouter(1), orderEventHub, meterRegistry,
+                Duration.ofMinutes(30), Duration.ofSeconds(1), 2, Duration.ofSeconds(10), clock);
+        when(orderRepository.updateStatus(anyInt(), anyList(), eq("PENDING"), eq("EXPIRED")))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(1).stream().map(OrderExpiryServiceTest::updated).toList());
+    }
+
+    /**
+     * Tests that an order is expired only once its timeout has passed.
+     */
+    @Test
+    void expireDueOrders_shouldExpireOrderAfterTimeout() {
+        expiryService.schedule(pendingOrder(1L, START));
+
+        clock.advance(Duration.ofMinutes(29));
+        assertEquals(0, expiryService.expireDueOrders());
+        verify(orderRepository, never()).updateStatus(anyInt(), anyList(), eq("PENDING"), eq("EXPIRED"));
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, expiryService.expireDueOrders());
+        verify(orderRepository).updateStatus(0, List.of(1L), "PENDING", "EXPIRED");
+
+        ArgumentCaptor<OrderStatusEvent> event = ArgumentCaptor.forClass(OrderStatusEvent.class);
+        verify(orderEventHub).publish(event.capture());
+        assertEquals(1L, event.getValue().orderId());
+        assertEquals(100L, event.getValue().userId());
+        assertEquals("EXPIRED", event.getValue().status());
+    }
+
+    /**
+     * Tests that orders skipped by the guarded UPDATE are neither counted nor published.
+     */
+    @Test
+    void expireDueOrders_shouldOnlyPublishOrdersStillPending() {
+        expiryService.schedule(pendingOrder(1L, START));
+        expiryService.schedule(pendingOrder(2L, START));
+        when(orderRepository.updateStatus(0, List.of(1L, 2L), "PENDING", "EXPIRED")).thenReturn(List.of(updated(2L)));
+
+        clock.advance(Duration.ofMinutes(30));
+
+        assertEquals(1, expiryService.expireDueOrders());
+        verify(orderEventHub).publish(any(OrderStatusEvent.class));
+    }
+
+    /**
+     * Tests that orders loaded on startup are expired in batches and counted in the backlog gauge.
+     */
+    @Test
+    void rebuild_shouldScheduleStoredPendingOrders() {
+        LocalDateTime placed = LocalDateTime.ofInstant(START.minus(Duration.ofHours(1)), ZoneOffset.UTC);
+        when(orderRepository.findByStatus(0, "PENDING")).thenReturn(List.of(
+                new PendingOrder(1L, placed), new PendingOrder(2L, placed), new PendingOrder(3L, placed)));
+
+        expiryService.rebuild();
+        assertEquals(3.0, meterRegistry.get("orders.expiry.backlog").gauge().value());
+
+        assertEquals(3, expiryService.expireDueOrders());
+        verify(orderRepository).updateStatus(0, List.of(1L, 2L), "PENDING", "EXPIRED");
+        verify(orderRepository).updateStatus(0, List.of(3L), "PENDING", "EXPIRED");
+        assertEquals(0.0, meterRegistry.get("orders.expiry.backlog").gauge().value());
+    }
+
+    /**
+     * Tests that a batch whose UPDATE fails is put back into the wheel and expired on retry.
+     */
+    @Test
+    void expireDueOrders_shouldRetryFailedBatch() {
+        expiryService.schedule(pendingOrder(1L, START));
+        when(orderRepository.updateStatus(0, List.of(1L), "PENDING", "EXPIRED"))
+                .thenThrow(new IllegalStateException("shard unavailable"))
+                .thenReturn(List.of(updated(1L)));
+
+        clock.advance(Duration.ofMinutes(30));
+        assertEquals(0, expiryService.expireDueOrders());
+        assertEquals(1.0, meterRegistry.get("orders.expiry.backlog").gauge().value());
+
+        clock.advance(Duration.ofSeconds(10));
+        assertEquals(1, expiryService.expireDueOrders());
+        assertEquals(0.0, meterRegistry.get("orders.expiry.backlog").gauge().value());
+    }
+
+    /**
+     * Tests that orders that are no longer pending are not scheduled.
+     */
+    @Test
+    void schedule_shouldIgnoreOrdersThatAreNotPending() {
+        Order order = pendingOrder(1L, START);
+        order.setStatus("PAID");
+
+        expiryService.schedule(order);
+
+        assertEquals(0.0, meterRegistry.get("orders.expiry.backlog").gauge().value());
+    }
+
+    private static OrderRepository.UpdatedOrder updated(Long id) {
+        return new OrderRepository.UpdatedOrder() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUserId() {
+                return id * 100;
+            }
+        };
+    }
+
+    private static Order pendingOrder(Long id, Instant placedAt) {
+        return Order.builder()
+                .id(id)
+                .userId(1L)
+                .orderDate(LocalDateTime.ofInstant(placedAt, ZoneOffset.UTC))
+                .status("PENDING")
+                .build();
+    }
+
+    /**
+     * Clock whose time only moves when the test advances it.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package io.github.divyesh.order.service;
 
+import io.github.divyesh.order.archive.OrderArchive;
 import io.github.divyesh.order.dto.OrderItemRequest;
 import io.github.divyesh.order.dto.OrderRequest;
+import io.github.divyesh.order.dto.OrderStatusEvent;
+import io.github.divyesh.order.events.OrderEventHub;
 import io.github.divyesh.order.exception.OrderNotFoundException;
 import io.github.divyesh.order.model.Order;
 import io.github.divyesh.order.model.OrderItem;
-import io.github.divyesh.order.repository.OrderRepository;
+import io.github.divyesh.order.repository.ShardedOrderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -23,12 +26,27 @@ import static org.mockito.Mockito.*;
 /**
  * Unit tests for the OrderService class.
  * These tests focus on the business logic of the OrderService in isolation,
- * mocking the OrderRepository dependency.
+ * mocking the ShardedOrderRepository dependency.
  */
 class OrderServiceTest {
 
     @Mock
-    private OrderRepository orderRepository;
+    private ShardedOrderRepository orderRepository;
+
+    @Mock
+    private OrderArchive orderArchive;
+
+    @Mock
+    private OrderExpiryService orderExpiryService;
+
+    @Mock
+    private OrderEventHub orderEventHub;
+
+    @Mock
+    private TopProductsService topProductsService;
+
+    @Mock
+    private UniqueBuyerService uniqueBuyerService;
 
     @InjectMocks
     private OrderService orderService;
@@ -76,6 +94,10 @@ class OrderServiceTest {
         assertEquals(1, createdOrder.getOrderItems().size());
         assertEquals(20.0, createdOrder.getTotalAmount());
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderExpiryService, times(1)).schedule(order);
+        verify(orderEventHub, times(1)).publish(any(OrderStatusEvent.class));
+        verify(topProductsService, times(1)).record(order);
+        verify(uniqueBuyerService, times(1)).record(order);
     }
 
     /**
@@ -106,6 +128,21 @@ class OrderServiceTest {
         verify(orderRepository, times(1)).findById(1L);
     }
 
+    /**
+     * Tests that getOrderById falls back to the archive when the order is not in the database.
+     */
+    @Test
+    void getOrderById_shouldReturnArchivedOrder_whenOnlyArchived() {
+        Order order = Order.builder().id(1L).userId(1L).build();
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderArchive.findById(1L)).thenReturn(Optional.of(order));
+
+        Optional<Order> retrievedOrder = orderService.getOrderById(1L);
+
+        assertTrue(retrievedOrder.isPresent());
+        verify(orderArchive, times(1)).findById(1L);
+    }
+
     /**
      * Tests that getAllOrders returns a list of all orders.
      */
@@ -140,6 +177,7 @@ class OrderServiceTest {
         assertEquals("CONFIRMED", result.get().getStatus());
         verify(orderRepository, times(1)).findById(1L);
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderEventHub, times(1)).publish(argThat(event -> "CONFIRMED".equals(event.status())));
     }
 
     /**
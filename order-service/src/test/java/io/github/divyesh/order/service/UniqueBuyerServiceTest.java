@@ -0,0 +1,83 @@
+package io.github.divyesh.order.service;
+
+import io.github.divyesh.order.model.BuyerSketch;
+import io.github.divyesh.order.model.Order;
+import io.github.divyesh.order.model.OrderItem;
+import io.github.divyesh.order.repository.BuyerSketchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the UniqueBuyerService class.
+ * The sketch repository and the transaction manager are mocked.
+ */
+class UniqueBuyerServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 1);
+
+    private BuyerSketchRepository sketchRepository;
+    private UniqueBuyerService uniqueBuyerService;
+
+    @BeforeEach
+    void setUp() {
+        sketchRepository = mock(BuyerSketchRepository.class);
+        when(sketchRepository.findByDayAndProductId(any(), anyString())).thenReturn(Optional.empty());
+        when(sketchRepository.findByProductIdAndDayBetween(anyString(), any(), any())).thenReturn(List.of());
+        when(sketchRepository.save(any(BuyerSketch.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Clock clock = Clock.fixed(Instant.parse("2025-01-01T12:00:00Z"), ZoneOffset.UTC);
+        uniqueBuyerService = new UniqueBuyerService(sketchRepository, mock(PlatformTransactionManager.class),
+                12, 100, 31, clock);
+    }
+
+    /**
+     * Tests that a sketch that fails to persist, with any exception, does not stop the other
+     * sketches from being flushed, and keeps being counted until it is persisted.
+     */
+    @Test
+    void flush_shouldKeepFailedSketchAndFlushOthers() {
+        uniqueBuyerService.record(order(1L, "prod1"));
+        when(sketchRepository.save(argThat(sketch -> sketch != null && "prod1".equals(sketch.getProductId()))))
+                .thenThrow(new IllegalArgumentException("Cannot merge sketches of different precision"));
+
+        uniqueBuyerService.flush();
+
+        verify(sketchRepository).save(argThat(sketch -> sketch != null && BuyerSketch.ALL_PRODUCTS.equals(sketch.getProductId())));
+        assertEquals(1, uniqueBuyerService.countUniqueBuyers("prod1", TODAY, TODAY));
+
+        uniqueBuyerService.flush();
+
+        verify(sketchRepository, times(2)).save(argThat(sketch -> sketch != null && "prod1".equals(sketch.getProductId())));
+        verify(sketchRepository, times(1)).findByDayAndProductId(eq(TODAY), eq(BuyerSketch.ALL_PRODUCTS));
+    }
+
+    private static Order order(Long userId, String productId) {
+        Order order = Order.builder()
+                .id(1L)
+                .userId(userId)
+                .orderDate(LocalDateTime.of(TODAY, LocalTime.NOON))
+                .status("PENDING")
+                .build();
+        order.setOrderItems(List.of(OrderItem.builder().id(1L).productId(productId).quantity(1).price(1.0).order(order).build()));
+        return order;
+    }
+}
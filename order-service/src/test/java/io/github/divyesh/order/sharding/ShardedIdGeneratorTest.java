@@ -0,0 +1,76 @@
+package io.github.divyesh.order.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ShardedIdGenerator and ShardRouter classes, and the instance ids of ShardingProperties.
+ */
+class ShardedIdGeneratorTest {
+
+    /**
+     * Tests that generated ids are unique and encode the shard they were generated for.
+     */
+    @Test
+    void nextId_shouldBeUniqueAndEncodeShard() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            int shard = i % 4;
+            long id = ShardedIdGenerator.nextId(shard);
+            assertTrue(ids.add(id));
+            assertEquals(shard, ShardedIdGenerator.shardOf(id));
+        }
+    }
+
+    /**
+     * Tests that ids assigned by the database before sharding map to shard 0.
+     */
+    @Test
+    void shardOf_shouldMapLegacyIdsToShardZero() {
+        assertEquals(0, ShardedIdGenerator.shardOf(1L));
+        assertEquals(0, ShardedIdGenerator.shardOf(ShardedIdGenerator.LEGACY_ID_LIMIT - 1));
+    }
+
+    /**
+     * Tests that users are spread over all shards and always map to the same shard.
+     */
+    @Test
+    void shardForUser_shouldBeStableAndSpreadUsers() {
+        ShardRouter router = new ShardRouter(4);
+        int[] counts = new int[4];
+        for (long userId = 1; userId <= 1_000; userId++) {
+            int shard = router.shardForUser(userId);
+            assertEquals(shard, router.shardForUser(userId));
+            counts[shard]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 150);
+        }
+    }
+
+    /**
+     * Tests that the configured instance id wins, and the pod ordinal is used when none is configured.
+     */
+    @Test
+    void resolveInstanceId_shouldUseConfiguredIdOrPodOrdinal() {
+        assertEquals(5, new ShardingProperties(null, 5, false).resolveInstanceId("order-service-3"));
+        assertEquals(3, new ShardingProperties(null, null, false).resolveInstanceId("order-service-3"));
+    }
+
+    /**
+     * Tests that startup fails when a replica has no instance id or one that does not fit its bits.
+     */
+    @Test
+    void resolveInstanceId_shouldRejectMissingOrOutOfRangeId() {
+        ShardingProperties unset = new ShardingProperties(null, null, false);
+        assertThrows(IllegalStateException.class, () -> unset.resolveInstanceId(null));
+        assertThrows(IllegalStateException.class, () -> unset.resolveInstanceId("3f2a9c1d7e4b"));
+        assertThrows(IllegalStateException.class, () -> unset.resolveInstanceId("order-service-16"));
+        assertThrows(IllegalStateException.class,
+                () -> new ShardingProperties(null, -1, false).resolveInstanceId(null));
+    }
+}
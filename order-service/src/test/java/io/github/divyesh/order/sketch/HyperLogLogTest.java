@@ -0,0 +1,90 @@
+package io.github.divyesh.order.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the HyperLogLog class.
+ */
+class HyperLogLogTest {
+
+    /**
+     * Tests that small sets are counted almost exactly and duplicates are ignored.
+     */
+    @Test
+    void estimate_shouldCountSmallSetsAccurately() {
+        HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        for (long userId = 1; userId <= 100; userId++) {
+            sketch.add(userId);
+            sketch.add(userId);
+        }
+
+        assertEquals(100, sketch.estimate(), 2);
+    }
+
+    /**
+     * Tests that large sets are estimated within a few standard errors.
+     */
+    @Test
+    void estimate_shouldStayWithinErrorBound_forLargeSets() {
+        HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        for (long userId = 0; userId < 200_000; userId++) {
+            sketch.add(userId);
+        }
+
+        assertEquals(200_000, sketch.estimate(), 200_000 * 0.05);
+    }
+
+    /**
+     * Tests that merging two sketches estimates the union of their sets.
+     */
+    @Test
+    void merge_shouldEstimateUnion() {
+        HyperLogLog first = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        HyperLogLog second = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        for (long userId = 0; userId < 60_000; userId++) {
+            first.add(userId);
+            second.add(userId + 30_000);
+        }
+
+        first.merge(second);
+
+        assertEquals(90_000, first.estimate(), 90_000 * 0.05);
+    }
+
+    /**
+     * Tests that sparse and dense sketches survive serialization and that sparse ones stay small.
+     */
+    @Test
+    void toBytes_shouldRoundTripSparseAndDenseSketches() {
+        HyperLogLog sparse = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        for (long userId = 0; userId < 50; userId++) {
+            sparse.add(userId);
+        }
+        HyperLogLog dense = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+        for (long userId = 0; userId < 50_000; userId++) {
+            dense.add(userId);
+        }
+
+        byte[] sparseBytes = sparse.toBytes();
+        byte[] denseBytes = dense.toBytes();
+
+        assertTrue(sparseBytes.length < 200);
+        assertEquals(2 + 4096 * 6 / 8, denseBytes.length);
+        assertEquals(sparse.estimate(), HyperLogLog.fromBytes(sparseBytes).estimate());
+        assertEquals(dense.estimate(), HyperLogLog.fromBytes(denseBytes).estimate());
+    }
+
+    /**
+     * Tests that sketches of different precision cannot be merged.
+     */
+    @Test
+    void merge_shouldRejectDifferentPrecision() {
+        HyperLogLog sketch = new HyperLogLog(12);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new HyperLogLog(10)));
+    }
+}
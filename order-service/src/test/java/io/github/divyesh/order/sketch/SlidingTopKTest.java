@@ -0,0 +1,79 @@
+package io.github.divyesh.order.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the SlidingTopK class.
+ */
+class SlidingTopKTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    /**
+     * Tests that the heaviest items are ranked first with exact counts while the summary has room.
+     */
+    @Test
+    void top_shouldRankHeaviestItemsFirst() {
+        SlidingTopK<String> topK = new SlidingTopK<>(Duration.ofMinutes(1), Duration.ofHours(1), 10, 256, 4);
+        topK.add("a", 5, 0);
+        topK.add("b", 9, MINUTE);
+        topK.add("c", 1, 2 * MINUTE);
+        topK.add("a", 3, 2 * MINUTE);
+
+        List<SlidingTopK.HeavyHitter<String>> top = topK.top(Duration.ofHours(1), 2, 2 * MINUTE);
+
+        assertEquals(List.of(new SlidingTopK.HeavyHitter<>("b", 9, 0), new SlidingTopK.HeavyHitter<>("a", 8, 0)), top);
+    }
+
+    /**
+     * Tests that buckets older than the window are not counted.
+     */
+    @Test
+    void top_shouldIgnoreBucketsOutsideTheWindow() {
+        SlidingTopK<String> topK = new SlidingTopK<>(Duration.ofMinutes(1), Duration.ofHours(1), 10, 256, 4);
+        topK.add("old", 100, 0);
+        topK.add("new", 1, 30 * MINUTE);
+
+        List<SlidingTopK.HeavyHitter<String>> top = topK.top(Duration.ofMinutes(10), 10, 30 * MINUTE);
+
+        assertEquals(List.of(new SlidingTopK.HeavyHitter<>("new", 1, 0)), top);
+        assertTrue(topK.top(Duration.ofHours(1), 10, 61 * MINUTE).stream().noneMatch(h -> h.item().equals("old")));
+    }
+
+    /**
+     * Tests that a heavy item is found and never undercounted when the summary overflows.
+     */
+    @Test
+    void top_shouldNeverUndercountHeavyItems_whenSummaryOverflows() {
+        SlidingTopK<String> topK = new SlidingTopK<>(Duration.ofMinutes(1), Duration.ofHours(1), 8, 64, 4);
+        for (int i = 0; i < 1000; i++) {
+            topK.add("item" + i, 1, 0);
+            if (i % 4 == 0) {
+                topK.add("heavy", 1, 0);
+            }
+        }
+
+        SlidingTopK.HeavyHitter<String> first = topK.top(Duration.ofMinutes(1), 1, 0).get(0);
+
+        assertEquals("heavy", first.item());
+        assertTrue(first.count() >= 250);
+        assertTrue(first.count() - first.maxError() <= 250);
+    }
+
+    /**
+     * Tests that windows longer than the ring are rejected.
+     */
+    @Test
+    void top_shouldRejectWindowLongerThanMaximum() {
+        SlidingTopK<String> topK = new SlidingTopK<>(Duration.ofMinutes(1), Duration.ofHours(1), 10, 256, 4);
+
+        assertThrows(IllegalArgumentException.class, () -> topK.top(Duration.ofHours(2), 10, 0));
+    }
+}
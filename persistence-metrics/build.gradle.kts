@@ -0,0 +1,18 @@
+// Persistence metrics and the slow-query log shared by the JPA services.
+// A plain library: it is packaged into the services' boot jars and configures itself through auto-configuration.
+plugins {
+    `java-library`
+}
+
+tasks.named("bootJar") {
+    enabled = false
+}
+
+tasks.named("jar") {
+    enabled = true
+}
+
+dependencies {
+    implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+}
@@ -0,0 +1,72 @@
+package io.github.divyesh.persistence.config;
+
+import io.github.divyesh.persistence.metrics.RepositoryRowCountInterceptor;
+import io.github.divyesh.persistence.metrics.SessionMetricsListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Auto-configuration for persistence-layer metrics, applied to every service that depends on this module.
+ * Adds row counts to every Spring Data repository, per-query Hibernate timings,
+ * and per-session Hibernate statistics on top of what Spring Boot records by default.
+ */
+@AutoConfiguration
+public class PersistenceMetricsAutoConfiguration {
+
+    /**
+     * Registers the row-count interceptor on every Spring Data repository proxy.
+     * @param meterRegistry Provider for the meter registry, resolved lazily.
+     * @return A post processor that customizes repository factory beans.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryRowCountPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryRowCountInterceptor(meterRegistry, information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Enables Hibernate statistics and attaches the per-session metrics listener.
+     * @return A customizer for the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sessionMetricsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SessionMetricsListener.class.getName());
+        };
+    }
+
+    /**
+     * Binds per-query Hibernate metrics and the session listener to the meter registry.
+     * @param entityManagerFactory The JPA entity manager factory backed by Hibernate.
+     * @return A meter binder applied to every registry by Spring Boot.
+     */
+    @Bean
+    public MeterBinder hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        return registry -> {
+            new HibernateQueryMetrics(sessionFactory, "entityManagerFactory", Tags.empty()).bindTo(registry);
+            SessionMetricsListener.bindTo(registry);
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.divyesh.persistence.config;
+
+import io.github.divyesh.persistence.jdbc.SlowQueryDataSource;
+import io.github.divyesh.persistence.jdbc.SlowQueryEndpoint;
+import io.github.divyesh.persistence.jdbc.SlowQueryRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Auto-configuration for the slow-query log, applied to every service that depends on this module.
+ * Wraps the application data source so every statement is fingerprinted and timed,
+ * replacing Hibernate's {@code show-sql} output.
+ */
+@AutoConfiguration
+public class SlowQueryAutoConfiguration {
+
+    /**
+     * Provides the recorder that keeps per-fingerprint statistics.
+     * @param thresholdMillis Statements taking at least this long are logged.
+     * @param maxFingerprints The maximum number of distinct fingerprints to track.
+     * @return A {@link SlowQueryRecorder} instance.
+     */
+    @Bean
+    public SlowQueryRecorder slowQueryRecorder(@Value("${slow-query.threshold-ms:200}") long thresholdMillis,
+                                               @Value("${slow-query.max-fingerprints:500}") int maxFingerprints) {
+        return new SlowQueryRecorder(thresholdMillis, maxFingerprints);
+    }
+
+    /**
+     * Wraps every data source bean in a {@link SlowQueryDataSource}.
+     * @param recorder Provider for the recorder, resolved when the data source is created.
+     * @return A post processor that proxies data sources.
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource(dataSource, recorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Provides the actuator endpoint listing the worst fingerprints.
+     * @param recorder The recorder holding the fingerprint statistics.
+     * @return A {@link SlowQueryEndpoint} instance.
+     */
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryRecorder recorder) {
+        return new SlowQueryEndpoint(recorder);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.divyesh.persistence.jdbc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency statistics for a single statement fingerprint.
+ * Latencies are kept in a histogram of power-of-two microsecond buckets, which bounds memory
+ * per fingerprint and gives percentiles to within a factor of two.
+ */
+public class FingerprintStatistics {
+
+    private static final int BUCKETS = 40;
+
+    private final String fingerprint;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Constructs empty statistics for the given fingerprint.
+     * @param fingerprint The normalized statement.
+     */
+    public FingerprintStatistics(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Records one execution of the statement.
+     * @param elapsedNanos The execution time in nanoseconds.
+     */
+    public void record(long elapsedNanos) {
+        count.increment();
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        buckets.incrementAndGet(bucketOf(elapsedNanos));
+    }
+
+    /**
+     * Returns the total time spent executing the statement.
+     * @return The total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * Takes a point-in-time summary of these statistics.
+     * @return The summary.
+     */
+    public FingerprintSummary summarize() {
+        long executions = count.sum();
+        long total = totalNanos.sum();
+        return new FingerprintSummary(
+                fingerprint,
+                executions,
+                toMillis(total),
+                executions == 0 ? 0 : toMillis(total / executions),
+                percentile(0.50),
+                percentile(0.95),
+                percentile(0.99),
+                toMillis(maxNanos.get()));
+    }
+
+    /**
+     * Estimates a latency percentile as the upper bound of the bucket that contains it,
+     * capped at the slowest recorded execution.
+     * @param quantile The quantile between 0 and 1.
+     * @return The estimated latency in milliseconds.
+     */
+    double percentile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long executions = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            executions += snapshot[i];
+        }
+        if (executions == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * executions);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min((1L << (i + 1)) / 1000.0, toMillis(maxNanos.get()));
+            }
+        }
+        return toMillis(maxNanos.get());
+    }
+
+    private static int bucketOf(long elapsedNanos) {
+        long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        return Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
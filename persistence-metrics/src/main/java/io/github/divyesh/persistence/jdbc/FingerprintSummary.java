@@ -0,0 +1,23 @@
+package io.github.divyesh.persistence.jdbc;
+
+/**
+ * Snapshot of the latency statistics for one statement fingerprint.
+ *
+ * @param fingerprint The normalized statement.
+ * @param count The number of executions.
+ * @param totalMs The total execution time in milliseconds.
+ * @param meanMs The mean execution time in milliseconds.
+ * @param p50Ms The estimated median execution time in milliseconds.
+ * @param p95Ms The estimated 95th percentile execution time in milliseconds.
+ * @param p99Ms The estimated 99th percentile execution time in milliseconds.
+ * @param maxMs The slowest execution time in milliseconds.
+ */
+public record FingerprintSummary(
+    String fingerprint,
+    long count,
+    double totalMs,
+    double meanMs,
+    double p50Ms,
+    double p95Ms,
+    double p99Ms,
+    double maxMs) {}
@@ -0,0 +1,37 @@
+package io.github.divyesh.persistence.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint listing the statement fingerprints with the highest total execution time.
+ * Available at {@code /actuator/slowqueries?limit=N}.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SlowQueryRecorder recorder;
+
+    /**
+     * Constructs a SlowQueryEndpoint backed by the given recorder.
+     * @param recorder The recorder holding the fingerprint statistics.
+     */
+    public SlowQueryEndpoint(SlowQueryRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Lists the worst statement fingerprints.
+     * @param limit The number of fingerprints to return, 20 if not given.
+     * @return The fingerprint summaries, worst first.
+     */
+    @ReadOperation
+    public List<FingerprintSummary> slowQueries(@Nullable Integer limit) {
+        return recorder.top(limit == null ? DEFAULT_LIMIT : limit);
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.divyesh.persistence.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects per-fingerprint latency statistics for every executed statement
+ * and logs the statements that exceed the configured threshold.
+ * The number of tracked fingerprints is bounded; once the limit is reached,
+ * new fingerprints are accounted under a shared overflow entry.
+ */
+public class SlowQueryRecorder {
+
+    static final String OVERFLOW_FINGERPRINT = "<other>";
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryRecorder.class);
+
+    private final long thresholdNanos;
+    private final int maxFingerprints;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, FingerprintStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a SlowQueryRecorder.
+     * @param thresholdMillis Statements taking at least this long are logged.
+     * @param maxFingerprints The maximum number of distinct fingerprints to track.
+     */
+    public SlowQueryRecorder(long thresholdMillis, int maxFingerprints) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    /**
+     * Records the execution of a statement.
+     * @param sql The SQL that was executed.
+     * @param elapsedNanos The execution time in nanoseconds.
+     * @param bindCount The number of bind parameters set on the statement.
+     */
+    public void record(String sql, long elapsedNanos, int bindCount) {
+        if (sql == null) {
+            return;
+        }
+        String fingerprint = fingerprintOf(sql);
+        statistics.computeIfAbsent(fingerprint, FingerprintStatistics::new).record(elapsedNanos);
+        if (elapsedNanos >= thresholdNanos) {
+            log.warn("Slow query took {} ms with {} bind parameters: {}",
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), bindCount, fingerprint);
+        }
+    }
+
+    /**
+     * Returns the fingerprints with the highest total execution time.
+     * @param limit The maximum number of fingerprints to return.
+     * @return The summaries, worst first.
+     */
+    public List<FingerprintSummary> top(int limit) {
+        return statistics.values().stream()
+                .sorted(Comparator.comparingLong(FingerprintStatistics::getTotalNanos).reversed())
+                .limit(limit)
+                .map(FingerprintStatistics::summarize)
+                .toList();
+    }
+
+    private String fingerprintOf(String sql) {
+        String fingerprint = fingerprints.get(sql);
+        if (fingerprint != null) {
+            return fingerprint;
+        }
+        fingerprint = SqlFingerprint.of(sql);
+        if (!statistics.containsKey(fingerprint) && statistics.size() >= maxFingerprints) {
+            return OVERFLOW_FINGERPRINT;
+        }
+        // Statements that embed literals produce a new raw string every time, so cap the cache too
+        if (fingerprints.size() < maxFingerprints * 4) {
+            fingerprints.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.divyesh.persistence.jdbc;
+
+import java.util.regex.Pattern;
+
+/**
+ * Utility for reducing SQL statements to a normalized fingerprint.
+ * Literals are replaced with {@code ?}, IN lists are collapsed and whitespace is squeezed,
+ * so statements that only differ in their values share the same fingerprint.
+ */
+public final class SqlFingerprint {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {}
+
+    /**
+     * Computes the fingerprint of a SQL statement.
+     * @param sql The raw SQL statement.
+     * @return The normalized statement.
+     */
+    public static String of(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.divyesh.persistence.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Records the number of rows returned by each Spring Data repository method.
+ * Spring Boot already times every repository call as {@code spring.data.repository.invocations};
+ * this interceptor adds the result size so slow calls can be told apart from large ones.
+ * Methods returning nothing are not recorded, and streamed results are counted as they are
+ * consumed and recorded when the stream is closed.
+ */
+public class RepositoryRowCountInterceptor implements MethodInterceptor {
+
+    public static final String METRIC_NAME = "spring.data.repository.rows";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Class<?> repositoryInterface;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a RepositoryRowCountInterceptor for a single repository.
+     * @param meterRegistry Provider for the registry the row counts are recorded in.
+     * @param repositoryInterface The repository interface being proxied, used as the metric tag.
+     */
+    public RepositoryRowCountInterceptor(ObjectProvider<MeterRegistry> meterRegistry, Class<?> repositoryInterface) {
+        this.meterRegistry = meterRegistry;
+        this.repositoryInterface = repositoryInterface;
+    }
+
+    /**
+     * Invokes the repository method and records the size of its result.
+     * @param invocation The repository method invocation.
+     * @return The unchanged result of the invocation.
+     * @throws Throwable if the repository method throws.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Method method = invocation.getMethod();
+        if (method.getReturnType() == void.class || method.getReturnType() == Void.class) {
+            return result;
+        }
+        if (result instanceof Stream<?> stream) {
+            LongAdder rows = new LongAdder();
+            return stream.peek(row -> rows.increment()).onClose(() -> record(method, rows.sum()));
+        }
+        long rows = rowCount(result);
+        if (rows >= 0) {
+            record(method, rows);
+        }
+        return result;
+    }
+
+    private void record(Method method, long rows) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            summaries.computeIfAbsent(method, key -> DistributionSummary.builder(METRIC_NAME)
+                            .description("Rows returned by Spring Data repository methods")
+                            .tag("repository", repositoryInterface.getSimpleName())
+                            .tag("method", key.getName())
+                            .publishPercentiles(0.5, 0.95, 0.99)
+                            .register(registry))
+                    .record(rows);
+        }
+    }
+
+    /**
+     * Works out how many rows a repository result represents.
+     * Scalar results such as counts and existence checks are not rows and yield -1, and so do
+     * streams, which are only counted once consumed.
+     * @param result The value returned by the repository method.
+     * @return The number of rows, or -1 if the result does not represent rows.
+     */
+    static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number || result instanceof Boolean || result instanceof Iterable<?> || result instanceof Stream<?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.divyesh.persistence.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate session listener that publishes per-session statistics to Micrometer.
+ * Hibernate creates one instance per session, and with open-in-view a session spans
+ * a single HTTP request, so these metrics describe the database work done per request.
+ * Application-wide counters such as entity loads come from Spring Boot's Hibernate metrics.
+ */
+public class SessionMetricsListener implements SessionEventListener {
+
+    private static volatile MeterRegistry meterRegistry;
+
+    private int statements;
+    private int batches;
+    private int flushes;
+    private int flushedEntities;
+    private long jdbcNanos;
+    private long statementStart;
+    private long batchStart;
+
+    /**
+     * Sets the registry that all sessions report to.
+     * Hibernate instantiates this listener reflectively, so the registry is held statically.
+     * @param registry The meter registry to publish to.
+     */
+    public static void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+        jdbcNanos += System.nanoTime() - statementStart;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        batches++;
+        jdbcNanos += System.nanoTime() - batchStart;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        flushes++;
+        flushedEntities += numberOfEntities;
+    }
+
+    /**
+     * Publishes the accumulated counts when the session closes.
+     */
+    @Override
+    public void end() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        summary(registry, "hibernate.session.statements", "JDBC statements executed per session").record(statements);
+        summary(registry, "hibernate.session.batches", "JDBC batches executed per session").record(batches);
+        summary(registry, "hibernate.session.flushes", "Flushes per session").record(flushes);
+        summary(registry, "hibernate.session.flushed.entities", "Entities flushed per session").record(flushedEntities);
+        Timer.builder("hibernate.session.jdbc.time")
+                .description("Time spent executing JDBC statements per session")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry)
+                .record(jdbcNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static DistributionSummary summary(MeterRegistry registry, String name, String description) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
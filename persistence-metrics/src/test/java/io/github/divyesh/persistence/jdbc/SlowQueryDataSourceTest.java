@@ -0,0 +1,41 @@
+package io.github.divyesh.persistence.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SlowQueryDataSource class.
+ * The target data source and the recorder are mocked.
+ */
+class SlowQueryDataSourceTest {
+
+    /**
+     * Tests that every statement of a plain statement batch is recorded, not only the last one.
+     */
+    @Test
+    void executeBatch_shouldRecordEveryBatchedStatement() throws Exception {
+        Statement statement = mock(Statement.class);
+        Connection connection = mock(Connection.class);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        SlowQueryRecorder recorder = mock(SlowQueryRecorder.class);
+
+        Statement proxy = new SlowQueryDataSource(target, recorder).getConnection().createStatement();
+        proxy.addBatch("delete from cart_items where cart_id = 1");
+        proxy.addBatch("update orders set status = 'EXPIRED' where id = 2");
+        proxy.executeBatch();
+
+        verify(recorder).record(eq("delete from cart_items where cart_id = 1"), anyLong(), anyInt());
+        verify(recorder).record(eq("update orders set status = 'EXPIRED' where id = 2"), anyLong(), anyInt());
+        verify(statement).executeBatch();
+    }
+}
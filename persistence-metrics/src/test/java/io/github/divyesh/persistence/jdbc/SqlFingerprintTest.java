@@ -0,0 +1,38 @@
+package io.github.divyesh.persistence.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the SqlFingerprint class.
+ */
+class SqlFingerprintTest {
+
+    /**
+     * Tests that string and numeric literals are replaced with placeholders.
+     */
+    @Test
+    void of_shouldStripLiterals() {
+        assertEquals("select * from orders where status = ? and total_amount > ?",
+                SqlFingerprint.of("select * from orders where status = 'PENDING' and total_amount > 10.5"));
+    }
+
+    /**
+     * Tests that IN lists of any length and whitespace differences share a fingerprint.
+     */
+    @Test
+    void of_shouldCollapseInListsAndWhitespace() {
+        assertEquals(SqlFingerprint.of("select o1_0.id from orders o1_0 where o1_0.id in (?, ?)"),
+                SqlFingerprint.of("select o1_0.id\n  from orders o1_0\n where o1_0.id in (1,2,3)"));
+    }
+
+    /**
+     * Tests that Hibernate table aliases containing digits are left untouched.
+     */
+    @Test
+    void of_shouldKeepAliases() {
+        assertEquals("select o1_0.id from orders o1_0 where o1_0.user_id=?",
+                SqlFingerprint.of("select o1_0.id from orders o1_0 where o1_0.user_id=?"));
+    }
+}
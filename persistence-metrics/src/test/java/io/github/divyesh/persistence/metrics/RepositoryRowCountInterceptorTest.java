@@ -0,0 +1,84 @@
+package io.github.divyesh.persistence.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.PageImpl;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the RepositoryRowCountInterceptor class.
+ * These tests check how repository results are translated into row counts.
+ */
+class RepositoryRowCountInterceptorTest {
+
+    /**
+     * Tests that collections, pages and optionals are counted by their contents.
+     */
+    @Test
+    void rowCount_shouldCountContainerResults() {
+        assertEquals(3, RepositoryRowCountInterceptor.rowCount(List.of(1, 2, 3)));
+        assertEquals(2, RepositoryRowCountInterceptor.rowCount(new PageImpl<>(List.of("a", "b"))));
+        assertEquals(1, RepositoryRowCountInterceptor.rowCount(Optional.of("a")));
+        assertEquals(0, RepositoryRowCountInterceptor.rowCount(Optional.empty()));
+        assertEquals(0, RepositoryRowCountInterceptor.rowCount(null));
+    }
+
+    /**
+     * Tests that single entities count as one row and scalar results are skipped.
+     */
+    @Test
+    void rowCount_shouldSkipScalarResults() {
+        assertEquals(1, RepositoryRowCountInterceptor.rowCount(new Object()));
+        assertEquals(-1, RepositoryRowCountInterceptor.rowCount(42L));
+        assertEquals(-1, RepositoryRowCountInterceptor.rowCount(Boolean.TRUE));
+    }
+
+    /**
+     * Tests that void methods are not recorded and streamed rows are counted when the stream is closed.
+     */
+    @Test
+    void invoke_shouldSkipVoidResultsAndCountStreamsOnClose() throws Throwable {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        RepositoryRowCountInterceptor interceptor = new RepositoryRowCountInterceptor(
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class),
+                Rows.class);
+
+        interceptor.invoke(invocation(Rows.class.getMethod("deleteAll"), null));
+        assertNull(registry.find(RepositoryRowCountInterceptor.METRIC_NAME).tag("method", "deleteAll").summary());
+
+        Object result = interceptor.invoke(invocation(Rows.class.getMethod("streamAll"), Stream.of("a", "b", "c")));
+        try (Stream<?> stream = (Stream<?>) result) {
+            assertEquals(3, stream.toList().size());
+        }
+        assertEquals(3, registry.get(RepositoryRowCountInterceptor.METRIC_NAME).tag("method", "streamAll").summary().totalAmount());
+    }
+
+    private static MethodInvocation invocation(Method method, Object result) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.proceed()).thenReturn(result);
+        return invocation;
+    }
+
+    /**
+     * A repository interface with the result types under test.
+     */
+    interface Rows {
+        void deleteAll();
+
+        Stream<String> streamAll();
+    }
+}
@@ -0,0 +1,57 @@
+// k6 load test of the catalog reads served by both the servlet and the reactive profile:
+// lookups by ID and by SKU. See README.md for how to run the side-by-side comparison.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082';
+const CONNECTIONS = parseInt(__ENV.CONNECTIONS || '10000', 10);
+const DURATION = __ENV.DURATION || '2m';
+const SAMPLE = parseInt(__ENV.SAMPLE || '500', 10);
+
+export const options = {
+    scenarios: {
+        catalogReads: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: CONNECTIONS },
+                { duration: DURATION, target: CONNECTIONS },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(90)', 'p(99)', 'max'],
+};
+
+// Picks the products to look up. The servlet profile pages the listing as JSON; the reactive
+// profile only streams it as newline-delimited JSON.
+export function setup() {
+    let products;
+    const page = http.get(`${BASE_URL}/api/products?limit=${SAMPLE}`, { headers: { Accept: 'application/json' } });
+    if (page.status === 200) {
+        products = page.json('items');
+    } else {
+        const stream = http.get(`${BASE_URL}/api/products?limit=${SAMPLE}`, { headers: { Accept: 'application/x-ndjson' } });
+        products = stream.body.split('\n').filter((line) => line.length > 0).map((line) => JSON.parse(line));
+    }
+    if (!products || products.length === 0) {
+        throw new Error(`No products at ${BASE_URL}; seed the catalog first`);
+    }
+    return { ids: products.map((p) => p.id), skus: products.filter((p) => p.sku).map((p) => p.sku) };
+}
+
+export default function (data) {
+    if (data.skus.length > 0 && Math.random() < 0.5) {
+        const sku = data.skus[Math.floor(Math.random() * data.skus.length)];
+        const response = http.get(`${BASE_URL}/api/products/by-sku/${encodeURIComponent(sku)}`, { tags: { name: 'by-sku' } });
+        check(response, { 'status is 200': (r) => r.status === 200 });
+    } else {
+        const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+        const response = http.get(`${BASE_URL}/api/products/${id}`, { tags: { name: 'by-id' } });
+        check(response, { 'status is 200': (r) => r.status === 200 });
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.divyesh.product.cache;
+
+import io.github.divyesh.product.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Keeps the hot part of the catalog, the products in the {@link ProductCache}, on local disk,
+ * so a restarted replica does not start with a cold cache.
+ * <p>
+ * The cached products are written to a {@link CatalogSnapshotFile} periodically and on shutdown.
+ * At startup the snapshot is memory-mapped and loaded into the cache, so lookups by ID and SKU
+ * are answered at once, and then caught up: the version and modification time of every restored
+ * product are compared with MongoDB, and products changed or deleted since the snapshot are
+ * evicted. The catch-up runs after the change stream has opened, so no change slips between
+ * the two, and inside an {@link ApplicationReadyEvent} listener, so Spring Boot reports the
+ * replica ready only once it is done.
+ * <p>
+ * Without change streams, restored products expire after the cache's maximum staleness like
+ * any other entry, so the snapshot only softens the first seconds after a restart.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CatalogSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshot.class);
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+    private static final Duration CHANGE_STREAM_WAIT = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final ProductChangeStreamListener changeStreamListener;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration interval;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a CatalogSnapshot.
+     * @param mongoTemplate The template used to check restored products.
+     * @param productCache The cache that is written to and restored from the snapshot.
+     * @param changeStreamListener The listener whose start the catch-up waits for.
+     * @param enabled Whether snapshots are written and restored.
+     * @param path The path of the snapshot file on local disk.
+     * @param interval How often the snapshot is written.
+     */
+    public CatalogSnapshot(MongoTemplate mongoTemplate, ProductCache productCache,
+                           ProductChangeStreamListener changeStreamListener,
+                           @Value("${product-snapshot.enabled:true}") boolean enabled,
+                           @Value("${product-snapshot.path:product-catalog.snapshot}") Path path,
+                           @Value("${product-snapshot.interval:PT1M}") Duration interval) {
+        this.mongoTemplate = mongoTemplate;
+        this.productCache = productCache;
+        this.changeStreamListener = changeStreamListener;
+        this.enabled = enabled;
+        this.path = path;
+        this.interval = interval;
+    }
+
+    /**
+     * Restores and catches up the snapshot, then starts writing snapshots in the background.
+     * Runs after the other startup listeners, since it waits for the change stream they start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (Files.exists(path)) {
+            restore();
+        }
+        running = true;
+        Thread.ofVirtual().name("product-catalog-snapshot").start(this::writePeriodically);
+    }
+
+    /**
+     * Writes a last snapshot on shutdown, so the next start has the most recent hot set.
+     * A replica that never finished starting keeps the previous snapshot.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (running) {
+            write();
+        }
+    }
+
+    /**
+     * Loads the snapshot into the cache and evicts the products that changed since it was written.
+     * An unreadable snapshot is ignored, and a failed catch-up clears the cache, since its
+     * restored products could be stale.
+     */
+    void restore() {
+        long started = System.nanoTime();
+        CatalogSnapshotFile.Contents snapshot;
+        try {
+            snapshot = CatalogSnapshotFile.read(path);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable catalog snapshot {}", path, e);
+            return;
+        }
+        try {
+            if (!changeStreamListener.awaitStart(CHANGE_STREAM_WAIT)) {
+                log.warn("Change stream did not start within {}, catching up without it", CHANGE_STREAM_WAIT);
+            }
+            productCache.restore(snapshot.products());
+            int changed = catchUp(snapshot.products());
+            log.info("Restored {} products from the catalog snapshot of {}, {} of them changed since, in {} ms",
+                    snapshot.products().size(), snapshot.writtenAt(), changed, (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            productCache.clear();
+        } catch (RuntimeException e) {
+            log.error("Failed to catch up the catalog snapshot, starting with an empty cache", e);
+            productCache.clear();
+        }
+    }
+
+    /**
+     * Compares the versions of the restored products with MongoDB in batches, evicting every product
+     * that was changed or deleted. Products without a version are evicted too, as their state is unknown.
+     * The modification time is compared as well: a product deleted and created again under the same ID
+     * starts over at the same version.
+     * @return The number of evicted products.
+     */
+    int catchUp(List<Product> products) {
+        int changed = 0;
+        for (int from = 0; from < products.size(); from += CATCH_UP_BATCH_SIZE) {
+            List<Product> batch = products.subList(from, Math.min(from + CATCH_UP_BATCH_SIZE, products.size()));
+            Query query = Query.query(Criteria.where("id").in(batch.stream().map(Product::getId).toList()));
+            query.fields().include("version").include("lastModified");
+            Map<String, Product> current = new HashMap<>();
+            mongoTemplate.find(query, Product.class).forEach(found -> current.put(found.getId(), found));
+            for (Product product : batch) {
+                if (product.getVersion() == null || !isCurrent(product, current.get(product.getId()))) {
+                    productCache.invalidate(product.getId());
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns whether a restored product has the version and modification time of the stored one.
+     * Modification times are compared in milliseconds, the precision of both the snapshot and MongoDB.
+     */
+    private static boolean isCurrent(Product restored, Product stored) {
+        return stored != null
+                && Objects.equals(restored.getVersion(), stored.getVersion())
+                && Objects.equals(epochMillis(restored.getLastModified()), epochMillis(stored.getLastModified()));
+    }
+
+    private static Long epochMillis(Instant instant) {
+        return instant == null ? null : instant.toEpochMilli();
+    }
+
+    private void writePeriodically() {
+        while (!stopped) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!stopped) {
+                write();
+            }
+        }
+    }
+
+    private synchronized void write() {
+        List<Product> products = productCache.snapshot();
+        try {
+            CatalogSnapshotFile.write(path, products, Instant.now());
+            log.debug("Wrote {} products to the catalog snapshot {}", products.size(), path);
+        } catch (IOException e) {
+            log.warn("Failed to write the catalog snapshot {}", path, e);
+        }
+    }
+}
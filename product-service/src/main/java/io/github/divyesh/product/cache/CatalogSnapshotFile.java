@@ -0,0 +1,176 @@
+package io.github.divyesh.product.cache;
+
+import io.github.divyesh.product.model.Product;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file format of the catalog snapshot.
+ * <p>
+ * The file starts with a magic number, the format version, the time it was written and the
+ * number of products, followed by the products and a CRC32 of everything before it. Strings are
+ * stored as their UTF-8 length and bytes, with -1 for null. Files are written next to their
+ * final path and moved into place, so a reader never sees a partly written snapshot; a file
+ * that is truncated or corrupt anyway fails its checksum and is rejected as a whole.
+ */
+final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int FORMAT_VERSION = 1;
+    private static final long NONE = Long.MIN_VALUE;
+
+    private CatalogSnapshotFile() {}
+
+    /**
+     * The contents of a snapshot.
+     * @param writtenAt When the snapshot was written.
+     * @param products The products, least recently used first.
+     */
+    record Contents(Instant writtenAt, List<Product> products) {}
+
+    /**
+     * Writes a snapshot, replacing any previous one.
+     * @param path The path of the snapshot file.
+     * @param products The products, least recently used first.
+     * @param writtenAt The time of the snapshot.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(Path path, List<Product> products, Instant writtenAt) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        CRC32 checksum = new CRC32();
+        try (OutputStream file = Files.newOutputStream(temporary)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, checksum)));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(writtenAt.toEpochMilli());
+            out.writeInt(products.size());
+            for (Product product : products) {
+                writeProduct(out, product);
+            }
+            out.flush();
+            // The checksum itself is written past the checked stream
+            new DataOutputStream(file).writeLong(checksum.getValue());
+        }
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot by memory-mapping the file, so it is decoded straight from the page cache.
+     * @param path The path of the snapshot file.
+     * @return The contents of the snapshot.
+     * @throws IOException if the file cannot be read, or is not a valid snapshot.
+     */
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < Long.BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid catalog snapshot size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.slice(0, (int) size - Long.BYTES));
+            if (checksum.getValue() != buffer.getLong((int) size - Long.BYTES)) {
+                throw new IOException("Catalog snapshot checksum mismatch");
+            }
+            ByteBuffer data = buffer.slice(0, (int) size - Long.BYTES);
+            if (data.getInt() != MAGIC || data.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a catalog snapshot of this format");
+            }
+            Instant writtenAt = Instant.ofEpochMilli(data.getLong());
+            int count = data.getInt();
+            List<Product> products = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                products.add(readProduct(data));
+            }
+            return new Contents(writtenAt, products);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt catalog snapshot", e);
+        }
+    }
+
+    private static void writeProduct(DataOutputStream out, Product product) throws IOException {
+        writeString(out, product.getId());
+        writeString(out, product.getName());
+        writeString(out, product.getDescription());
+        writeString(out, product.getSku());
+        writeString(out, product.getImageUrl());
+        out.writeDouble(product.getPrice());
+        out.writeInt(product.getQuantity());
+        out.writeLong(product.getVersion() == null ? NONE : product.getVersion());
+        out.writeLong(product.getLastModified() == null ? NONE : product.getLastModified().toEpochMilli());
+        Map<String, String> attributes = product.getAttributes();
+        out.writeInt(attributes == null ? -1 : attributes.size());
+        if (attributes != null) {
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                writeString(out, attribute.getKey());
+                writeString(out, attribute.getValue());
+            }
+        }
+    }
+
+    private static Product readProduct(ByteBuffer data) {
+        Product product = Product.builder()
+                .id(readString(data))
+                .name(readString(data))
+                .description(readString(data))
+                .sku(readString(data))
+                .imageUrl(readString(data))
+                .price(data.getDouble())
+                .quantity(data.getInt())
+                .build();
+        long version = data.getLong();
+        product.setVersion(version == NONE ? null : version);
+        long lastModified = data.getLong();
+        product.setLastModified(lastModified == NONE ? null : Instant.ofEpochMilli(lastModified));
+        int attributeCount = data.getInt();
+        if (attributeCount >= 0) {
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < attributeCount; i++) {
+                attributes.put(readString(data), readString(data));
+            }
+            product.setAttributes(attributes);
+        }
+        return product;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer data) {
+        int length = data.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,340 @@
+package io.github.divyesh.product.cache;
+
+import io.github.divyesh.product.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded, in-process cache of products by ID, placed in front of MongoDB for product lookups.
+ * Products can also be looked up by SKU, through a bounded map from SKU to ID.
+ * <p>
+ * Entries are dropped when the product is saved or deleted through this replica, and when
+ * {@link ProductChangeStreamListener} sees it change on any replica. How stale an entry may be
+ * depends on whether that listener is running:
+ * <ul>
+ *     <li>While the change stream is active, an entry lives for the configured TTL, and changes
+ *     made elsewhere are evicted as soon as the stream delivers them.</li>
+ *     <li>Otherwise only local writes evict entries, so entries expire after the configured
+ *     maximum staleness. Every read is then at most that old.</li>
+ * </ul>
+ * The whole cache is cleared when the change stream starts, since changes made before it were missed.
+ * A load that overlaps an invalidation of the same product, or a clear, is returned but not cached,
+ * so a lookup racing a write cannot put the old copy back. Invalidations are remembered per product
+ * for the most recently invalidated products only; a load older than the forgotten ones is not
+ * cached either.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProductCache {
+
+    private record Entry(Product product, long loadedAt) {
+    }
+
+    private final Map<String, Entry> entries;
+    private final Map<String, String> idsBySku; // Guarded by entries
+    private final Map<String, Long> invalidatedAt; // Guarded by entries, oldest invalidation first
+    private final long ttlNanos;
+    private final long maxStalenessNanos;
+    private final LongSupplier nanoTime;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidationCounter;
+    private long invalidations; // Guarded by entries
+    private long clearedAt; // Guarded by entries
+    private long forgottenAt; // Guarded by entries, the latest invalidation dropped from invalidatedAt
+    private volatile boolean changeStreamActive;
+
+    /**
+     * Constructs a ProductCache.
+     * @param meterRegistry The registry the hit, miss and size metrics are registered with.
+     * @param maxSize The maximum number of cached products; the least recently used product is evicted first.
+     * @param ttl How long a product stays cached while the change stream is active.
+     * @param maxStaleness How long a product stays cached while the change stream is not active.
+     */
+    @Autowired
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${product-cache.max-size:10000}") int maxSize,
+                        @Value("${product-cache.ttl:PT10M}") Duration ttl,
+                        @Value("${product-cache.max-staleness:PT5S}") Duration maxStaleness) {
+        this(meterRegistry, maxSize, ttl, maxStaleness, System::nanoTime);
+    }
+
+    /**
+     * Constructs a ProductCache that reads the time from the given source.
+     */
+    ProductCache(MeterRegistry meterRegistry, int maxSize, Duration ttl, Duration maxStaleness, LongSupplier nanoTime) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.idsBySku = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.invalidatedAt = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                if (size() > maxSize) {
+                    forgottenAt = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.ttlNanos = ttl.toNanos();
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.nanoTime = nanoTime;
+        this.hits = Counter.builder("products.cache.requests")
+                .tag("result", "hit")
+                .description("Product lookups answered by the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("products.cache.requests")
+                .tag("result", "miss")
+                .description("Product lookups that went to MongoDB")
+                .register(meterRegistry);
+        this.invalidationCounter = Counter.builder("products.cache.invalidations")
+                .description("Products evicted from the cache because they changed")
+                .register(meterRegistry);
+        Gauge.builder("products.cache.hit.ratio", this, ProductCache::hitRatio)
+                .description("Share of product lookups answered by the cache since startup")
+                .register(meterRegistry);
+        Gauge.builder("products.cache.size", this, ProductCache::size)
+                .description("Products in the cache")
+                .register(meterRegistry);
+        Gauge.builder("products.cache.change.stream.active", this, cache -> cache.changeStreamActive ? 1 : 0)
+                .description("Whether cache entries are invalidated by the MongoDB change stream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached product, or loads and caches it.
+     * Products that are not found are not cached.
+     * @param id The ID of the product.
+     * @param loader Loads the product from MongoDB on a miss.
+     * @return The product, or empty if it does not exist.
+     */
+    public Optional<Product> get(String id, Supplier<Optional<Product>> loader) {
+        long now = nanoTime.getAsLong();
+        long generation;
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null && now - entry.loadedAt() < maxAgeNanos()) {
+                hits.increment();
+                return Optional.of(entry.product());
+            }
+            if (entry != null) {
+                entries.remove(id);
+            }
+            generation = invalidations;
+        }
+        misses.increment();
+        Optional<Product> product = loader.get();
+        product.ifPresent(loaded -> {
+            synchronized (entries) {
+                if (!changedSince(loaded.getId(), generation)) {
+                    put(loaded, now);
+                }
+            }
+        });
+        return product;
+    }
+
+    /**
+     * Returns the cached products among the given IDs, and loads all others with one call to the loader.
+     * Products that are not found are left out of the result and are not cached.
+     * @param ids The IDs of the products.
+     * @param loader Loads the products with the given IDs from MongoDB.
+     * @return The found products by ID, in the order of the given IDs.
+     */
+    public Map<String, Product> getAll(Collection<String> ids, Function<List<String>, Iterable<Product>> loader) {
+        return lookupAll(ids, entries::get, Product::getId, loader);
+    }
+
+    /**
+     * Returns the cached products among the given SKUs, and loads all others with one call to the loader.
+     * SKUs are resolved to IDs through a map kept alongside the cache; a mapping is only trusted while the
+     * cached product still has that SKU, so a changed SKU is never served from the cache.
+     * @param skus The SKUs of the products.
+     * @param loader Loads the products with the given SKUs from MongoDB.
+     * @return The found products by SKU, in the order of the given SKUs.
+     */
+    public Map<String, Product> getAllBySku(Collection<String> skus, Function<List<String>, Iterable<Product>> loader) {
+        return lookupAll(skus, sku -> {
+            String id = idsBySku.get(sku);
+            Entry entry = id == null ? null : entries.get(id);
+            return entry != null && sku.equals(entry.product().getSku()) ? entry : null;
+        }, Product::getSku, loader);
+    }
+
+    /**
+     * Looks up products by a key, answering from the cache where possible and loading the rest at once.
+     * @param keys The keys of the products.
+     * @param cached Finds the cached entry of a key; called with the cache locked.
+     * @param keyOf Returns the key of a loaded product.
+     * @param loader Loads the products with the given keys.
+     */
+    private Map<String, Product> lookupAll(Collection<String> keys, Function<String, Entry> cached,
+                                           Function<Product, String> keyOf,
+                                           Function<List<String>, Iterable<Product>> loader) {
+        long now = nanoTime.getAsLong();
+        long generation;
+        Map<String, Product> found = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        synchronized (entries) {
+            for (String key : keys) {
+                Entry entry = cached.apply(key);
+                if (entry != null && now - entry.loadedAt() < maxAgeNanos()) {
+                    found.put(key, entry.product());
+                } else {
+                    found.put(key, null); // Keeps the place of the key in the result
+                    missing.add(key);
+                }
+            }
+            generation = invalidations;
+        }
+        hits.increment(keys.size() - missing.size());
+        misses.increment(missing.size());
+        if (!missing.isEmpty()) {
+            List<Product> loaded = new ArrayList<>();
+            loader.apply(missing).forEach(loaded::add);
+            synchronized (entries) {
+                for (Product product : loaded) {
+                    found.put(keyOf.apply(product), product);
+                    if (!changedSince(product.getId(), generation)) {
+                        put(product, now);
+                    }
+                }
+            }
+            found.values().removeIf(Objects::isNull);
+        }
+        return found;
+    }
+
+    /**
+     * Evicts a product that was saved or deleted.
+     * @param id The ID of the changed product.
+     */
+    public void invalidate(String id) {
+        synchronized (entries) {
+            invalidations++;
+            invalidatedAt.remove(id);
+            invalidatedAt.put(id, invalidations);
+            entries.remove(id);
+        }
+        invalidationCounter.increment();
+    }
+
+    /**
+     * Evicts every product.
+     */
+    public void clear() {
+        synchronized (entries) {
+            invalidations++;
+            clearedAt = invalidations;
+            invalidatedAt.clear();
+            entries.clear();
+            idsBySku.clear();
+        }
+    }
+
+    /**
+     * Returns the cached products for the catalog snapshot.
+     * @return A copy of the cached products, least recently used first.
+     */
+    public List<Product> snapshot() {
+        synchronized (entries) {
+            return entries.values().stream().map(Entry::product).toList();
+        }
+    }
+
+    /**
+     * Caches products restored from a catalog snapshot as if they had just been loaded.
+     * They may be stale until {@link CatalogSnapshot} has checked them against MongoDB.
+     * @param products The products, least recently used first.
+     */
+    public void restore(Collection<Product> products) {
+        long now = nanoTime.getAsLong();
+        synchronized (entries) {
+            products.forEach(product -> put(product, now));
+        }
+    }
+
+    /**
+     * Records whether the change stream is delivering changes, which decides how long entries live.
+     * Turning it on clears the cache, since the entries may predate changes the stream never saw.
+     * @param active Whether the change stream is active.
+     */
+    public void setChangeStreamActive(boolean active) {
+        if (active && !changeStreamActive) {
+            clear();
+        }
+        changeStreamActive = active;
+    }
+
+    /**
+     * Returns whether the change stream is delivering changes.
+     * @return True while the change stream is active.
+     */
+    public boolean isChangeStreamActive() {
+        return changeStreamActive;
+    }
+
+    /**
+     * Returns the number of cached products.
+     * @return The cache size.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns whether a product may have changed since a load started; called with the cache locked.
+     * @param id The ID of the loaded product.
+     * @param generation The invalidation count when the load started.
+     */
+    private boolean changedSince(String id, long generation) {
+        return clearedAt > generation || forgottenAt > generation || invalidatedAt.getOrDefault(id, 0L) > generation;
+    }
+
+    /**
+     * Caches a loaded product; called with the cache locked.
+     */
+    private void put(Product product, long loadedAt) {
+        entries.put(product.getId(), new Entry(product, loadedAt));
+        if (product.getSku() != null) {
+            idsBySku.put(product.getSku(), product.getId());
+        }
+    }
+
+    private long maxAgeNanos() {
+        return changeStreamActive ? ttlNanos : maxStalenessNanos;
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + misses.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+}
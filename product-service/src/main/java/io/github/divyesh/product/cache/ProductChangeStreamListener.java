@@ -0,0 +1,167 @@
+package io.github.divyesh.product.cache;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.search.ProductSearchIndex;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts products from the {@link ProductCache} of this replica when they change on any replica,
+ * by following a MongoDB change stream on the product collection. The same changes keep the
+ * {@link ProductSearchIndex} of this replica current: inserted, updated and replaced products
+ * are indexed as looked up by the stream, deleted ones removed, and the index is rebuilt when
+ * the collection as a whole is dropped or renamed.
+ * <p>
+ * Change streams need a replica set. On a standalone server the listener stops and the cache
+ * falls back to evicting on local writes and expiring entries after its maximum staleness.
+ * If the stream fails, the cache takes the same fallback until the stream is reopened.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProductChangeStreamListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeStreamListener.class);
+    private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final Duration retryDelay;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a ProductChangeStreamListener.
+     * @param mongoTemplate The template used to open the change stream.
+     * @param productCache The cache to evict changed products from.
+     * @param productSearchIndex The search index to apply changed products to.
+     * @param retryDelay How long to wait before reopening a failed change stream.
+     */
+    public ProductChangeStreamListener(MongoTemplate mongoTemplate, ProductCache productCache,
+                                       ProductSearchIndex productSearchIndex,
+                                       @Value("${product-cache.change-stream-retry-delay:PT10S}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Starts following the change stream on a background thread.
+     * Runs before the other startup listeners, so they can wait for the stream with {@link #awaitStart(Duration)}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        Thread.ofVirtual().name("product-change-stream").start(this::listen);
+    }
+
+    /**
+     * Waits until the change stream has first been opened, or found to be unavailable.
+     * From then on, changes made on any replica either reach the cache or it bounds staleness on its own.
+     * @param timeout How long to wait at most.
+     * @return False if the wait timed out.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public boolean awaitStart(Duration timeout) throws InterruptedException {
+        return started.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops following the change stream.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Follows the change stream until the listener is stopped, reopening it after failures,
+     * including failures to apply a change, so the thread never ends while the cache relies on it.
+     */
+    void listen() {
+        while (!stopped) {
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate
+                    .getCollection(mongoTemplate.getCollectionName(Product.class))
+                    .watch()
+                    .fullDocument(FullDocument.UPDATE_LOOKUP)
+                    .maxAwaitTime(1, TimeUnit.SECONDS)
+                    .cursor()) {
+                productCache.setChangeStreamActive(true);
+                started.countDown();
+                log.info("Following product changes to invalidate the product cache and update the search index");
+                while (!stopped) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        apply(change);
+                    }
+                }
+            } catch (RuntimeException e) {
+                productCache.setChangeStreamActive(false);
+                started.countDown();
+                if (e instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+                    log.info("Change streams are not available, product cache entries expire after their maximum staleness");
+                    return;
+                }
+                log.warn("Product change stream failed, retrying in {}", retryDelay, e);
+                pause();
+            }
+        }
+        productCache.setChangeStreamActive(false);
+    }
+
+    /**
+     * Evicts the product a change applies to and re-indexes or removes it, or clears the cache
+     * and rebuilds the index when the collection was dropped, renamed or otherwise invalidated.
+     * A product whose lookup finds no document was deleted after the change, and is removed.
+     */
+    void apply(ChangeStreamDocument<Document> change) {
+        BsonDocument key = change.getDocumentKey();
+        BsonValue idValue = key == null ? null : key.get("_id");
+        String id = idValue == null ? null
+                : idValue.isObjectId() ? idValue.asObjectId().getValue().toHexString()
+                : idValue.isString() ? idValue.asString().getValue()
+                : null;
+        if (id == null) {
+            productCache.clear();
+            productSearchIndex.startBuild();
+            return;
+        }
+        productCache.invalidate(id);
+        Document document = change.getFullDocument();
+        if (document != null) {
+            productSearchIndex.index(mongoTemplate.getConverter().read(Product.class, document));
+        } else {
+            productSearchIndex.remove(id);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(retryDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.divyesh.product.config;
+
+import io.github.divyesh.product.model.Product;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the document classes when the service starts.
+ * Spring Data no longer creates them automatically; creating an index that already
+ * exists with the same definition is a no-op. Indexes that were replaced by another
+ * definition are dropped first, since MongoDB rejects two indexes on the same keys.
+ * <p>
+ * A retired index is only dropped once its replacement can be built: while products share
+ * a SKU, sku_unique cannot be created, so the service refuses to start and keeps the old
+ * index. If the unique index still fails after the drop, the retired indexes are restored
+ * and startup fails as well, rather than running without an index on the SKU.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+    /** Indexes of earlier versions: the non-unique SKU index was replaced by sku_unique. */
+    private static final List<String> RETIRED_INDEXES = List.of("sku");
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs a MongoIndexInitializer with the given MongoTemplate.
+     * @param mongoTemplate The template used to manage the indexes.
+     */
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Ensures the indexes of the product collection exist.
+     * @throws IllegalStateException if a unique index cannot be built because of duplicate values.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations indexOperations = mongoTemplate.indexOps(Product.class);
+        List<IndexInfo> retired = indexOperations.getIndexInfo().stream()
+                .filter(info -> RETIRED_INDEXES.contains(info.getName()))
+                .toList();
+        if (!retired.isEmpty()) {
+            String duplicate = duplicateSku();
+            if (duplicate != null) {
+                throw new IllegalStateException("Cannot replace the index sku with sku_unique: SKU " + duplicate
+                        + " is used by more than one product. Remove the duplicates and restart.");
+            }
+            retired.forEach(info -> {
+                indexOperations.dropIndex(info.getName());
+                log.info("Dropped retired index {} on products", info.getName());
+            });
+        }
+        List<String> failedUnique = new ArrayList<>();
+        resolver.resolveIndexFor(Product.class).forEach(index -> {
+            try {
+                String name = indexOperations.ensureIndex(index);
+                log.info("Ensured index {} on products", name);
+            } catch (DataAccessException e) {
+                // A unique index cannot be built while duplicates exist; the others are still created
+                log.error("Failed to create index {} on products", index.getIndexOptions().get("name"), e);
+                if (Boolean.TRUE.equals(index.getIndexOptions().get("unique"))) {
+                    failedUnique.add(String.valueOf(index.getIndexOptions().get("name")));
+                }
+            }
+        });
+        if (!failedUnique.isEmpty()) {
+            retired.forEach(info -> {
+                Index index = new Index().named(info.getName());
+                info.getIndexFields().forEach(field -> index.on(field.getKey(), field.getDirection()));
+                indexOperations.ensureIndex(index);
+                log.info("Restored retired index {} on products", info.getName());
+            });
+            throw new IllegalStateException("Failed to create the unique indexes " + failedUnique + " on products");
+        }
+    }
+
+    /**
+     * Returns a SKU that more than one product has.
+     * @return The SKU, or null if every SKU is unique.
+     */
+    private String duplicateSku() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("sku").ne(null)),
+                Aggregation.group("sku").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)),
+                Aggregation.limit(1));
+        Document duplicate = mongoTemplate.aggregate(aggregation, Product.class, Document.class).getUniqueMappedResult();
+        return duplicate == null ? null : String.valueOf(duplicate.get("_id"));
+    }
+}
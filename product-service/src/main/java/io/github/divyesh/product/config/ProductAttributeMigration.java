@@ -0,0 +1,57 @@
+package io.github.divyesh.product.config;
+
+import com.mongodb.client.result.UpdateResult;
+import io.github.divyesh.product.model.Product;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Converts product attributes stored as an embedded map, such as {@code {color: "red"}},
+ * to the array of key/value pairs the product documents now use, such as
+ * {@code [{key: "color", value: "red"}]}.
+ * The conversion runs in one server-side update before the service starts taking requests,
+ * and only touches documents still in the old shape, so running it again is a no-op.
+ * <p>
+ * Replicas of the previous release read and write only the old shape, and this release cannot
+ * read it, so the two must not run side by side. The release that introduces this migration
+ * is deployed with downtime: stop every replica of the previous release, then start the new
+ * ones. A rolling update would let old replicas write maps after the migration has run, and
+ * those products could not be read until the next restart converts them.
+ */
+@Component
+public class ProductAttributeMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductAttributeMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs a ProductAttributeMigration with the given MongoTemplate.
+     * @param mongoTemplate The template used to reach the product collection.
+     */
+    public ProductAttributeMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Rewrites the attributes of every product still stored as an embedded map.
+     */
+    @PostConstruct
+    public void migrate() {
+        Document oldShape = new Document("attributes", new Document("$type", "object"));
+        Document toPairs = new Document("$map", new Document("input", new Document("$objectToArray", "$attributes"))
+                .append("as", "attribute")
+                .append("in", new Document("key", "$$attribute.k").append("value", "$$attribute.v")));
+        UpdateResult result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .updateMany(oldShape, List.of(new Document("$set", new Document("attributes", toPairs))));
+        if (result.getModifiedCount() > 0) {
+            log.info("Converted the attributes of {} products to key/value pairs", result.getModifiedCount());
+        }
+    }
+}
@@ -1,26 +1,55 @@
 package io.github.divyesh.product.controller;
 
+import io.github.divyesh.product.dto.FacetValueResponse;
+import io.github.divyesh.product.dto.ProductBatchResponse;
+import io.github.divyesh.product.dto.FacetedProductPageResponse;
+import io.github.divyesh.product.dto.PriceChangeRequest;
+import io.github.divyesh.product.dto.PriceChangeResponse;
+import io.github.divyesh.product.dto.ProductPageResponse;
 import io.github.divyesh.product.dto.ProductRequest;
 import io.github.divyesh.product.dto.ProductResponse;
+import io.github.divyesh.product.dto.ProductSearchResultResponse;
+import io.github.divyesh.product.dto.ProductSuggestionResponse;
+import io.github.divyesh.product.dto.ProductSummaryResponse;
+import io.github.divyesh.product.model.FacetedProductPage;
+import io.github.divyesh.product.model.PriceChangeResult;
+import io.github.divyesh.product.model.PriceFilter;
 import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.model.ProductPage;
+import io.github.divyesh.product.repository.ProductSort;
 import io.github.divyesh.product.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import jakarta.validation.Valid; // Added import
+import org.springframework.http.MediaType;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * REST controller for managing products.
  * Provides endpoints for CRUD operations on products.
+ * Registered on the servlet stack only; the reactive profile serves catalog reads through {@link ProductRouter}.
+ * Product and listing reads carry strong ETags, and are answered with 304 Not Modified, without a
+ * body, when the client's {@code If-None-Match} tag is still current.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/products")
 @Tag(name = "Product", description = "Product management APIs")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final String ATTRIBUTE_PARAMETER_PREFIX = "attr.";
+    private static final String APPLICATION_MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final ProductService productService;
 
     /**
@@ -53,27 +82,156 @@ public class ProductController {
     }
 
     /**
-     * Retrieves a list of all products.
-     * @return A list of all products.
+     * Retrieves one page of the product listing.
+     * @param cursor The cursor returned with the previous page; omit for the first page.
+     * @param limit The maximum number of products on the page, at most 500.
+     * @param sort The field to sort on: id, name or price.
+     * @param direction The sort direction: asc or desc.
+     * @param request The request, checked for a current {@code If-None-Match} tag.
+     * @return The page, with a cursor for the next one, or null if the client's copy is current.
      */
     @GetMapping
-    @Operation(summary = "Get all products", description = "Retrieves a list of all products")
-    public List<ProductResponse> getProducts() {
-        return productService.getAllProducts().stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+    @Operation(summary = "List products", description = "Retrieves one cursor-paged page of product summaries")
+    public ProductPageResponse getProducts(@RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "50") int limit,
+                                           @RequestParam(defaultValue = "id") String sort,
+                                           @RequestParam(defaultValue = "asc") String direction,
+                                           WebRequest request) {
+        ProductPage page = productService.getProductPage(ProductSort.fromParameter(sort),
+                "desc".equalsIgnoreCase(direction), cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (request.checkNotModified(ProductETags.ofPage(page.products(), page.nextCursor()))) {
+            return null;
+        }
+        return ProductPageResponse.builder()
+                .items(page.products().stream().map(this::mapToProductSummaryResponse).toList())
+                .nextCursor(page.nextCursor())
+                .build();
+    }
+
+    /**
+     * Searches products by name, SKU and description.
+     * @param q The search terms; quote phrases and prefix terms with - to exclude them.
+     * @param page The zero-based page number.
+     * @param size The maximum number of products per page, at most 100.
+     * @return The matching products, most relevant first.
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search products", description = "Full-text search over product name, SKU and description")
+    public List<ProductSearchResultResponse> searchProducts(@RequestParam String q,
+                                                            @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "20") int size) {
+        return productService.searchProducts(q, page, Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE))).stream()
+                .map(product -> ProductSearchResultResponse.builder()
+                        .id(product.getId())
+                        .name(product.getName())
+                        .price(product.getPrice())
+                        .sku(product.getSku())
+                        .imageUrl(product.getImageUrl())
+                        .score(product.getScore() == null ? 0 : product.getScore())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Filters products by their attributes and counts attribute values among the matches.
+     * @param parameters The request parameters; each attr.&lt;name&gt; parameter filters on an attribute,
+     *                   and repeating it accepts any of the given values.
+     * @param facet The attributes to count values of.
+     * @param page The zero-based page number.
+     * @param size The maximum number of products per page, at most 100.
+     * @return The matching products and the facet counts.
+     */
+    @GetMapping("/filter")
+    @Operation(summary = "Filter products by attributes",
+            description = "Filters products with attr.<name>=<value> parameters and returns facet counts for the requested attributes")
+    public FacetedProductPageResponse filterProducts(@RequestParam MultiValueMap<String, String> parameters,
+                                                     @RequestParam(required = false) List<String> facet,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "20") int size) {
+        Map<String, List<String>> filters = new LinkedHashMap<>();
+        parameters.forEach((name, values) -> {
+            if (name.startsWith(ATTRIBUTE_PARAMETER_PREFIX) && name.length() > ATTRIBUTE_PARAMETER_PREFIX.length()) {
+                filters.put(name.substring(ATTRIBUTE_PARAMETER_PREFIX.length()), values);
+            }
+        });
+        FacetedProductPage result = productService.filterProducts(filters, facet == null ? List.of() : facet,
+                page, Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)));
+
+        Map<String, List<FacetValueResponse>> facets = new LinkedHashMap<>();
+        result.facets().forEach((key, counts) -> facets.put(key, counts.stream()
+                .map(count -> FacetValueResponse.builder().value(count.value()).count(count.count()).build())
+                .toList()));
+        return FacetedProductPageResponse.builder()
+                .items(result.products().stream().map(this::mapToProductSummaryResponse).toList())
+                .total(result.total())
+                .facets(facets)
+                .build();
+    }
+
+    /**
+     * Suggests products as the user types into a search box.
+     * @param prefix The text typed so far; matched against the start of each word of the name and of the SKU.
+     * @param limit The maximum number of suggestions, at most 20.
+     * @return The suggested products, most popular first.
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products", description = "Suggests products whose name has a word, or whose SKU, starts with the prefix, most viewed first")
+    public List<ProductSuggestionResponse> suggestProducts(@RequestParam String prefix,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        return productService.suggestProducts(prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))).stream()
+                .map(product -> ProductSuggestionResponse.builder()
+                        .id(product.getId())
+                        .name(product.getName())
+                        .sku(product.getSku())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Retrieves several products by their IDs in one request.
+     * @param ids The product IDs, comma-separated or repeated; at most 500.
+     * @return The found products keyed by ID, and the IDs without a product.
+     */
+    @GetMapping("/batch")
+    @Operation(summary = "Get products by IDs", description = "Retrieves up to 500 products at once, keyed by ID, listing the IDs that were not found")
+    public ProductBatchResponse getProductsByIds(@RequestParam List<String> ids) {
+        return mapToProductBatchResponse(ids, productService.getProductsByIds(ids));
+    }
+
+    /**
+     * Retrieves a product by its SKU.
+     * @param sku The SKU of the product to retrieve.
+     * @param request The request, checked for a current {@code If-None-Match} tag.
+     * @return The product with the given SKU, or null if the client's copy is current.
+     */
+    @GetMapping("/by-sku/{sku}")
+    @Operation(summary = "Get product by SKU", description = "Retrieves a product by its unique Stock Keeping Unit")
+    public ProductResponse getProductBySku(@PathVariable String sku, WebRequest request) {
+        return conditionalProductResponse(productService.getProductBySku(sku), request);
+    }
+
+    /**
+     * Retrieves several products by their SKUs in one request.
+     * @param skus The SKUs, comma-separated or repeated; at most 500.
+     * @return The found products keyed by SKU, and the SKUs without a product.
+     */
+    @GetMapping("/by-sku")
+    @Operation(summary = "Get products by SKUs", description = "Retrieves up to 500 products at once, keyed by SKU, listing the SKUs that were not found")
+    public ProductBatchResponse getProductsBySkus(@RequestParam List<String> skus) {
+        return mapToProductBatchResponse(skus, productService.getProductsBySkus(skus));
     }
 
     /**
      * Retrieves a product by its unique ID.
      * @param id The ID of the product to retrieve.
-     * @return The product with the given ID.
+     * @param request The request, checked for a current {@code If-None-Match} tag.
+     * @return The product with the given ID, or null if the client's copy is current.
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieves a product by its unique ID")
-    public ProductResponse getProduct(@PathVariable String id) {
+    public ProductResponse getProduct(@PathVariable String id, WebRequest request) {
         Product product = productService.getProductById(id);
-        return mapToProductResponse(product);
+        return conditionalProductResponse(product, request);
     }
 
     /**
@@ -88,8 +246,9 @@ public class ProductController {
 
     /**
      * Updates an existing product identified by its ID.
+     * The stock of an existing product is kept; it is changed through the stock endpoints.
      * @param id The ID of the product to update.
-     * @param productRequest The updated product data.
+     * @param productRequest The updated product data; the quantity is only used if the product is created.
      * @return The updated product.
      * @throws IllegalArgumentException if the ID in the path does not match the ID in the request body.
      */
@@ -110,6 +269,63 @@ public class ProductController {
         return mapToProductResponse(updatedProduct);
     }
 
+    /**
+     * Changes only the given fields of a product.
+     * @param id The ID of the product to change.
+     * @param changes The fields to change; a null value removes an optional field.
+     * @return The whole product after the change.
+     */
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Patch product by ID", description = "Sets the given fields and removes fields given as null, leaving all other fields untouched")
+    public ProductResponse patchProduct(@PathVariable String id, @RequestBody Map<String, Object> changes) {
+        return mapToProductResponse(productService.patchProduct(id, changes));
+    }
+
+    /**
+     * Changes the price of every product matching a filter.
+     * @param request The filter and the price change.
+     * @return The numbers of matched and changed products.
+     */
+    @PostMapping("/price-changes")
+    @Operation(summary = "Change prices in bulk", description = "Multiplies or sets the price of every product matching the filter in one update")
+    public PriceChangeResponse changePrices(@RequestBody PriceChangeRequest request) {
+        PriceFilter filter = new PriceFilter(request.attributes(), request.skus(), request.minPrice(), request.maxPrice());
+        PriceChangeResult result = productService.changePrices(filter, request.multiplier(), request.price());
+        return PriceChangeResponse.builder()
+                .matched(result.matched())
+                .modified(result.modified())
+                .build();
+    }
+
+    /**
+     * Maps the products found by a batch lookup to a response, listing the requested keys that were not found.
+     * @param keys The requested IDs or SKUs.
+     * @param found The found products by key.
+     * @return The batch response.
+     */
+    private ProductBatchResponse mapToProductBatchResponse(List<String> keys, Map<String, Product> found) {
+        Map<String, ProductResponse> products = new LinkedHashMap<>();
+        found.forEach((key, product) -> products.put(key, mapToProductResponse(product)));
+        return ProductBatchResponse.builder()
+                .products(products)
+                .missing(keys.stream().map(String::strip).filter(key -> !key.isEmpty() && !found.containsKey(key)).distinct().toList())
+                .build();
+    }
+
+    /**
+     * Sets the ETag and Last-Modified headers of a product, and maps it to a response unless the
+     * client's copy is current, in which case Spring answers 304 Not Modified without a body.
+     * @param product The product.
+     * @param request The request, checked for a current {@code If-None-Match} or {@code If-Modified-Since}.
+     * @return The mapped ProductResponse DTO, or null if the client's copy is current.
+     */
+    private ProductResponse conditionalProductResponse(Product product, WebRequest request) {
+        if (request.checkNotModified(ProductETags.of(product), ProductETags.lastModified(product))) {
+            return null;
+        }
+        return mapToProductResponse(product);
+    }
+
     /**
      * Maps a Product entity to a ProductResponse DTO.
      * @param product The Product entity to map.
@@ -127,4 +343,19 @@ public class ProductController {
                 .attributes(product.getAttributes())
                 .build();
     }
+
+    /**
+     * Maps a Product entity to a ProductSummaryResponse DTO.
+     * @param product The Product entity to map.
+     * @return The mapped ProductSummaryResponse DTO.
+     */
+    private ProductSummaryResponse mapToProductSummaryResponse(Product product) {
+        return ProductSummaryResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .sku(product.getSku())
+                .imageUrl(product.getImageUrl())
+                .build();
+    }
 }
@@ -0,0 +1,58 @@
+package io.github.divyesh.product.controller;
+
+import io.github.divyesh.product.model.Product;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Strong entity tags and modification times of product representations, for conditional GETs.
+ * A product's tag is derived from its version and modification time, so it changes with every
+ * write; a page's tag is a digest of the tags of its products and its next cursor.
+ */
+final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    /**
+     * Returns the entity tag of a product.
+     * @param product The product.
+     * @return The quoted, strong entity tag.
+     */
+    static String of(Product product) {
+        return "\"" + versionOf(product) + "\"";
+    }
+
+    /**
+     * Returns the entity tag of a page of products.
+     * @param products The products on the page, with at least their ID, version and modification time.
+     * @param nextCursor The cursor of the next page, or null on the last page.
+     * @return The quoted, strong entity tag.
+     */
+    static String ofPage(List<Product> products, String nextCursor) {
+        StringBuilder state = new StringBuilder();
+        products.forEach(product -> state.append(product.getId()).append(':').append(versionOf(product)).append(';'));
+        state.append(nextCursor);
+        return "\"" + DigestUtils.md5DigestAsHex(state.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Returns the modification time of a product in milliseconds, as used for {@code Last-Modified}.
+     * @param product The product.
+     * @return The modification time, or -1 if the product has none.
+     */
+    static long lastModified(Product product) {
+        return product.getLastModified() == null ? -1 : product.getLastModified().toEpochMilli();
+    }
+
+    /**
+     * Combines the version with the modification time, so that a product deleted and created
+     * again under the same ID does not repeat an earlier tag.
+     */
+    private static String versionOf(Product product) {
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        return version + "-" + Long.toHexString(Math.max(0, lastModified(product)));
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.divyesh.product.controller;
+
+import io.github.divyesh.product.dto.ProductResponse;
+import io.github.divyesh.product.dto.ProductSummaryResponse;
+import io.github.divyesh.product.exception.InvalidQueryException;
+import io.github.divyesh.product.exception.ProductNotFoundException;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.repository.ProductSort;
+import io.github.divyesh.product.repository.ReactiveProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handles the catalog reads of the reactive profile, routed by {@link ProductRouter}.
+ * Nothing here blocks: every response is built from the {@link ReactiveProductRepository}
+ * on the event loop, and errors are answered like the servlet controllers answer them.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ProductHandler {
+
+    private final ReactiveProductRepository productRepository;
+
+    /**
+     * Constructs a ProductHandler with the given ReactiveProductRepository.
+     * @param productRepository The non-blocking repository for product data.
+     */
+    public ProductHandler(ReactiveProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Streams the product listing as newline-delimited JSON, one product summary per line.
+     * Products are written as the client reads them, with no page size and no cursor.
+     * Query parameters: sort (id, name or price), direction (asc or desc) and an optional limit.
+     * @param request The request.
+     * @return The streamed listing.
+     */
+    public Mono<ServerResponse> streamProducts(ServerRequest request) {
+        ProductSort sort = ProductSort.fromParameter(request.queryParam("sort").orElse("id"));
+        Sort.Direction direction = "desc".equalsIgnoreCase(request.queryParam("direction").orElse("asc"))
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, sort.getField());
+        if (sort != ProductSort.ID) {
+            order = order.and(Sort.by(direction, ProductSort.ID.getField()));
+        }
+        Flux<ProductSummaryResponse> products = productRepository.findListing(order).map(this::mapToProductSummaryResponse);
+        if (request.queryParam("limit").isPresent()) {
+            products = products.take(parseLimit(request.queryParam("limit").get()), true);
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(products, ProductSummaryResponse.class);
+    }
+
+    /**
+     * Retrieves a product by its unique ID.
+     * @param request The request, with the ID as path variable.
+     * @return The product with the given ID.
+     */
+    public Mono<ServerResponse> getProduct(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return productRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found with ID: " + id)))
+                .flatMap(product -> ServerResponse.ok().bodyValue(mapToProductResponse(product)));
+    }
+
+    /**
+     * Retrieves a product by its SKU.
+     * @param request The request, with the SKU as path variable.
+     * @return The product with the given SKU.
+     */
+    public Mono<ServerResponse> getProductBySku(ServerRequest request) {
+        String sku = request.pathVariable("sku");
+        return productRepository.findBySku(sku)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found with SKU: " + sku)))
+                .flatMap(product -> ServerResponse.ok().bodyValue(mapToProductResponse(product)));
+    }
+
+    /**
+     * Parses the limit of a streamed listing.
+     */
+    private static long parseLimit(String parameter) {
+        try {
+            long limit = Long.parseLong(parameter);
+            if (limit > 0) {
+                return limit;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidQueryException("Limit must be a positive number: " + parameter);
+    }
+
+    /**
+     * Maps a Product entity to a ProductResponse DTO.
+     * @param product The Product entity to map.
+     * @return The mapped ProductResponse DTO.
+     */
+    private ProductResponse mapToProductResponse(Product product) {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .sku(product.getSku())
+                .imageUrl(product.getImageUrl())
+                .attributes(product.getAttributes())
+                .build();
+    }
+
+    /**
+     * Maps a Product entity to a ProductSummaryResponse DTO.
+     * @param product The Product entity to map.
+     * @return The mapped ProductSummaryResponse DTO.
+     */
+    private ProductSummaryResponse mapToProductSummaryResponse(Product product) {
+        return ProductSummaryResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .sku(product.getSku())
+                .imageUrl(product.getImageUrl())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.divyesh.product.controller;
+
+import io.github.divyesh.product.dto.ProductImportResponse;
+import io.github.divyesh.product.service.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * REST controller for bulk product imports.
+ * Both endpoints stream the request body into unordered bulk upserts keyed by SKU.
+ * The quantity column only applies to new products; existing products keep their stock.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/products")
+@Tag(name = "Product import", description = "Bulk product import APIs")
+public class ProductImportController {
+
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    static final String TEXT_CSV = "text/csv";
+
+    private final ProductImportService productImportService;
+
+    /**
+     * Constructs a ProductImportController with the given ProductImportService.
+     * @param productImportService The service for bulk product imports.
+     */
+    public ProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    /**
+     * Imports products from a newline-delimited JSON request body.
+     * @param ndjson The raw request body, one product request object per line.
+     * @return The numbers of inserted, updated and failed rows, with the first failures.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = APPLICATION_NDJSON)
+    @Operation(summary = "Import products from NDJSON", description = "Upserts products by SKU, one JSON object per line; "
+            + "the quantity only applies to new products")
+    public ProductImportResponse importNdjson(InputStream ndjson) throws IOException {
+        return productImportService.importNdjson(ndjson);
+    }
+
+    /**
+     * Imports products from a CSV request body.
+     * @param csv The raw request body, with a header line.
+     * @return The numbers of inserted, updated and failed rows, with the first failures.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    @Operation(summary = "Import products from CSV", description = "Upserts products by SKU from CSV with a header line; "
+            + "the quantity only applies to new products")
+    public ProductImportResponse importCsv(InputStream csv) throws IOException {
+        return productImportService.importCsv(csv);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.divyesh.product.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+
+/**
+ * Functional endpoints of the reactive profile, which runs the service on WebFlux and the
+ * reactive MongoDB driver instead of the servlet stack.
+ * Only catalog reads are served in this mode; product changes, search, stock and imports
+ * remain on the servlet controllers, which are not registered here.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ProductRouter {
+
+    /**
+     * Routes the catalog reads to the {@link ProductHandler}.
+     * The listing is streamed to clients that accept {@code application/x-ndjson}.
+     * @param productHandler The handler of the catalog reads.
+     * @return The routes.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> productRoutes(ProductHandler productHandler) {
+        return RouterFunctions.route()
+                .path("/api/products", builder -> builder
+                        .GET("", accept(MediaType.APPLICATION_NDJSON), productHandler::streamProducts)
+                        .GET("/by-sku/{sku}", productHandler::getProductBySku)
+                        .GET("/{id}", productHandler::getProduct))
+                .build();
+    }
+}
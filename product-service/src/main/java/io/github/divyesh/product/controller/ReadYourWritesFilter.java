@@ -0,0 +1,102 @@
+package io.github.divyesh.product.controller;
+
+import io.github.divyesh.product.repository.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Hands out and honours the read-your-writes tokens of {@link ReadYourWrites}.
+ * <p>
+ * A response to a request that wrote products carries the {@value #HEADER} header with a token
+ * for the latest write. A client that sends the token back in the same header on a later request
+ * reads from MongoDB in a session that has seen the write, skipping the product cache, so it
+ * always sees its own changes. A token that is malformed or was not signed by this service is
+ * rejected with 400 Bad Request. The header is set just before the body is written, since the
+ * writes are only known once the handler has run.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /** The request and response header carrying the token. */
+    public static final String HEADER = "X-Read-After";
+
+    private final ReadYourWrites readYourWrites;
+
+    /**
+     * Constructs a ReadYourWritesFilter with the given ReadYourWrites.
+     * @param readYourWrites Tracks the writes and the token of each request.
+     */
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        ReadYourWrites.Token readAfter = null;
+        if (header != null && !header.isBlank()) {
+            try {
+                readAfter = readYourWrites.decode(header.strip());
+            } catch (IllegalArgumentException e) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid " + HEADER + " header");
+                return;
+            }
+        }
+        readYourWrites.begin(readAfter);
+        try {
+            TokenResponse tokenResponse = new TokenResponse(response);
+            chain.doFilter(request, tokenResponse);
+            tokenResponse.addToken();
+        } finally {
+            readYourWrites.end();
+        }
+    }
+
+    /**
+     * Adds the token of the request's latest write to the response before it is committed.
+     */
+    private final class TokenResponse extends HttpServletResponseWrapper {
+
+        private TokenResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addToken();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addToken();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addToken();
+            super.flushBuffer();
+        }
+
+        private void addToken() {
+            ReadYourWrites.Token lastWrite = readYourWrites.lastWrite();
+            if (lastWrite != null && !isCommitted()) {
+                setHeader(HEADER, readYourWrites.encode(lastWrite));
+            }
+        }
+    }
+}
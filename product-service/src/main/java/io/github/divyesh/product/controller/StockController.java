@@ -0,0 +1,81 @@
+package io.github.divyesh.product.controller;
+
+import io.github.divyesh.product.dto.StockAdjustmentRequest;
+import io.github.divyesh.product.dto.StockItemRequest;
+import io.github.divyesh.product.dto.StockLevelResponse;
+import io.github.divyesh.product.dto.StockReservationRequest;
+import io.github.divyesh.product.exception.InvalidStockRequestException;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.service.StockService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller for product stock.
+ * Stock is changed atomically in place, never by rewriting the product.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/products")
+@Tag(name = "Stock", description = "Product stock adjustment and reservation APIs")
+public class StockController {
+
+    private final StockService stockService;
+
+    /**
+     * Constructs a StockController with the given StockService.
+     * @param stockService The service for stock changes.
+     */
+    public StockController(StockService stockService) {
+        this.stockService = stockService;
+    }
+
+    /**
+     * Adds units to or removes units from the stock of a product.
+     * @param id The ID of the product.
+     * @param request The change in stock.
+     * @return The stock of the product after the change.
+     */
+    @PostMapping("/{id}/stock")
+    @Operation(summary = "Adjust product stock", description = "Atomically adds or removes units; removals fail with 409 if stock is insufficient")
+    public StockLevelResponse adjustStock(@PathVariable String id, @RequestBody StockAdjustmentRequest request) {
+        return mapToStockLevelResponse(stockService.adjustStock(id, request.delta()));
+    }
+
+    /**
+     * Reserves stock of several products, either all of them or none.
+     * Items of the same product are added together.
+     * @param request The products and quantities to reserve.
+     * @return The stock of each product after the reservation.
+     */
+    @PostMapping("/stock/reservations")
+    @Operation(summary = "Reserve stock of several products", description = "Removes the stock of all items, or of none if any item is unavailable")
+    public List<StockLevelResponse> reserveStock(@RequestBody StockReservationRequest request) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (StockItemRequest item : request.items() == null ? List.<StockItemRequest>of() : request.items()) {
+            if (item.productId() == null || item.productId().isBlank()) {
+                throw new InvalidStockRequestException("Every reserved item needs a product ID");
+            }
+            quantities.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+        return stockService.reserveStock(quantities).stream().map(this::mapToStockLevelResponse).toList();
+    }
+
+    /**
+     * Maps a Product entity to a StockLevelResponse DTO.
+     * @param product The Product entity to map.
+     * @return The mapped StockLevelResponse DTO.
+     */
+    private StockLevelResponse mapToStockLevelResponse(Product product) {
+        return StockLevelResponse.builder()
+                .id(product.getId())
+                .quantity(product.getQuantity())
+                .build();
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for the number of matching products with one value of an attribute.
+ *
+ * @param value The value of the attribute.
+ * @param count The number of matching products with the value.
+ */
+public record FacetValueResponse(
+    @Schema(description = "Value of the attribute", example = "red")
+    String value,
+
+    @Schema(description = "Number of matching products with the value", example = "42")
+    long count) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link FacetValueResponseBuilder}.
+     */
+    public static FacetValueResponseBuilder builder() {
+        return new FacetValueResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link FacetValueResponse}.
+     */
+    public static final class FacetValueResponseBuilder {
+        private String value;
+        private long count;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private FacetValueResponseBuilder() {
+        }
+
+        /**
+         * Sets the value of the attribute.
+         * @param value The attribute value.
+         * @return The builder instance.
+         */
+        public FacetValueResponseBuilder value(String value) {
+            this.value = value;
+            return this;
+        }
+
+        /**
+         * Sets the number of matching products with the value.
+         * @param count The product count.
+         * @return The builder instance.
+         */
+        public FacetValueResponseBuilder count(long count) {
+            this.count = count;
+            return this;
+        }
+
+        /**
+         * Builds a {@link FacetValueResponse} instance.
+         * @return A new {@link FacetValueResponse}.
+         */
+        public FacetValueResponse build() {
+            return new FacetValueResponse(value, count);
+        }
+    }
+}
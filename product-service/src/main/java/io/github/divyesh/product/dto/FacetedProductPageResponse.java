@@ -0,0 +1,85 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for one page of the products matching an attribute filter, with facet counts.
+ *
+ * @param items The products of the page.
+ * @param total The number of products matching the filter.
+ * @param facets The most common values of each requested attribute among the matching products.
+ */
+public record FacetedProductPageResponse(
+    @Schema(description = "Products of the page")
+    List<ProductSummaryResponse> items,
+
+    @Schema(description = "Number of products matching the filter", example = "128")
+    long total,
+
+    @Schema(description = "Value counts of each requested attribute among the matching products")
+    Map<String, List<FacetValueResponse>> facets) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link FacetedProductPageResponseBuilder}.
+     */
+    public static FacetedProductPageResponseBuilder builder() {
+        return new FacetedProductPageResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link FacetedProductPageResponse}.
+     */
+    public static final class FacetedProductPageResponseBuilder {
+        private List<ProductSummaryResponse> items;
+        private long total;
+        private Map<String, List<FacetValueResponse>> facets;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private FacetedProductPageResponseBuilder() {
+        }
+
+        /**
+         * Sets the products of the page.
+         * @param items The product summaries.
+         * @return The builder instance.
+         */
+        public FacetedProductPageResponseBuilder items(List<ProductSummaryResponse> items) {
+            this.items = items;
+            return this;
+        }
+
+        /**
+         * Sets the number of products matching the filter.
+         * @param total The product count.
+         * @return The builder instance.
+         */
+        public FacetedProductPageResponseBuilder total(long total) {
+            this.total = total;
+            return this;
+        }
+
+        /**
+         * Sets the value counts of the requested attributes.
+         * @param facets The value counts by attribute.
+         * @return The builder instance.
+         */
+        public FacetedProductPageResponseBuilder facets(Map<String, List<FacetValueResponse>> facets) {
+            this.facets = facets;
+            return this;
+        }
+
+        /**
+         * Builds a {@link FacetedProductPageResponse} instance.
+         * @return A new {@link FacetedProductPageResponse}.
+         */
+        public FacetedProductPageResponse build() {
+            return new FacetedProductPageResponse(items, total, facets);
+        }
+    }
+}
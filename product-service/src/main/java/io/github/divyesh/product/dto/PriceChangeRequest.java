@@ -0,0 +1,131 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a price change applied to every product matching a filter.
+ * At least one filter field and exactly one of multiplier and price must be given.
+ *
+ * @param attributes The accepted values of each filtered attribute.
+ * @param skus The SKUs of the products to change.
+ * @param minPrice The lowest current price to change, inclusive.
+ * @param maxPrice The highest current price to change, inclusive.
+ * @param multiplier The factor to multiply current prices by.
+ * @param price The new price of all matching products.
+ */
+public record PriceChangeRequest(
+    @Schema(description = "Accepted values of each filtered attribute", example = "{\"brand\": [\"acme\"]}")
+    Map<String, List<String>> attributes,
+
+    @Schema(description = "SKUs of the products to change", example = "[\"LAPTOP-GAMING-XYZ\"]")
+    List<String> skus,
+
+    @Schema(description = "Lowest current price to change, inclusive", example = "100.00")
+    Double minPrice,
+
+    @Schema(description = "Highest current price to change, inclusive", example = "500.00")
+    Double maxPrice,
+
+    @Schema(description = "Factor to multiply current prices by, rounded to cents", example = "0.9")
+    Double multiplier,
+
+    @Schema(description = "New price of all matching products", example = "19.99")
+    Double price) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link PriceChangeRequestBuilder}.
+     */
+    public static PriceChangeRequestBuilder builder() {
+        return new PriceChangeRequestBuilder();
+    }
+
+    /**
+     * Builder for {@link PriceChangeRequest}.
+     */
+    public static final class PriceChangeRequestBuilder {
+        private Map<String, List<String>> attributes;
+        private List<String> skus;
+        private Double minPrice;
+        private Double maxPrice;
+        private Double multiplier;
+        private Double price;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private PriceChangeRequestBuilder() {
+        }
+
+        /**
+         * Sets the attribute filter.
+         * @param attributes The accepted values of each filtered attribute.
+         * @return The builder instance.
+         */
+        public PriceChangeRequestBuilder attributes(Map<String, List<String>> attributes) {
+            this.attributes = attributes;
+            return this;
+        }
+
+        /**
+         * Sets the SKUs of the products to change.
+         * @param skus The SKUs.
+         * @return The builder instance.
+         */
+        public PriceChangeRequestBuilder skus(List<String> skus) {
+            this.skus = skus;
+            return this;
+        }
+
+        /**
+         * Sets the lowest current price to change.
+         * @param minPrice The lowest price, inclusive.
+         * @return The builder instance.
+         */
+        public PriceChangeRequestBuilder minPrice(Double minPrice) {
+            this.minPrice = minPrice;
+            return this;
+        }
+
+        /**
+         * Sets the highest current price to change.
+         * @param maxPrice The highest price, inclusive.
+         * @return The builder instance.
+         */
+        public PriceChangeRequestBuilder maxPrice(Double maxPrice) {
+            this.maxPrice = maxPrice;
+            return this;
+        }
+
+        /**
+         * Sets the factor to multiply current prices by.
+         * @param multiplier The factor.
+         * @return The builder instance.
+         */
+        public PriceChangeRequestBuilder multiplier(Double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Sets the new price of all matching products.
+         * @param price The new price.
+         * @return The builder instance.
+         */
+        public PriceChangeRequestBuilder price(Double price) {
+            this.price = price;
+            return this;
+        }
+
+        /**
+         * Builds a {@link PriceChangeRequest} instance.
+         * @return A new {@link PriceChangeRequest}.
+         */
+        public PriceChangeRequest build() {
+            return new PriceChangeRequest(attributes, skus, minPrice, maxPrice, multiplier, price);
+        }
+    }
+}
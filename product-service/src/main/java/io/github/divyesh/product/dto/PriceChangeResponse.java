@@ -0,0 +1,67 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO summarizing the result of a bulk price change.
+ *
+ * @param matched The number of products the filter matched.
+ * @param modified The number of products whose price changed.
+ */
+public record PriceChangeResponse(
+    @Schema(description = "Number of products the filter matched", example = "120")
+    long matched,
+
+    @Schema(description = "Number of products whose price changed", example = "118")
+    long modified) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link PriceChangeResponseBuilder}.
+     */
+    public static PriceChangeResponseBuilder builder() {
+        return new PriceChangeResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link PriceChangeResponse}.
+     */
+    public static final class PriceChangeResponseBuilder {
+        private long matched;
+        private long modified;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private PriceChangeResponseBuilder() {
+        }
+
+        /**
+         * Sets the number of products the filter matched.
+         * @param matched The number of matched products.
+         * @return The builder instance.
+         */
+        public PriceChangeResponseBuilder matched(long matched) {
+            this.matched = matched;
+            return this;
+        }
+
+        /**
+         * Sets the number of products whose price changed.
+         * @param modified The number of changed products.
+         * @return The builder instance.
+         */
+        public PriceChangeResponseBuilder modified(long modified) {
+            this.modified = modified;
+            return this;
+        }
+
+        /**
+         * Builds a {@link PriceChangeResponse} instance.
+         * @return A new {@link PriceChangeResponse}.
+         */
+        public PriceChangeResponse build() {
+            return new PriceChangeResponse(matched, modified);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the result of a batch product lookup.
+ *
+ * @param products The found products, keyed by the requested ID or SKU, in the order they were requested.
+ * @param missing The requested IDs or SKUs for which no product exists.
+ */
+public record ProductBatchResponse(
+    @Schema(description = "Found products, keyed by the requested ID or SKU")
+    Map<String, ProductResponse> products,
+
+    @Schema(description = "Requested IDs or SKUs for which no product exists", example = "[\"60d0fe4f5e36a0001c03b8a1\"]")
+    List<String> missing) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link ProductBatchResponseBuilder}.
+     */
+    public static ProductBatchResponseBuilder builder() {
+        return new ProductBatchResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link ProductBatchResponse}.
+     */
+    public static final class ProductBatchResponseBuilder {
+        private Map<String, ProductResponse> products;
+        private List<String> missing;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private ProductBatchResponseBuilder() {
+        }
+
+        /**
+         * Sets the found products.
+         * @param products The products, keyed by ID.
+         * @return The builder instance.
+         */
+        public ProductBatchResponseBuilder products(Map<String, ProductResponse> products) {
+            this.products = products;
+            return this;
+        }
+
+        /**
+         * Sets the requested IDs for which no product exists.
+         * @param missing The missing IDs.
+         * @return The builder instance.
+         */
+        public ProductBatchResponseBuilder missing(List<String> missing) {
+            this.missing = missing;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ProductBatchResponse} instance.
+         * @return A new {@link ProductBatchResponse}.
+         */
+        public ProductBatchResponse build() {
+            return new ProductBatchResponse(products, missing);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO describing one row of a bulk import that was not written.
+ *
+ * @param line The line number of the row in the import file, starting at 1.
+ * @param sku The SKU of the row, if it could be read.
+ * @param message Why the row was rejected.
+ */
+public record ProductImportError(
+    @Schema(description = "Line number of the row in the import file", example = "42")
+    long line,
+
+    @Schema(description = "SKU of the row, if it could be read", example = "LAPTOP-GAMING-XYZ")
+    String sku,
+
+    @Schema(description = "Why the row was rejected", example = "Price must be non-negative")
+    String message) {
+}
@@ -0,0 +1,114 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO summarizing the result of a bulk product import.
+ *
+ * @param rows The number of rows read.
+ * @param inserted The number of products created because no product had their SKU.
+ * @param updated The number of existing products matched by SKU and overwritten.
+ * @param failed The number of rows that were not written.
+ * @param errors The first failed rows, ordered by line.
+ */
+public record ProductImportResponse(
+    @Schema(description = "Number of rows read", example = "500000")
+    long rows,
+
+    @Schema(description = "Number of products created", example = "1200")
+    long inserted,
+
+    @Schema(description = "Number of existing products overwritten", example = "498790")
+    long updated,
+
+    @Schema(description = "Number of rows that were not written", example = "10")
+    long failed,
+
+    @Schema(description = "The first failed rows, ordered by line")
+    List<ProductImportError> errors) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link ProductImportResponseBuilder}.
+     */
+    public static ProductImportResponseBuilder builder() {
+        return new ProductImportResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link ProductImportResponse}.
+     */
+    public static final class ProductImportResponseBuilder {
+        private long rows;
+        private long inserted;
+        private long updated;
+        private long failed;
+        private List<ProductImportError> errors;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private ProductImportResponseBuilder() {
+        }
+
+        /**
+         * Sets the number of rows read.
+         * @param rows The number of rows.
+         * @return The builder instance.
+         */
+        public ProductImportResponseBuilder rows(long rows) {
+            this.rows = rows;
+            return this;
+        }
+
+        /**
+         * Sets the number of products created.
+         * @param inserted The number of created products.
+         * @return The builder instance.
+         */
+        public ProductImportResponseBuilder inserted(long inserted) {
+            this.inserted = inserted;
+            return this;
+        }
+
+        /**
+         * Sets the number of existing products overwritten.
+         * @param updated The number of overwritten products.
+         * @return The builder instance.
+         */
+        public ProductImportResponseBuilder updated(long updated) {
+            this.updated = updated;
+            return this;
+        }
+
+        /**
+         * Sets the number of rows that were not written.
+         * @param failed The number of failed rows.
+         * @return The builder instance.
+         */
+        public ProductImportResponseBuilder failed(long failed) {
+            this.failed = failed;
+            return this;
+        }
+
+        /**
+         * Sets the failed rows reported in detail.
+         * @param errors The failed rows.
+         * @return The builder instance.
+         */
+        public ProductImportResponseBuilder errors(List<ProductImportError> errors) {
+            this.errors = errors;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ProductImportResponse} instance.
+         * @return A new {@link ProductImportResponse}.
+         */
+        public ProductImportResponse build() {
+            return new ProductImportResponse(rows, inserted, updated, failed, errors);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the product listing.
+ *
+ * @param items The products of the page.
+ * @param nextCursor The cursor to request the next page with, or null on the last page.
+ */
+public record ProductPageResponse(
+    @Schema(description = "Products of the page")
+    List<ProductSummaryResponse> items,
+
+    @Schema(description = "Cursor of the next page, absent on the last page", example = "AAAYNjBkMGZlNGY1ZTM2YTAwMDFjMDNiOGEw")
+    String nextCursor) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link ProductPageResponseBuilder}.
+     */
+    public static ProductPageResponseBuilder builder() {
+        return new ProductPageResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link ProductPageResponse}.
+     */
+    public static final class ProductPageResponseBuilder {
+        private List<ProductSummaryResponse> items;
+        private String nextCursor;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private ProductPageResponseBuilder() {
+        }
+
+        /**
+         * Sets the products of the page.
+         * @param items The product summaries.
+         * @return The builder instance.
+         */
+        public ProductPageResponseBuilder items(List<ProductSummaryResponse> items) {
+            this.items = items;
+            return this;
+        }
+
+        /**
+         * Sets the cursor of the next page.
+         * @param nextCursor The cursor, or null on the last page.
+         * @return The builder instance.
+         */
+        public ProductPageResponseBuilder nextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ProductPageResponse} instance.
+         * @return A new {@link ProductPageResponse}.
+         */
+        public ProductPageResponse build() {
+            return new ProductPageResponse(items, nextCursor);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for a product matching a search, without the large description and attribute fields.
+ *
+ * @param id The unique identifier of the product.
+ * @param name The name of the product.
+ * @param price The price of the product.
+ * @param sku The Stock Keeping Unit of the product.
+ * @param imageUrl The URL of the product image.
+ * @param score The relevance of the product to the search.
+ */
+public record ProductSearchResultResponse(
+    @Schema(description = "Unique identifier of the product", example = "60d0fe4f5e36a0001c03b8a0")
+    String id,
+
+    @Schema(description = "Name of the product", example = "Laptop")
+    String name,
+
+    @Schema(description = "Price of the product", example = "1200.00")
+    double price,
+
+    @Schema(description = "Stock Keeping Unit of the product", example = "LAPTOP-GAMING-XYZ")
+    String sku,
+
+    @Schema(description = "URL of the product image", example = "https://example.com/laptop.jpg")
+    String imageUrl,
+
+    @Schema(description = "Relevance of the product to the search", example = "11.25")
+    double score) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link ProductSearchResultResponseBuilder}.
+     */
+    public static ProductSearchResultResponseBuilder builder() {
+        return new ProductSearchResultResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link ProductSearchResultResponse}.
+     */
+    public static final class ProductSearchResultResponseBuilder {
+        private String id;
+        private String name;
+        private double price;
+        private String sku;
+        private String imageUrl;
+        private double score;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private ProductSearchResultResponseBuilder() {
+        }
+
+        /**
+         * Sets the ID for the search result.
+         * @param id The product ID.
+         * @return The builder instance.
+         */
+        public ProductSearchResultResponseBuilder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * Sets the name for the search result.
+         * @param name The product name.
+         * @return The builder instance.
+         */
+        public ProductSearchResultResponseBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the price for the search result.
+         * @param price The product price.
+         * @return The builder instance.
+         */
+        public ProductSearchResultResponseBuilder price(double price) {
+            this.price = price;
+            return this;
+        }
+
+        /**
+         * Sets the SKU for the search result.
+         * @param sku The product SKU.
+         * @return The builder instance.
+         */
+        public ProductSearchResultResponseBuilder sku(String sku) {
+            this.sku = sku;
+            return this;
+        }
+
+        /**
+         * Sets the image URL for the search result.
+         * @param imageUrl The product image URL.
+         * @return The builder instance.
+         */
+        public ProductSearchResultResponseBuilder imageUrl(String imageUrl) {
+            this.imageUrl = imageUrl;
+            return this;
+        }
+
+        /**
+         * Sets the relevance score for the search result.
+         * @param score The relevance score.
+         * @return The builder instance.
+         */
+        public ProductSearchResultResponseBuilder score(double score) {
+            this.score = score;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ProductSearchResultResponse} instance.
+         * @return A new {@link ProductSearchResultResponse}.
+         */
+        public ProductSearchResultResponse build() {
+            return new ProductSearchResultResponse(id, name, price, sku, imageUrl, score);
+        }
+    }
+}
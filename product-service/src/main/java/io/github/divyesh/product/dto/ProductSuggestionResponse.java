@@ -0,0 +1,82 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for a type-ahead product suggestion.
+ *
+ * @param id The unique identifier of the product.
+ * @param name The name of the product.
+ * @param sku The Stock Keeping Unit of the product.
+ */
+public record ProductSuggestionResponse(
+    @Schema(description = "Unique identifier of the product", example = "60d0fe4f5e36a0001c03b8a0")
+    String id,
+
+    @Schema(description = "Name of the product", example = "Laptop")
+    String name,
+
+    @Schema(description = "Stock Keeping Unit of the product", example = "LAPTOP-GAMING-XYZ")
+    String sku) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link ProductSuggestionResponseBuilder}.
+     */
+    public static ProductSuggestionResponseBuilder builder() {
+        return new ProductSuggestionResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link ProductSuggestionResponse}.
+     */
+    public static final class ProductSuggestionResponseBuilder {
+        private String id;
+        private String name;
+        private String sku;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private ProductSuggestionResponseBuilder() {
+        }
+
+        /**
+         * Sets the ID for the suggestion.
+         * @param id The product ID.
+         * @return The builder instance.
+         */
+        public ProductSuggestionResponseBuilder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * Sets the name for the suggestion.
+         * @param name The product name.
+         * @return The builder instance.
+         */
+        public ProductSuggestionResponseBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the SKU for the suggestion.
+         * @param sku The product SKU.
+         * @return The builder instance.
+         */
+        public ProductSuggestionResponseBuilder sku(String sku) {
+            this.sku = sku;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ProductSuggestionResponse} instance.
+         * @return A new {@link ProductSuggestionResponse}.
+         */
+        public ProductSuggestionResponse build() {
+            return new ProductSuggestionResponse(id, name, sku);
+        }
+    }
+}
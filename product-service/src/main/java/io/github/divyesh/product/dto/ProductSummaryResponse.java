@@ -0,0 +1,112 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for products in listings, without the large description and attribute fields.
+ *
+ * @param id The unique identifier of the product.
+ * @param name The name of the product.
+ * @param price The price of the product.
+ * @param sku The Stock Keeping Unit of the product.
+ * @param imageUrl The URL of the product image.
+ */
+public record ProductSummaryResponse(
+    @Schema(description = "Unique identifier of the product", example = "60d0fe4f5e36a0001c03b8a0")
+    String id,
+
+    @Schema(description = "Name of the product", example = "Laptop")
+    String name,
+
+    @Schema(description = "Price of the product", example = "1200.00")
+    double price,
+
+    @Schema(description = "Stock Keeping Unit of the product", example = "LAPTOP-GAMING-XYZ")
+    String sku,
+
+    @Schema(description = "URL of the product image", example = "https://example.com/laptop.jpg")
+    String imageUrl) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link ProductSummaryResponseBuilder}.
+     */
+    public static ProductSummaryResponseBuilder builder() {
+        return new ProductSummaryResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link ProductSummaryResponse}.
+     */
+    public static final class ProductSummaryResponseBuilder {
+        private String id;
+        private String name;
+        private double price;
+        private String sku;
+        private String imageUrl;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private ProductSummaryResponseBuilder() {
+        }
+
+        /**
+         * Sets the ID for the product summary.
+         * @param id The product ID.
+         * @return The builder instance.
+         */
+        public ProductSummaryResponseBuilder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * Sets the name for the product summary.
+         * @param name The product name.
+         * @return The builder instance.
+         */
+        public ProductSummaryResponseBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Sets the price for the product summary.
+         * @param price The product price.
+         * @return The builder instance.
+         */
+        public ProductSummaryResponseBuilder price(double price) {
+            this.price = price;
+            return this;
+        }
+
+        /**
+         * Sets the SKU for the product summary.
+         * @param sku The product SKU.
+         * @return The builder instance.
+         */
+        public ProductSummaryResponseBuilder sku(String sku) {
+            this.sku = sku;
+            return this;
+        }
+
+        /**
+         * Sets the image URL for the product summary.
+         * @param imageUrl The product image URL.
+         * @return The builder instance.
+         */
+        public ProductSummaryResponseBuilder imageUrl(String imageUrl) {
+            this.imageUrl = imageUrl;
+            return this;
+        }
+
+        /**
+         * Builds a {@link ProductSummaryResponse} instance.
+         * @return A new {@link ProductSummaryResponse}.
+         */
+        public ProductSummaryResponse build() {
+            return new ProductSummaryResponse(id, name, price, sku, imageUrl);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for a change to the stock of one product.
+ *
+ * @param delta The number of units to add, or remove if negative.
+ */
+public record StockAdjustmentRequest(
+    @Schema(description = "Units to add, or remove if negative; stock never drops below zero", example = "-2")
+    int delta) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link StockAdjustmentRequestBuilder}.
+     */
+    public static StockAdjustmentRequestBuilder builder() {
+        return new StockAdjustmentRequestBuilder();
+    }
+
+    /**
+     * Builder for {@link StockAdjustmentRequest}.
+     */
+    public static final class StockAdjustmentRequestBuilder {
+        private int delta;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private StockAdjustmentRequestBuilder() {
+        }
+
+        /**
+         * Sets the number of units to add or remove.
+         * @param delta The change in stock.
+         * @return The builder instance.
+         */
+        public StockAdjustmentRequestBuilder delta(int delta) {
+            this.delta = delta;
+            return this;
+        }
+
+        /**
+         * Builds a {@link StockAdjustmentRequest} instance.
+         * @return A new {@link StockAdjustmentRequest}.
+         */
+        public StockAdjustmentRequest build() {
+            return new StockAdjustmentRequest(delta);
+        }
+    }
+}
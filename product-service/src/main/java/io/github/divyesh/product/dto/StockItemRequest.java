@@ -0,0 +1,67 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for one item of a stock reservation.
+ *
+ * @param productId The ID of the product to reserve.
+ * @param quantity The number of units to reserve.
+ */
+public record StockItemRequest(
+    @Schema(description = "ID of the product to reserve", example = "60d0fe4f5e36a0001c03b8a0")
+    String productId,
+
+    @Schema(description = "Units to reserve", example = "2")
+    int quantity) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link StockItemRequestBuilder}.
+     */
+    public static StockItemRequestBuilder builder() {
+        return new StockItemRequestBuilder();
+    }
+
+    /**
+     * Builder for {@link StockItemRequest}.
+     */
+    public static final class StockItemRequestBuilder {
+        private String productId;
+        private int quantity;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private StockItemRequestBuilder() {
+        }
+
+        /**
+         * Sets the ID of the product to reserve.
+         * @param productId The product ID.
+         * @return The builder instance.
+         */
+        public StockItemRequestBuilder productId(String productId) {
+            this.productId = productId;
+            return this;
+        }
+
+        /**
+         * Sets the number of units to reserve.
+         * @param quantity The quantity.
+         * @return The builder instance.
+         */
+        public StockItemRequestBuilder quantity(int quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        /**
+         * Builds a {@link StockItemRequest} instance.
+         * @return A new {@link StockItemRequest}.
+         */
+        public StockItemRequest build() {
+            return new StockItemRequest(productId, quantity);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO for the stock of a product right after it was changed.
+ *
+ * @param id The unique identifier of the product.
+ * @param quantity The available quantity after the change.
+ */
+public record StockLevelResponse(
+    @Schema(description = "Unique identifier of the product", example = "60d0fe4f5e36a0001c03b8a0")
+    String id,
+
+    @Schema(description = "Available quantity after the change", example = "48")
+    int quantity) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link StockLevelResponseBuilder}.
+     */
+    public static StockLevelResponseBuilder builder() {
+        return new StockLevelResponseBuilder();
+    }
+
+    /**
+     * Builder for {@link StockLevelResponse}.
+     */
+    public static final class StockLevelResponseBuilder {
+        private String id;
+        private int quantity;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private StockLevelResponseBuilder() {
+        }
+
+        /**
+         * Sets the ID of the product.
+         * @param id The product ID.
+         * @return The builder instance.
+         */
+        public StockLevelResponseBuilder id(String id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * Sets the available quantity after the change.
+         * @param quantity The quantity.
+         * @return The builder instance.
+         */
+        public StockLevelResponseBuilder quantity(int quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+
+        /**
+         * Builds a {@link StockLevelResponse} instance.
+         * @return A new {@link StockLevelResponse}.
+         */
+        public StockLevelResponse build() {
+            return new StockLevelResponse(id, quantity);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.divyesh.product.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO for a reservation of several products that succeeds or fails as a whole.
+ *
+ * @param items The products and quantities to reserve.
+ */
+public record StockReservationRequest(
+    @Schema(description = "Products and quantities to reserve")
+    List<StockItemRequest> items) {
+
+    /**
+     * Entry point for creating a builder.
+     * @return A new {@link StockReservationRequestBuilder}.
+     */
+    public static StockReservationRequestBuilder builder() {
+        return new StockReservationRequestBuilder();
+    }
+
+    /**
+     * Builder for {@link StockReservationRequest}.
+     */
+    public static final class StockReservationRequestBuilder {
+        private List<StockItemRequest> items;
+
+        /**
+         * Private constructor to enforce the use of {@link #builder()}.
+         */
+        private StockReservationRequestBuilder() {
+        }
+
+        /**
+         * Sets the products and quantities to reserve.
+         * @param items The reservation items.
+         * @return The builder instance.
+         */
+        public StockReservationRequestBuilder items(List<StockItemRequest> items) {
+            this.items = items;
+            return this;
+        }
+
+        /**
+         * Builds a {@link StockReservationRequest} instance.
+         * @return A new {@link StockReservationRequest}.
+         */
+        public StockReservationRequest build() {
+            return new StockReservationRequest(items);
+        }
+    }
+}
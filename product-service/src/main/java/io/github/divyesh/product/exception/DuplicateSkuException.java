@@ -0,0 +1,20 @@
+package io.github.divyesh.product.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a product cannot be saved because another product has the same SKU.
+ * This exception maps to an HTTP 409 Conflict status.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateSkuException extends RuntimeException {
+
+    /**
+     * Constructs a DuplicateSkuException with the specified detail message.
+     * @param message The detail message.
+     */
+    public DuplicateSkuException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.divyesh.product.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a product does not have enough stock for a decrement or reservation.
+ * This exception maps to an HTTP 409 Conflict status.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+
+    /**
+     * Constructs an InsufficientStockException with the specified detail message.
+     * @param message The detail message.
+     */
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
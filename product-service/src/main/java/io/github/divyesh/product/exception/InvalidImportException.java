@@ -0,0 +1,21 @@
+package io.github.divyesh.product.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a bulk import file is malformed as a whole,
+ * such as a CSV file without the required header.
+ * This exception maps to an HTTP 400 Bad Request status.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportException extends RuntimeException {
+
+    /**
+     * Constructs an InvalidImportException with the specified detail message.
+     * @param message The detail message.
+     */
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.divyesh.product.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a partial or bulk product update is malformed,
+ * such as a patch of an unknown field or a price change without a filter.
+ * This exception maps to an HTTP 400 Bad Request status.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidProductUpdateException extends RuntimeException {
+
+    /**
+     * Constructs an InvalidProductUpdateException with the specified detail message.
+     * @param message The detail message.
+     */
+    public InvalidProductUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.divyesh.product.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a listing or search query is malformed.
+ * This exception maps to an HTTP 400 Bad Request status.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidQueryException extends RuntimeException {
+
+    /**
+     * Constructs an InvalidQueryException with the specified detail message.
+     * @param message The detail message.
+     */
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
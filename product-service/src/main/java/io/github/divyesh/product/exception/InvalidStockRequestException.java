@@ -0,0 +1,21 @@
+package io.github.divyesh.product.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception to indicate that a stock adjustment or reservation is malformed,
+ * such as a zero adjustment or a reservation without items.
+ * This exception maps to an HTTP 400 Bad Request status.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidStockRequestException extends RuntimeException {
+
+    /**
+     * Constructs an InvalidStockRequestException with the specified detail message.
+     * @param message The detail message.
+     */
+    public InvalidStockRequestException(String message) {
+        super(message);
+    }
+}
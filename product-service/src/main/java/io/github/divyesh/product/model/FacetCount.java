@@ -0,0 +1,10 @@
+package io.github.divyesh.product.model;
+
+/**
+ * The number of matching products that have one value of an attribute.
+ *
+ * @param value The value of the attribute.
+ * @param count The number of matching products with the value.
+ */
+public record FacetCount(String value, long count) {
+}
@@ -0,0 +1,14 @@
+package io.github.divyesh.product.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the products matching an attribute filter, with the facet counts of the whole match.
+ *
+ * @param products The products on the page.
+ * @param total The number of products matching the filter.
+ * @param facets The most common values of each requested attribute among the matching products.
+ */
+public record FacetedProductPage(List<Product> products, long total, Map<String, List<FacetCount>> facets) {
+}
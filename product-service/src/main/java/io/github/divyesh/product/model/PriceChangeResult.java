@@ -0,0 +1,10 @@
+package io.github.divyesh.product.model;
+
+/**
+ * The outcome of a bulk price change.
+ *
+ * @param matched The number of products the filter matched.
+ * @param modified The number of products whose price changed.
+ */
+public record PriceChangeResult(long matched, long modified) {
+}
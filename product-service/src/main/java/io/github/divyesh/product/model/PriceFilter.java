@@ -0,0 +1,24 @@
+package io.github.divyesh.product.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects the products a bulk price change applies to. Every given criterion must match.
+ *
+ * @param attributes The accepted values of each filtered attribute, or null.
+ * @param skus The SKUs of the products, or null.
+ * @param minPrice The lowest current price, inclusive, or null.
+ * @param maxPrice The highest current price, inclusive, or null.
+ */
+public record PriceFilter(Map<String, List<String>> attributes, List<String> skus, Double minPrice, Double maxPrice) {
+
+    /**
+     * Returns whether no criterion is given, so the filter would match the whole catalog.
+     * @return True if the filter is empty.
+     */
+    public boolean isEmpty() {
+        return (attributes == null || attributes.isEmpty()) && (skus == null || skus.isEmpty())
+                && minPrice == null && maxPrice == null;
+    }
+}
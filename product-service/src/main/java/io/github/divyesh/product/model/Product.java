@@ -1,25 +1,55 @@
 package io.github.divyesh.product.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Represents a product entity in the system.
+ * The compound indexes back the sorted, cursor-paged product listing; the weighted
+ * text index over name, sku and description backs product search.
+ * The unique SKU index serves lookups and bulk upserts by SKU; it is sparse, so products
+ * saved before SKUs were required may still lack one.
+ * Attributes are stored as an array of key/value pairs, so one multikey index serves
+ * filters on every attribute.
+ * Every write increments the version and sets the modification time in the same update,
+ * so together they identify the stored representation of the product, as in its ETag.
  */
 @Document(collection = "products")
+@CompoundIndexes({
+        @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}"),
+        @CompoundIndex(name = "attributes_key_value", def = "{'attributes.key': 1, 'attributes.value': 1}")
+})
 public class Product {
     @Id
     private String id;
 
+    @TextIndexed(weight = 10)
     private String name;
+    @TextIndexed
     private String description;
     private double price;
     private int quantity;
+    @TextIndexed(weight = 5)
+    @Indexed(name = "sku_unique", unique = true, sparse = true)
     private String sku;
     private String imageUrl;
-    private Map<String, String> attributes;
+    private List<ProductAttribute> attributes;
+    private Long version;
+    private Instant lastModified;
+
+    @TextScore
+    private Float score; // Relevance of the product to a text search, never stored
 
     /**
      * Default constructor for MongoDB.
@@ -45,7 +75,7 @@ public class Product {
         this.quantity = quantity;
         this.sku = sku;
         this.imageUrl = imageUrl;
-        this.attributes = attributes;
+        setAttributes(attributes);
     }
 
     /**
@@ -106,10 +136,15 @@ public class Product {
 
     /**
      * Returns the additional attributes of the product.
-     * @return A map of product attributes.
+     * @return A map of product attributes, in the order they are stored, or null if the product has none.
      */
     public Map<String, String> getAttributes() {
-        return attributes;
+        if (attributes == null) {
+            return null;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        attributes.forEach(attribute -> map.put(attribute.key(), attribute.value()));
+        return map;
     }
 
     /**
@@ -173,7 +208,57 @@ public class Product {
      * @param attributes A map of product attributes to set.
      */
     public void setAttributes(Map<String, String> attributes) {
-        this.attributes = attributes;
+        this.attributes = attributes == null ? null : attributes.entrySet().stream()
+                .map(attribute -> new ProductAttribute(attribute.getKey(), attribute.getValue()))
+                .toList();
+    }
+
+    /**
+     * Returns the version of the product, incremented by every write.
+     * @return The version, or null for products not written since versions were introduced.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the product.
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns the time of the last write to the product.
+     * @return The modification time, or null for products not written since it was introduced.
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets the time of the last write to the product.
+     * @param lastModified The modification time to set.
+     */
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns the relevance score of the product, set only on text search results.
+     * @return The text score, or null.
+     */
+    public Float getScore() {
+        return score;
+    }
+
+    /**
+     * Sets the relevance score of the product.
+     * @param score The text score to set.
+     */
+    public void setScore(Float score) {
+        this.score = score;
     }
 
     /**
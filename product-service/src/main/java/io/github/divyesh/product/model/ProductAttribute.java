@@ -0,0 +1,12 @@
+package io.github.divyesh.product.model;
+
+/**
+ * One attribute of a product, stored as a key/value pair.
+ * Products keep their attributes as an array of these pairs so that a single
+ * index on {@code attributes.key} and {@code attributes.value} serves filters on any attribute.
+ *
+ * @param key The name of the attribute, such as color.
+ * @param value The value of the attribute, such as red.
+ */
+public record ProductAttribute(String key, String value) {
+}
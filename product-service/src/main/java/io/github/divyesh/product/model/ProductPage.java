@@ -0,0 +1,11 @@
+package io.github.divyesh.product.model;
+
+import java.util.List;
+
+/**
+ * One page of a product listing.
+ *
+ * @param products The products of the page.
+ * @param nextCursor The cursor of the next page, or null if this is the last page.
+ */
+public record ProductPage(List<Product> products, String nextCursor) {}
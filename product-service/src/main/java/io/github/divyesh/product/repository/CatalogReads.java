@@ -0,0 +1,138 @@
+package io.github.divyesh.product.repository;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Runs the catalog reads of {@link ProductRepository} with the configured read preference,
+ * secondaryPreferred by default, so listings and lookups are spread over the replica set and
+ * writes keep the primary to themselves.
+ * <p>
+ * A read made for a client that sent a {@link ReadYourWrites.Token} runs in a causally consistent
+ * session advanced to the token, so it sees that client's writes even on a lagging secondary,
+ * which waits until it has caught up. Other reads may be as stale as the replication lag. Causal
+ * reads are bounded by {@code product-reads.causal-max-time}, so a member that is far behind, or
+ * a token whose write never replicated, fails the read instead of holding the request thread.
+ * <p>
+ * Reads whose results are cached, and so outlive the replication lag, run on the primary with
+ * {@link #readFromPrimary(Function)} instead: a stale copy read from a secondary after the change
+ * stream evicted the product would otherwise stay cached for the whole TTL.
+ * <p>
+ * The latency of every read is recorded in the {@code products.reads.latency} timer, tagged with
+ * the read preference and whether the read was causal.
+ */
+@Component
+public class CatalogReads {
+
+    private static final ClientSessionOptions CAUSALLY_CONSISTENT = ClientSessionOptions.builder()
+            .causallyConsistent(true)
+            .build();
+
+    private final MongoTemplate catalogTemplate;
+    private final MongoTemplate primaryTemplate;
+    private final ReadYourWrites readYourWrites;
+    private final ReadPreference readPreference;
+    private final Duration causalMaxTime;
+    private final Timer eventualTimer;
+    private final Timer causalTimer;
+    private final Timer primaryTimer;
+
+    /**
+     * Constructs a CatalogReads.
+     * @param mongoTemplate The template whose database and converter the reads use.
+     * @param readYourWrites Provides the token sent by the client of the current request.
+     * @param meterRegistry The registry the read latency timers are registered with.
+     * @param readPreference The name of the read preference for catalog reads, such as primary or secondaryPreferred.
+     * @param causalMaxTime How long the server may spend on a causal read, waiting for the client's writes included.
+     */
+    public CatalogReads(MongoTemplate mongoTemplate, ReadYourWrites readYourWrites, MeterRegistry meterRegistry,
+                        @Value("${product-reads.read-preference:secondaryPreferred}") String readPreference,
+                        @Value("${product-reads.causal-max-time:PT2S}") Duration causalMaxTime) {
+        this.readPreference = ReadPreference.valueOf(readPreference);
+        this.causalMaxTime = causalMaxTime;
+        this.catalogTemplate = new MongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        this.catalogTemplate.setReadPreference(this.readPreference);
+        this.primaryTemplate = new MongoTemplate(mongoTemplate.getMongoDatabaseFactory(), mongoTemplate.getConverter());
+        this.primaryTemplate.setReadPreference(ReadPreference.primary());
+        this.readYourWrites = readYourWrites;
+        this.eventualTimer = readTimer(meterRegistry, this.readPreference, "eventual");
+        this.causalTimer = readTimer(meterRegistry, this.readPreference, "causal");
+        this.primaryTimer = readTimer(meterRegistry, ReadPreference.primary(), "strong");
+    }
+
+    /**
+     * Runs a query with the catalog read preference, in a causal session if the client sent a token.
+     * The query is given the causal maximum time in that case.
+     * @param query The query.
+     * @param read The read, given the operations and the query to run.
+     * @return The result of the read.
+     */
+    public <T> T read(Query query, BiFunction<MongoOperations, Query, T> read) {
+        return read(operations -> read.apply(operations, query),
+                operations -> read.apply(operations, query.maxTime(causalMaxTime)));
+    }
+
+    /**
+     * Runs an aggregation with the catalog read preference, in a causal session if the client sent a token.
+     * The aggregation is given the causal maximum time in that case.
+     * @param aggregation The aggregation.
+     * @param read The read, given the operations and the aggregation to run.
+     * @return The result of the read.
+     */
+    public <T> T read(Aggregation aggregation, BiFunction<MongoOperations, Aggregation, T> read) {
+        return read(operations -> read.apply(operations, aggregation),
+                operations -> read.apply(operations, aggregation.withOptions(AggregationOptions.builder()
+                        .maxTime(causalMaxTime)
+                        .build())));
+    }
+
+    /**
+     * Runs a read on the primary, whatever the catalog read preference, so it sees every acknowledged write.
+     * @param read The read, given the operations to run it with.
+     * @return The result of the read.
+     */
+    public <T> T readFromPrimary(Function<MongoOperations, T> read) {
+        return primaryTimer.record(() -> read.apply(primaryTemplate));
+    }
+
+    private <T> T read(Function<MongoOperations, T> eventual, Function<MongoOperations, T> causal) {
+        ReadYourWrites.Token readAfter = readYourWrites.readAfter();
+        if (readAfter == null) {
+            return eventualTimer.record(() -> eventual.apply(catalogTemplate));
+        }
+        return causalTimer.record(() -> {
+            try (ClientSession session = catalogTemplate.getMongoDatabaseFactory().getSession(CAUSALLY_CONSISTENT)) {
+                session.advanceOperationTime(readAfter.operationTime());
+                if (readAfter.clusterTime() != null) {
+                    session.advanceClusterTime(readAfter.clusterTime());
+                }
+                MongoTemplate sessionTemplate = catalogTemplate.withSession(session);
+                sessionTemplate.setReadPreference(readPreference);
+                return causal.apply(sessionTemplate);
+            }
+        });
+    }
+
+    private static Timer readTimer(MeterRegistry meterRegistry, ReadPreference readPreference, String consistency) {
+        return Timer.builder("products.reads.latency")
+                .tag("read.preference", readPreference.getName())
+                .tag("consistency", consistency)
+                .description("Latency of catalog reads from MongoDB")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
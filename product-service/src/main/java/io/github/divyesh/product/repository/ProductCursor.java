@@ -0,0 +1,106 @@
+package io.github.divyesh.product.repository;
+
+import io.github.divyesh.product.exception.InvalidQueryException;
+import io.github.divyesh.product.model.Product;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Position in a sorted product listing: the sort key and ID of the last product returned.
+ * Cursors are handed to clients as opaque URL-safe strings and are only valid for the sort
+ * and direction they were created with. Products without a name sort before all others, as
+ * MongoDB sorts missing and null values first, so a name cursor records whether the name was null.
+ *
+ * @param sort The sort the cursor belongs to.
+ * @param descending Whether the listing is in descending order.
+ * @param name The name of the last product when sorting by name, which may be null.
+ * @param price The price of the last product, set when sorting by price.
+ * @param id The ID of the last product.
+ */
+public record ProductCursor(ProductSort sort, boolean descending, String name, double price, String id) {
+
+    /**
+     * Creates the cursor positioned after a product.
+     * @param sort The sort of the listing.
+     * @param descending Whether the listing is in descending order.
+     * @param product The last product returned.
+     * @return The cursor.
+     */
+    public static ProductCursor after(ProductSort sort, boolean descending, Product product) {
+        return new ProductCursor(sort, descending, product.getName(), product.getPrice(), product.getId());
+    }
+
+    /**
+     * Encodes the cursor for a client.
+     * @return The opaque cursor string.
+     */
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(sort.ordinal());
+            out.writeBoolean(descending);
+            out.writeUTF(id);
+            switch (sort) {
+                case NAME -> {
+                    out.writeBoolean(name != null);
+                    if (name != null) {
+                        out.writeUTF(name);
+                    }
+                }
+                case PRICE -> out.writeDouble(price);
+                case ID -> { }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     * @param cursor The opaque cursor string.
+     * @param sort The sort of the requested listing.
+     * @param descending Whether the requested listing is in descending order.
+     * @return The cursor.
+     * @throws InvalidQueryException if the cursor is malformed or belongs to another sort.
+     */
+    public static ProductCursor decode(String cursor, ProductSort sort, boolean descending) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            int ordinal = in.readUnsignedByte();
+            boolean cursorDescending = in.readBoolean();
+            if (ordinal != sort.ordinal() || cursorDescending != descending) {
+                throw new InvalidQueryException("Cursor does not belong to this sort order");
+            }
+            String id = in.readUTF();
+            ProductCursor decoded = switch (sort) {
+                case NAME -> new ProductCursor(sort, descending, in.readBoolean() ? in.readUTF() : null, 0, id);
+                case PRICE -> new ProductCursor(sort, descending, null, in.readDouble(), id);
+                case ID -> new ProductCursor(sort, descending, null, 0, id);
+            };
+            if (in.available() > 0) {
+                throw new InvalidQueryException("Malformed cursor");
+            }
+            return decoded;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidQueryException("Malformed cursor");
+        }
+    }
+
+    /**
+     * Returns the sort key of the cursor.
+     * @return The name or price of the last product, or its ID when sorting by ID.
+     */
+    public Object sortValue() {
+        return switch (sort) {
+            case NAME -> name;
+            case PRICE -> price;
+            case ID -> id;
+        };
+    }
+}
@@ -5,6 +5,9 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 
 /**
  * Repository interface for Product entities.
- * Extends MongoRepository to provide basic CRUD operations for Product.
+ * Extends MongoRepository to provide basic CRUD operations for Product,
+ * and {@link ProductRepositoryCustom} for queries that need the MongoTemplate.
+ * The lookups declared in {@link ProductRepositoryCustom} take precedence over the CRUD methods of the same name.
  */
-public interface ProductRepository extends MongoRepository<Product, String> {}
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+}
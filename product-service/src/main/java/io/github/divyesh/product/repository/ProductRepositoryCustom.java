@@ -0,0 +1,135 @@
+package io.github.divyesh.product.repository;
+
+import io.github.divyesh.product.model.FacetedProductPage;
+import io.github.divyesh.product.model.PriceChangeResult;
+import io.github.divyesh.product.model.PriceFilter;
+import io.github.divyesh.product.model.Product;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Product queries built directly on {@link org.springframework.data.mongodb.core.MongoTemplate}.
+ * Every write increments the version of the changed products and sets their modification time.
+ * Reads go through {@link CatalogReads}, so they follow the catalog read preference and honour the
+ * read-your-writes token of the current request. The lookups ending in {@code OnPrimary} always read
+ * from the primary, for results that are cached.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Finds a product by its ID. Replaces the CRUD method, so lookups follow the catalog read preference.
+     * @param id The ID of the product.
+     * @return The product, or empty if it does not exist.
+     */
+    Optional<Product> findById(String id);
+
+    /**
+     * Finds the products with the given IDs. Replaces the CRUD method, so lookups follow the catalog read preference.
+     * @param ids The IDs to look up.
+     * @return The products found; unknown IDs are left out.
+     */
+    List<Product> findAllById(Iterable<String> ids);
+
+    /**
+     * Finds the products with the given SKUs, using the unique SKU index.
+     * @param skus The SKUs to look up.
+     * @return The products found; unknown SKUs are left out.
+     */
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    /**
+     * Finds a product by its ID on the primary, for loading it into a cache.
+     * @param id The ID of the product.
+     * @return The product, or empty if it does not exist.
+     */
+    Optional<Product> findByIdOnPrimary(String id);
+
+    /**
+     * Finds the products with the given IDs on the primary, for loading them into a cache.
+     * @param ids The IDs to look up.
+     * @return The products found; unknown IDs are left out.
+     */
+    List<Product> findAllByIdOnPrimary(Iterable<String> ids);
+
+    /**
+     * Finds the products with the given SKUs on the primary, for loading them into a cache.
+     * @param skus The SKUs to look up.
+     * @return The products found; unknown SKUs are left out.
+     */
+    List<Product> findBySkuInOnPrimary(Collection<String> skus);
+
+    /**
+     * Finds one page of the product listing, reading only the fields shown in listings.
+     * Pages are found by seeking past the cursor on an index, so every page costs the same.
+     * @param sort The sort of the listing.
+     * @param descending Whether to sort in descending order.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param limit The maximum number of products to return.
+     * @return The products, with only id, name, price, sku and imageUrl populated.
+     */
+    List<Product> findPage(ProductSort sort, boolean descending, ProductCursor after, int limit);
+
+    /**
+     * Finds the products matching a text search, most relevant first.
+     * @param text The search terms, in MongoDB text search syntax.
+     * @param page The zero-based page number.
+     * @param size The maximum number of products per page.
+     * @return The products, with only id, name, price, sku, imageUrl and score populated.
+     */
+    List<Product> search(String text, int page, int size);
+
+    /**
+     * Finds the products matching an attribute filter and counts the values of the requested
+     * attributes among them, all in one aggregation.
+     * Values given for the same attribute are alternatives; different attributes must all match.
+     * @param filters The accepted values of each filtered attribute.
+     * @param facetKeys The attributes to count values of.
+     * @param page The zero-based page number.
+     * @param size The maximum number of products per page.
+     * @return The page, with only id, name, price, sku and imageUrl populated on the products.
+     */
+    FacetedProductPage findByAttributes(Map<String, List<String>> filters, List<String> facetKeys, int page, int size);
+
+    /**
+     * Atomically adds to or removes from the stock of a product in one round trip.
+     * A removal only applies if the product has at least that many units, so stock never drops below zero,
+     * and an addition only applies if the stock stays within the range of an int.
+     * @param id The ID of the product.
+     * @param delta The number of units to add, or remove if negative.
+     * @return The product after the change, with only id and quantity populated, or null if the
+     *         product does not exist, has too little stock, or would have too much.
+     */
+    Product adjustStock(String id, int delta);
+
+    /**
+     * Applies a partial update to one product, changing only the fields named in the update.
+     * @param id The ID of the product.
+     * @param update The fields to set and unset.
+     * @return The whole product after the update, or null if it does not exist.
+     */
+    Product patch(String id, Update update);
+
+    /**
+     * Replaces the whole product with the given one, or creates it under its ID, in one atomic write.
+     * The version is incremented and the modification time set in the same write. The stored
+     * quantity of an existing product is kept, since stock is only changed through {@link #adjustStock};
+     * the given quantity is only stored when the product is created.
+     * @param product The product to store; its ID must be set.
+     * @return The stored product.
+     */
+    Product replace(Product product);
+
+    /**
+     * Changes the price of every product matching a filter with one multi-document update.
+     * Exactly one of the multiplier and the price is given.
+     * @param filter The products to change.
+     * @param multiplier The factor to multiply current prices by, rounded to cents, or null.
+     * @param price The new price of all matching products, or null.
+     * @return The numbers of matched and changed products.
+     */
+    PriceChangeResult updatePrices(PriceFilter filter, Double multiplier, Double price);
+}
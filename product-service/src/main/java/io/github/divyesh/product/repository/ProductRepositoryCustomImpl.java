@@ -0,0 +1,269 @@
+package io.github.divyesh.product.repository;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.result.UpdateResult;
+import io.github.divyesh.product.model.FacetCount;
+import io.github.divyesh.product.model.FacetedProductPage;
+import io.github.divyesh.product.model.PriceChangeResult;
+import io.github.divyesh.product.model.PriceFilter;
+import io.github.divyesh.product.model.Product;
+import org.bson.Document;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link MongoTemplate} implementation of {@link ProductRepositoryCustom}.
+ */
+class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    /** The fields returned in listings; large fields such as the description stay on the server. */
+    static final String[] LISTING_FIELDS = {"name", "price", "sku", "imageUrl", "version", "lastModified"};
+
+    /** The number of most common values counted for each facet. */
+    static final int MAX_FACET_VALUES = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogReads catalogReads;
+
+    /**
+     * Constructs a ProductRepositoryCustomImpl with the given MongoTemplate and CatalogReads.
+     * @param mongoTemplate The template used to run the writes.
+     * @param catalogReads Runs the reads with the catalog read preference.
+     */
+    ProductRepositoryCustomImpl(MongoTemplate mongoTemplate, CatalogReads catalogReads) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogReads = catalogReads;
+    }
+
+    @Override
+    public Optional<Product> findById(String id) {
+        return Optional.ofNullable(catalogReads.read(Query.query(Criteria.where("id").is(id)),
+                (operations, bounded) -> operations.findOne(bounded, Product.class)));
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<String> ids) {
+        List<String> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        return catalogReads.read(Query.query(Criteria.where("id").in(idList)),
+                (operations, bounded) -> operations.find(bounded, Product.class));
+    }
+
+    @Override
+    public List<Product> findBySkuIn(Collection<String> skus) {
+        return catalogReads.read(Query.query(Criteria.where("sku").in(skus)),
+                (operations, bounded) -> operations.find(bounded, Product.class));
+    }
+
+    @Override
+    public Optional<Product> findByIdOnPrimary(String id) {
+        return Optional.ofNullable(catalogReads.readFromPrimary(operations -> operations.findById(id, Product.class)));
+    }
+
+    @Override
+    public List<Product> findAllByIdOnPrimary(Iterable<String> ids) {
+        List<String> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        return catalogReads.readFromPrimary(operations -> operations.find(Query.query(Criteria.where("id").in(idList)), Product.class));
+    }
+
+    @Override
+    public List<Product> findBySkuInOnPrimary(Collection<String> skus) {
+        return catalogReads.readFromPrimary(operations -> operations.find(Query.query(Criteria.where("sku").in(skus)), Product.class));
+    }
+
+    @Override
+    public List<Product> findPage(ProductSort sort, boolean descending, ProductCursor after, int limit) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = new Query();
+        if (after != null) {
+            query.addCriteria(seekPast(sort.getField(), descending, after));
+        }
+        Sort order = sort == ProductSort.ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sort.getField()).and(Sort.by(direction, "id"));
+        query.with(order).limit(limit);
+        query.fields().include(LISTING_FIELDS);
+        return catalogReads.read(query, (operations, bounded) -> operations.find(bounded, Product.class));
+    }
+
+    @Override
+    public List<Product> search(String text, int page, int size) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .with(PageRequest.of(page, size));
+        query.fields().include(LISTING_FIELDS);
+        return catalogReads.read(query, (operations, bounded) -> operations.find(bounded, Product.class));
+    }
+
+    @Override
+    public FacetedProductPage findByAttributes(Map<String, List<String>> filters, List<String> facetKeys, int page, int size) {
+        List<Criteria> conditions = attributeCriteria(filters);
+        Criteria match = conditions.isEmpty() ? new Criteria() : new Criteria().andOperator(conditions);
+
+        FacetOperation facets = Aggregation.facet(
+                        Aggregation.sort(Sort.Direction.ASC, "_id"),
+                        Aggregation.skip((long) page * size),
+                        Aggregation.limit(size),
+                        Aggregation.project(LISTING_FIELDS))
+                .as("items")
+                .and(Aggregation.count().as("count"))
+                .as("total");
+        // Facet outputs are named by position, since attribute keys may contain characters Mongo reserves
+        for (int i = 0; i < facetKeys.size(); i++) {
+            facets = facets.and(
+                            Aggregation.unwind("attributes"),
+                            Aggregation.match(Criteria.where("attributes.key").is(facetKeys.get(i))),
+                            Aggregation.sortByCount("attributes.value"),
+                            Aggregation.limit(MAX_FACET_VALUES))
+                    .as("facet" + i);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.match(match), facets);
+        Document result = catalogReads.read(aggregation, (operations, bounded) -> operations
+                .aggregate(bounded, operations.getCollectionName(Product.class), Document.class)
+                .getUniqueMappedResult());
+
+        List<Product> products = result.getList("items", Document.class).stream()
+                .map(item -> mongoTemplate.getConverter().read(Product.class, item))
+                .toList();
+        List<Document> total = result.getList("total", Document.class);
+        Map<String, List<FacetCount>> counts = new LinkedHashMap<>();
+        for (int i = 0; i < facetKeys.size(); i++) {
+            counts.put(facetKeys.get(i), result.getList("facet" + i, Document.class).stream()
+                    // Values written before attributes were strings-only may be numbers or booleans
+                    .map(bucket -> new FacetCount(String.valueOf(bucket.get("_id")), bucket.get("count", Number.class).longValue()))
+                    .toList());
+        }
+        return new FacetedProductPage(products, total.isEmpty() ? 0 : total.get(0).get("count", Number.class).longValue(), counts);
+    }
+
+    @Override
+    public Product adjustStock(String id, int delta) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        if (delta < 0) {
+            query.addCriteria(Criteria.where("quantity").gte(-(long) delta));
+        } else {
+            // MongoDB would widen an overflowing quantity to a 64-bit integer, which no longer maps to the model
+            query.addCriteria(Criteria.where("quantity").lte(Integer.MAX_VALUE - delta));
+        }
+        query.fields().include("quantity");
+        return mongoTemplate.findAndModify(query, versioned(new Update().inc("quantity", delta)),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Product patch(String id, Update update) {
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), versioned(update),
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Product replace(Product product) {
+        product.setLastModified(Instant.now());
+        Document replacement = new Document();
+        mongoTemplate.getConverter().write(product, replacement);
+        replacement.remove("version");
+        // The new document is a literal, so that string values starting with $ are not read as field paths.
+        // Stock is only changed through adjustStock, so a stored quantity is kept.
+        Document versionedReplacement = new Document("$mergeObjects", List.of(
+                new Document("$literal", replacement),
+                new Document("version", new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L)))
+                        .append("quantity", new Document("$ifNull", List.of("$quantity",
+                                new Document("$literal", replacement.get("quantity")))))));
+        Document stored = mongoTemplate.execute(Product.class, collection -> collection.findOneAndUpdate(
+                Filters.eq("_id", replacement.get("_id")),
+                List.of(new Document("$replaceWith", versionedReplacement)),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER)));
+        return mongoTemplate.getConverter().read(Product.class, stored);
+    }
+
+    @Override
+    public PriceChangeResult updatePrices(PriceFilter filter, Double multiplier, Double price) {
+        List<Criteria> conditions = new ArrayList<>();
+        if (filter.attributes() != null) {
+            conditions.addAll(attributeCriteria(filter.attributes()));
+        }
+        if (filter.skus() != null && !filter.skus().isEmpty()) {
+            conditions.add(Criteria.where("sku").in(filter.skus()));
+        }
+        if (filter.minPrice() != null) {
+            conditions.add(Criteria.where("price").gte(filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            conditions.add(Criteria.where("price").lte(filter.maxPrice()));
+        }
+        Query query = conditions.isEmpty() ? new Query() : Query.query(new Criteria().andOperator(conditions));
+        UpdateResult result = multiplier != null
+                ? mongoTemplate.updateMulti(query, AggregationUpdate.update()
+                        .set("price").toValue(ArithmeticOperators.Round.roundValueOf(
+                                ArithmeticOperators.valueOf("price").multiplyBy(multiplier)).place(2))
+                        .set("version").toValue(ArithmeticOperators.valueOf(
+                                ConditionalOperators.ifNull("version").then(0L)).add(1L))
+                        .set("lastModified").toValue(Instant.now()),
+                        Product.class)
+                : mongoTemplate.updateMulti(query, versioned(new Update().set("price", price)), Product.class);
+        return new PriceChangeResult(result.getMatchedCount(), result.getModifiedCount());
+    }
+
+    /**
+     * Adds the version increment and modification time to an update.
+     */
+    private static Update versioned(Update update) {
+        return update.inc("version", 1).set("lastModified", Instant.now());
+    }
+
+    /**
+     * Builds one criterion per filtered attribute, each matching a key/value pair with one of the accepted values.
+     */
+    private static List<Criteria> attributeCriteria(Map<String, List<String>> filters) {
+        return filters.entrySet().stream()
+                .map(filter -> Criteria.where("attributes").elemMatch(
+                        Criteria.where("key").is(filter.getKey()).and("value").in(filter.getValue())))
+                .toList();
+    }
+
+    /**
+     * Builds the criteria matching the products after the cursor: a later sort key,
+     * or the same sort key and a later ID.
+     * Null and missing keys sort first, but comparisons never match them, so they are matched
+     * explicitly: after every other key when descending, and only among themselves after a null key.
+     */
+    private static Criteria seekPast(String field, boolean descending, ProductCursor after) {
+        if (after.sort() == ProductSort.ID) {
+            return descending ? Criteria.where("id").lt(after.id()) : Criteria.where("id").gt(after.id());
+        }
+        Object value = after.sortValue();
+        Criteria laterId = descending ? Criteria.where("id").lt(after.id()) : Criteria.where("id").gt(after.id());
+        Criteria sameKey = Criteria.where(field).is(value).andOperator(laterId);
+        if (value == null) {
+            return descending ? sameKey : new Criteria().orOperator(Criteria.where(field).ne(null), sameKey);
+        }
+        if (descending) {
+            return new Criteria().orOperator(Criteria.where(field).lt(value), Criteria.where(field).is(null), sameKey);
+        }
+        return new Criteria().orOperator(Criteria.where(field).gt(value), sameKey);
+    }
+}
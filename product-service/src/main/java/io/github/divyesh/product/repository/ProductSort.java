@@ -0,0 +1,43 @@
+package io.github.divyesh.product.repository;
+
+import io.github.divyesh.product.exception.InvalidQueryException;
+
+import java.util.Locale;
+
+/**
+ * Orders available for the product listing.
+ * Every order is made unique by the product ID, so listings can be paged with a cursor.
+ */
+public enum ProductSort {
+    ID("id"),
+    NAME("name"),
+    PRICE("price");
+
+    private final String field;
+
+    ProductSort(String field) {
+        this.field = field;
+    }
+
+    /**
+     * Returns the product field sorted on.
+     * @return The field name.
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Parses a sort request parameter.
+     * @param parameter The parameter, case-insensitive.
+     * @return The sort.
+     * @throws InvalidQueryException if the parameter names no sort.
+     */
+    public static ProductSort fromParameter(String parameter) {
+        try {
+            return valueOf(parameter.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryException("Unknown sort: " + parameter);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.divyesh.product.repository;
+
+import io.github.divyesh.product.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking repository for Product entities, used by the reactive profile.
+ * Results are read from the MongoDB cursor as subscribers request them, so a slow client
+ * holds back further batches instead of a thread or a buffer of the whole result.
+ */
+public interface ReactiveProductRepository extends ReactiveMongoRepository<Product, String> {
+
+    /**
+     * Streams the whole product listing, with only the listing fields populated.
+     * @param sort The order of the listing.
+     * @return The products, read lazily from the cursor.
+     */
+    @Query(value = "{}", fields = "{ 'name': 1, 'price': 1, 'sku': 1, 'imageUrl': 1 }")
+    Flux<Product> findListing(Sort sort);
+
+    /**
+     * Finds the product with the given SKU, using the unique SKU index.
+     * @param sku The SKU to look up.
+     * @return The product, or empty if no product has the SKU.
+     */
+    Mono<Product> findBySku(String sku);
+}
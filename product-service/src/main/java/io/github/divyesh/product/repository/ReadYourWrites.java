@@ -0,0 +1,212 @@
+package io.github.divyesh.product.repository;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Read-your-writes for clients whose reads may be answered by a secondary.
+ * <p>
+ * Every successful write reports the operation time the primary applied it at. Within a request
+ * opened with {@link #begin(Token)}, the latest such time is kept, so it can be handed to the
+ * client as a {@link Token}. A client that sends the token back with its next request is served
+ * by {@link CatalogReads} in a causally consistent session that has seen the token, so the
+ * member answering, primary or secondary, waits until it has replicated the client's writes.
+ * <p>
+ * The operation times are taken from the raw command replies, which the driver delivers to its
+ * command listeners on the thread that ran the command. Writes made on other threads, such as
+ * the chunks of an import, are not seen. Standalone servers do not report operation times, so
+ * no tokens are handed out there.
+ * <p>
+ * Tokens come back from clients, so they are signed with an HMAC under the configured
+ * {@code product-reads.token-secret}, and a token that was not handed out by a replica sharing
+ * the secret is rejected: a forged operation time far in the future would otherwise make every
+ * causal read wait for it. Without a secret, a random one is drawn at startup, and tokens are
+ * only honoured by the replica that handed them out.
+ */
+@Component
+public class ReadYourWrites implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWrites.class);
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify", "bulkWrite");
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private final ThreadLocal<Scope> scope = new ThreadLocal<>();
+    private final SecretKeySpec key;
+
+    /**
+     * A causal consistency token: the operation time of a write, and the signed cluster time the
+     * server reported with it, so a member that has not heard of that time yet can be told of it.
+     * @param operationTime The operation time of the write.
+     * @param clusterTime The signed cluster time, or null if the server reported none.
+     */
+    public record Token(BsonTimestamp operationTime, BsonDocument clusterTime) {}
+
+    /**
+     * The state of the request running on a thread.
+     */
+    private static final class Scope {
+        private final Token readAfter;
+        private Token lastWrite;
+
+        private Scope(Token readAfter) {
+            this.readAfter = readAfter;
+        }
+    }
+
+    /**
+     * Constructs a ReadYourWrites.
+     * @param secret The secret the tokens are signed with, shared by all replicas; blank for a random one.
+     */
+    public ReadYourWrites(@Value("${product-reads.token-secret:}") String secret) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("No product-reads.token-secret configured, read-after tokens are only honoured by this replica");
+            keyBytes = new byte[MAC_LENGTH];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, MAC_ALGORITHM);
+    }
+
+    /**
+     * Registers this listener with the MongoClient that Spring Boot builds.
+     * @param builder The settings of the MongoClient.
+     */
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    /**
+     * Encodes a token as an opaque, URL-safe string: the token as BSON followed by its signature.
+     * @param token The token.
+     * @return The encoded token.
+     */
+    public String encode(Token token) {
+        BsonDocument document = new BsonDocument("t", token.operationTime());
+        if (token.clusterTime() != null) {
+            document.append("c", token.clusterTime());
+        }
+        ByteBuffer buffer = new RawBsonDocument(document, new BsonDocumentCodec()).getByteBuffer().asNIO();
+        int length = buffer.remaining();
+        byte[] bytes = new byte[length + MAC_LENGTH];
+        buffer.get(bytes, 0, length);
+        System.arraycopy(sign(bytes, length), 0, bytes, length, MAC_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Decodes a token encoded with {@link #encode(Token)} by a replica sharing the secret.
+     * @param token The encoded token.
+     * @return The token.
+     * @throws IllegalArgumentException if the token is malformed or its signature does not match.
+     */
+    public Token decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed consistency token", e);
+        }
+        int length = bytes.length - MAC_LENGTH;
+        if (length <= 0 || !MessageDigest.isEqual(sign(bytes, length), Arrays.copyOfRange(bytes, length, bytes.length))) {
+            throw new IllegalArgumentException("Consistency token is not signed by this service");
+        }
+        try {
+            BsonDocument document = new RawBsonDocument(bytes, 0, length);
+            BsonValue clusterTime = document.get("c");
+            return new Token(document.getTimestamp("t"), clusterTime == null ? null : clusterTime.asDocument());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed consistency token", e);
+        }
+    }
+
+    /**
+     * Starts tracking the writes of a request on the current thread.
+     * @param readAfter The token the client sent, or null if it sent none.
+     */
+    public void begin(Token readAfter) {
+        scope.set(new Scope(readAfter));
+    }
+
+    /**
+     * Stops tracking the request on the current thread.
+     */
+    public void end() {
+        scope.remove();
+    }
+
+    /**
+     * Returns the token the client of the current request sent.
+     * @return The token, or null if the client sent none or no request is tracked.
+     */
+    public Token readAfter() {
+        Scope current = scope.get();
+        return current == null ? null : current.readAfter;
+    }
+
+    /**
+     * Returns the token of the latest write of the current request.
+     * @return The token, or null if the request wrote nothing or no request is tracked.
+     */
+    public Token lastWrite() {
+        Scope current = scope.get();
+        return current == null ? null : current.lastWrite;
+    }
+
+    /**
+     * Records the operation time of a successful write made within a tracked request.
+     * @param event The reply to the command.
+     */
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Scope current = scope.get();
+        if (current == null || !WRITE_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonValue operationTime = event.getResponse().get("operationTime");
+        if (operationTime == null || !operationTime.isTimestamp()) {
+            return;
+        }
+        if (current.lastWrite == null || operationTime.asTimestamp().compareTo(current.lastWrite.operationTime()) > 0) {
+            BsonValue clusterTime = event.getResponse().get("$clusterTime");
+            current.lastWrite = new Token(operationTime.asTimestamp(),
+                    clusterTime == null || !clusterTime.isDocument() ? null : clusterTime.asDocument());
+        }
+    }
+
+    private byte[] sign(byte[] bytes, int length) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            mac.update(bytes, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign consistency tokens", e);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package io.github.divyesh.product.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index ranking documents with BM25.
+ * <p>
+ * Documents get increasing internal numbers, so every {@link PostingList} is appended to in
+ * order and can be delta-encoded. Replacing or removing a document only marks its number as
+ * deleted; once deleted numbers make up a quarter of the index the postings are rewritten
+ * without them. Queries walk the postings of all query terms in document order and keep the
+ * best matches in a bounded heap, so they allocate in proportion to the result size only.
+ * <p>
+ * Reads and writes are guarded by a read-write lock.
+ *
+ * @param <D> The type of the stored documents.
+ */
+public class InvertedIndex<D> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_DELETES_BEFORE_COMPACTION = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> numbersByKey = new HashMap<>();
+    private List<D> documents = new ArrayList<>();
+    private int[] lengths = new int[1024];
+    private BitSet deleted = new BitSet();
+    private int deletedCount;
+    private long totalLength;
+
+    /**
+     * Adds a document, replacing any document with the same key.
+     * @param key The unique key of the document.
+     * @param termFrequencies The number of occurrences of each term in the document.
+     * @param document The document returned by searches.
+     */
+    public void put(String key, Map<String, Integer> termFrequencies, D document) {
+        lock.writeLock().lock();
+        try {
+            delete(key);
+            int number = documents.size();
+            documents.add(document);
+            if (number == lengths.length) {
+                lengths = Arrays.copyOf(lengths, lengths.length * 2);
+            }
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(number, entry.getValue());
+                length += entry.getValue();
+            }
+            lengths[number] = length;
+            totalLength += length;
+            numbersByKey.put(key, number);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document.
+     * @param key The key of the document.
+     * @return False if no document has the key.
+     */
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = delete(key);
+            compactIfNeeded();
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents best matching the given terms.
+     * @param terms The distinct query terms.
+     * @param limit The maximum number of documents to return.
+     * @return The matching documents with their BM25 scores, best first.
+     */
+    public List<ScoredDocument<D>> search(Collection<String> terms, int limit) {
+        return search(terms, List.of(), limit);
+    }
+
+    /**
+     * Finds the documents best matching the given terms that contain none of the excluded terms.
+     * @param terms The distinct query terms.
+     * @param excludedTerms The terms a matching document must not contain.
+     * @param limit The maximum number of documents to return.
+     * @return The matching documents with their BM25 scores, best first.
+     */
+    public List<ScoredDocument<D>> search(Collection<String> terms, Collection<String> excludedTerms, int limit) {
+        lock.readLock().lock();
+        try {
+            int liveCount = numbersByKey.size();
+            if (liveCount == 0 || limit <= 0) {
+                return List.of();
+            }
+            BitSet excluded = new BitSet();
+            for (String term : excludedTerms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    PostingList.Cursor cursor = list.cursor();
+                    while (cursor.next()) {
+                        excluded.set(cursor.document());
+                    }
+                }
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / liveCount);
+            List<PostingList.Cursor> cursors = new ArrayList<>(terms.size());
+            List<Double> weights = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                PostingList.Cursor cursor = list.cursor();
+                if (cursor.next()) {
+                    int df = list.documentCount();
+                    cursors.add(cursor);
+                    weights.add(Math.log(1 + (liveCount - df + 0.5) / (df + 0.5)));
+                }
+            }
+
+            PriorityQueue<ScoredDocument<D>> best = new PriorityQueue<>(Comparator.comparingDouble(ScoredDocument::score));
+            while (!cursors.isEmpty()) {
+                int number = Integer.MAX_VALUE;
+                for (PostingList.Cursor cursor : cursors) {
+                    number = Math.min(number, cursor.document());
+                }
+                double score = 0;
+                double lengthNorm = K1 * (1 - B + B * lengths[number] / averageLength);
+                for (int i = cursors.size() - 1; i >= 0; i--) {
+                    PostingList.Cursor cursor = cursors.get(i);
+                    if (cursor.document() != number) {
+                        continue;
+                    }
+                    int tf = cursor.frequency();
+                    score += weights.get(i) * tf * (K1 + 1) / (tf + lengthNorm);
+                    if (!cursor.next()) {
+                        cursors.remove(i);
+                        weights.remove(i);
+                    }
+                }
+                if (!deleted.get(number) && !excluded.get(number)) {
+                    if (best.size() < limit) {
+                        best.add(new ScoredDocument<>(documents.get(number), score));
+                    } else if (score > best.peek().score()) {
+                        best.poll();
+                        best.add(new ScoredDocument<>(documents.get(number), score));
+                    }
+                }
+            }
+            List<ScoredDocument<D>> results = new ArrayList<>(best);
+            results.sort(Comparator.comparingDouble((ScoredDocument<D> result) -> result.score()).reversed());
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of searchable documents.
+     * @return The live document count.
+     */
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return numbersByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct terms.
+     * @return The term count.
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the memory used by the encoded postings.
+     * @return The size of all postings in bytes.
+     */
+    public long postingsSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long size = 0;
+            for (PostingList list : postings.values()) {
+                size += list.sizeInBytes();
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean delete(String key) {
+        Integer number = numbersByKey.remove(key);
+        if (number == null) {
+            return false;
+        }
+        deleted.set(number);
+        deletedCount++;
+        documents.set(number, null);
+        totalLength -= lengths[number];
+        return true;
+    }
+
+    /**
+     * Rewrites the postings without deleted documents once they make up a quarter of the index.
+     */
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_DELETES_BEFORE_COMPACTION || deletedCount * 4 < documents.size()) {
+            return;
+        }
+        int[] renumbered = new int[documents.size()];
+        List<D> liveDocuments = new ArrayList<>(documents.size() - deletedCount);
+        int[] liveLengths = new int[Math.max(1024, documents.size() - deletedCount)];
+        for (int number = 0; number < documents.size(); number++) {
+            if (deleted.get(number)) {
+                renumbered[number] = -1;
+            } else {
+                renumbered[number] = liveDocuments.size();
+                liveLengths[liveDocuments.size()] = lengths[number];
+                liveDocuments.add(documents.get(number));
+            }
+        }
+        postings.replaceAll((term, list) -> {
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = list.cursor();
+            while (cursor.next()) {
+                int number = renumbered[cursor.document()];
+                if (number >= 0) {
+                    compacted.add(number, cursor.frequency());
+                }
+            }
+            return compacted;
+        });
+        postings.values().removeIf(list -> list.documentCount() == 0);
+        numbersByKey.replaceAll((key, number) -> renumbered[number]);
+        documents = liveDocuments;
+        lengths = liveLengths;
+        deleted = new BitSet();
+        deletedCount = 0;
+    }
+
+    /**
+     * A search result.
+     * @param document The matching document.
+     * @param score The BM25 score of the document for the query.
+     * @param <D> The type of the document.
+     */
+    public record ScoredDocument<D>(D document, double score) {}
+}
@@ -0,0 +1,119 @@
+package io.github.divyesh.product.search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed postings of one term: the documents containing it and how often.
+ * Entries are appended in increasing document order and stored as varint-encoded
+ * document gaps followed by the term frequency, usually two or three bytes per entry.
+ */
+final class PostingList {
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int lastDocument = -1;
+    private int documentCount;
+
+    /**
+     * Appends a document to the list.
+     * @param document The document number, greater than any already in the list.
+     * @param frequency The number of times the term occurs in the document.
+     */
+    void add(int document, int frequency) {
+        if (document <= lastDocument) {
+            throw new IllegalArgumentException("Documents must be added in increasing order");
+        }
+        ensureCapacity(10);
+        writeVarint(document - lastDocument);
+        writeVarint(frequency);
+        lastDocument = document;
+        documentCount++;
+    }
+
+    /**
+     * Returns the number of documents in the list, including deleted ones.
+     * @return The document frequency of the term.
+     */
+    int documentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Returns the memory used by the encoded postings.
+     * @return The size of the backing array in bytes.
+     */
+    int sizeInBytes() {
+        return data.length;
+    }
+
+    /**
+     * Returns a cursor positioned before the first entry.
+     * @return A new cursor.
+     */
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * Forward-only iterator over the entries of the list.
+     */
+    final class Cursor {
+        private int position;
+        private int document = -1;
+        private int frequency;
+
+        /**
+         * Moves to the next entry.
+         * @return False if there are no more entries.
+         */
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            document += readVarint();
+            frequency = readVarint();
+            return true;
+        }
+
+        /**
+         * Returns the document of the current entry.
+         * @return The document number.
+         */
+        int document() {
+            return document;
+        }
+
+        /**
+         * Returns the term frequency of the current entry.
+         * @return The number of occurrences.
+         */
+        int frequency() {
+            return frequency;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
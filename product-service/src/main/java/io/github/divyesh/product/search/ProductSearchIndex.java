@@ -0,0 +1,366 @@
+package io.github.divyesh.product.search;
+
+import io.github.divyesh.product.model.Product;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process search index over the product catalog.
+ * <p>
+ * The index is built from the {@code products} collection in the background at startup and
+ * kept current by {@link io.github.divyesh.product.cache.ProductChangeStreamListener}, which
+ * reports the products saved and deleted on any replica, and by
+ * {@link io.github.divyesh.product.service.ProductService} for the writes of this replica.
+ * A rebuild indexes the catalog into new structures that replace the old ones when it
+ * completes, so products deleted while nobody was listening disappear. Name terms count three times and SKU terms twice towards
+ * a product's term frequencies, so they weigh more than the description. Only the listing
+ * fields of each product are kept in memory for the results.
+ * <p>
+ * Alongside the index, a {@link RadixTree} over product names and SKUs answers type-ahead
+ * suggestions. A name is a key from each of its words on, so "shi" suggests "Red Shirt".
+ * Suggestions are ranked by popularity, the number of times the product was viewed since the
+ * service started.
+ * <p>
+ * Adding or removing a product touches the inverted index, the suggestion tree and the
+ * suggestable products, so updates are serialized by one lock: two updates of the same product
+ * can otherwise interleave and leave the structures disagreeing. Searches, suggestions and
+ * views do not take the lock: a view only raises the popularity bounds in the suggestion tree,
+ * which is safe alongside an update, and an update reads the popularity when it inserts keys.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int NAME_WEIGHT = 3;
+    private static final int SKU_WEIGHT = 2;
+    private static final int MAX_SUGGESTION_WORDS = 8;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, Long> popularity = new ConcurrentHashMap<>();
+    private final Timer searchTimer;
+    private final Timer suggestTimer;
+    private final Set<String> changedDuringBuild = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private final Object updateLock = new Object();
+    private volatile Structures live = new Structures();
+    /** The structures a running build fills, or null; written under the update lock. */
+    private volatile Structures building;
+    private volatile boolean ready;
+
+    /**
+     * Constructs a ProductSearchIndex.
+     * @param mongoTemplate The template used to read the catalog.
+     * @param meterRegistry The registry the index size and latency metrics are registered with.
+     */
+    public ProductSearchIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        Gauge.builder("products.search.index.documents", this, self -> self.live.index().documentCount())
+                .description("Products in the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("products.search.index.terms", this, self -> self.live.index().termCount())
+                .description("Distinct terms in the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("products.search.index.size", this, self -> self.live.index().postingsSizeInBytes())
+                .description("Memory used by the postings of the in-memory search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.searchTimer = Timer.builder("products.search.latency")
+                .description("Latency of in-memory product searches")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("products.suggest.nodes", this, self -> self.live.suggestions().nodeCount())
+                .description("Nodes in the type-ahead suggestion tree")
+                .register(meterRegistry);
+        this.suggestTimer = Timer.builder("products.suggest.latency")
+                .description("Latency of type-ahead product suggestions")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts building the index from the catalog on a background thread.
+     * Also used to refresh the index after bulk writes that bypass {@link #index(Product)};
+     * the index keeps answering searches while it is refreshed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuild() {
+        Thread.ofVirtual().name("product-search-index").start(this::build);
+    }
+
+    /**
+     * Indexes the whole catalog into new structures, streaming it so only one batch of products
+     * is in memory at a time, and replaces the live structures with them once complete.
+     * Products saved or deleted while the build runs go to both and are skipped by the build,
+     * since the copy it read may be older than the one already indexed. Builds run one at a time.
+     */
+    public void build() {
+        buildLock.lock();
+        long started = System.nanoTime();
+        Structures next = new Structures();
+        synchronized (updateLock) {
+            building = next;
+        }
+        Query query = new Query();
+        query.fields().include("name", "description", "price", "sku", "imageUrl");
+        try (Stream<Product> products = mongoTemplate.stream(query, Product.class)) {
+            products.forEach(product -> {
+                synchronized (updateLock) {
+                    if (!changedDuringBuild.contains(product.getId())) {
+                        put(next, product);
+                    }
+                }
+            });
+            synchronized (updateLock) {
+                live = next;
+            }
+            ready = true;
+            log.info("Indexed {} products in {} ms", next.index().documentCount(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to build the product search index, searches fall back to MongoDB", e);
+        } finally {
+            synchronized (updateLock) {
+                building = null;
+                changedDuringBuild.clear();
+            }
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether the index holds the whole catalog and can answer searches.
+     * @return True once the initial build has completed.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or replaces a product in the index.
+     * @param product The saved product.
+     */
+    public void index(Product product) {
+        synchronized (updateLock) {
+            put(live, product);
+            if (building != null) {
+                changedDuringBuild.add(product.getId());
+                put(building, product);
+            }
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     * @param id The ID of the deleted product.
+     */
+    public void remove(String id) {
+        synchronized (updateLock) {
+            remove(live, id);
+            if (building != null) {
+                changedDuringBuild.add(id);
+                remove(building, id);
+            }
+            popularity.remove(id);
+        }
+    }
+
+    /**
+     * Counts a view of a product towards its popularity, which ranks suggestions.
+     * @param id The ID of the viewed product.
+     */
+    public void recordView(String id) {
+        Structures current = live;
+        Suggestable suggestable = current.suggestables().get(id);
+        if (suggestable == null) {
+            return;
+        }
+        long views = popularity.merge(id, 1L, Long::sum);
+        suggestable.keys().forEach(key -> current.suggestions().raise(key, views));
+        Structures pending = building;
+        Suggestable pendingSuggestable = pending == null ? null : pending.suggestables().get(id);
+        if (pendingSuggestable != null) {
+            pendingSuggestable.keys().forEach(key -> pending.suggestions().raise(key, views));
+        }
+        if (!live.suggestables().containsKey(id)) {
+            // Removed meanwhile: do not keep counting a product that is gone.
+            popularity.remove(id, views);
+        }
+    }
+
+    /**
+     * Suggests products whose name has a word starting with the prefix, or whose SKU starts with it.
+     * Suggestions are answered while the index is still being built, from the products indexed so far.
+     * @param prefix The text typed so far.
+     * @param limit The maximum number of suggestions.
+     * @return The suggested products, with only id, name and SKU populated, most popular first.
+     */
+    public List<Product> suggest(String prefix, int limit) {
+        Structures current = live;
+        return suggestTimer.record(() -> current.suggestions().top(normalize(prefix), limit, id -> popularity.getOrDefault(id, 0L))
+                .stream()
+                .map(current.suggestables()::get)
+                .filter(Objects::nonNull)
+                .map(Suggestable::product)
+                .toList());
+    }
+
+    /**
+     * Searches the index. Products containing a word prefixed with {@code -} are left out. The index
+     * does not know where words occur, so phrases are searched as their words; searches with
+     * phrases are better answered by the MongoDB text index.
+     * @param text The search terms.
+     * @param page The zero-based page number.
+     * @param size The maximum number of products per page.
+     * @return The matching products, with only the listing fields and score populated, most relevant first.
+     */
+    public List<Product> search(String text, int page, int size) {
+        return searchTimer.record(() -> {
+            SearchQuery query = SearchQuery.parse(text);
+            // A single word may be a whole SKU
+            Set<String> terms = terms(query.words(), query.words().size() == 1);
+            Set<String> excludedTerms = terms(query.excludedWords(), true);
+            List<InvertedIndex.ScoredDocument<Product>> results = live.index().search(terms, excludedTerms, (page + 1) * size);
+            return results.stream()
+                    .skip((long) page * size)
+                    .map(result -> {
+                        Product hit = listingOf(result.document());
+                        hit.setScore((float) result.score());
+                        return hit;
+                    })
+                    .toList();
+        });
+    }
+
+    /**
+     * Adds or replaces a product in one set of structures; called with the update lock held.
+     */
+    private void put(Structures structures, Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        addTerms(frequencies, Tokenizer.tokenize(product.getName()), NAME_WEIGHT);
+        addTerms(frequencies, Tokenizer.tokenize(product.getSku()), SKU_WEIGHT);
+        if (product.getSku() != null && !product.getSku().isBlank()) {
+            // The whole SKU is a term too, so exact SKU lookups rank first
+            addTerms(frequencies, List.of(product.getSku().strip().toLowerCase(Locale.ROOT)), SKU_WEIGHT);
+        }
+        addTerms(frequencies, Tokenizer.tokenize(product.getDescription()), 1);
+        String id = product.getId();
+        Product suggested = Product.builder().id(id).name(product.getName()).sku(product.getSku()).build();
+        List<String> keys = suggestionKeys(product);
+
+        structures.index().put(id, frequencies, listingOf(product));
+        Suggestable previous = structures.suggestables().put(id, new Suggestable(suggested, keys));
+        if (previous != null) {
+            previous.keys().forEach(key -> structures.suggestions().remove(key, id));
+        }
+        long views = popularity.getOrDefault(id, 0L);
+        keys.forEach(key -> structures.suggestions().put(key, id, views));
+    }
+
+    /**
+     * Removes a product from one set of structures; called with the update lock held.
+     */
+    private static void remove(Structures structures, String id) {
+        structures.index().remove(id);
+        Suggestable removed = structures.suggestables().remove(id);
+        if (removed != null) {
+            removed.keys().forEach(key -> structures.suggestions().remove(key, id));
+        }
+    }
+
+    /**
+     * Returns the terms of the words of a search, optionally with each whole word as a term of its own.
+     */
+    private static Set<String> terms(List<String> words, boolean wholeWords) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : words) {
+            terms.addAll(Tokenizer.tokenize(word));
+            if (wholeWords) {
+                terms.add(word.toLowerCase(Locale.ROOT));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Returns the keys a product is suggested under: its name from each of its first words on, and its SKU.
+     */
+    private static List<String> suggestionKeys(Product product) {
+        List<String> keys = new ArrayList<>();
+        String name = normalize(product.getName());
+        int start = 0;
+        while (start < name.length() && keys.size() < MAX_SUGGESTION_WORDS) {
+            keys.add(name.substring(start));
+            int space = name.indexOf(' ', start);
+            if (space < 0) {
+                break;
+            }
+            start = space + 1;
+        }
+        String sku = normalize(product.getSku());
+        if (!sku.isEmpty()) {
+            keys.add(sku);
+        }
+        return keys;
+    }
+
+    /**
+     * Lower-cases text and collapses its whitespace, so suggestions ignore case and spacing.
+     */
+    private static String normalize(String text) {
+        return text == null ? "" : WHITESPACE.matcher(text.strip().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    private static Product listingOf(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .sku(product.getSku())
+                .imageUrl(product.getImageUrl())
+                .build();
+    }
+
+    /**
+     * A product that can be suggested, with the keys it is suggested under.
+     */
+    private record Suggestable(Product product, List<String> keys) {}
+
+    /**
+     * The structures answering searches and suggestions, replaced as a whole by a rebuild.
+     */
+    private record Structures(InvertedIndex<Product> index, RadixTree<String> suggestions,
+                              Map<String, Suggestable> suggestables) {
+        Structures() {
+            this(new InvertedIndex<>(), new RadixTree<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, List<String> terms, int weight) {
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+}
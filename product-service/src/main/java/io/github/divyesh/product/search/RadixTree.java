@@ -0,0 +1,323 @@
+package io.github.divyesh.product.search;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory radix tree mapping string keys to values, answering "best values under a prefix" queries.
+ * <p>
+ * Edges are labelled with whole runs of characters, so a chain of single-child nodes takes one node.
+ * Every node also holds an upper bound of the scores of the values below it. A query walks to the
+ * prefix and then expands nodes best bound first, so it stops as soon as the next bound cannot beat
+ * the values already found, without visiting the rest of the subtree. Bounds are only ever raised,
+ * which keeps them valid when a value's score grows or a value is removed.
+ * <p>
+ * Structural changes are guarded by the write lock; queries and raising bounds take the read lock.
+ *
+ * @param <V> The type of the stored values.
+ */
+public class RadixTree<V> {
+
+    private static final VarHandle MAX;
+
+    static {
+        try {
+            MAX = MethodHandles.lookup().findVarHandle(Node.class, "max", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node<V> root = new Node<>("");
+    private int nodeCount = 1;
+
+    /**
+     * Adds a value under a key.
+     * @param key The key.
+     * @param value The value; a value already under the key is not added again.
+     * @param score The current score of the value, used to raise the bounds on the path to the key.
+     */
+    public void put(String key, V value, long score) {
+        lock.writeLock().lock();
+        try {
+            Node<V> node = root;
+            int i = 0;
+            while (i < key.length()) {
+                raise(node, score);
+                int index = node.childIndex(key.charAt(i));
+                if (index < 0) {
+                    Node<V> leaf = new Node<>(key.substring(i));
+                    node.insertChild(-index - 1, leaf);
+                    nodeCount++;
+                    node = leaf;
+                    break;
+                }
+                Node<V> child = node.children[index];
+                int common = commonPrefixLength(child.label, key, i);
+                if (common < child.label.length()) {
+                    // Split the edge where the key leaves it
+                    Node<V> split = new Node<>(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.children = newChildren(child);
+                    split.max = child.max;
+                    node.children[index] = split;
+                    nodeCount++;
+                    child = split;
+                }
+                node = child;
+                i += common;
+            }
+            raise(node, score);
+            if (!node.values.contains(value)) {
+                node.values.add(value);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a value from under a key, dropping nodes that no longer lead to any value.
+     * @param key The key.
+     * @param value The value.
+     * @return False if the value was not under the key.
+     */
+    public boolean remove(String key, V value) {
+        lock.writeLock().lock();
+        try {
+            List<Node<V>> path = new ArrayList<>();
+            Node<V> node = root;
+            int i = 0;
+            while (i < key.length()) {
+                path.add(node);
+                int index = node.childIndex(key.charAt(i));
+                if (index < 0) {
+                    return false;
+                }
+                node = node.children[index];
+                if (!key.startsWith(node.label, i)) {
+                    return false;
+                }
+                i += node.label.length();
+            }
+            if (!node.values.remove(value)) {
+                return false;
+            }
+            for (int depth = path.size() - 1; depth >= 0 && node.values.isEmpty(); depth--) {
+                Node<V> parent = path.get(depth);
+                if (node.children.length == 0) {
+                    parent.removeChild(node);
+                    nodeCount--;
+                } else if (node.children.length == 1) {
+                    // A node without values and with one child is folded into the child
+                    Node<V> child = node.children[0];
+                    child.label = node.label + child.label;
+                    parent.children[parent.childIndex(node.label.charAt(0))] = child;
+                    nodeCount--;
+                    break;
+                } else {
+                    break;
+                }
+                node = parent;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Raises the bounds on the path to a key after the score of a value under it grew.
+     * @param key The key.
+     * @param score The new score of the value.
+     */
+    public void raise(String key, long score) {
+        lock.readLock().lock();
+        try {
+            Node<V> node = root;
+            int i = 0;
+            raise(node, score);
+            while (i < key.length()) {
+                int index = node.childIndex(key.charAt(i));
+                if (index < 0) {
+                    return;
+                }
+                node = node.children[index];
+                if (!key.startsWith(node.label, i)) {
+                    return;
+                }
+                raise(node, score);
+                i += node.label.length();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the best-scoring values under all keys starting with a prefix.
+     * Values of equal score are returned shortest key first.
+     * @param prefix The prefix of the keys.
+     * @param limit The maximum number of values to return.
+     * @param score Returns the current score of a value.
+     * @return The distinct matching values, best first.
+     */
+    public List<V> top(String prefix, int limit, ToLongFunction<V> score) {
+        lock.readLock().lock();
+        try {
+            Node<V> start = find(prefix);
+            if (start == null || limit <= 0) {
+                return List.of();
+            }
+            // Nodes are queued by their bound and values by their score; at equal priority values come first
+            PriorityQueue<Candidate<V>> queue = new PriorityQueue<>(Comparator
+                    .comparingLong((Candidate<V> candidate) -> -candidate.priority())
+                    .thenComparingInt(Candidate::depth)
+                    .thenComparing(candidate -> candidate.node() != null));
+            queue.add(new Candidate<>(start, null, (long) MAX.getVolatile(start), 0));
+            Set<V> found = new LinkedHashSet<>();
+            while (!queue.isEmpty() && found.size() < limit) {
+                Candidate<V> next = queue.poll();
+                if (next.node() == null) {
+                    found.add(next.value());
+                    continue;
+                }
+                for (V value : next.node().values) {
+                    if (!found.contains(value)) {
+                        queue.add(new Candidate<>(null, value, score.applyAsLong(value), next.depth()));
+                    }
+                }
+                for (Node<V> child : next.node().children) {
+                    queue.add(new Candidate<>(child, null, (long) MAX.getVolatile(child), next.depth() + child.label.length()));
+                }
+            }
+            return List.copyOf(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of nodes in the tree.
+     * @return The node count, including the root.
+     */
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the node whose path starts with the prefix and is shortest, or null if no key has the prefix.
+     */
+    private Node<V> find(String prefix) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = node.childIndex(prefix.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            node = node.children[index];
+            int common = commonPrefixLength(node.label, prefix, i);
+            if (common < node.label.length() && i + common < prefix.length()) {
+                return null;
+            }
+            i += common;
+        }
+        return node;
+    }
+
+    private static void raise(Node<?> node, long score) {
+        long current = (long) MAX.getVolatile(node);
+        while (score > current && !MAX.compareAndSet(node, current, score)) {
+            current = (long) MAX.getVolatile(node);
+        }
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newChildren(Node<V> child) {
+        Node<V>[] children = new Node[1];
+        children[0] = child;
+        return children;
+    }
+
+    /**
+     * A node, reached from its parent over an edge with its label.
+     * Children are kept sorted by the first character of their labels, which all differ.
+     */
+    private static final class Node<V> {
+        private String label;
+        @SuppressWarnings("unchecked")
+        private Node<V>[] children = new Node[0];
+        private final List<V> values = new ArrayList<>(1);
+        private volatile long max;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Returns the index of the child whose label starts with the character, or
+         * {@code -(insertion point) - 1} if there is none.
+         */
+        private int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char label = children[middle].label.charAt(0);
+                if (label < first) {
+                    low = middle + 1;
+                } else if (label > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+
+        private void insertChild(int index, Node<V> child) {
+            Node<V>[] grown = Arrays.copyOf(children, children.length + 1);
+            System.arraycopy(children, index, grown, index + 1, children.length - index);
+            grown[index] = child;
+            children = grown;
+        }
+
+        private void removeChild(Node<V> child) {
+            int index = childIndex(child.label.charAt(0));
+            Node<V>[] shrunk = Arrays.copyOf(children, children.length - 1);
+            System.arraycopy(children, index + 1, shrunk, index, children.length - index - 1);
+            children = shrunk;
+        }
+    }
+
+    /**
+     * An entry of the query queue: either a node with the bound of its subtree, or a value with its score.
+     */
+    private record Candidate<V>(Node<V> node, V value, long priority, int depth) {}
+}
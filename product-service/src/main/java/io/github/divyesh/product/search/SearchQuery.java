@@ -0,0 +1,63 @@
+package io.github.divyesh.product.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A product search as typed by a user, in the syntax of MongoDB text search: words, phrases in
+ * double quotes, and words prefixed with {@code -} that matching products must not contain.
+ *
+ * @param words The words to search for, including the words of phrases.
+ * @param excludedWords The words matching products must not contain, without their {@code -}.
+ * @param phrases The quoted phrases, which matching products must contain as written.
+ */
+public record SearchQuery(List<String> words, List<String> excludedWords, List<String> phrases) {
+
+    /**
+     * Parses a search. An unclosed quote runs to the end of the text.
+     * @param text The search as typed.
+     * @return The parsed search.
+     */
+    public static SearchQuery parse(String text) {
+        List<String> words = new ArrayList<>();
+        List<String> excludedWords = new ArrayList<>();
+        List<String> phrases = new ArrayList<>();
+        int position = 0;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', position + 1);
+                end = end < 0 ? text.length() : end;
+                String phrase = text.substring(position + 1, end).strip();
+                if (!phrase.isEmpty()) {
+                    phrases.add(phrase);
+                    words.addAll(List.of(phrase.split("\\s+")));
+                }
+                position = end + 1;
+            } else {
+                int end = position;
+                while (end < text.length() && !Character.isWhitespace(text.charAt(end)) && text.charAt(end) != '"') {
+                    end++;
+                }
+                String word = text.substring(position, end);
+                if (word.length() > 1 && word.charAt(0) == '-') {
+                    excludedWords.add(word.substring(1));
+                } else {
+                    words.add(word);
+                }
+                position = end;
+            }
+        }
+        return new SearchQuery(List.copyOf(words), List.copyOf(excludedWords), List.copyOf(phrases));
+    }
+
+    /**
+     * Returns whether the search has quoted phrases.
+     * @return True if a phrase must be matched as written.
+     */
+    public boolean hasPhrases() {
+        return !phrases.isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.divyesh.product.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-case search terms.
+ * Terms are runs of letters and digits; single letters are dropped as noise.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {}
+
+    /**
+     * Tokenizes a text.
+     * @param text The text, may be null.
+     * @return The terms in order of appearance, with repetitions.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean termChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                if (i - start > 1 || Character.isDigit(lower.charAt(start))) {
+                    terms.add(lower.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
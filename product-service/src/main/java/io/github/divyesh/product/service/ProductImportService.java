@@ -0,0 +1,435 @@
+package io.github.divyesh.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import io.github.divyesh.product.cache.ProductCache;
+import io.github.divyesh.product.dto.ProductImportError;
+import io.github.divyesh.product.dto.ProductImportResponse;
+import io.github.divyesh.product.dto.ProductRequest;
+import io.github.divyesh.product.exception.InvalidImportException;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.model.ProductAttribute;
+import io.github.divyesh.product.search.ProductSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Service class for bulk product imports from supplier feeds.
+ * <p>
+ * Rows are streamed from the request body, checked, and upserted by SKU with unordered bulk
+ * writes of {@code product-import.chunk-size} rows. The quantity of a row is only stored for a new
+ * product: the stock of an existing product is changed through {@link StockService} alone, so an
+ * import never undoes reservations made since the feed was produced. Rows are spread over
+ * {@code product-import.workers} writers by SKU, so all rows of one SKU are written in file order
+ * by the same writer while the writers run in parallel. The reader waits when the writers fall
+ * behind, so only a few chunks per writer are held in memory.
+ * <p>
+ * A row that cannot be parsed, fails the checks of {@link ProductRequest} or is rejected by MongoDB
+ * is reported with its line number and does not stop the import. Imported products bypass
+ * {@link ProductService#saveProduct(Product)}, so the product cache is cleared and the search index
+ * rebuilt once the import has finished.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ProductImportService {
+
+    static final List<String> REQUIRED_COLUMNS = List.of("sku", "name", "description", "price", "quantity");
+    static final String ATTRIBUTE_COLUMN_PREFIX = "attr.";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+    private static final int QUEUED_CHUNKS_PER_WORKER = 2;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final int chunkSize;
+    private final int workers;
+    private final int maxErrors;
+
+    /**
+     * Constructs a ProductImportService.
+     * @param mongoTemplate The template used for the bulk writes.
+     * @param objectMapper The mapper used to read NDJSON rows.
+     * @param productCache The product cache, cleared after an import.
+     * @param productSearchIndex The search index, rebuilt after an import.
+     * @param chunkSize The number of rows per bulk write.
+     * @param workers The number of bulk writes in flight at once.
+     * @param maxErrors The maximum number of failed rows reported in detail.
+     */
+    public ProductImportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper,
+                                ProductCache productCache, ProductSearchIndex productSearchIndex,
+                                @Value("${product-import.chunk-size:1000}") int chunkSize,
+                                @Value("${product-import.workers:4}") int workers,
+                                @Value("${product-import.max-errors:1000}") int maxErrors) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.productCache = productCache;
+        this.productSearchIndex = productSearchIndex;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports products from newline-delimited JSON, one product request object per line.
+     * @param ndjson The NDJSON input.
+     * @return The numbers of inserted, updated and failed rows, with the first failures.
+     * @throws IOException if the input cannot be read.
+     */
+    public ProductImportResponse importNdjson(InputStream ndjson) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        return new ImportRun().run(reader, 0, line -> objectMapper.readValue(line, ProductRequest.class));
+    }
+
+    /**
+     * Imports products from CSV with a header line.
+     * The header must name the columns {@code sku, name, description, price} and {@code quantity},
+     * and may name {@code imageUrl} and any number of {@code attr.<name>} attribute columns.
+     * Quoted fields may contain commas and doubled quotes, but not line breaks.
+     * @param csv The CSV input.
+     * @return The numbers of inserted, updated and failed rows, with the first failures.
+     * @throws IOException if the input cannot be read.
+     * @throws InvalidImportException if the header is missing a required column.
+     */
+    public ProductImportResponse importCsv(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new InvalidImportException("Expected a CSV header with the columns " + REQUIRED_COLUMNS);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header.strip());
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).strip(), i);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new InvalidImportException("Expected a CSV header with the columns " + REQUIRED_COLUMNS);
+        }
+        return new ImportRun().run(reader, 1, line -> toProductRequest(parseCsvLine(line), columns));
+    }
+
+    /**
+     * Checks a row against the constraints of {@link ProductRequest}.
+     * @param request The row.
+     * @return Why the row is invalid, or null if it is valid.
+     */
+    static String validate(ProductRequest request) {
+        if (request.sku() == null || request.sku().isBlank()) {
+            return "SKU is required";
+        }
+        if (request.name() == null || request.name().isBlank()) {
+            return "Product name is required";
+        }
+        if (request.description() == null || request.description().isBlank()) {
+            return "Product description is required";
+        }
+        if (!(request.price() >= 0)) {
+            return "Price must be non-negative";
+        }
+        if (request.quantity() < 0) {
+            return "Quantity must be non-negative";
+        }
+        return null;
+    }
+
+    /**
+     * Splits a CSV line into its fields, removing quotes.
+     * @param line The CSV line.
+     * @return The fields.
+     * @throws InvalidImportException if a quoted field is not closed or is followed by other characters.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            StringBuilder value = new StringBuilder();
+            if (position < line.length() && line.charAt(position) == '"') {
+                position++;
+                boolean closed = false;
+                while (position < line.length()) {
+                    char c = line.charAt(position++);
+                    if (c != '"') {
+                        value.append(c);
+                    } else if (position < line.length() && line.charAt(position) == '"') {
+                        value.append('"');
+                        position++;
+                    } else {
+                        closed = true;
+                        break;
+                    }
+                }
+                if (!closed || (position < line.length() && line.charAt(position) != ',')) {
+                    throw new InvalidImportException("Malformed quoted field");
+                }
+            } else {
+                while (position < line.length() && line.charAt(position) != ',') {
+                    value.append(line.charAt(position++));
+                }
+            }
+            fields.add(value.toString());
+            if (position >= line.length()) {
+                return fields;
+            }
+            position++;
+        }
+    }
+
+    private static ProductRequest toProductRequest(List<String> fields, Map<String, Integer> columns) {
+        if (fields.size() != columns.size()) {
+            throw new InvalidImportException("Expected " + columns.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> attributes = new LinkedHashMap<>();
+        columns.forEach((column, index) -> {
+            if (column.startsWith(ATTRIBUTE_COLUMN_PREFIX) && !fields.get(index).isEmpty()) {
+                attributes.put(column.substring(ATTRIBUTE_COLUMN_PREFIX.length()), fields.get(index));
+            }
+        });
+        Integer imageUrl = columns.get("imageUrl");
+        return ProductRequest.builder()
+                .sku(fields.get(columns.get("sku")).strip())
+                .name(fields.get(columns.get("name")))
+                .description(fields.get(columns.get("description")))
+                .price(parse(fields.get(columns.get("price")), "price", Double::parseDouble))
+                .quantity(parse(fields.get(columns.get("quantity")), "quantity", Integer::parseInt))
+                .imageUrl(imageUrl == null || fields.get(imageUrl).isEmpty() ? null : fields.get(imageUrl))
+                .attributes(attributes.isEmpty() ? null : attributes)
+                .build();
+    }
+
+    private static <T> T parse(String value, String column, Function<String, T> parser) {
+        try {
+            return parser.apply(value.strip());
+        } catch (NumberFormatException e) {
+            throw new InvalidImportException("Invalid " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Returns the upsert of a row: every field is set, except the quantity, which is only set on insert.
+     */
+    static Update updateOf(ProductRequest request) {
+        List<ProductAttribute> attributes = request.attributes() == null ? null : request.attributes().entrySet().stream()
+                .map(attribute -> new ProductAttribute(attribute.getKey(), attribute.getValue()))
+                .toList();
+        return new Update()
+                .set("name", request.name())
+                .set("description", request.description())
+                .set("price", request.price())
+                .setOnInsert("quantity", request.quantity())
+                .set("imageUrl", request.imageUrl())
+                .set("attributes", attributes)
+                .inc("version", 1)
+                .set("lastModified", Instant.now());
+    }
+
+    /**
+     * Turns one line of input into a product request.
+     */
+    @FunctionalInterface
+    private interface RowParser {
+        ProductRequest parse(String line) throws IOException;
+    }
+
+    /**
+     * A checked row and its line in the input.
+     */
+    private record ImportRow(long line, ProductRequest product) {
+    }
+
+    /**
+     * The state of one import: its counters, its failed rows and its writers.
+     */
+    private final class ImportRun {
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<ProductImportError> errors = new ArrayList<>();
+
+        ProductImportResponse run(BufferedReader reader, long linesBefore, RowParser parser) throws IOException {
+            long started = System.nanoTime();
+            long rows = 0;
+            Writer[] writers = new Writer[workers];
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < workers; i++) {
+                    writers[i] = new Writer();
+                    executor.submit(writers[i]::drain);
+                }
+                try {
+                    long line = linesBefore;
+                    String text;
+                    while ((text = reader.readLine()) != null) {
+                        line++;
+                        if (text.isBlank()) {
+                            continue;
+                        }
+                        rows++;
+                        ProductRequest request;
+                        try {
+                            request = parser.parse(text);
+                        } catch (JsonProcessingException e) {
+                            fail(line, null, e.getOriginalMessage());
+                            continue;
+                        } catch (InvalidImportException e) {
+                            fail(line, null, e.getMessage());
+                            continue;
+                        }
+                        String problem = request == null ? "Expected a product object" : validate(request);
+                        if (problem != null) {
+                            fail(line, request == null ? null : request.sku(), problem);
+                            continue;
+                        }
+                        writers[Math.floorMod(request.sku().hashCode(), workers)].add(new ImportRow(line, request));
+                    }
+                    for (Writer writer : writers) {
+                        writer.flush();
+                    }
+                } finally {
+                    for (Writer writer : writers) {
+                        writer.finish();
+                    }
+                }
+            }
+
+            if (inserted.get() + updated.get() > 0) {
+                productCache.clear();
+                productSearchIndex.startBuild();
+            }
+            log.info("Imported {} product rows in {} ms: {} inserted, {} updated, {} failed",
+                    rows, (System.nanoTime() - started) / 1_000_000, inserted.get(), updated.get(), failed.get());
+            List<ProductImportError> reported;
+            synchronized (errors) {
+                reported = errors.stream().sorted(Comparator.comparingLong(ProductImportError::line)).toList();
+            }
+            return ProductImportResponse.builder()
+                    .rows(rows)
+                    .inserted(inserted.get())
+                    .updated(updated.get())
+                    .failed(failed.get())
+                    .errors(reported)
+                    .build();
+        }
+
+        private void fail(long line, String sku, String message) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new ProductImportError(line, sku, message));
+                }
+            }
+        }
+
+        /**
+         * Upserts one chunk with an unordered bulk write, reporting the rows MongoDB rejects.
+         */
+        private void write(List<ImportRow> chunk) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            for (ImportRow row : chunk) {
+                bulk.upsert(Query.query(Criteria.where("sku").is(row.product().sku())), updateOf(row.product()));
+            }
+            try {
+                count(bulk.execute());
+            } catch (BulkOperationException e) {
+                e.getErrors().forEach(error -> {
+                    ImportRow row = chunk.get(error.getIndex());
+                    fail(row.line(), row.product().sku(), error.getMessage());
+                });
+                count(e.getResult());
+            } catch (RuntimeException e) {
+                log.warn("Bulk write of {} product rows failed", chunk.size(), e);
+                chunk.forEach(row -> fail(row.line(), row.product().sku(), "Write failed: " + e.getMessage()));
+            }
+        }
+
+        private void count(BulkWriteResult result) {
+            inserted.addAndGet(result.getUpserts().size());
+            updated.addAndGet(result.getMatchedCount());
+        }
+
+        /**
+         * Collects the rows of a share of the SKUs into chunks and writes them in order.
+         * A chunk never holds two rows of the same SKU, since an unordered bulk write
+         * does not say which of them would win.
+         */
+        private final class Writer {
+            private final BlockingQueue<List<ImportRow>> queue = new ArrayBlockingQueue<>(QUEUED_CHUNKS_PER_WORKER);
+            private final Set<String> skus = new HashSet<>();
+            private List<ImportRow> chunk = new ArrayList<>();
+
+            void add(ImportRow row) throws InterruptedIOException {
+                if (skus.contains(row.product().sku())) {
+                    flush();
+                }
+                skus.add(row.product().sku());
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    flush();
+                }
+            }
+
+            void flush() throws InterruptedIOException {
+                if (!chunk.isEmpty()) {
+                    enqueue(chunk);
+                    chunk = new ArrayList<>();
+                    skus.clear();
+                }
+            }
+
+            void finish() throws InterruptedIOException {
+                enqueue(List.of());
+            }
+
+            void drain() {
+                try {
+                    List<ImportRow> next;
+                    while (!(next = queue.take()).isEmpty()) {
+                        write(next);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            private void enqueue(List<ImportRow> rows) throws InterruptedIOException {
+                try {
+                    queue.put(rows);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Product import interrupted");
+                }
+            }
+        }
+    }
+}
@@ -1,54 +1,404 @@
 package io.github.divyesh.product.service;
 
+import io.github.divyesh.product.cache.ProductCache;
+import io.github.divyesh.product.exception.DuplicateSkuException;
+import io.github.divyesh.product.exception.InvalidProductUpdateException;
+import io.github.divyesh.product.exception.InvalidQueryException;
 import io.github.divyesh.product.exception.ProductNotFoundException;
+import io.github.divyesh.product.model.FacetedProductPage;
+import io.github.divyesh.product.model.PriceChangeResult;
+import io.github.divyesh.product.model.PriceFilter;
 import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.model.ProductAttribute;
+import io.github.divyesh.product.model.ProductPage;
+import io.github.divyesh.product.repository.ProductCursor;
 import io.github.divyesh.product.repository.ProductRepository;
+import io.github.divyesh.product.repository.ProductSort;
+import io.github.divyesh.product.repository.ReadYourWrites;
+import io.github.divyesh.product.search.ProductSearchIndex;
+import io.github.divyesh.product.search.SearchQuery;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Service class for managing products.
  * Provides business logic for CRUD operations on products.
+ * Saved and deleted products are reported to the {@link ProductSearchIndex} and evicted from the {@link ProductCache}.
+ * Lookups for a client that sent a {@link ReadYourWrites} token skip the cache, which may not have seen the
+ * client's writes yet when they were made through another replica. Cache misses are loaded from the
+ * primary, since a stale copy from a lagging secondary would stay cached until it expires.
  */
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ProductService {
+    private static final int MAX_SEARCH_RESULTS = 1000;
+    private static final int MAX_ATTRIBUTE_FILTERS = 10;
+    private static final int MAX_FACETS = 10;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_PREFIX_LENGTH = 100;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "price", "sku", "imageUrl", "attributes");
+    private static final Set<String> REQUIRED_FIELDS = Set.of("name", "description", "sku");
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCache productCache;
+    private final ReadYourWrites readYourWrites;
 
     /**
-     * Constructs a ProductService with the given ProductRepository.
+     * Constructs a ProductService with the given ProductRepository, ProductSearchIndex, ProductCache and ReadYourWrites.
      * @param productRepository The repository for product data.
+     * @param productSearchIndex The in-memory search index kept in step with the repository.
+     * @param productCache The cache answering product lookups by ID.
+     * @param readYourWrites Tells whether the client of the current request must see its own writes.
      */
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductSearchIndex productSearchIndex,
+                          ProductCache productCache, ReadYourWrites readYourWrites) {
         this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productCache = productCache;
+        this.readYourWrites = readYourWrites;
     }
 
     /**
-     * Saves a product to the database. If the product has an ID, it updates the existing product.
-     * Otherwise, it creates a new product.
+     * Saves a product to the database. If the product has an ID, it replaces the existing product,
+     * or creates it under that ID. Otherwise, it creates a new product.
+     * Either way the version of the product is incremented in the same write. Replacing a product
+     * keeps its stock, which is changed atomically through {@link StockService}.
      * @param product The product to save.
      * @return The saved product.
+     * @throws DuplicateSkuException if another product already has the SKU.
      */
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct;
+        try {
+            if (product.getId() != null) {
+                savedProduct = productRepository.replace(product);
+            } else {
+                product.setVersion(1L);
+                product.setLastModified(Instant.now());
+                savedProduct = productRepository.save(product);
+            }
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateSkuException("Another product already has SKU: " + product.getSku());
+        }
+        productCache.invalidate(savedProduct.getId());
+        productSearchIndex.index(savedProduct);
+        return savedProduct;
+    }
+
+    /**
+     * Changes some fields of a product without rewriting the rest of it.
+     * Each field present in the changes is set to its value, or removed if its value is null; other fields
+     * are left as they are. Attributes, when given, replace all attributes of the product. Stock is not
+     * patched, since it is changed atomically through {@link StockService}.
+     * @param id The ID of the product.
+     * @param changes The changed fields and their new values, as in a JSON merge patch.
+     * @return The whole product after the change.
+     * @throws InvalidProductUpdateException if a field is unknown, read-only, required or has an invalid value.
+     * @throws ProductNotFoundException if the product is not found.
+     * @throws DuplicateSkuException if the SKU is changed to the SKU of another product.
+     */
+    public Product patchProduct(String id, Map<String, Object> changes) {
+        if (changes.isEmpty()) {
+            throw new InvalidProductUpdateException("A patch must change at least one field");
+        }
+        Update update = new Update();
+        changes.forEach((field, value) -> {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new InvalidProductUpdateException(field.equals("quantity")
+                        ? "Quantity is changed through the stock API"
+                        : "Field cannot be patched: " + field);
+            }
+            if (value != null) {
+                update.set(field, patchValue(field, value));
+            } else if (REQUIRED_FIELDS.contains(field)) {
+                throw new InvalidProductUpdateException("Field is required and cannot be removed: " + field);
+            } else {
+                update.unset(field);
+            }
+        });
+
+        Product patchedProduct;
+        try {
+            patchedProduct = productRepository.patch(id, update);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateSkuException("Another product already has SKU: " + changes.get("sku"));
+        }
+        if (patchedProduct == null) {
+            throw new ProductNotFoundException("Product not found with ID: " + id);
+        }
+        productCache.invalidate(id);
+        productSearchIndex.index(patchedProduct);
+        return patchedProduct;
+    }
+
+    /**
+     * Changes the price of every product matching a filter with one update on the server.
+     * The product cache is cleared and the search index rebuilt afterwards, since the changed
+     * products are not known individually.
+     * @param filter The products to change; it must not be empty.
+     * @param multiplier The factor to multiply current prices by, or null to set a fixed price.
+     * @param price The new price, or null to multiply current prices.
+     * @return The numbers of matched and changed products.
+     * @throws InvalidProductUpdateException if the filter is empty, or not exactly one valid change is given.
+     */
+    public PriceChangeResult changePrices(PriceFilter filter, Double multiplier, Double price) {
+        if (filter.isEmpty()) {
+            throw new InvalidProductUpdateException("A price change needs at least one filter");
+        }
+        if ((multiplier == null) == (price == null)) {
+            throw new InvalidProductUpdateException("A price change needs either a multiplier or a price");
+        }
+        if (multiplier != null && !(multiplier > 0)) {
+            throw new InvalidProductUpdateException("Price multiplier must be positive");
+        }
+        if (price != null && !(price >= 0)) {
+            throw new InvalidProductUpdateException("Price must be non-negative");
+        }
+        PriceChangeResult result = productRepository.updatePrices(filter, multiplier, price);
+        if (result.modified() > 0) {
+            productCache.clear();
+            productSearchIndex.startBuild();
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves one page of the product listing.
+     * One extra product is read to tell whether another page follows.
+     * @param sort The sort of the listing.
+     * @param descending Whether to sort in descending order.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param limit The maximum number of products on the page.
+     * @return The page, with only the listing fields of each product populated.
+     * @throws InvalidQueryException if the cursor is malformed or belongs to another sort.
+     */
+    public ProductPage getProductPage(ProductSort sort, boolean descending, String cursor, int limit) {
+        ProductCursor after = cursor == null ? null : ProductCursor.decode(cursor, sort, descending);
+        List<Product> products = productRepository.findPage(sort, descending, after, limit + 1);
+        if (products.size() <= limit) {
+            return new ProductPage(products, null);
+        }
+        List<Product> page = products.subList(0, limit);
+        return new ProductPage(page, ProductCursor.after(sort, descending, page.get(limit - 1)).encode());
+    }
+
+    /**
+     * Searches the name, SKU and description of the products, most relevant first.
+     * Words prefixed with {@code -} exclude the products containing them, and quoted phrases must
+     * appear as written. Searches are answered by the in-memory index once it is built, and by the
+     * MongoDB text index until then; searches with phrases always go to MongoDB, since the index does
+     * not know where words occur. Only the first {@value #MAX_SEARCH_RESULTS} results can be paged through, since
+     * every page has to score and skip all results before it.
+     * @param text The search terms.
+     * @param page The zero-based page number.
+     * @param size The maximum number of products per page.
+     * @return The matching products, with only the listing fields and score populated.
+     * @throws InvalidQueryException if the search terms are blank or the page is out of range.
+     */
+    public List<Product> searchProducts(String text, int page, int size) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidQueryException("Search terms are required");
+        }
+        if (page < 0 || (long) (page + 1) * size > MAX_SEARCH_RESULTS) {
+            throw new InvalidQueryException("Only the first " + MAX_SEARCH_RESULTS + " results can be paged through");
+        }
+        if (productSearchIndex.isReady() && !SearchQuery.parse(text).hasPhrases()) {
+            return productSearchIndex.search(text, page, size);
+        }
+        return productRepository.search(text, page, size);
+    }
+
+    /**
+     * Suggests products for the text typed so far into a search box, from the in-memory {@link ProductSearchIndex}.
+     * A product is suggested when a word of its name, or its SKU, starts with the prefix; case and
+     * spacing are ignored. The most viewed products come first.
+     * @param prefix The text typed so far.
+     * @param limit The maximum number of suggestions.
+     * @return The suggested products, with only id, name and SKU populated.
+     * @throws InvalidQueryException if the prefix is blank or longer than {@value #MAX_PREFIX_LENGTH} characters.
+     */
+    public List<Product> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new InvalidQueryException("A prefix is required");
+        }
+        if (prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new InvalidQueryException("Prefix must be at most " + MAX_PREFIX_LENGTH + " characters");
+        }
+        return productSearchIndex.suggest(prefix, limit);
     }
 
     /**
-     * Retrieves all products from the database.
-     * @return A list of all products.
+     * Filters the products by their attributes and counts the values of the requested attributes
+     * among all matching products.
+     * Values given for the same attribute are alternatives; different attributes must all match.
+     * Like search results, only the first {@value #MAX_SEARCH_RESULTS} matches can be paged through.
+     * @param filters The accepted values of each filtered attribute.
+     * @param facetKeys The attributes to count values of.
+     * @param page The zero-based page number.
+     * @param size The maximum number of products per page.
+     * @return The page, with only the listing fields of each product populated, and the facet counts.
+     * @throws InvalidQueryException if too many attributes are filtered or counted, or the page is out of range.
      */
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public FacetedProductPage filterProducts(Map<String, List<String>> filters, List<String> facetKeys, int page, int size) {
+        if (filters.size() > MAX_ATTRIBUTE_FILTERS) {
+            throw new InvalidQueryException("At most " + MAX_ATTRIBUTE_FILTERS + " attributes can be filtered on");
+        }
+        if (facetKeys.size() > MAX_FACETS) {
+            throw new InvalidQueryException("At most " + MAX_FACETS + " facets can be counted");
+        }
+        if (page < 0 || (long) (page + 1) * size > MAX_SEARCH_RESULTS) {
+            throw new InvalidQueryException("Only the first " + MAX_SEARCH_RESULTS + " results can be paged through");
+        }
+        return productRepository.findByAttributes(filters, facetKeys.stream().distinct().toList(), page, size);
     }
 
     /**
-     * Retrieves a product by its ID.
+     * Retrieves a product by its ID, from the {@link ProductCache} when it holds the product.
+     * The lookup counts as a view towards the popularity that ranks suggestions.
+     * The returned product may be shared with other callers and must not be modified.
      * @param id The ID of the product to retrieve.
      * @return The product with the given ID.
      * @throws ProductNotFoundException if the product is not found.
      */
     public Product getProductById(String id) {
-        return productRepository.findById(id).orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+        Product product = (readingAfterWrite() ? productRepository.findById(id) : productCache.get(id, () -> productRepository.findByIdOnPrimary(id)))
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
+        productSearchIndex.recordView(id);
+        return product;
+    }
+
+    /**
+     * Retrieves several products by their IDs, answering what it can from the {@link ProductCache}
+     * and loading the rest with a single {@code $in} query.
+     * The returned products may be shared with other callers and must not be modified.
+     * @param ids The IDs of the products to retrieve; repeated IDs are looked up once.
+     * @return The found products by ID, in the order of the given IDs. IDs without a product are left out.
+     * @throws InvalidQueryException if no IDs or more than {@value #MAX_BATCH_SIZE} distinct IDs are given.
+     */
+    public Map<String, Product> getProductsByIds(List<String> ids) {
+        List<String> distinctIds = distinctKeys(ids, "product ID");
+        if (readingAfterWrite()) {
+            return inOrder(distinctIds, productRepository.findAllById(distinctIds), Product::getId);
+        }
+        return productCache.getAll(distinctIds, productRepository::findAllByIdOnPrimary);
+    }
+
+    /**
+     * Retrieves a product by its SKU, from the {@link ProductCache} when it holds the product.
+     * The lookup counts as a view towards the popularity that ranks suggestions.
+     * The returned product may be shared with other callers and must not be modified.
+     * @param sku The SKU of the product to retrieve.
+     * @return The product with the given SKU.
+     * @throws ProductNotFoundException if no product has the SKU.
+     */
+    public Product getProductBySku(String sku) {
+        Product product = findBySkus(List.of(sku)).get(sku);
+        if (product == null) {
+            throw new ProductNotFoundException("Product not found with SKU: " + sku);
+        }
+        productSearchIndex.recordView(product.getId());
+        return product;
+    }
+
+    /**
+     * Retrieves several products by their SKUs, answering what it can from the {@link ProductCache}
+     * and loading the rest with a single {@code $in} query on the unique SKU index.
+     * The returned products may be shared with other callers and must not be modified.
+     * @param skus The SKUs of the products to retrieve; repeated SKUs are looked up once.
+     * @return The found products by SKU, in the order of the given SKUs. SKUs without a product are left out.
+     * @throws InvalidQueryException if no SKUs or more than {@value #MAX_BATCH_SIZE} distinct SKUs are given.
+     */
+    public Map<String, Product> getProductsBySkus(List<String> skus) {
+        return findBySkus(distinctKeys(skus, "SKU"));
+    }
+
+    /**
+     * Looks up products by SKU from the cache, or from MongoDB alone when the client must see its own writes.
+     */
+    private Map<String, Product> findBySkus(List<String> skus) {
+        if (readingAfterWrite()) {
+            return inOrder(skus, productRepository.findBySkuIn(skus), Product::getSku);
+        }
+        return productCache.getAllBySku(skus, productRepository::findBySkuInOnPrimary);
+    }
+
+    /**
+     * Returns whether the client of the current request sent a read-your-writes token.
+     */
+    private boolean readingAfterWrite() {
+        return readYourWrites.readAfter() != null;
+    }
+
+    /**
+     * Maps loaded products by their key, in the order of the given keys.
+     */
+    private static Map<String, Product> inOrder(Collection<String> keys, List<Product> products, Function<Product, String> keyOf) {
+        Map<String, Product> byKey = new LinkedHashMap<>();
+        keys.forEach(key -> byKey.put(key, null));
+        products.forEach(product -> byKey.put(keyOf.apply(product), product));
+        byKey.values().removeIf(Objects::isNull);
+        return byKey;
+    }
+
+    /**
+     * Strips and de-duplicates the keys of a batch lookup, and checks the size of the batch.
+     */
+    private static List<String> distinctKeys(List<String> keys, String name) {
+        List<String> distinctKeys = keys.stream().map(String::strip).filter(key -> !key.isEmpty()).distinct().toList();
+        if (distinctKeys.isEmpty()) {
+            throw new InvalidQueryException("At least one " + name + " is required");
+        }
+        if (distinctKeys.size() > MAX_BATCH_SIZE) {
+            throw new InvalidQueryException("At most " + MAX_BATCH_SIZE + " products can be retrieved at once");
+        }
+        return distinctKeys;
+    }
+
+    /**
+     * Checks and converts the new value of a patched field.
+     */
+    private static Object patchValue(String field, Object value) {
+        switch (field) {
+            case "price" -> {
+                if (!(value instanceof Number number) || !(number.doubleValue() >= 0)) {
+                    throw new InvalidProductUpdateException("Price must be a non-negative number");
+                }
+                return number.doubleValue();
+            }
+            case "attributes" -> {
+                if (!(value instanceof Map<?, ?> attributes)) {
+                    throw new InvalidProductUpdateException("Attributes must be an object of strings");
+                }
+                List<ProductAttribute> pairs = new ArrayList<>();
+                attributes.forEach((key, attribute) -> {
+                    if (!(attribute instanceof String text)) {
+                        throw new InvalidProductUpdateException("Attributes must be an object of strings");
+                    }
+                    pairs.add(new ProductAttribute(key.toString(), text));
+                });
+                return pairs;
+            }
+            default -> {
+                boolean required = REQUIRED_FIELDS.contains(field);
+                if (!(value instanceof String text) || (required && text.isBlank())) {
+                    throw new InvalidProductUpdateException((required ? "Field must be a non-blank string: " : "Field must be a string: ") + field);
+                }
+                return text;
+            }
+        }
     }
 
     /**
@@ -63,5 +413,7 @@ public class ProductService {
         }
 
         productRepository.deleteById(id);
+        productCache.invalidate(id);
+        productSearchIndex.remove(id);
     }
 }
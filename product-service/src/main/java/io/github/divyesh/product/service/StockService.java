@@ -0,0 +1,123 @@
+package io.github.divyesh.product.service;
+
+import io.github.divyesh.product.cache.ProductCache;
+import io.github.divyesh.product.exception.InsufficientStockException;
+import io.github.divyesh.product.exception.InvalidStockRequestException;
+import io.github.divyesh.product.exception.ProductNotFoundException;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for changing product stock without reading and rewriting the product.
+ * <p>
+ * Every change is a single conditional {@code findAndModify} with {@code $inc}, so concurrent
+ * buyers cannot overwrite each other and stock never drops below zero. Reservations of several
+ * products are all-or-nothing: if one item cannot be reserved, the items already reserved are
+ * released again. Between the two, other buyers may briefly see the lower stock.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StockService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockService.class);
+    private static final int MAX_RESERVATION_ITEMS = 100;
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+
+    /**
+     * Constructs a StockService with the given ProductRepository and ProductCache.
+     * @param productRepository The repository for product data.
+     * @param productCache The cache changed products are evicted from.
+     */
+    public StockService(ProductRepository productRepository, ProductCache productCache) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+    }
+
+    /**
+     * Adds units to or removes units from the stock of a product.
+     * @param id The ID of the product.
+     * @param delta The number of units to add, or remove if negative.
+     * @return The product after the change, with only id and quantity populated.
+     * @throws InvalidStockRequestException if the delta is zero, or the stock would exceed {@link Integer#MAX_VALUE}.
+     * @throws ProductNotFoundException if the product is not found.
+     * @throws InsufficientStockException if fewer units than removed are in stock.
+     */
+    public Product adjustStock(String id, int delta) {
+        if (delta == 0) {
+            throw new InvalidStockRequestException("Stock adjustment must not be zero");
+        }
+        Product product = apply(id, delta);
+        productCache.invalidate(id);
+        return product;
+    }
+
+    /**
+     * Removes the given quantities from the stock of several products, either all of them or none.
+     * @param quantities The number of units to reserve, by product ID.
+     * @return The products after the reservation, with only id and quantity populated, in the given order.
+     * @throws InvalidStockRequestException if there are no items, too many items, or a quantity is not positive.
+     * @throws ProductNotFoundException if a product is not found; nothing is reserved.
+     * @throws InsufficientStockException if a product has too little stock; nothing is reserved.
+     */
+    public List<Product> reserveStock(Map<String, Integer> quantities) {
+        if (quantities.isEmpty() || quantities.size() > MAX_RESERVATION_ITEMS) {
+            throw new InvalidStockRequestException("A reservation needs between 1 and " + MAX_RESERVATION_ITEMS + " products");
+        }
+        quantities.forEach((id, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new InvalidStockRequestException("Reserved quantity of product " + id + " must be positive");
+            }
+        });
+
+        List<Product> reserved = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Integer> item : quantities.entrySet()) {
+                reserved.add(apply(item.getKey(), -item.getValue()));
+            }
+        } catch (RuntimeException e) {
+            release(reserved, quantities);
+            throw e;
+        } finally {
+            reserved.forEach(product -> productCache.invalidate(product.getId()));
+        }
+        return reserved;
+    }
+
+    private Product apply(String id, int delta) {
+        Product product = productRepository.adjustStock(id, delta);
+        if (product == null) {
+            if (!productRepository.existsById(id)) {
+                throw new ProductNotFoundException("Product not found with ID: " + id);
+            }
+            if (delta > 0) {
+                throw new InvalidStockRequestException("Stock of product " + id + " cannot exceed " + Integer.MAX_VALUE + " units");
+            }
+            throw new InsufficientStockException("Not enough stock of product " + id + " to remove " + -(long) delta + " units");
+        }
+        return product;
+    }
+
+    /**
+     * Gives back the units of a reservation that failed part way.
+     */
+    private void release(List<Product> reserved, Map<String, Integer> quantities) {
+        for (Product product : reserved) {
+            try {
+                productRepository.adjustStock(product.getId(), quantities.get(product.getId()));
+            } catch (RuntimeException e) {
+                log.error("Failed to release {} reserved units of product {}",
+                        quantities.get(product.getId()), product.getId(), e);
+            }
+        }
+    }
+}
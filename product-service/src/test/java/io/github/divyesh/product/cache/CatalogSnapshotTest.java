@@ -0,0 +1,128 @@
+package io.github.divyesh.product.cache;
+
+import io.github.divyesh.product.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CatalogSnapshot class and its file format.
+ */
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private MongoTemplate mongoTemplate;
+    private ProductCache productCache;
+    private ProductChangeStreamListener changeStreamListener;
+    private CatalogSnapshot catalogSnapshot;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        mongoTemplate = mock(MongoTemplate.class);
+        productCache = new ProductCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(10), Duration.ofMinutes(10));
+        changeStreamListener = mock(ProductChangeStreamListener.class);
+        when(changeStreamListener.awaitStart(any())).thenReturn(true);
+        catalogSnapshot = new CatalogSnapshot(mongoTemplate, productCache, changeStreamListener,
+                true, directory.resolve("catalog.snapshot"), Duration.ofMinutes(1));
+    }
+
+    /**
+     * Tests that a written snapshot reads back with every field of its products.
+     */
+    @Test
+    void snapshotFile_shouldRoundTripProducts() throws IOException {
+        Product product = product("1", "A1", 4L);
+        product.setDescription("Cotton");
+        product.setAttributes(Map.of("color", "red"));
+        product.setLastModified(Instant.parse("2024-05-01T10:00:00Z"));
+        Path path = directory.resolve("catalog.snapshot");
+
+        CatalogSnapshotFile.write(path, List.of(product, Product.builder().id("2").build()), Instant.EPOCH);
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+
+        assertEquals(Instant.EPOCH, contents.writtenAt());
+        assertEquals(2, contents.products().size());
+        Product read = contents.products().get(0);
+        assertEquals("Cotton", read.getDescription());
+        assertEquals("A1", read.getSku());
+        assertEquals(4L, read.getVersion());
+        assertEquals(product.getLastModified(), read.getLastModified());
+        assertEquals(Map.of("color", "red"), read.getAttributes());
+    }
+
+    /**
+     * Tests that a snapshot with a damaged byte is rejected instead of restored.
+     */
+    @Test
+    void snapshotFile_shouldRejectCorruptFile() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(path, List.of(product("1", "A1", 1L)), Instant.EPOCH);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+    }
+
+    /**
+     * Tests that restored products are served from the cache by ID and SKU, except those
+     * changed or deleted since the snapshot.
+     */
+    @Test
+    void restore_shouldEvictProductsChangedSinceSnapshot() throws IOException {
+        CatalogSnapshotFile.write(directory.resolve("catalog.snapshot"),
+                List.of(product("1", "A1", 1L), product("2", "B1", 1L), product("3", "C1", 1L)), Instant.EPOCH);
+        when(mongoTemplate.find(any(Query.class), eq(Product.class)))
+                .thenReturn(List.of(product("1", null, 1L), product("2", null, 2L)));
+
+        catalogSnapshot.restore();
+
+        assertEquals(1, productCache.size());
+        assertEquals("1", productCache.get("1", Optional::empty).orElseThrow().getId());
+        assertEquals(List.of("A1"), List.copyOf(productCache.getAllBySku(List.of("A1"), skus -> List.of()).keySet()));
+    }
+
+    /**
+     * Tests that a restored product is evicted when it was deleted and created again under the
+     * same ID since the snapshot, which restarts its version.
+     */
+    @Test
+    void catchUp_shouldEvictProductRecreatedWithSameVersion() {
+        Product restored = product("1", "A1", 1L);
+        restored.setLastModified(Instant.parse("2024-05-01T10:00:00Z"));
+        Product unchanged = product("2", "B1", 1L);
+        unchanged.setLastModified(Instant.parse("2024-05-01T10:00:00Z"));
+        Product recreated = product("1", null, 1L);
+        recreated.setLastModified(Instant.parse("2024-05-02T10:00:00Z"));
+        Product stored = product("2", null, 1L);
+        stored.setLastModified(unchanged.getLastModified());
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of(recreated, stored));
+
+        assertEquals(1, catalogSnapshot.catchUp(List.of(restored, unchanged)));
+    }
+
+    private static Product product(String id, String sku, Long version) {
+        Product product = Product.builder().id(id).sku(sku).name("Product " + id).price(10).build();
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.divyesh.product.cache;
+
+import io.github.divyesh.product.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ProductCache class.
+ */
+class ProductCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(meterRegistry, 2, Duration.ofMinutes(10), Duration.ofSeconds(5), now::get);
+    }
+
+    /**
+     * Tests that a second lookup is answered from the cache and counted as a hit.
+     */
+    @Test
+    void get_shouldLoadOnce_andCountHits() {
+        productCache.get("1", () -> load("1"));
+        productCache.get("1", () -> load("1"));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("products.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("products.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(0.5, meterRegistry.get("products.cache.hit.ratio").gauge().value());
+    }
+
+    /**
+     * Tests that entries expire after the maximum staleness without a change stream,
+     * and after the TTL with one.
+     */
+    @Test
+    void get_shouldBoundStaleness_byChangeStreamState() {
+        productCache.get("1", () -> load("1"));
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        productCache.get("1", () -> load("1"));
+        assertEquals(2, loads.get());
+
+        productCache.setChangeStreamActive(true);
+        productCache.get("1", () -> load("1"));
+        now.addAndGet(Duration.ofMinutes(9).toNanos());
+        productCache.get("1", () -> load("1"));
+        assertEquals(3, loads.get());
+    }
+
+    /**
+     * Tests that a lookup racing an invalidation does not cache the copy it loaded.
+     */
+    @Test
+    void get_shouldNotCacheLoad_thatOverlapsInvalidation() {
+        productCache.get("1", () -> {
+            productCache.invalidate("1");
+            return load("1");
+        });
+        productCache.get("1", () -> load("1"));
+
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Tests that a lookup racing the invalidation of another product still caches its copy.
+     */
+    @Test
+    void get_shouldCacheLoad_thatOverlapsInvalidationOfOtherProduct() {
+        productCache.get("1", () -> {
+            productCache.invalidate("2");
+            return load("1");
+        });
+        productCache.get("1", () -> load("1"));
+
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Tests that a lookup racing an invalidation is still not cached after that invalidation was forgotten.
+     */
+    @Test
+    void get_shouldNotCacheLoad_whoseInvalidationWasForgotten() {
+        productCache.get("1", () -> {
+            productCache.invalidate("1");
+            productCache.invalidate("2");
+            productCache.invalidate("3");
+            return load("1");
+        });
+        productCache.get("1", () -> load("1"));
+
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Tests that a lookup racing a clear of the whole cache does not cache its copy.
+     */
+    @Test
+    void get_shouldNotCacheLoad_thatOverlapsClear() {
+        productCache.get("1", () -> {
+            productCache.clear();
+            return load("1");
+        });
+        productCache.get("1", () -> load("1"));
+
+        assertEquals(2, loads.get());
+    }
+
+    /**
+     * Tests that the least recently used product is evicted once the cache is full,
+     * and that missing products are not cached.
+     */
+    @Test
+    void get_shouldEvictLeastRecentlyUsed_whenFull() {
+        productCache.get("1", () -> load("1"));
+        productCache.get("2", () -> load("2"));
+        productCache.get("1", () -> load("1"));
+        productCache.get("3", () -> load("3"));
+        productCache.get("4", Optional::empty);
+
+        assertEquals(2, productCache.size());
+        productCache.get("1", () -> load("1"));
+        assertEquals(3, loads.get());
+        productCache.get("2", () -> load("2"));
+        assertEquals(4, loads.get());
+        assertTrue(productCache.get("4", Optional::empty).isEmpty());
+    }
+
+    /**
+     * Tests that a batch lookup loads only the uncached products, in one call, and leaves out missing ones.
+     */
+    @Test
+    void getAll_shouldLoadOnlyMisses_inOneCall() {
+        productCache.get("1", () -> load("1"));
+        List<List<String>> calls = new ArrayList<>();
+
+        Map<String, Product> products = productCache.getAll(List.of("1", "2", "3"), ids -> {
+            calls.add(ids);
+            return List.of(Product.builder().id("2").build());
+        });
+
+        assertEquals(List.of(List.of("2", "3")), calls);
+        assertEquals(List.of("1", "2"), List.copyOf(products.keySet()));
+        productCache.getAll(List.of("2"), ids -> {
+            calls.add(ids);
+            return List.of();
+        });
+        assertEquals(1, calls.size());
+    }
+
+    /**
+     * Tests that a SKU lookup is answered from the cache only while the cached product still has that SKU.
+     */
+    @Test
+    void getAllBySku_shouldNotServeProduct_whoseSkuChanged() {
+        List<List<String>> calls = new ArrayList<>();
+        productCache.getAllBySku(List.of("A1"), skus -> {
+            calls.add(skus);
+            return List.of(Product.builder().id("1").sku("A1").build());
+        });
+        productCache.getAllBySku(List.of("A1"), skus -> {
+            calls.add(skus);
+            return List.of();
+        });
+        assertEquals(1, calls.size());
+
+        productCache.invalidate("1");
+        productCache.get("1", () -> Optional.of(Product.builder().id("1").sku("B1").build()));
+        Map<String, Product> products = productCache.getAllBySku(List.of("A1"), skus -> {
+            calls.add(skus);
+            return List.of();
+        });
+
+        assertEquals(2, calls.size());
+        assertTrue(products.isEmpty());
+    }
+
+    private Optional<Product> load(String id) {
+        loads.incrementAndGet();
+        return Optional.of(Product.builder().id(id).build());
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.divyesh.product.cache;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.search.ProductSearchIndex;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ProductChangeStreamListener class.
+ * Changes are handed to the listener directly, without a change stream.
+ */
+class ProductChangeStreamListenerTest {
+
+    private ProductCache productCache;
+    private ProductSearchIndex productSearchIndex;
+    private MongoConverter converter;
+    private ProductChangeStreamListener listener;
+
+    @BeforeEach
+    void setUp() {
+        productCache = mock(ProductCache.class);
+        productSearchIndex = mock(ProductSearchIndex.class);
+        converter = mock(MongoConverter.class);
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        listener = new ProductChangeStreamListener(mongoTemplate, productCache, productSearchIndex, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Tests that a changed product is evicted from the cache and re-indexed as looked up.
+     */
+    @Test
+    void apply_shouldEvictAndIndexChangedProduct() {
+        Document document = new Document("_id", "1").append("name", "Red Shirt");
+        Product product = Product.builder().id("1").name("Red Shirt").build();
+        when(converter.read(Product.class, document)).thenReturn(product);
+
+        listener.apply(change("1", document));
+
+        verify(productCache).invalidate("1");
+        verify(productSearchIndex).index(product);
+    }
+
+    /**
+     * Tests that a deleted product is evicted from the cache and removed from the index.
+     */
+    @Test
+    void apply_shouldEvictAndRemoveDeletedProduct() {
+        listener.apply(change("1", null));
+
+        verify(productCache).invalidate("1");
+        verify(productSearchIndex).remove("1");
+        verify(productSearchIndex, never()).index(any());
+    }
+
+    /**
+     * Tests that a change to the whole collection clears the cache and rebuilds the index.
+     */
+    @Test
+    void apply_shouldClearCacheAndRebuildIndex_whenCollectionChanged() {
+        listener.apply(change(null, null));
+
+        verify(productCache).clear();
+        verify(productSearchIndex).startBuild();
+        verify(productSearchIndex, never()).remove(anyString());
+    }
+
+    /**
+     * Tests that any failure of the stream turns the cache's fallback on and reopens the stream,
+     * and that the listener only gives up when change streams are not supported.
+     */
+    @Test
+    void listen_shouldRetryAfterAnyFailure() throws InterruptedException {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.getCollectionName(Product.class)).thenReturn("products");
+        when(mongoTemplate.getCollection("products"))
+                .thenThrow(new IllegalStateException("Failed to decode change"))
+                .thenThrow(new MongoException(40573, "The $changeStream stage is only supported on replica sets"));
+        ProductChangeStreamListener failing = new ProductChangeStreamListener(mongoTemplate, productCache,
+                productSearchIndex, Duration.ZERO);
+
+        failing.listen();
+
+        assertTrue(failing.awaitStart(Duration.ZERO));
+        verify(mongoTemplate, times(2)).getCollection("products");
+        verify(productCache, times(2)).setChangeStreamActive(false);
+        verify(productCache, never()).setChangeStreamActive(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangeStreamDocument<Document> change(String id, Document fullDocument) {
+        ChangeStreamDocument<Document> change = mock(ChangeStreamDocument.class);
+        when(change.getDocumentKey()).thenReturn(id == null ? null : new BsonDocument("_id", new BsonString(id)));
+        when(change.getFullDocument()).thenReturn(fullDocument);
+        return change;
+    }
+}
@@ -3,8 +3,14 @@ package io.github.divyesh.product.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.divyesh.product.dto.ProductRequest;
 import io.github.divyesh.product.exception.ProductNotFoundException;
+import io.github.divyesh.product.model.FacetCount;
+import io.github.divyesh.product.model.FacetedProductPage;
 import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.model.ProductPage;
+import io.github.divyesh.product.repository.ProductSort;
+import io.github.divyesh.product.repository.ReadYourWrites;
 import io.github.divyesh.product.service.ProductService;
+import org.bson.BsonTimestamp;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,13 +18,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +47,9 @@ class ProductControllerIntegrationTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ReadYourWrites readYourWrites;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -71,25 +84,151 @@ class ProductControllerIntegrationTest {
     }
 
     /**
-     * Tests that getAllProducts endpoint returns a list of all products.
+     * Tests that getProducts endpoint returns a page of product summaries with the next cursor.
      */
     @Test
-    void getAllProducts_shouldReturnListOfProducts() throws Exception {
+    void getProducts_shouldReturnPageOfProductSummaries() throws Exception {
         Product product1 = new Product();
         product1.setId("1");
         product1.setName("Product 1");
         Product product2 = new Product();
         product2.setId("2");
         product2.setName("Product 2");
-        List<Product> allProducts = Arrays.asList(product1, product2);
+        List<Product> products = Arrays.asList(product1, product2);
 
-        when(productService.getAllProducts()).thenReturn(allProducts);
+        when(productService.getProductPage(ProductSort.PRICE, true, null, 2))
+                .thenReturn(new ProductPage(products, "next"));
 
         mockMvc.perform(get("/api/products")
+                        .param("limit", "2")
+                        .param("sort", "price")
+                        .param("direction", "desc")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].name").value("Product 1"));
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Product 1"))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    /**
+     * Tests that getProducts endpoint returns 400 Bad Request for an unknown sort.
+     */
+    @Test
+    void getProducts_shouldReturnBadRequest_whenSortIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/products").param("sort", "popularity"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that searchProducts endpoint returns the matching products with their scores.
+     */
+    @Test
+    void searchProducts_shouldReturnMatchingProducts() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Gaming Laptop");
+        product.setScore(7.5f);
+
+        when(productService.searchProducts("laptop", 0, 20)).thenReturn(List.of(product));
+
+        mockMvc.perform(get("/api/products/search").param("q", "laptop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Gaming Laptop"))
+                .andExpect(jsonPath("$[0].score").value(7.5));
+    }
+
+    /**
+     * Tests that filterProducts endpoint turns attr.* parameters into attribute filters and returns facet counts.
+     */
+    @Test
+    void filterProducts_shouldReturnMatchingProductsAndFacets() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Red Shirt");
+        FacetedProductPage page = new FacetedProductPage(List.of(product), 1,
+                Map.of("size", List.of(new FacetCount("M", 1))));
+
+        when(productService.filterProducts(Map.of("color", List.of("red", "blue")), List.of("size"), 0, 20))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/products/filter")
+                        .param("attr.color", "red", "blue")
+                        .param("facet", "size"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Red Shirt"))
+                .andExpect(jsonPath("$.facets.size[0].value").value("M"))
+                .andExpect(jsonPath("$.facets.size[0].count").value(1));
+    }
+
+    /**
+     * Tests that suggestProducts endpoint returns the suggestions, with the limit capped.
+     */
+    @Test
+    void suggestProducts_shouldReturnSuggestions() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Red Shirt");
+        product.setSku("SHIRT-RED");
+
+        when(productService.suggestProducts("red s", 20)).thenReturn(List.of(product));
+
+        mockMvc.perform(get("/api/products/suggest").param("prefix", "red s").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Red Shirt"))
+                .andExpect(jsonPath("$[0].sku").value("SHIRT-RED"));
+    }
+
+    /**
+     * Tests that getProductsByIds endpoint returns the found products keyed by ID and lists the misses.
+     */
+    @Test
+    void getProductsByIds_shouldReturnFoundAndMissingProducts() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Shirt");
+
+        when(productService.getProductsByIds(List.of("1", "2"))).thenReturn(Map.of("1", product));
+
+        mockMvc.perform(get("/api/products/batch").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.1.name").value("Shirt"))
+                .andExpect(jsonPath("$.missing[0]").value("2"));
+    }
+
+    /**
+     * Tests that getProductBySku endpoint returns the product with the SKU.
+     */
+    @Test
+    void getProductBySku_shouldReturnProduct_whenFound() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setSku("A1");
+
+        when(productService.getProductBySku("A1")).thenReturn(product);
+
+        mockMvc.perform(get("/api/products/by-sku/{sku}", "A1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("1"));
+    }
+
+    /**
+     * Tests that getProductsBySkus endpoint returns the found products keyed by SKU and lists the misses.
+     */
+    @Test
+    void getProductsBySkus_shouldReturnFoundAndMissingProducts() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setSku("A1");
+
+        when(productService.getProductsBySkus(List.of("A1", "B1"))).thenReturn(Map.of("A1", product));
+
+        mockMvc.perform(get("/api/products/by-sku").param("skus", "A1,B1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.A1.id").value("1"))
+                .andExpect(jsonPath("$.missing[0]").value("B1"));
     }
 
     /**
@@ -110,6 +249,31 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath(".name").value("Test Product"));
     }
 
+    /**
+     * Tests that getProductById endpoint tags the product, and answers a current tag with 304 and no body.
+     */
+    @Test
+    void getProductById_shouldReturnNotModified_whenETagIsCurrent() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setVersion(3L);
+        product.setLastModified(Instant.parse("2024-05-01T10:00:00Z"));
+
+        when(productService.getProductById("1")).thenReturn(product);
+
+        String eTag = mockMvc.perform(get("/api/products/{id}", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Last-Modified", "Wed, 01 May 2024 10:00:00 GMT"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/products/{id}", "1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        product.setVersion(4L);
+        mockMvc.perform(get("/api/products/{id}", "1").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
     /**
      * Tests that getProductById endpoint returns 404 Not Found when the product is not found.
      */
@@ -156,6 +320,58 @@ class ProductControllerIntegrationTest {
                 .andExpect(jsonPath(".name").value("Updated Product"));
     }
 
+    /**
+     * Tests that patchProduct endpoint passes only the sent fields, keeping explicit nulls.
+     */
+    @Test
+    void patchProduct_shouldPassOnlySentFields() throws Exception {
+        Product product = new Product();
+        product.setId("1");
+        product.setName("Shirt");
+        product.setPrice(9.5);
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("price", 9.5);
+        changes.put("imageUrl", null);
+
+        when(productService.patchProduct("1", changes)).thenReturn(product);
+
+        mockMvc.perform(patch("/api/products/{id}", "1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": 9.5, \"imageUrl\": null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(9.5));
+    }
+
+    /**
+     * Tests that a response to a write carries the read-your-writes token of the write.
+     */
+    @Test
+    void patchProduct_shouldReturnReadAfterToken() throws Exception {
+        ReadYourWrites.Token token = new ReadYourWrites.Token(new BsonTimestamp(1714557600, 3), null);
+        when(readYourWrites.lastWrite()).thenReturn(token);
+        when(readYourWrites.encode(token)).thenReturn("signed-token");
+        when(productService.patchProduct(eq("1"), any())).thenReturn(Product.builder().id("1").price(9.5).build());
+
+        mockMvc.perform(patch("/api/products/{id}", "1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"price\": 9.5}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ReadYourWritesFilter.HEADER, "signed-token"));
+    }
+
+    /**
+     * Tests that a malformed or forged read-your-writes token is rejected with 400 Bad Request.
+     */
+    @Test
+    void getProductById_shouldReturnBadRequest_whenReadAfterTokenIsMalformed() throws Exception {
+        when(readYourWrites.decode("not a token")).thenThrow(new IllegalArgumentException("Malformed consistency token"));
+
+        mockMvc.perform(get("/api/products/{id}", "1").header(ReadYourWritesFilter.HEADER, "not a token"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).getProductById(any());
+    }
+
     /**
      * Tests that deleteProduct endpoint successfully deletes a product.
      */
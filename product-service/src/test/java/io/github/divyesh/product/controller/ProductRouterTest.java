@@ -0,0 +1,68 @@
+package io.github.divyesh.product.controller;
+
+import io.github.divyesh.product.dto.ProductSummaryResponse;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.repository.ReactiveProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the functional endpoints of the reactive profile.
+ * The routes are bound directly to a WebTestClient, with the ReactiveProductRepository mocked.
+ */
+class ProductRouterTest {
+
+    private ReactiveProductRepository productRepository;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ReactiveProductRepository.class);
+        webTestClient = WebTestClient
+                .bindToRouterFunction(new ProductRouter().productRoutes(new ProductHandler(productRepository)))
+                .build();
+    }
+
+    /**
+     * Tests that the listing is streamed as newline-delimited JSON in the requested order, up to the limit.
+     */
+    @Test
+    void streamProducts_shouldStreamSummaries_upToLimit() {
+        Sort order = Sort.by(Sort.Direction.DESC, "price").and(Sort.by(Sort.Direction.DESC, "id"));
+        when(productRepository.findListing(order)).thenReturn(Flux.just(
+                Product.builder().id("1").name("Shirt").price(20).build(),
+                Product.builder().id("2").name("Hat").price(10).build(),
+                Product.builder().id("3").name("Sock").price(5).build()));
+
+        webTestClient.get()
+                .uri("/api/products?sort=price&direction=desc&limit=2")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ProductSummaryResponse.class)
+                .hasSize(2);
+    }
+
+    /**
+     * Tests that a product is found by its SKU.
+     */
+    @Test
+    void getProductBySku_shouldReturnProduct_whenFound() {
+        when(productRepository.findBySku("A1")).thenReturn(Mono.just(Product.builder().id("1").sku("A1").build()));
+
+        webTestClient.get()
+                .uri("/api/products/by-sku/{sku}", "A1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("1");
+    }
+}
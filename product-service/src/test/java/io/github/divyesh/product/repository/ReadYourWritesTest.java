@@ -0,0 +1,101 @@
+package io.github.divyesh.product.repository;
+
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReadYourWrites: encoding of the tokens, and tracking of the writes of a request.
+ */
+class ReadYourWritesTest {
+
+    private final ReadYourWrites readYourWrites = new ReadYourWrites("test-secret");
+
+    @AfterEach
+    void tearDown() {
+        readYourWrites.end();
+    }
+
+    /**
+     * Tests that a token survives encoding and decoding with its signed cluster time.
+     */
+    @Test
+    void token_shouldRoundTrip() {
+        BsonDocument clusterTime = new BsonDocument("clusterTime", new BsonTimestamp(1700000000, 7))
+                .append("signature", new BsonDocument("keyId", new BsonInt64(42)));
+        ReadYourWrites.Token token = new ReadYourWrites.Token(new BsonTimestamp(1700000000, 5), clusterTime);
+
+        ReadYourWrites.Token decoded = readYourWrites.decode(readYourWrites.encode(token));
+
+        assertEquals(token, decoded);
+        assertEquals(new ReadYourWrites.Token(new BsonTimestamp(3, 1), null),
+                readYourWrites.decode(readYourWrites.encode(new ReadYourWrites.Token(new BsonTimestamp(3, 1), null))));
+    }
+
+    /**
+     * Tests that a malformed token is rejected.
+     */
+    @Test
+    void decode_shouldRejectMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> readYourWrites.decode("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> readYourWrites.decode("AAAA"));
+    }
+
+    /**
+     * Tests that a token whose operation time was changed, or that was signed with another secret, is rejected.
+     */
+    @Test
+    void decode_shouldRejectForgedToken() {
+        ReadYourWrites.Token token = new ReadYourWrites.Token(new BsonTimestamp(1700000000, 5), null);
+        byte[] bytes = Base64.getUrlDecoder().decode(readYourWrites.encode(token));
+        bytes[bytes.length - 40] ^= 1;
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThrows(IllegalArgumentException.class, () -> readYourWrites.decode(tampered));
+        assertThrows(IllegalArgumentException.class,
+                () -> readYourWrites.decode(new ReadYourWrites("other-secret").encode(token)));
+    }
+
+    /**
+     * Tests that the latest operation time of the writes within a request is kept, and reads are ignored.
+     */
+    @Test
+    void commandSucceeded_shouldKeepLatestWriteOfRequest() {
+        readYourWrites.begin(null);
+
+        readYourWrites.commandSucceeded(event("update", new BsonTimestamp(100, 2)));
+        readYourWrites.commandSucceeded(event("findAndModify", new BsonTimestamp(100, 1)));
+        readYourWrites.commandSucceeded(event("find", new BsonTimestamp(200, 1)));
+
+        assertEquals(new BsonTimestamp(100, 2), readYourWrites.lastWrite().operationTime());
+        assertNull(readYourWrites.readAfter());
+    }
+
+    /**
+     * Tests that writes made outside of a request are not tracked.
+     */
+    @Test
+    void commandSucceeded_shouldIgnoreWritesOutsideRequest() {
+        readYourWrites.commandSucceeded(event("insert", new BsonTimestamp(100, 1)));
+
+        readYourWrites.begin(new ReadYourWrites.Token(new BsonTimestamp(50, 1), null));
+
+        assertNull(readYourWrites.lastWrite());
+        assertEquals(new BsonTimestamp(50, 1), readYourWrites.readAfter().operationTime());
+    }
+
+    private static CommandSucceededEvent event(String commandName, BsonTimestamp operationTime) {
+        CommandSucceededEvent event = mock(CommandSucceededEvent.class);
+        when(event.getCommandName()).thenReturn(commandName);
+        when(event.getResponse()).thenReturn(new BsonDocument("ok", new BsonInt64(1)).append("operationTime", operationTime));
+        return event;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.divyesh.product.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the InvertedIndex class.
+ */
+class InvertedIndexTest {
+
+    /**
+     * Tests that documents with more occurrences of rarer terms rank first.
+     */
+    @Test
+    void search_shouldRankByBm25() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        index.put("1", Map.of("gaming", 1, "laptop", 1), "gaming laptop");
+        index.put("2", Map.of("office", 1, "laptop", 1), "office laptop");
+        index.put("3", Map.of("gaming", 3, "mouse", 1), "gaming mouse");
+
+        List<InvertedIndex.ScoredDocument<String>> results = index.search(Set.of("gaming", "laptop"), 10);
+
+        assertEquals(List.of("gaming laptop", "gaming mouse", "office laptop"),
+                results.stream().map(InvertedIndex.ScoredDocument::document).toList());
+        assertTrue(results.get(0).score() > results.get(1).score());
+    }
+
+    /**
+     * Tests that replaced and removed documents are no longer found.
+     */
+    @Test
+    void put_shouldReplaceDocumentWithSameKey() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        index.put("1", Map.of("laptop", 1), "old");
+        index.put("1", Map.of("tablet", 1), "new");
+        index.put("2", Map.of("laptop", 1), "other");
+
+        assertEquals(List.of("other"), documents(index.search(Set.of("laptop"), 10)));
+        assertEquals(List.of("new"), documents(index.search(Set.of("tablet"), 10)));
+
+        assertTrue(index.remove("1"));
+        assertFalse(index.remove("1"));
+        assertTrue(index.search(Set.of("tablet"), 10).isEmpty());
+        assertEquals(1, index.documentCount());
+    }
+
+    /**
+     * Tests that compaction after many updates keeps every live document searchable.
+     */
+    @Test
+    void put_shouldKeepDocumentsSearchable_afterCompaction() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 1000; i++) {
+                index.put("p" + i, Map.of("common", 1, "term" + i, 1), "p" + i + "@" + round);
+            }
+        }
+
+        assertEquals(1000, index.documentCount());
+        assertEquals(1001, index.termCount());
+        assertEquals(List.of("p42@4"), documents(index.search(Set.of("term42"), 10)));
+        assertEquals(1000, index.search(Set.of("common"), 5000).size());
+    }
+
+    /**
+     * Tests that only the requested number of results is returned.
+     */
+    @Test
+    void search_shouldLimitResults() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        for (int i = 0; i < 50; i++) {
+            index.put("p" + i, Map.of("laptop", 1 + i % 5), "p" + i);
+        }
+
+        List<InvertedIndex.ScoredDocument<String>> results = index.search(Set.of("laptop"), 5);
+
+        assertEquals(5, results.size());
+        assertTrue(results.stream().allMatch(result -> result.score() == results.get(0).score()));
+    }
+
+    /**
+     * Tests that documents containing an excluded term are left out, however well they match.
+     */
+    @Test
+    void search_shouldLeaveOutDocumentsWithExcludedTerms() {
+        InvertedIndex<String> index = new InvertedIndex<>();
+        index.put("1", Map.of("shirt", 3, "red", 2), "red shirt");
+        index.put("2", Map.of("shirt", 1, "blue", 1), "blue shirt");
+        index.put("3", Map.of("red", 1, "hat", 1), "red hat");
+
+        assertEquals(List.of("blue shirt"), documents(index.search(Set.of("shirt"), Set.of("red"), 10)));
+        assertEquals(List.of("red shirt", "blue shirt"), documents(index.search(Set.of("shirt"), Set.of("green"), 10)));
+    }
+
+    private static List<String> documents(List<InvertedIndex.ScoredDocument<String>> results) {
+        return results.stream().map(InvertedIndex.ScoredDocument::document).toList();
+    }
+}
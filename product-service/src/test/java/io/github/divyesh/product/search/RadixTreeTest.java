@@ -0,0 +1,70 @@
+package io.github.divyesh.product.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the RadixTree class.
+ */
+class RadixTreeTest {
+
+    private final Map<String, Long> scores = new HashMap<>();
+
+    /**
+     * Tests that values under a prefix are found, including a prefix that ends inside an edge,
+     * with equal scores ordered by key length.
+     */
+    @Test
+    void top_shouldFindValuesUnderPrefix() {
+        RadixTree<String> tree = tree("red shirt", "red shoes", "blue shirt", "re");
+
+        assertEquals(List.of("re", "red shirt", "red shoes"), tree.top("re", 10, scores::get));
+        assertEquals(List.of("red shirt", "red shoes"), tree.top("red sh", 10, scores::get));
+        assertEquals(List.of(), tree.top("red shx", 10, scores::get));
+        assertEquals(List.of(), tree.top("green", 10, scores::get));
+    }
+
+    /**
+     * Tests that a raised score moves a value ahead and the limit keeps only the best values.
+     */
+    @Test
+    void raise_shouldRankMorePopularValuesFirst() {
+        RadixTree<String> tree = tree("red shirt", "red shoes", "red hat");
+
+        scores.put("red shoes", 5L);
+        tree.raise("red shoes", 5);
+
+        assertEquals(List.of("red shoes", "red hat"), tree.top("red", 2, scores::get));
+    }
+
+    /**
+     * Tests that removing values drops and folds nodes, leaving only the root when the tree is empty.
+     */
+    @Test
+    void remove_shouldDropNodesWithoutValues() {
+        RadixTree<String> tree = tree("red shirt", "red shoes", "re");
+
+        assertTrue(tree.remove("red shoes", "red shoes"));
+        assertFalse(tree.remove("red shoes", "red shoes"));
+        assertEquals(List.of("re", "red shirt"), tree.top("r", 10, scores::get));
+        assertTrue(tree.remove("re", "re"));
+        assertTrue(tree.remove("red shirt", "red shirt"));
+        assertEquals(1, tree.nodeCount());
+    }
+
+    private RadixTree<String> tree(String... keys) {
+        RadixTree<String> tree = new RadixTree<>();
+        for (String key : keys) {
+            scores.put(key, 0L);
+            tree.put(key, key, 0);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.divyesh.product.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the SearchQuery class.
+ */
+class SearchQueryTest {
+
+    /**
+     * Tests that words prefixed with - are excluded rather than searched for.
+     */
+    @Test
+    void parse_shouldSeparateExcludedWords() {
+        SearchQuery query = SearchQuery.parse("shirt  -red cotton -");
+
+        assertEquals(List.of("shirt", "cotton", "-"), query.words());
+        assertEquals(List.of("red"), query.excludedWords());
+        assertFalse(query.hasPhrases());
+    }
+
+    /**
+     * Tests that quoted phrases are kept whole, and their words searched for.
+     */
+    @Test
+    void parse_shouldKeepQuotedPhrases() {
+        SearchQuery query = SearchQuery.parse("\"gaming laptop\" -refurbished \"17 inch");
+
+        assertEquals(List.of("gaming laptop", "17 inch"), query.phrases());
+        assertEquals(List.of("gaming", "laptop", "17", "inch"), query.words());
+        assertEquals(List.of("refurbished"), query.excludedWords());
+        assertTrue(query.hasPhrases());
+    }
+}
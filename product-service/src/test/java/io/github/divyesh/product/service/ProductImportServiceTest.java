@@ -0,0 +1,157 @@
+package io.github.divyesh.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import io.github.divyesh.product.cache.ProductCache;
+import io.github.divyesh.product.dto.ProductImportResponse;
+import io.github.divyesh.product.dto.ProductRequest;
+import io.github.divyesh.product.exception.InvalidImportException;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.search.ProductSearchIndex;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ProductImportService class.
+ * MongoDB is mocked; every bulk write reports its rows as new products.
+ */
+class ProductImportServiceTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOperations;
+    private ProductCache productCache;
+    private ProductSearchIndex productSearchIndex;
+    private ProductImportService productImportService;
+    private int pendingUpserts;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        productCache = mock(ProductCache.class);
+        productSearchIndex = mock(ProductSearchIndex.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenAnswer(invocation -> {
+            pendingUpserts = 0;
+            return bulkOperations;
+        });
+        when(bulkOperations.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            pendingUpserts++;
+            return bulkOperations;
+        });
+        when(bulkOperations.execute()).thenAnswer(invocation -> {
+            BulkWriteResult result = mock(BulkWriteResult.class);
+            List<BulkWriteUpsert> upserts = IntStream.range(0, pendingUpserts)
+                    .mapToObj(index -> new BulkWriteUpsert(index, new BsonObjectId()))
+                    .toList();
+            when(result.getUpserts()).thenReturn(upserts);
+            return result;
+        });
+        productImportService = new ProductImportService(mongoTemplate, new ObjectMapper(),
+                productCache, productSearchIndex, 2, 1, 10);
+    }
+
+    /**
+     * Tests that valid CSV rows are upserted in chunks and invalid rows are reported by line.
+     */
+    @Test
+    void importCsv_shouldUpsertValidRows_andReportInvalidRows() throws Exception {
+        String csv = """
+                sku,name,description,price,quantity,attr.color
+                A1,Shirt,"Cotton, red",19.99,5,red
+                A2,Pants,Denim,-1,5,
+                A3,Hat,Wool,9.99,abc,
+                A4,Sock,"Wool ""soft""",2.50,100,blue
+                A5,Scarf,Silk,15,3,
+                """;
+
+        ProductImportResponse response = productImportService.importCsv(stream(csv));
+
+        assertEquals(5, response.rows());
+        assertEquals(3, response.inserted());
+        assertEquals(2, response.failed());
+        assertEquals(3, response.errors().get(0).line());
+        assertEquals("Price must be non-negative", response.errors().get(0).message());
+        assertEquals(4, response.errors().get(1).line());
+        verify(bulkOperations, times(2)).execute();
+        verify(productCache).clear();
+        verify(productSearchIndex).startBuild();
+    }
+
+    /**
+     * Tests that a repeated SKU starts a new chunk, so both rows are written in file order.
+     */
+    @Test
+    void importNdjson_shouldSplitChunks_onRepeatedSku() throws Exception {
+        String ndjson = """
+                {"sku":"A1","name":"Shirt","description":"Cotton","price":10,"quantity":1}
+                {"sku":"A1","name":"Shirt","description":"Cotton","price":12,"quantity":1}
+                not json
+                """;
+
+        ProductImportResponse response = productImportService.importNdjson(stream(ndjson));
+
+        assertEquals(3, response.rows());
+        assertEquals(2, response.inserted());
+        assertEquals(1, response.failed());
+        assertEquals(3, response.errors().get(0).line());
+        verify(bulkOperations, times(2)).execute();
+    }
+
+    /**
+     * Tests that a CSV file without the required columns is rejected before anything is written.
+     */
+    @Test
+    void importCsv_shouldThrowInvalidImport_whenHeaderIsIncomplete() {
+        assertThrows(InvalidImportException.class,
+                () -> productImportService.importCsv(stream("sku,name\nA1,Shirt\n")));
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    /**
+     * Tests that plain, empty and quoted CSV fields are split correctly.
+     */
+    @Test
+    void parseCsvLine_shouldHandlePlainEmptyAndQuotedFields() {
+        assertEquals(List.of("A1", "", "a, \"b\"", ""), ProductImportService.parseCsvLine("A1,,\"a, \"\"b\"\"\","));
+        assertThrows(InvalidImportException.class, () -> ProductImportService.parseCsvLine("\"open,"));
+    }
+
+    /**
+     * Tests that an imported row sets the quantity only when it inserts the product, so existing stock is kept.
+     */
+    @Test
+    void updateOf_shouldSetQuantityOnInsertOnly() {
+        Document update = ProductImportService.updateOf(ProductRequest.builder()
+                .name("Shirt")
+                .description("Cotton")
+                .price(10)
+                .quantity(5)
+                .sku("A1")
+                .build()).getUpdateObject();
+
+        assertEquals(5, update.get("$setOnInsert", Document.class).get("quantity"));
+        assertFalse(update.get("$set", Document.class).containsKey("quantity"));
+        assertEquals(10.0, update.get("$set", Document.class).get("price"));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
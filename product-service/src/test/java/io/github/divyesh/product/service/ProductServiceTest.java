@@ -1,18 +1,41 @@
 package io.github.divyesh.product.service;
 
+import io.github.divyesh.product.cache.ProductCache;
+import io.github.divyesh.product.exception.DuplicateSkuException;
+import io.github.divyesh.product.exception.InvalidProductUpdateException;
+import io.github.divyesh.product.exception.InvalidQueryException;
 import io.github.divyesh.product.exception.ProductNotFoundException;
+import io.github.divyesh.product.model.FacetCount;
+import io.github.divyesh.product.model.FacetedProductPage;
+import io.github.divyesh.product.model.PriceChangeResult;
+import io.github.divyesh.product.model.PriceFilter;
 import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.model.ProductPage;
+import io.github.divyesh.product.repository.ProductCursor;
 import io.github.divyesh.product.repository.ProductRepository;
+import io.github.divyesh.product.repository.ProductSort;
+import io.github.divyesh.product.repository.ReadYourWrites;
+import io.github.divyesh.product.search.ProductSearchIndex;
 import io.github.divyesh.product.service.ProductService;
+import org.bson.BsonTimestamp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,12 +50,34 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ReadYourWrites readYourWrites;
+
     @InjectMocks
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(productCache.get(anyString(), any())).thenAnswer(invocation -> invocation.<Supplier<Optional<Product>>>getArgument(1).get());
+        when(productCache.getAll(anyList(), any())).thenAnswer(invocation -> {
+            Map<String, Product> found = new LinkedHashMap<>();
+            invocation.<Function<List<String>, Iterable<Product>>>getArgument(1).apply(invocation.getArgument(0))
+                    .forEach(product -> found.put(product.getId(), product));
+            return found;
+        });
+        when(productCache.getAllBySku(anyList(), any())).thenAnswer(invocation -> {
+            Map<String, Product> found = new LinkedHashMap<>();
+            invocation.<Function<List<String>, Iterable<Product>>>getArgument(1).apply(invocation.getArgument(0))
+                    .forEach(product -> found.put(product.getSku(), product));
+            return found;
+        });
     }
 
     /**
@@ -44,22 +89,226 @@ class ProductServiceTest {
         when(productRepository.save(product)).thenReturn(product);
         Product savedProduct = productService.saveProduct(product);
         assertNotNull(savedProduct);
+        assertEquals(1L, savedProduct.getVersion());
         verify(productRepository, times(1)).save(product);
+        verify(productSearchIndex, times(1)).index(product);
+    }
+
+    /**
+     * Tests that saveProduct replaces a product with an ID in one write, instead of saving it as new.
+     */
+    @Test
+    void saveProduct_shouldReplaceProduct_whenIdIsSet() {
+        Product product = Product.builder().id("1").name("Shirt").build();
+        Product replaced = Product.builder().id("1").name("Shirt").build();
+        replaced.setVersion(2L);
+        when(productRepository.replace(product)).thenReturn(replaced);
+
+        assertEquals(replaced, productService.saveProduct(product));
+        verify(productRepository, never()).save(any());
+        verify(productCache).invalidate("1");
+    }
+
+    /**
+     * Tests that saveProduct reports a SKU that another product already has as a conflict.
+     */
+    @Test
+    void saveProduct_shouldThrowDuplicateSku_whenSkuIsTaken() {
+        Product product = Product.builder().sku("A1").build();
+        when(productRepository.save(product)).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        assertThrows(DuplicateSkuException.class, () -> productService.saveProduct(product));
+        verify(productSearchIndex, never()).index(any());
+    }
+
+    /**
+     * Tests that patchProduct sets the given fields, unsets null fields and updates the cache and search index.
+     */
+    @Test
+    void patchProduct_shouldSetAndUnsetOnlyGivenFields() {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("price", 9.5);
+        changes.put("imageUrl", null);
+        Product patched = Product.builder().id("1").name("Shirt").price(9.5).build();
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        when(productRepository.patch(eq("1"), update.capture())).thenReturn(patched);
+
+        Product result = productService.patchProduct("1", changes);
+
+        assertEquals(patched, result);
+        assertEquals(Map.of("price", 9.5), update.getValue().getUpdateObject().get("$set"));
+        assertTrue(((Map<?, ?>) update.getValue().getUpdateObject().get("$unset")).containsKey("imageUrl"));
+        verify(productCache, times(1)).invalidate("1");
+        verify(productSearchIndex, times(1)).index(patched);
+    }
+
+    /**
+     * Tests that patchProduct rejects stock, removal of required fields and invalid values.
+     */
+    @Test
+    void patchProduct_shouldThrowException_whenPatchIsInvalid() {
+        Map<String, Object> removeName = new HashMap<>();
+        removeName.put("name", null);
+
+        assertThrows(InvalidProductUpdateException.class, () -> productService.patchProduct("1", Map.of("quantity", 5)));
+        assertThrows(InvalidProductUpdateException.class, () -> productService.patchProduct("1", removeName));
+        assertThrows(InvalidProductUpdateException.class, () -> productService.patchProduct("1", Map.of("price", -1)));
+        assertThrows(ProductNotFoundException.class, () -> productService.patchProduct("1", Map.of("name", "Shirt")));
+    }
+
+    /**
+     * Tests that changePrices applies the change and refreshes the cache and search index.
+     */
+    @Test
+    void changePrices_shouldUpdateMatchingProducts() {
+        PriceFilter filter = new PriceFilter(Map.of("brand", List.of("acme")), null, null, null);
+        when(productRepository.updatePrices(filter, 0.9, null)).thenReturn(new PriceChangeResult(3, 3));
+
+        PriceChangeResult result = productService.changePrices(filter, 0.9, null);
+
+        assertEquals(3, result.modified());
+        verify(productCache, times(1)).clear();
+        verify(productSearchIndex, times(1)).startBuild();
+    }
+
+    /**
+     * Tests that changePrices rejects an empty filter and ambiguous changes.
+     */
+    @Test
+    void changePrices_shouldThrowException_whenChangeIsInvalid() {
+        PriceFilter filter = new PriceFilter(null, List.of("SKU1"), null, null);
+
+        assertThrows(InvalidProductUpdateException.class,
+                () -> productService.changePrices(new PriceFilter(null, null, null, null), 0.9, null));
+        assertThrows(InvalidProductUpdateException.class, () -> productService.changePrices(filter, 0.9, 10.0));
+        assertThrows(InvalidProductUpdateException.class, () -> productService.changePrices(filter, 0.0, null));
+        verify(productRepository, never()).updatePrices(any(), any(), any());
+    }
+
+    /**
+     * Tests that getProductPage returns a cursor when more products follow.
+     */
+    @Test
+    void getProductPage_shouldReturnNextCursor_whenMoreProductsFollow() {
+        Product product1 = Product.builder().id("1").name("A").build();
+        Product product2 = Product.builder().id("2").name("B").build();
+        Product product3 = Product.builder().id("3").name("C").build();
+        when(productRepository.findPage(ProductSort.ID, false, null, 3))
+                .thenReturn(Arrays.asList(product1, product2, product3));
+
+        ProductPage page = productService.getProductPage(ProductSort.ID, false, null, 2);
+
+        assertEquals(List.of(product1, product2), page.products());
+        assertNotNull(page.nextCursor());
+        assertEquals("2", ProductCursor.decode(page.nextCursor(), ProductSort.ID, false).id());
+    }
+
+    /**
+     * Tests that getProductPage returns no cursor on the last page and seeks past the given cursor.
+     */
+    @Test
+    void getProductPage_shouldReturnNoCursor_onLastPage() {
+        Product last = Product.builder().id("3").name("C").price(5.0).build();
+        String cursor = ProductCursor.after(ProductSort.PRICE, true, Product.builder().id("2").price(7.5).build()).encode();
+        when(productRepository.findPage(eq(ProductSort.PRICE), eq(true), any(ProductCursor.class), eq(3)))
+                .thenReturn(List.of(last));
+
+        ProductPage page = productService.getProductPage(ProductSort.PRICE, true, cursor, 2);
+
+        assertEquals(List.of(last), page.products());
+        assertNull(page.nextCursor());
+        verify(productRepository).findPage(ProductSort.PRICE, true, new ProductCursor(ProductSort.PRICE, true, null, 7.5, "2"), 3);
+    }
+
+    /**
+     * Tests that a name cursor after a product without a name round-trips with the name still null.
+     */
+    @Test
+    void getProductPage_shouldAcceptCursorAfterProductWithoutName() {
+        String cursor = ProductCursor.after(ProductSort.NAME, false, Product.builder().id("2").build()).encode();
+        when(productRepository.findPage(eq(ProductSort.NAME), eq(false), any(ProductCursor.class), eq(3)))
+                .thenReturn(List.of());
+
+        productService.getProductPage(ProductSort.NAME, false, cursor, 2);
+
+        verify(productRepository).findPage(ProductSort.NAME, false, new ProductCursor(ProductSort.NAME, false, null, 0, "2"), 3);
+    }
+
+    /**
+     * Tests that getProductPage rejects a cursor issued for another sort.
+     */
+    @Test
+    void getProductPage_shouldThrowException_whenCursorBelongsToAnotherSort() {
+        String cursor = ProductCursor.after(ProductSort.NAME, false, Product.builder().id("1").name("A").build()).encode();
+
+        assertThrows(InvalidQueryException.class, () -> productService.getProductPage(ProductSort.PRICE, false, cursor, 2));
+        verify(productRepository, never()).findPage(any(), anyBoolean(), any(), anyInt());
+    }
+
+    /**
+     * Tests that searchProducts delegates to the text search of the repository.
+     */
+    @Test
+    void searchProducts_shouldReturnMatchingProducts() {
+        Product product = Product.builder().id("1").name("Gaming Laptop").build();
+        when(productRepository.search("laptop", 1, 20)).thenReturn(List.of(product));
+
+        List<Product> results = productService.searchProducts("laptop", 1, 20);
+
+        assertEquals(List.of(product), results);
+    }
+
+    /**
+     * Tests that searchProducts is answered by the in-memory index once it is ready.
+     */
+    @Test
+    void searchProducts_shouldUseSearchIndex_whenReady() {
+        Product product = Product.builder().id("1").name("Gaming Laptop").build();
+        when(productSearchIndex.isReady()).thenReturn(true);
+        when(productSearchIndex.search("laptop", 0, 20)).thenReturn(List.of(product));
+
+        List<Product> results = productService.searchProducts("laptop", 0, 20);
+
+        assertEquals(List.of(product), results);
+        verify(productRepository, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    /**
+     * Tests that searchProducts rejects blank terms and pages beyond the result limit.
+     */
+    @Test
+    void searchProducts_shouldThrowException_whenQueryIsInvalid() {
+        assertThrows(InvalidQueryException.class, () -> productService.searchProducts(" ", 0, 20));
+        assertThrows(InvalidQueryException.class, () -> productService.searchProducts("laptop", 50, 20));
+        verify(productRepository, never()).search(anyString(), anyInt(), anyInt());
     }
 
     /**
-     * Tests that getAllProducts returns a list of all products.
+     * Tests that filterProducts passes the filter to the repository, counting each facet once.
      */
     @Test
-    void getAllProducts_shouldReturnListOfProducts() {
-        Product product1 = new Product();
-        Product product2 = new Product();
-        List<Product> products = Arrays.asList(product1, product2);
-        when(productRepository.findAll()).thenReturn(products);
-        List<Product> retrievedProducts = productService.getAllProducts();
-        assertNotNull(retrievedProducts);
-        assertEquals(2, retrievedProducts.size());
-        verify(productRepository, times(1)).findAll();
+    void filterProducts_shouldReturnMatchingProductsAndFacets() {
+        Map<String, List<String>> filters = Map.of("color", List.of("red", "blue"));
+        FacetedProductPage page = new FacetedProductPage(
+                List.of(Product.builder().id("1").name("Red Shirt").build()), 1,
+                Map.of("size", List.of(new FacetCount("M", 1))));
+        when(productRepository.findByAttributes(filters, List.of("size"), 0, 20)).thenReturn(page);
+
+        FacetedProductPage result = productService.filterProducts(filters, List.of("size", "size"), 0, 20);
+
+        assertEquals(page, result);
+    }
+
+    /**
+     * Tests that filterProducts rejects pages beyond the result limit and too many facets.
+     */
+    @Test
+    void filterProducts_shouldThrowException_whenQueryIsInvalid() {
+        List<String> facets = List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k");
+
+        assertThrows(InvalidQueryException.class, () -> productService.filterProducts(Map.of(), List.of(), 50, 20));
+        assertThrows(InvalidQueryException.class, () -> productService.filterProducts(Map.of(), facets, 0, 20));
+        verify(productRepository, never()).findByAttributes(any(), any(), anyInt(), anyInt());
     }
 
     /**
@@ -69,11 +318,11 @@ class ProductServiceTest {
     void getProductById_shouldReturnProduct_whenFound() {
         Product product = new Product();
         product.setId("1");
-        when(productRepository.findById("1")).thenReturn(Optional.of(product));
+        when(productRepository.findByIdOnPrimary("1")).thenReturn(Optional.of(product));
         Product retrievedProduct = productService.getProductById("1");
         assertNotNull(retrievedProduct);
         assertEquals("1", retrievedProduct.getId());
-        verify(productRepository, times(1)).findById("1");
+        verify(productRepository, times(1)).findByIdOnPrimary("1");
     }
 
     /**
@@ -81,9 +330,101 @@ class ProductServiceTest {
      */
     @Test
     void getProductById_shouldThrowProductNotFoundException_whenNotFound() {
-        when(productRepository.findById("1")).thenReturn(Optional.empty());
+        when(productRepository.findByIdOnPrimary("1")).thenReturn(Optional.empty());
         assertThrows(ProductNotFoundException.class, () -> productService.getProductById("1"));
-        verify(productRepository, times(1)).findById("1");
+        verify(productRepository, times(1)).findByIdOnPrimary("1");
+    }
+
+    /**
+     * Tests that a client that sent a read-your-writes token is answered from MongoDB, not the cache.
+     */
+    @Test
+    void getProductById_shouldSkipCache_whenClientReadsAfterWrite() {
+        Product product = Product.builder().id("1").name("Shirt").build();
+        when(readYourWrites.readAfter()).thenReturn(new ReadYourWrites.Token(new BsonTimestamp(100, 1), null));
+        when(productRepository.findById("1")).thenReturn(Optional.of(product));
+        when(productRepository.findBySkuIn(List.of("A1", "B2"))).thenReturn(List.of(Product.builder().id("2").sku("B2").build()));
+
+        assertSame(product, productService.getProductById("1"));
+        assertEquals(List.of("B2"), List.copyOf(productService.getProductsBySkus(List.of("A1", "B2")).keySet()));
+        verify(productCache, never()).get(anyString(), any());
+        verify(productCache, never()).getAllBySku(anyList(), any());
+    }
+
+    /**
+     * Tests that cache misses are loaded from the primary, not with the catalog read preference.
+     */
+    @Test
+    void getProductById_shouldLoadCacheMissFromPrimary() {
+        Product product = Product.builder().id("1").name("Shirt").build();
+        when(productRepository.findByIdOnPrimary("1")).thenReturn(Optional.of(product));
+
+        assertSame(product, productService.getProductById("1"));
+        verify(productCache).get(eq("1"), any());
+        verify(productRepository, never()).findById(anyString());
+    }
+
+    /**
+     * Tests that getProductsByIds looks up each distinct ID once and leaves out missing products.
+     */
+    @Test
+    void getProductsByIds_shouldReturnFoundProducts() {
+        Product product = Product.builder().id("1").name("Shirt").build();
+        when(productRepository.findAllByIdOnPrimary(List.of("1", "2"))).thenReturn(List.of(product));
+
+        Map<String, Product> products = productService.getProductsByIds(List.of("1", " 2", "1"));
+
+        assertEquals(Map.of("1", product), products);
+        verify(productRepository, times(1)).findAllByIdOnPrimary(List.of("1", "2"));
+    }
+
+    /**
+     * Tests that getProductBySku returns the product with the SKU, and throws when there is none.
+     */
+    @Test
+    void getProductBySku_shouldReturnProduct_orThrowWhenNotFound() {
+        Product product = Product.builder().id("1").sku("A1").build();
+        when(productRepository.findBySkuInOnPrimary(List.of("A1"))).thenReturn(List.of(product));
+
+        assertEquals(product, productService.getProductBySku("A1"));
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductBySku("B1"));
+    }
+
+    /**
+     * Tests that getProductsBySkus looks up each distinct SKU once.
+     */
+    @Test
+    void getProductsBySkus_shouldReturnFoundProducts() {
+        Product product = Product.builder().id("1").sku("A1").build();
+        when(productRepository.findBySkuInOnPrimary(List.of("A1", "B1"))).thenReturn(List.of(product));
+
+        Map<String, Product> products = productService.getProductsBySkus(List.of("A1", "B1 ", "A1"));
+
+        assertEquals(Map.of("A1", product), products);
+    }
+
+    /**
+     * Tests that suggestProducts asks the search index, and rejects a blank prefix.
+     */
+    @Test
+    void suggestProducts_shouldUseSearchIndex_andRejectBlankPrefix() {
+        List<Product> suggestions = List.of(Product.builder().id("1").name("Red Shirt").build());
+        when(productSearchIndex.suggest("red", 5)).thenReturn(suggestions);
+
+        assertEquals(suggestions, productService.suggestProducts("red", 5));
+        assertThrows(InvalidQueryException.class, () -> productService.suggestProducts(" ", 5));
+    }
+
+    /**
+     * Tests that getProductsByIds rejects empty and oversized batches.
+     */
+    @Test
+    void getProductsByIds_shouldThrowException_whenBatchIsInvalid() {
+        List<String> tooMany = IntStream.range(0, 501).mapToObj(String::valueOf).toList();
+
+        assertThrows(InvalidQueryException.class, () -> productService.getProductsByIds(List.of(" ")));
+        assertThrows(InvalidQueryException.class, () -> productService.getProductsByIds(tooMany));
+        verify(productRepository, never()).findAllByIdOnPrimary(any());
     }
 
     /**
@@ -95,6 +436,8 @@ class ProductServiceTest {
         productService.deleteProduct("1");
         verify(productRepository, times(1)).existsById("1");
         verify(productRepository, times(1)).deleteById("1");
+        verify(productCache, times(1)).invalidate("1");
+        verify(productSearchIndex, times(1)).remove("1");
     }
 
     /**
@@ -0,0 +1,121 @@
+package io.github.divyesh.product.service;
+
+import io.github.divyesh.product.cache.ProductCache;
+import io.github.divyesh.product.exception.InsufficientStockException;
+import io.github.divyesh.product.exception.InvalidStockRequestException;
+import io.github.divyesh.product.exception.ProductNotFoundException;
+import io.github.divyesh.product.model.Product;
+import io.github.divyesh.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the StockService class.
+ * The conditional updates are mocked; a null result stands for a failed guard.
+ */
+class StockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @InjectMocks
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Tests that adjustStock returns the new stock and evicts the product from the cache.
+     */
+    @Test
+    void adjustStock_shouldReturnNewStock() {
+        when(productRepository.adjustStock("1", -2)).thenReturn(Product.builder().id("1").quantity(8).build());
+
+        Product product = stockService.adjustStock("1", -2);
+
+        assertEquals(8, product.getQuantity());
+        verify(productCache, times(1)).invalidate("1");
+    }
+
+    /**
+     * Tests that a failed guard is reported as insufficient stock, or as a missing product.
+     */
+    @Test
+    void adjustStock_shouldThrowException_whenGuardFails() {
+        when(productRepository.existsById("1")).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> stockService.adjustStock("1", -5));
+        assertThrows(ProductNotFoundException.class, () -> stockService.adjustStock("2", -5));
+        assertThrows(InvalidStockRequestException.class, () -> stockService.adjustStock("1", 0));
+    }
+
+    /**
+     * Tests that removing Integer.MIN_VALUE units is reported as insufficient stock, without overflowing.
+     */
+    @Test
+    void adjustStock_shouldNotOverflow_whenRemovingMinValue() {
+        when(productRepository.existsById("1")).thenReturn(true);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> stockService.adjustStock("1", Integer.MIN_VALUE));
+
+        assertTrue(exception.getMessage().contains("to remove 2147483648 units"));
+    }
+
+    /**
+     * Tests that an addition refused because the stock would overflow is reported as an invalid request.
+     */
+    @Test
+    void adjustStock_shouldThrowException_whenStockWouldOverflow() {
+        when(productRepository.existsById("1")).thenReturn(true);
+
+        assertThrows(InvalidStockRequestException.class, () -> stockService.adjustStock("1", Integer.MAX_VALUE));
+        verify(productRepository).adjustStock("1", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Tests that a reservation that fails part way releases the items already reserved.
+     */
+    @Test
+    void reserveStock_shouldReleaseReservedItems_whenAnItemFails() {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        quantities.put("1", 2);
+        quantities.put("2", 3);
+        when(productRepository.adjustStock("1", -2)).thenReturn(Product.builder().id("1").quantity(8).build());
+        when(productRepository.existsById("2")).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> stockService.reserveStock(quantities));
+
+        verify(productRepository, times(1)).adjustStock("1", 2);
+        verify(productCache, times(1)).invalidate("1");
+    }
+
+    /**
+     * Tests that a reservation of available items returns the stock of each product.
+     */
+    @Test
+    void reserveStock_shouldReturnNewStock_whenAllItemsAreAvailable() {
+        when(productRepository.adjustStock("1", -2)).thenReturn(Product.builder().id("1").quantity(8).build());
+        when(productRepository.adjustStock("2", -1)).thenReturn(Product.builder().id("2").quantity(0).build());
+
+        List<Product> products = stockService.reserveStock(Map.of("1", 2, "2", 1));
+
+        assertEquals(2, products.size());
+        verify(productRepository, never()).adjustStock(anyString(), intThat(delta -> delta > 0));
+    }
+}
@@ -5,4 +5,5 @@ include("api-gateway")
 include("product-service")
 include("config-server")
 include("user-service")
-include("order-service")
\ No newline at end of file
+include("order-service")
+include("persistence-metrics")
\ No newline at end of file